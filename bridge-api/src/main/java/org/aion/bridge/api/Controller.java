@@ -31,13 +31,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.error.ErrorController;
 import org.springframework.core.env.Environment;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @SuppressWarnings("SpringJavaAutowiredFieldsWarningInspection")
@@ -48,9 +55,18 @@ public class Controller implements ErrorController, InitializingBean {
     @Autowired
     private Model db;
 
+    @Autowired
+    private SnapshotCache snapshots;
+
+    @Autowired
+    private TransferStatusStream stream;
+
     @Autowired
     private Environment env;
 
+    @Value("${aion.bridge.bulk.max-hashes:500}")
+    private int bulkMaxHashes;
+
     private boolean isMaintenance = false;
     private static final String MAINTENANCE_PROP = "aion.bridge.maintenance";
 
@@ -85,29 +101,35 @@ public class Controller implements ErrorController, InitializingBean {
     }
 
     @RequestMapping(value = "/balance", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<DtoBridgeBalanceStatus> balance() throws JsonProcessingException {
-        Optional<DtoBridgeBalanceStatus> response = db.getBalance();
-
-        //noinspection OptionalIsPresent
-        if (!response.isPresent())
-            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
-
-        return ResponseEntity.ok()
-                .cacheControl(CacheControl.noCache())
-                .body(response.get());
+    public ResponseEntity<byte[]> balance(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshot(SnapshotCache.BALANCE, ifNoneMatch);
     }
 
     @RequestMapping(value = "/status", method = RequestMethod.GET, produces = "application/json")
-    public ResponseEntity<DtoFinalizationStatus> status() throws JsonProcessingException {
-        Optional<DtoFinalizationStatus> response = db.getFinalizationStatus();
+    public ResponseEntity<byte[]> status(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return snapshot(SnapshotCache.STATUS, ifNoneMatch);
+    }
+
+    /**
+     * Pre-serialized snapshot body, or 304 when the client already holds the current ETag.
+     */
+    private ResponseEntity<byte[]> snapshot(String key, String ifNoneMatch) {
+        Optional<SnapshotCache.Snapshot<Object>> response = snapshots.get(key);
 
-        //noinspection OptionalIsPresent
         if (!response.isPresent())
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
 
+        if (response.get().matches(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(response.get().getEtag())
+                    .build();
+
         return ResponseEntity.ok()
                 .cacheControl(CacheControl.noCache())
-                .body(response.get());
+                .eTag(response.get().getEtag())
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .body(response.get().getJson());
     }
 
     @RequestMapping(value = "/transaction", method = RequestMethod.GET, produces = "application/json")
@@ -141,7 +163,8 @@ public class Controller implements ErrorController, InitializingBean {
             return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
         }
 
-        Optional<DtoAionLatestBlock> status = db.getAionLatestBlock();
+        Optional<DtoAionLatestBlock> status = snapshots.<DtoAionLatestBlock>get(SnapshotCache.AION_LATEST)
+                .map(SnapshotCache.Snapshot::getValue);
         Optional<DtoEthTransactionState> transaction = db.getEthTransactionState(hash);
 
         //noinspection OptionalIsPresent
@@ -156,6 +179,71 @@ public class Controller implements ErrorController, InitializingBean {
                 .body(response);
     }
 
+    /**
+     * Bulk /batch: body is a json array of up to aion.bridge.bulk.max-hashes eth tx hashes, response maps each
+     * (cleaned) hash to its state.
+     */
+    @RequestMapping(value = "/transactions", method = RequestMethod.POST, consumes = "application/json", produces = "application/json")
+    public ResponseEntity<DtoBulkTransactionStatus> transactions(@RequestBody List<String> ethTxHashes) {
+        if (ethTxHashes.size() > bulkMaxHashes) {
+            log.debug("[Error] /transactions: Too many hashes: {}", ethTxHashes.size());
+            return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        // validate input
+        List<String> hashes = new ArrayList<>();
+        for (String h : ethTxHashes) {
+            String hash = Utils.cleanHexString(h);
+            if (!Utils.isValidEthTxHash(hash)) {
+                log.debug("[Error] /transactions: Bad hash: {}", h);
+                return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+            if (!hashes.contains(hash))
+                hashes.add(hash);
+        }
+
+        Optional<DtoAionLatestBlock> status = snapshots.<DtoAionLatestBlock>get(SnapshotCache.AION_LATEST)
+                .map(SnapshotCache.Snapshot::getValue);
+        Map<String, DtoEthTransactionState> transactions = db.getEthTransactionStateBulk(hashes);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(new DtoBulkTransactionStatus(transactions, status.orElse(DtoAionLatestBlock.EMPTY)));
+    }
+
+    /**
+     * Server-sent events for up to bridge.stream.max-hashes comma separated eth tx hashes; see TransferStatusStream
+     * for the events pushed. Replaces polling /batch from the UI.
+     */
+    @RequestMapping(value = "/stream", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam(required=true) String ethTxHash) {
+        List<String> hashes = new ArrayList<>();
+        for (String h : ethTxHash.split(",")) {
+            String hash = Utils.cleanHexString(h);
+            if (!Utils.isValidEthTxHash(hash)) {
+                log.debug("[Error] /stream: Bad hash: {}", h);
+                return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+            if (!hashes.contains(hash))
+                hashes.add(hash);
+        }
+
+        if (hashes.size() > stream.getMaxHashes()) {
+            log.debug("[Error] /stream: Too many hashes: {}", hashes.size());
+            return new ResponseEntity<>(HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+
+        Optional<SseEmitter> emitter = stream.subscribe(hashes);
+
+        //noinspection OptionalIsPresent
+        if (!emitter.isPresent())
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(emitter.get());
+    }
+
     @RequestMapping(value = ERROR_MAPPING)
     public ResponseEntity<String> error() {
         log.trace("Error handler triggered");
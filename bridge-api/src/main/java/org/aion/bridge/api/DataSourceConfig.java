@@ -0,0 +1,87 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and (optional) read replica connection pools. Both pools are plain Hikari beans, so the actuator binds
+ * their metrics (hikaricp.connections.*) and health checks. All api queries are reads; the JdbcTemplate goes to the
+ * replica while its replication lag is within bridge.replica.max-lag-seconds and falls back to the primary otherwise.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("bridge.replica.url")
+    @ConfigurationProperties("bridge.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${bridge.replica.url}") String url,
+                                              @Value("${bridge.replica.username}") String username,
+                                              @Value("${bridge.replica.password:}") String password) {
+        HikariDataSource ds = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        ds.setPoolName("bridge-api-replica");
+        ds.setReadOnly(true);
+        // a replica that is down at startup must not keep the api from coming up
+        ds.setInitializationFailTimeout(-1);
+        return ds;
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource,
+                                     @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                     @Value("${bridge.replica.max-lag-seconds:5}") long maxReplicaLagSeconds) {
+        DataSource replica = replicaDataSource.getIfAvailable();
+        if (replica == null)
+            return new JdbcTemplate(dataSource);
+
+        return new JdbcTemplate(new ReplicaRoutingDataSource(dataSource, replica, maxReplicaLagSeconds));
+    }
+}
@@ -53,7 +53,7 @@ public class DtoBridgeBalanceStatus {
         @Override
         public DtoBridgeBalanceStatus mapRow(ResultSet rs, int rowNum) throws SQLException {
 
-            String balance = (String) rs.getObject("aion_balance");
+            String balance = Utils.bytesToHex(rs.getBytes("aion_balance"));
             BigInteger blockNumber = (BigInteger) rs.getObject("aion_block_number");
 
             return new DtoBridgeBalanceStatus(balance, blockNumber);
@@ -0,0 +1,46 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+
+import java.util.Map;
+
+@SuppressWarnings("WeakerAccess")
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.NONE, getterVisibility = JsonAutoDetect.Visibility.PUBLIC_ONLY, setterVisibility = JsonAutoDetect.Visibility.NONE)
+public class DtoBulkTransactionStatus {
+    private final Map<String, DtoEthTransactionState> transactions;
+    private final DtoAionLatestBlock status;
+
+    public DtoBulkTransactionStatus(Map<String, DtoEthTransactionState> transactions, DtoAionLatestBlock status) {
+        this.transactions = transactions;
+        this.status = status;
+    }
+
+    public Map<String, DtoEthTransactionState> getTransactions() { return transactions; }
+    public DtoAionLatestBlock getStatus() { return status; }
+}
@@ -33,6 +33,7 @@ import org.springframework.jdbc.core.RowMapper;
 import java.math.BigInteger;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
 import java.util.Objects;
 
 @SuppressWarnings("WeakerAccess")
@@ -167,62 +168,48 @@ public class DtoEthTransactionState {
         this.ethInfo = ethInfo;
     }
 
+    // transfer_status is maintained by the nexus/standby in the same transactions as the bundle tables
     public static final String QUERY =
-            "select a.eth_tx_hash as eth_tx_hash, " +
-                    "a.bundle_id as bundle_id, " +
-                    "a.bundle_hash as eth_transfer_bundle_hash, " +
-                    "a.eth_address as eth_transfer_eth_address, " +
-                    "a.aion_address as eth_transfer_aion_address, " +
-                    "a.aion_transfer_amount as aion_transfer_amount, " +
-
-                    "b.bundle_hash as eth_finalized_bundle_hash, " +
-                    "b.eth_block_number as eth_finalized_block_number, " +
-                    "b.eth_block_hash as eth_finalized_block_hash, " +
-
-                    "c.bundle_hash as aion_finalized_bundle_hash, " +
-                    "c.aion_tx_hash as aion_finalized_tx_hash, " +
-                    "c.aion_block_number as aion_finalized_block_number, " +
-                    "c.aion_block_hash as aion_finalized_block_hash " +
-
-                    "from (select * from eth_transfer where eth_tx_hash = ?) as a " +
-                    "left join eth_finalized_bundle  as b on a.bundle_id = b.bundle_id " +
-                    "left join aion_finalized_bundle as c on a.bundle_id = c.bundle_id;";
+            "select eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, " +
+                    "eth_address, aion_address, aion_transfer_amount, " +
+                    "aion_tx_hash, aion_block_number, aion_block_hash " +
+                    "from transfer_status where eth_tx_hash = ?;";
+
+    /**
+     * QUERY for {@code count} hashes at once, one bind parameter per hash.
+     */
+    public static String queryIn(int count) {
+        return "select eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, " +
+                "eth_address, aion_address, aion_transfer_amount, " +
+                "aion_tx_hash, aion_block_number, aion_block_hash " +
+                "from transfer_status where eth_tx_hash in (" + String.join(",", Collections.nCopies(count, "?")) + ");";
+    }
 
     public static class JdbcRowMapper implements RowMapper<DtoEthTransactionState> {
         @Override
         public DtoEthTransactionState mapRow(ResultSet rs, int rowNum) throws SQLException {
 
+            String stage = rs.getString("stage");
             BigInteger bundleId = (BigInteger) rs.getObject("bundle_id");
-            String ethTxHash = rs.getString("eth_tx_hash");
-            String ethBlockHash = rs.getString("eth_finalized_block_hash");
-            BigInteger ethBlockNumber = (BigInteger) rs.getObject("eth_finalized_block_number");
-            String ethAddress = rs.getString("eth_transfer_eth_address");
-
-            String aionTransferAmount = rs.getString("aion_transfer_amount");
-            String aionAddress = rs.getString("eth_transfer_aion_address");
+            String bundleHash = Utils.bytesToHex(rs.getBytes("bundle_hash"));
+            String ethTxHash = Utils.bytesToHex(rs.getBytes("eth_tx_hash"));
+            String ethBlockHash = Utils.bytesToHex(rs.getBytes("eth_block_hash"));
+            BigInteger ethBlockNumber = (BigInteger) rs.getObject("eth_block_number");
+            String ethAddress = Utils.bytesToHex(rs.getBytes("eth_address"));
 
-            String aionFinalizedTxHash = rs.getString("aion_finalized_tx_hash");
-            BigInteger aionFinalizedBlockNumber = (BigInteger) rs.getObject("aion_finalized_block_number");
-            String aionFinalizedBlockHash = rs.getString("aion_finalized_block_hash");
+            String aionTransferAmount = Utils.bytesToHex(rs.getBytes("aion_transfer_amount"));
+            String aionAddress = Utils.bytesToHex(rs.getBytes("aion_address"));
 
-            String ethTransferBundleHash = rs.getString("eth_transfer_bundle_hash");
-            String ethFinalizedBundleHash = rs.getString("eth_finalized_bundle_hash");
-            String aionFinalizedBundleHash = rs.getString("aion_finalized_bundle_hash");
-
-            if (!ObjectUtils.allNotNull(bundleId, ethTxHash, ethBlockHash, ethBlockNumber, ethAddress, aionTransferAmount, aionAddress))
-                return UNSUPPORTED;
+            String aionTxHash = Utils.bytesToHex(rs.getBytes("aion_tx_hash"));
+            BigInteger aionBlockNumber = (BigInteger) rs.getObject("aion_block_number");
+            String aionBlockHash = Utils.bytesToHex(rs.getBytes("aion_block_hash"));
 
-            if (ethTransferBundleHash == null || !ethTransferBundleHash.equals(ethFinalizedBundleHash))
+            if (!ObjectUtils.allNotNull(stage, bundleId, bundleHash, ethTxHash, ethBlockHash, ethBlockNumber, ethAddress, aionTransferAmount, aionAddress))
                 return UNSUPPORTED;
 
-            if (aionFinalizedBundleHash != null) {
-                if (!ethTransferBundleHash.equals(aionFinalizedBundleHash)) {
-                    return UNSUPPORTED;
-                }
-            }
             EthInfo ethInfo = new EthInfo.Builder()
                     .setBundleId(bundleId)
-                    .setBundleHash(ethTransferBundleHash)
+                    .setBundleHash(bundleHash)
                     .setEthTxHash(ethTxHash)
                     .setEthBlockNumber(ethBlockNumber)
                     .setEthBlockHash(ethBlockHash)
@@ -231,11 +218,14 @@ public class DtoEthTransactionState {
                     .setAionAddress(aionAddress)
                     .build();
 
-            if (aionFinalizedTxHash != null) {
+            if (BundleState.SUBMITTED.name().equals(stage)) {
+                if (!ObjectUtils.allNotNull(aionTxHash, aionBlockNumber, aionBlockHash))
+                    return UNSUPPORTED;
+
                 AionInfo aionInfo = new AionInfo.Builder()
-                        .setAionTxHash(aionFinalizedTxHash)
-                        .setAionBlockHash(aionFinalizedBlockHash)
-                        .setAionBlockNumber(aionFinalizedBlockNumber)
+                        .setAionTxHash(aionTxHash)
+                        .setAionBlockHash(aionBlockHash)
+                        .setAionBlockNumber(aionBlockNumber)
                         .build();
 
                 return new DtoEthTransactionState(BundleState.SUBMITTED, ethInfo, aionInfo);
@@ -0,0 +1,200 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over every eth_tx_hash in transfer_status, so lookups for hashes the bridge has never seen are
+ * answered without a query. Built in bundle_id pages at startup, then extended every bridge.known-filter.refresh-ms
+ * from the rows above the highest bundle_id loaded so far. Until the first build completes mightContain() is
+ * always true.
+ */
+@Component
+public class KnownTransferFilter implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger("bridge_api");
+
+    private static final String MAX_BUNDLE_QUERY = "select max(bundle_id) from transfer_status;";
+    private static final String RANGE_QUERY =
+            "select eth_tx_hash, bundle_id from transfer_status where bundle_id >= ? and bundle_id < ?;";
+    private static final long PAGE_BUNDLES = 10_000;
+
+    @Autowired
+    private JdbcTemplate sql;
+
+    @Value("${bridge.known-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${bridge.known-filter.expected-transfers:10000000}")
+    private long expectedTransfers;
+
+    @Value("${bridge.known-filter.fpp:0.01}")
+    private double fpp;
+
+    @Value("${bridge.known-filter.refresh-ms:1000}")
+    private long refreshMs;
+
+    // bundles below the loaded maximum that are re-read on every refresh, in case a lower bundle commits late
+    @Value("${bridge.known-filter.rescan-bundles:100}")
+    private long rescanBundles;
+
+    private volatile BloomFilter filter;
+    private long nextBundleId;
+    private ScheduledExecutorService refresher;
+
+    /**
+     * Standard bloom filter sized for n elements at false positive rate p. Eth tx hashes are already uniformly
+     * distributed, so the k bit positions are derived from the hash bytes directly (double hashing).
+     */
+    static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final long capacity;
+        private long size;
+
+        BloomFilter(long n, double p) {
+            long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+            this.capacity = n;
+        }
+
+        void put(byte[] hash) {
+            ByteBuffer b = ByteBuffer.wrap(hash);
+            long h1 = b.getLong(0);
+            long h2 = b.getLong(8);
+            boolean added = false;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long w;
+                while (((w = bits.get(word)) & mask) == 0)
+                    added |= bits.compareAndSet(word, w, w | mask);
+            }
+            // re-reads of rescanned bundles set no new bits and are not counted
+            if (added)
+                size++;
+        }
+
+        boolean mightContain(byte[] hash) {
+            ByteBuffer b = ByteBuffer.wrap(hash);
+            long h1 = b.getLong(0);
+            long h2 = b.getLong(8);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        boolean isFull() { return size > capacity; }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled)
+            return;
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "known-transfer-filter");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (refresher != null)
+            refresher.shutdownNow();
+    }
+
+    /**
+     * @param hash cleaned, valid eth tx hash
+     * @return false only if the bridge has definitely not stored this transfer
+     */
+    public boolean mightContain(String hash) {
+        BloomFilter f = filter;
+        return f == null || f.mightContain(Utils.hexToBytes(hash));
+    }
+
+    private void refresh() {
+        try {
+            BloomFilter f = filter;
+            if (f == null || f.isFull()) {
+                // (re)build; on overflow double the capacity rather than let the false positive rate climb
+                long capacity = f == null ? expectedTransfers : f.capacity * 2;
+                long time = System.currentTimeMillis();
+                BloomFilter built = new BloomFilter(capacity, fpp);
+                long loaded = load(built, 0);
+                filter = built;
+                log.info("[KnownFilter] Built for {} transfers (capacity {}): {} ms", built.size, capacity,
+                        System.currentTimeMillis() - time);
+                nextBundleId = loaded;
+            } else {
+                nextBundleId = load(f, Math.max(0, nextBundleId - rescanBundles));
+            }
+        } catch (Exception e) {
+            log.error("[KnownFilter] Refresh failed", e);
+        }
+    }
+
+    /**
+     * Adds every row with bundle_id >= from.
+     * @return one past the highest bundle_id seen, or from if there were none
+     */
+    private long load(BloomFilter f, long from) {
+        Long max = sql.queryForObject(MAX_BUNDLE_QUERY, Long.class);
+        if (max == null || max < from)
+            return from;
+
+        for (long start = from; start <= max; start += PAGE_BUNDLES) {
+            sql.query(RANGE_QUERY, new Object[]{start, Math.min(start + PAGE_BUNDLES, max + 1)},
+                    (RowCallbackHandler) rs -> f.put(rs.getBytes("eth_tx_hash")));
+        }
+        return max + 1;
+    }
+}
@@ -28,35 +28,67 @@ package org.aion.bridge.api;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class Model {
 
     private Logger log = LoggerFactory.getLogger("bridge_api");
 
+    private static final int BATCH_QUERY_SIZE = 500;
+
+    // per-query jdbc timings, exported with the cache and http.server.requests metrics
+    public static final String SQL_TIMER = "bridge.sql";
+
     @Autowired
     JdbcTemplate sql;
 
     @Autowired
     private ObjectMapper jackson;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private KnownTransferFilter knownTransfers;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private void recordQuery(String query, long millis) {
+        registry.timer(SQL_TIMER, "query", query).record(millis, TimeUnit.MILLISECONDS);
+    }
+
     @Cacheable(QueryCache.TRANSACTION)
     public Optional<DtoEthTransactionState> getEthTransactionState(String hash) throws JsonProcessingException {
+        if (!knownTransfers.mightContain(hash))
+            return Optional.of(DtoEthTransactionState.NOT_FOUND);
+
         // make sql query
         long time = System.currentTimeMillis();
-        List<DtoEthTransactionState> r = sql.query(DtoEthTransactionState.QUERY, new Object[]{hash},
+        List<DtoEthTransactionState> r = sql.query(DtoEthTransactionState.QUERY, new Object[]{Utils.hexToBytes(hash)},
                 new DtoEthTransactionState.JdbcRowMapper());
         time = System.currentTimeMillis() - time;
+        recordQuery("transaction", time);
         log.debug("[SQL] Transaction State [{}]: {} ms ", StringUtils.right(hash, 10), time);
 
         // produce response
@@ -75,13 +107,77 @@ public class Model {
         return Optional.of(response);
     }
 
-    @Cacheable(QueryCache.STATUS)
+    /**
+     * Uncached lookup of many hashes with one query per BATCH_QUERY_SIZE hashes. Hashes the bridge has not picked
+     * up yet map to NOT_FOUND.
+     */
+    public Map<String, DtoEthTransactionState> getEthTransactionStates(Collection<String> hashes) {
+        Map<String, DtoEthTransactionState> response = new HashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String hash : hashes) {
+            if (knownTransfers.mightContain(hash))
+                pending.add(hash);
+            else
+                response.put(hash, DtoEthTransactionState.NOT_FOUND);
+        }
+
+        long time = System.currentTimeMillis();
+        for (int i = 0; i < pending.size(); i += BATCH_QUERY_SIZE) {
+            List<String> chunk = pending.subList(i, Math.min(i + BATCH_QUERY_SIZE, pending.size()));
+            Object[] args = chunk.stream().map(Utils::hexToBytes).toArray();
+            DtoEthTransactionState.JdbcRowMapper mapper = new DtoEthTransactionState.JdbcRowMapper();
+
+            sql.query(DtoEthTransactionState.queryIn(chunk.size()), args, (RowCallbackHandler) rs ->
+                    response.put(Utils.bytesToHex(rs.getBytes("eth_tx_hash")), mapper.mapRow(rs, rs.getRow())));
+        }
+        time = System.currentTimeMillis() - time;
+        if (!pending.isEmpty())
+            recordQuery("transactions", time);
+        log.debug("[SQL] Transaction States [{} hashes]: {} ms ", pending.size(), time);
+
+        for (String hash : pending)
+            response.putIfAbsent(hash, DtoEthTransactionState.NOT_FOUND);
+
+        return response;
+    }
+
+    /**
+     * getEthTransactionState for many hashes: served from the TRANSACTION cache where possible, the misses resolved
+     * together by getEthTransactionStates and written back to the cache. Result is in the order of {@code hashes}.
+     */
+    public Map<String, DtoEthTransactionState> getEthTransactionStateBulk(List<String> hashes) {
+        Cache cache = cacheManager.getCache(QueryCache.TRANSACTION);
+        Map<String, DtoEthTransactionState> response = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+
+        for (String hash : hashes) {
+            DtoEthTransactionState cached = cache == null ? null : cache.get(hash, DtoEthTransactionState.class);
+            response.put(hash, cached);
+            if (cached == null)
+                misses.add(hash);
+        }
+
+        if (!misses.isEmpty()) {
+            Map<String, DtoEthTransactionState> resolved = getEthTransactionStates(misses);
+            for (String hash : misses) {
+                DtoEthTransactionState state = resolved.get(hash);
+                response.put(hash, state);
+                if (cache != null)
+                    cache.put(hash, state);
+            }
+        }
+        log.debug("Transaction States: {} requested, {} from cache", hashes.size(), hashes.size() - misses.size());
+
+        return response;
+    }
+
     public Optional<DtoFinalizationStatus> getFinalizationStatus() throws JsonProcessingException {
         long time = System.currentTimeMillis();
         // make sql query
         List<DtoFinalizationStatus> r = sql.query(DtoFinalizationStatus.QUERY,
                 new DtoFinalizationStatus.JdbcRowMapper());
         time = System.currentTimeMillis() - time;
+        recordQuery("status", time);
         log.debug("[SQL] Finalization Status: {} ms ",  time);
 
         // produce response
@@ -101,13 +197,13 @@ public class Model {
         return Optional.of(response);
     }
 
-    @Cacheable(QueryCache.AION_LATEST)
     public Optional<DtoAionLatestBlock> getAionLatestBlock() throws JsonProcessingException {
         long time = System.currentTimeMillis();
         // make sql query
         List<DtoAionLatestBlock> r = sql.query(DtoAionLatestBlock.QUERY,
                 new DtoAionLatestBlock.JdbcRowMapper());
         time = System.currentTimeMillis() - time;
+        recordQuery("aion_latest", time);
         log.debug("[SQL] Aion Latest: {} ms ",  time);
 
         // produce response
@@ -127,13 +223,13 @@ public class Model {
         return Optional.of(response);
     }
 
-    @Cacheable(QueryCache.BALANCE)
     public Optional<DtoBridgeBalanceStatus> getBalance() throws JsonProcessingException {
         long time = System.currentTimeMillis();
         // make sql query
         List<DtoBridgeBalanceStatus> r = sql.query(DtoBridgeBalanceStatus.QUERY,
                 new DtoBridgeBalanceStatus.JdbcRowMapper());
         time = System.currentTimeMillis() - time;
+        recordQuery("balance", time);
         log.debug("[SQL] Balance: {} ms ",  time);
 
         // produce response
@@ -27,6 +27,7 @@
 package org.aion.bridge.api;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -42,37 +43,36 @@ import java.util.concurrent.TimeUnit;
 @EnableCaching
 public class QueryCache {
 
-    public final static String STATUS = "status";
-    public final static long STATUS_CACHE_TIMEOUT = 5;
-
-    public final static String AION_LATEST = "aion_latest";
-    public final static long AION_LATEST_CACHE_TIMEOUT = 5;
+    // the global snapshots (status, balance, aion latest block) are kept by SnapshotCache
 
     public final static String TRANSACTION = "transaction";
-    public final static long TRANSACTION_CACHE_TIMEOUT = 5;
-
-    public final static String BALANCE = "balance";
-    public final static long BALANCE_CACHE_TIMEOUT = 5;
-
     public final static String BATCH = "batch";
-    public final static long BATCH_CACHE_TIMEOUT = 5;
 
     public final static TimeUnit TIMEUNIT = TimeUnit.SECONDS;
 
+    @Value("${bridge.cache.transaction.ttl-seconds:5}")
+    private long transactionTtl;
+
+    @Value("${bridge.cache.transaction.max-size:5000}")
+    private long transactionMaxSize;
+
+    @Value("${bridge.cache.batch.ttl-seconds:5}")
+    private long batchTtl;
+
+    @Value("${bridge.cache.batch.max-size:5000}")
+    private long batchMaxSize;
+
+    // hit/miss/eviction counts are bound to the meter registry by the actuator (cache.gets, cache.evictions, ...)
+    @Value("${bridge.cache.stats-enabled:true}")
+    private boolean statsEnabled;
+
     @Bean
     public CacheManager cacheManager() {
         SimpleCacheManager cm = new SimpleCacheManager();
 
-        // TODO: hook up stats recording to configuration file
-        boolean statsEnabled = false;
-
-        //noinspection ConstantConditions
         cm.setCaches(Arrays.asList(
-                buildExpireAfterWriteCache(STATUS, STATUS_CACHE_TIMEOUT, TIMEUNIT, 10, statsEnabled),
-                buildExpireAfterWriteCache(TRANSACTION, TRANSACTION_CACHE_TIMEOUT, TIMEUNIT, 5000, statsEnabled),
-                buildExpireAfterWriteCache(BALANCE, BALANCE_CACHE_TIMEOUT, TIMEUNIT, 5000, statsEnabled),
-                buildExpireAfterWriteCache(BATCH, BATCH_CACHE_TIMEOUT, TIMEUNIT, 5000, statsEnabled),
-                buildExpireAfterWriteCache(AION_LATEST, AION_LATEST_CACHE_TIMEOUT, TIMEUNIT, 5000, statsEnabled)
+                buildExpireAfterWriteCache(TRANSACTION, transactionTtl, TIMEUNIT, transactionMaxSize, statsEnabled),
+                buildExpireAfterWriteCache(BATCH, batchTtl, TIMEUNIT, batchMaxSize, statsEnabled)
         ));
         return cm;
     }
@@ -0,0 +1,85 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import org.aion.bridge.datastore.ReplicaLagMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routes connections to the replica while its Seconds_Behind_Master is within the configured bound. The lag is
+ * probed in the background by the ReplicaLagMonitor shared with the nexus and standby, so request threads never
+ * wait on the replica; a stopped replication thread (null lag) or an unreachable replica routes everything to the
+ * primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger("bridge_api");
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor replicaLag;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagSeconds) {
+        this.primary = primary;
+        this.replicaLag = new ReplicaLagMonitor(replica, maxLagSeconds);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        targets.put(REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return replicaLag.isUsable() ? REPLICA : PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!replicaLag.isUsable())
+            return primary.getConnection();
+
+        try {
+            return super.getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica connection failed, reading from primary", e);
+            replicaLag.markUnusable();
+            return primary.getConnection();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Refresh-ahead cache for the global snapshots (/status, /balance, aion latest block). A background thread reloads
+ * each one every bridge.snapshot.refresh-ms and keeps the response pre-serialized with a content-hash ETag, so
+ * requests never wait on SQL or run Jackson. A snapshot that could not be refreshed for
+ * bridge.snapshot.max-stale-ms is no longer served.
+ */
+@Component
+public class SnapshotCache implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger("bridge_api");
+
+    public static final String STATUS = "status";
+    public static final String BALANCE = "balance";
+    public static final String AION_LATEST = "aion_latest";
+
+    public static class Snapshot<T> {
+        private final T value;
+        private final byte[] json;
+        private final String etag;
+        private final long loadedAt;
+
+        private Snapshot(T value, byte[] json) {
+            this.value = value;
+            this.json = json;
+            this.etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        public T getValue() { return value; }
+        public byte[] getJson() { return json; }
+        public String getEtag() { return etag; }
+
+        /**
+         * @param ifNoneMatch raw If-None-Match header, may be null, a list, weak or *
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null)
+                return false;
+
+            for (String tag : ifNoneMatch.split(",")) {
+                String t = tag.trim();
+                if (t.startsWith("W/"))
+                    t = t.substring(2);
+                if (t.equals("*") || t.equals(etag))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Optional<?> load() throws Exception;
+    }
+
+    @Autowired
+    private Model db;
+
+    @Autowired
+    private ObjectMapper jackson;
+
+    @Value("${bridge.snapshot.refresh-ms:1000}")
+    private long refreshMs;
+
+    @Value("${bridge.snapshot.max-stale-ms:30000}")
+    private long maxStaleMs;
+
+    private final Map<String, Loader> loaders = new ConcurrentHashMap<>();
+    private final Map<String, Snapshot<?>> snapshots = new ConcurrentHashMap<>();
+    private ScheduledExecutorService refresher;
+
+    @Override
+    public void afterPropertiesSet() {
+        loaders.put(STATUS, db::getFinalizationStatus);
+        loaders.put(BALANCE, db::getBalance);
+        loaders.put(AION_LATEST, db::getAionLatestBlock);
+
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "snapshot-refresher");
+            t.setDaemon(true);
+            return t;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshAll, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshAll() {
+        for (String key : loaders.keySet())
+            refresh(key);
+    }
+
+    private synchronized void refresh(String key) {
+        try {
+            long time = System.currentTimeMillis();
+            Optional<?> value = loaders.get(key).load();
+            if (!value.isPresent())
+                return;
+
+            Snapshot<?> previous = snapshots.get(key);
+            byte[] json = jackson.writeValueAsBytes(value.get());
+            snapshots.put(key, new Snapshot<>(value.get(), json));
+
+            time = System.currentTimeMillis() - time;
+            if (previous == null || !previous.getEtag().equals(snapshots.get(key).getEtag()))
+                log.debug("[Snapshot] {} refreshed: {} ms", key, time);
+        } catch (Exception e) {
+            // keep serving the previous snapshot until it is max-stale-ms old
+            log.error("[Snapshot] Failed to refresh " + key, e);
+        }
+    }
+
+    /**
+     * @return empty if the snapshot was never loaded or is older than max-stale-ms
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<Snapshot<T>> get(String key) {
+        Snapshot<?> s = snapshots.get(key);
+
+        // first request(s) after startup, before the refresher's first pass completes
+        if (s == null) {
+            refresh(key);
+            s = snapshots.get(key);
+        }
+
+        if (s == null || System.currentTimeMillis() - s.loadedAt > maxStaleMs)
+            return Optional.empty();
+
+        return Optional.of((Snapshot<T>) s);
+    }
+}
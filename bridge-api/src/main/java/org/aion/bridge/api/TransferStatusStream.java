@@ -0,0 +1,326 @@
+/*
+ *
+ *   This code is licensed under the MIT License
+ *
+ *   Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in all
+ *   copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *   SOFTWARE.
+ *
+ */
+
+package org.aion.bridge.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes transfer state changes to subscribed clients over server-sent events. A single poller reads the state of
+ * every subscribed hash (one batched query, however many clients are connected) plus the Aion latest block, and
+ * sends a client:
+ * <ul>
+ *     <li>{@code transaction} events when one of its transfers changes state (STORED, then SUBMITTED)</li>
+ *     <li>{@code status} events when the Aion latest block moves, from which the client derives the Aion
+ *     finalization depth of a SUBMITTED transfer, as it does with /batch</li>
+ * </ul>
+ * Events are queued per client and written by a fixed pool of sender threads, so a slow client only holds up its
+ * own events. A client whose queue fills up, or whose send has been blocked for longer than send-timeout-ms, is
+ * dropped.
+ */
+@Component
+public class TransferStatusStream implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger("bridge_api");
+
+    public static final String EVENT_TRANSACTION = "transaction";
+    public static final String EVENT_STATUS = "status";
+
+    @Autowired
+    private Model db;
+
+    @Autowired
+    private SnapshotCache snapshots;
+
+    @Value("${bridge.stream.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${bridge.stream.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Value("${bridge.stream.max-hashes:20}")
+    private int maxHashes;
+
+    @Value("${bridge.stream.max-subscriptions:10000}")
+    private int maxSubscriptions;
+
+    @Value("${bridge.stream.sender-threads:8}")
+    private int senderThreads;
+
+    @Value("${bridge.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private static final int MAX_PENDING_EVENTS = 64;
+
+    private static class Subscription {
+        final SseEmitter emitter;
+        final List<String> hashes;
+        final BlockingQueue<SseEmitter.SseEventBuilder> pending = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+        // set while a drain task for this subscription is queued or running
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long sendStartedMs;
+        // set once the subscription is dropped; the emitter is completed with it by the drain task
+        volatile Throwable dropCause;
+
+        Subscription(SseEmitter emitter, List<String> hashes) {
+            this.emitter = emitter;
+            this.hashes = hashes;
+        }
+    }
+
+    private static class Tracked {
+        final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+        volatile DtoEthTransactionState last;
+    }
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+    private final ConcurrentHashMap<String, Tracked> tracked = new ConcurrentHashMap<>();
+    private volatile DtoAionLatestBlock latest = DtoAionLatestBlock.EMPTY;
+    private ScheduledExecutorService poller;
+    private ExecutorService sender;
+
+    @Override
+    public void afterPropertiesSet() {
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "transfer-status-stream");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+
+        // at most one drain task per subscription is queued (Subscription.draining), so the queue is bounded by
+        // max-subscriptions
+        AtomicInteger senderId = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, r -> {
+            Thread t = new Thread(r, "transfer-status-sender-" + senderId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        poller.shutdownNow();
+        sender.shutdownNow();
+        for (Subscription s : subscriptions) {
+            // an emitter blocked in send holds its lock; complete() would wait on it
+            if (s.sendStartedMs == 0)
+                s.emitter.complete();
+        }
+    }
+
+    public int getMaxHashes() { return maxHashes; }
+
+    /**
+     * @param hashes validated, cleaned eth tx hashes; at most getMaxHashes()
+     * @return empty if the process is already serving max-subscriptions streams
+     */
+    public Optional<SseEmitter> subscribe(List<String> hashes) {
+        if (subscriptionCount.incrementAndGet() > maxSubscriptions) {
+            subscriptionCount.decrementAndGet();
+            return Optional.empty();
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription s = new Subscription(emitter, hashes);
+
+        emitter.onCompletion(() -> unsubscribe(s));
+        emitter.onTimeout(() -> unsubscribe(s));
+        emitter.onError(e -> unsubscribe(s));
+
+        subscriptions.add(s);
+        for (String hash : hashes)
+            tracked.computeIfAbsent(hash, h -> new Tracked()).subscribers.add(s);
+
+        // initial snapshot, so the client does not wait for the next change
+        try {
+            Map<String, DtoEthTransactionState> initial = db.getEthTransactionStates(hashes);
+            for (String hash : hashes) {
+                Tracked t = tracked.get(hash);
+                if (t != null && t.last == null)
+                    t.last = initial.get(hash);
+                enqueue(s, EVENT_TRANSACTION, new DtoTransactionAndFinalizationStatus(initial.get(hash), latest));
+            }
+        } catch (RuntimeException e) {
+            log.error("[Stream] Failed to read initial transfer states", e);
+            drop(s, e);
+        }
+
+        return Optional.of(emitter);
+    }
+
+    private void unsubscribe(Subscription s) {
+        if (!subscriptions.remove(s))
+            return;
+
+        subscriptionCount.decrementAndGet();
+
+        for (String hash : s.hashes) {
+            tracked.computeIfPresent(hash, (h, t) -> {
+                t.subscribers.remove(s);
+                return t.subscribers.isEmpty() ? null : t;
+            });
+        }
+    }
+
+    private void poll() {
+        if (subscriptions.isEmpty())
+            return;
+
+        try {
+            long time = System.currentTimeMillis();
+
+            for (Subscription s : subscriptions) {
+                long started = s.sendStartedMs;
+                if (started != 0 && time - started > sendTimeoutMs) {
+                    log.warn("[Stream] Dropping a client blocked in send for {} ms", time - started);
+                    drop(s, new TimeoutException("send blocked for " + (time - started) + " ms"));
+                }
+            }
+
+            DtoAionLatestBlock block = snapshots.<DtoAionLatestBlock>get(SnapshotCache.AION_LATEST)
+                    .map(SnapshotCache.Snapshot::getValue)
+                    .orElse(latest);
+            boolean blockMoved = !Objects.equals(block.getAion().getLatestBlockNumber(), latest.getAion().getLatestBlockNumber());
+            latest = block;
+
+            Map<String, DtoEthTransactionState> states = db.getEthTransactionStates(new ArrayList<>(tracked.keySet()));
+            int changed = 0;
+            for (Map.Entry<String, DtoEthTransactionState> e : states.entrySet()) {
+                Tracked t = tracked.get(e.getKey());
+                if (t == null)
+                    continue;
+
+                DtoEthTransactionState previous = t.last;
+                t.last = e.getValue();
+                if (previous != null && sameState(previous, e.getValue()))
+                    continue;
+
+                changed++;
+                DtoTransactionAndFinalizationStatus event = new DtoTransactionAndFinalizationStatus(e.getValue(), block);
+                for (Subscription s : t.subscribers)
+                    enqueue(s, EVENT_TRANSACTION, event);
+            }
+
+            if (blockMoved) {
+                for (Subscription s : subscriptions)
+                    enqueue(s, EVENT_STATUS, block);
+            }
+
+            time = System.currentTimeMillis() - time;
+            log.debug("[Stream] {} subscriptions, {} hashes, {} changed: {} ms", subscriptions.size(), states.size(), changed, time);
+        } catch (Exception e) {
+            // keep polling; a failed pass is retried on the next tick
+            log.error("[Stream] Poll failed", e);
+        }
+    }
+
+    private static boolean sameState(DtoEthTransactionState a, DtoEthTransactionState b) {
+        if (a.getState() != b.getState())
+            return false;
+
+        // a re-submission (after an Aion reorg) keeps the state but moves the aion tx
+        if (a.getAionInfo() == null || b.getAionInfo() == null)
+            return a.getAionInfo() == b.getAionInfo();
+
+        return Objects.equals(a.getAionInfo().getAionTxHash(), b.getAionInfo().getAionTxHash()) &&
+                Objects.equals(a.getAionInfo().getAionBlockHash(), b.getAionInfo().getAionBlockHash());
+    }
+
+    private void enqueue(Subscription s, String name, Object data) {
+        if (!s.pending.offer(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON))) {
+            // the client is not keeping up; it can reconnect and get a fresh snapshot
+            drop(s, new IllegalStateException("more than " + MAX_PENDING_EVENTS + " events pending"));
+            return;
+        }
+        scheduleDrain(s);
+    }
+
+    private void scheduleDrain(Subscription s) {
+        if (s.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(s));
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                s.draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * Sends a subscription's pending events, in order, on a sender thread. Only the drain task touches the emitter
+     * (SseEmitter's send and complete share a lock), so dropping a client blocked in send never blocks the caller.
+     */
+    private void drain(Subscription s) {
+        do {
+            SseEmitter.SseEventBuilder event;
+            while (s.dropCause == null && (event = s.pending.poll()) != null) {
+                s.sendStartedMs = System.currentTimeMillis();
+                try {
+                    s.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // client went away; the container does not always report it through onCompletion
+                    unsubscribe(s);
+                    s.dropCause = e;
+                } finally {
+                    s.sendStartedMs = 0;
+                }
+            }
+
+            if (s.dropCause != null) {
+                // draining stays set: nothing is sent on this subscription again
+                s.pending.clear();
+                s.emitter.completeWithError(s.dropCause);
+                return;
+            }
+
+            s.draining.set(false);
+            // an event offered after the last poll() saw draining still set and did not schedule a drain
+        } while (!s.pending.isEmpty() && s.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscription s, Throwable cause) {
+        unsubscribe(s);
+        if (s.dropCause == null)
+            s.dropCause = cause;
+        scheduleDrain(s);
+    }
+}
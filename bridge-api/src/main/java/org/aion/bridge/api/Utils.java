@@ -43,4 +43,29 @@ public class Utils {
     public static boolean isValidHexString(String x) {
         return x.matches("-?[0-9a-fA-F]+");
     }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Lower-case hex without prefix, the same format the v4 schema stored in its char columns.
+     */
+    public static String bytesToHex(byte[] x) {
+        if (x == null) return null;
+        char[] out = new char[x.length * 2];
+        for (int i = 0; i < x.length; i++) {
+            out[2 * i] = HEX[(x[i] >> 4) & 0xf];
+            out[2 * i + 1] = HEX[x[i] & 0xf];
+        }
+        return new String(out);
+    }
+
+    /**
+     * @param x valid hex string without prefix, of even length
+     */
+    public static byte[] hexToBytes(String x) {
+        byte[] out = new byte[x.length() / 2];
+        for (int i = 0; i < out.length; i++)
+            out[i] = (byte) Integer.parseInt(x.substring(2 * i, 2 * i + 2), 16);
+        return out;
+    }
 }
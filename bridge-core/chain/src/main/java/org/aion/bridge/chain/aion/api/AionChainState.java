@@ -0,0 +1,63 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.chain.aion.api;
+
+import org.aion.bridge.chain.aion.types.AionAddress;
+
+import javax.annotation.concurrent.Immutable;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the Aion chain state the bridge polls for: tip block number, a set of account balances, the
+ * gas price and the relayer's transaction count. Fields other than the block number can be missing if the nodes
+ * did not agree on them.
+ */
+@Immutable
+public class AionChainState {
+    private final long blockNumber;
+    private final Map<AionAddress, BigInteger> balances;
+    private final BigInteger gasPrice;
+    private final BigInteger nonce;
+    private final long createdAtMillis;
+
+    public AionChainState(long blockNumber, Map<AionAddress, BigInteger> balances, BigInteger gasPrice, BigInteger nonce) {
+        this.blockNumber = blockNumber;
+        this.balances = Collections.unmodifiableMap(new HashMap<>(balances));
+        this.gasPrice = gasPrice;
+        this.nonce = nonce;
+        this.createdAtMillis = System.currentTimeMillis();
+    }
+
+    public long getBlockNumber() { return blockNumber; }
+    public Map<AionAddress, BigInteger> getBalances() { return balances; }
+    public Optional<BigInteger> getBalance(AionAddress address) { return Optional.ofNullable(balances.get(address)); }
+    public Optional<BigInteger> getGasPrice() { return Optional.ofNullable(gasPrice); }
+    public Optional<BigInteger> getNonce() { return Optional.ofNullable(nonce); }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+}
@@ -0,0 +1,290 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.chain.aion.api;
+
+import com.google.common.base.Stopwatch;
+import org.aion.bridge.chain.aion.types.AionAddress;
+import org.aion.bridge.chain.aion.types.AionBlock;
+import org.aion.bridge.chain.aion.types.AionLog;
+import org.aion.bridge.chain.aion.types.AionReceipt;
+import org.aion.bridge.chain.base.Collector;
+import org.aion.bridge.chain.base.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.ObjectUtils.allNotNull;
+
+/**
+ * Polls the Aion chain state that the bridge's periodic tasks need (tip block number, bridge / relayer balances,
+ * gas price and the relayer nonce) with at most two JSON-RPC batches per node per tick, and publishes the result as
+ * an immutable {@link AionChainState} snapshot that consumers read without blocking.
+ * <p>
+ * The first batch reads the block number, gas price and nonce. The block number follows the same rule as
+ * {@link org.aion.bridge.chain.base.BlockNumberCollector}: the lowest value of the first quorum-sized window whose
+ * spread is within MAX_ACCEPTED_RANGE, and it never moves backwards. No snapshot is published for a tick where the
+ * block number misses quorum. The balances are then read in a second batch at that block, so that nodes a few blocks
+ * apart still agree on them and each balance is the one at the snapshot's block.
+ * <p>
+ * Every field other than the block number needs quorum nodes to return exactly the same value. A balance or nonce
+ * that misses quorum is left out of the snapshot; the gas price keeps its value from the previous snapshot.
+ */
+public class AionChainStatePoller extends Thread {
+
+    @SuppressWarnings("UnusedReturnValue")
+    public static class Builder {
+
+        // Required parameters
+        List<StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress>> connections;
+        Executor executor;
+
+        // Optional parameters
+        int quorum = 1;
+        Duration timeout = Duration.ofSeconds(5);
+        long pollInterval = 10;
+        TimeUnit pollIntervalTimeUnit = TimeUnit.SECONDS;
+        List<AionAddress> balanceAddresses = new ArrayList<>();
+        AionAddress nonceAddress = null;
+
+        public Builder setConnections(List<StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress>> x) { connections = x; return this; }
+        public Builder setExecutor(Executor x) { executor = x; return this; }
+        public Builder setQuorum(int x) { quorum = x; return this; }
+        public Builder setTimeout(Duration x) { timeout = x; return this; }
+        public Builder addBalanceAddress(AionAddress x) { balanceAddresses.add(x); return this; }
+        /**
+         * Poll the transaction count of this address, until {@link #stopPollingNonce()}.
+         */
+        public Builder setNonceAddress(AionAddress x) { nonceAddress = x; return this; }
+
+        public Builder setPollInterval(long pollInterval, TimeUnit timeUnit) {
+            this.pollInterval = pollInterval;
+            this.pollIntervalTimeUnit = timeUnit;
+            return this;
+        }
+
+        public AionChainStatePoller build() {
+            if (!allNotNull(connections, executor, timeout, pollIntervalTimeUnit))
+                throw new IllegalArgumentException("connections and executor must be non-null");
+            if (connections.size() < 1) throw new IllegalArgumentException("connections.size() < 1");
+            if (quorum < 1 || quorum > connections.size()) throw new IllegalArgumentException("quorum out of range");
+            if (timeout.isNegative()) throw new IllegalArgumentException("timeout < 0");
+            if (pollInterval < 1) throw new IllegalArgumentException("pollInterval < 1");
+
+            return new AionChainStatePoller(this);
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(AionChainStatePoller.class);
+
+    private static final int MAX_ACCEPTED_RANGE = 8;
+
+    private volatile AionChainState snapshot = null;
+    private volatile boolean shutdown = false;
+    private final CountDownLatch firstSnapshot = new CountDownLatch(1);
+
+    private final List<StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress>> connections;
+    private final Executor executor;
+    private final int quorum;
+    private final long timeoutMillis;
+    private final long pollIntervalMillis;
+    private final List<AionAddress> balanceAddresses;
+    private volatile AionAddress nonceAddress;
+
+    private AionChainStatePoller(Builder b) {
+        this.connections = Collections.unmodifiableList(new ArrayList<>(b.connections));
+        this.executor = b.executor;
+        this.quorum = b.quorum;
+        this.timeoutMillis = b.timeout.toMillis();
+        this.pollIntervalMillis = b.pollIntervalTimeUnit.toMillis(b.pollInterval);
+        this.balanceAddresses = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(b.balanceAddresses)));
+        this.nonceAddress = b.nonceAddress;
+
+        setName("aion-chain-state");
+        setDaemon(true);
+    }
+
+    /**
+     * The latest snapshot, or empty if none has been published yet or the latest one is older than a few poll
+     * intervals (i.e. the nodes have stopped agreeing on the tip), so that consumers don't act on stale state.
+     */
+    public Optional<AionChainState> getSnapshot() {
+        AionChainState s = snapshot;
+        if (s == null) return Optional.empty();
+        if (System.currentTimeMillis() - s.getCreatedAtMillis() > 3 * pollIntervalMillis + timeoutMillis)
+            return Optional.empty();
+        return Optional.of(s);
+    }
+
+    /**
+     * Stop requesting the nonce; later snapshots carry none. For callers that only need it once, e.g. to seed a
+     * relayer that tracks its own nonce from there.
+     */
+    public void stopPollingNonce() {
+        nonceAddress = null;
+    }
+
+    /**
+     * Blocks until the first snapshot is published, up to the given timeout.
+     */
+    public Optional<AionChainState> awaitSnapshot(long timeout, TimeUnit unit) throws InterruptedException {
+        firstSnapshot.await(timeout, unit);
+        return getSnapshot();
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            Stopwatch timer = Stopwatch.createStarted();
+            try {
+                poll();
+            } catch (QuorumNotAvailableException e) {
+                log.debug("Unable to reach quorum", e);
+            } catch (InterruptedException e) {
+                log.info("Interrupted via InterruptedException");
+                break;
+            }
+
+            try {
+                long remaining = pollIntervalMillis - timer.elapsed(TimeUnit.MILLISECONDS);
+                if (remaining > 0)
+                    TimeUnit.MILLISECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                log.info("Interrupted via InterruptedException");
+                break;
+            }
+        }
+
+        log.debug("Exiting gracefully ...");
+    }
+
+    public void shutdown() {
+        this.shutdown = true;
+        this.interrupt();
+        log.debug("Shutdown signal received");
+    }
+
+    private void poll() throws QuorumNotAvailableException, InterruptedException {
+        List<AionChainState> responses = Collector.batchCall(this::fetch, connections, executor, quorum,
+                timeoutMillis, TimeUnit.MILLISECONDS);
+
+        AionChainState previous = snapshot;
+
+        List<Long> blockNumbers = new ArrayList<>();
+        for (AionChainState r : responses)
+            blockNumbers.add(r.getBlockNumber());
+        Collections.sort(blockNumbers);
+
+        Long blockNumber = null;
+        for (int i = 0; i <= blockNumbers.size() - quorum; i++) {
+            if (blockNumbers.get(i + quorum - 1) - blockNumbers.get(i) > MAX_ACCEPTED_RANGE) continue;
+            blockNumber = blockNumbers.get(i);
+            break;
+        }
+
+        if (blockNumber == null) {
+            log.warn("Range in block numbers exceeds {}", MAX_ACCEPTED_RANGE);
+            return;
+        }
+        if (previous != null && previous.getBlockNumber() > blockNumber)
+            blockNumber = previous.getBlockNumber();
+
+        BigInteger gasPrice = agreed(responses, AionChainState::getGasPrice);
+        if (gasPrice == null && previous != null)
+            gasPrice = previous.getGasPrice().orElse(null);
+
+        BigInteger nonce = agreed(responses, AionChainState::getNonce);
+
+        Map<AionAddress, BigInteger> balances = balanceAddresses.isEmpty()
+                ? Collections.emptyMap()
+                : pollBalances(blockNumber);
+
+        snapshot = new AionChainState(blockNumber, balances, gasPrice, nonce);
+        firstSnapshot.countDown();
+        log.debug("Published chain state at block {}", blockNumber);
+    }
+
+    /**
+     * The balances quorum nodes agree on at the given block; a balance without quorum is left out.
+     */
+    private Map<AionAddress, BigInteger> pollBalances(long blockNumber) throws InterruptedException {
+        String blockId = "0x" + Long.toHexString(blockNumber);
+
+        List<Map<AionAddress, BigInteger>> responses;
+        try {
+            responses = Collector.batchCall(c -> fetchBalances(c, blockId), connections, executor, quorum,
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (QuorumNotAvailableException e) {
+            log.debug("Unable to reach quorum on balances at block {}", blockNumber, e);
+            return Collections.emptyMap();
+        }
+
+        Map<AionAddress, BigInteger> balances = new HashMap<>();
+        for (AionAddress address : balanceAddresses) {
+            BigInteger balance = agreed(responses, r -> Optional.ofNullable(r.get(address)));
+            if (balance != null)
+                balances.put(address, balance);
+        }
+        return balances;
+    }
+
+    private <T> BigInteger agreed(List<T> responses, Function<T, Optional<BigInteger>> field) {
+        Map<BigInteger, Integer> counts = new HashMap<>();
+        for (T r : responses)
+            field.apply(r).ifPresent(v -> counts.merge(v, 1, Integer::sum));
+
+        for (Map.Entry<BigInteger, Integer> e : counts.entrySet())
+            if (e.getValue() >= quorum) return e.getKey();
+        return null;
+    }
+
+    private AionChainState fetch(StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> c)
+            throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException {
+        AionAddress nonceAddress = this.nonceAddress;
+        if (c instanceof AionJsonRpcConnection)
+            return ((AionJsonRpcConnection) c).getChainState(nonceAddress);
+
+        return new AionChainState(c.getBlockNumber(), Collections.emptyMap(), c.getGasPrice(),
+                nonceAddress != null ? c.getNonce(nonceAddress) : null);
+    }
+
+    private Map<AionAddress, BigInteger> fetchBalances(StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> c,
+                                                       String blockId)
+            throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException {
+        if (c instanceof AionJsonRpcConnection)
+            return ((AionJsonRpcConnection) c).getBalances(balanceAddresses, blockId);
+
+        Map<AionAddress, BigInteger> balances = new HashMap<>();
+        for (AionAddress address : balanceAddresses)
+            balances.put(address, c.getBalance(address, blockId));
+        return balances;
+    }
+}
@@ -29,7 +29,9 @@ import org.aion.bridge.chain.aion.rpc.dto.*;
 import org.aion.bridge.chain.aion.types.*;
 import org.aion.bridge.chain.base.api.*;
 import org.aion.bridge.chain.base.rpc.JsonRpcError;
+import org.aion.bridge.chain.base.rpc.JsonRpcRequest;
 import org.aion.bridge.chain.base.rpc.dto.GetBlockByNumber;
+import org.aion.bridge.chain.base.rpc.dto.GetBlockNumber;
 import org.aion.bridge.chain.base.rpc.dto.GetTransactionReceipt;
 import org.aion.bridge.chain.base.types.BlockWithReceipts;
 import org.aion.bridge.chain.base.types.ImmutableBytes;
@@ -234,6 +236,126 @@ public class AionJsonRpcConnection extends JsonRpcConnectionBase<AionBlock, Aion
         return contractCall(address, abi, "latest");
     }
 
+    @Override
+    public List<String> contractCalls(AionAddress address, List<ImmutableBytes> abis, String blockId)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+        if (abis.isEmpty())
+            return Collections.emptyList();
+
+        // request ids are the list indices, since batch responses can come back in any order
+        List<CallContract.Request> requests = new ArrayList<>(abis.size());
+        for (int i = 0; i < abis.size(); i++)
+            requests.add(new CallContract.Request(address, abis.get(i), blockId == null ? "latest" : blockId, i));
+
+        List<CallContract.Response> responses = provider.sendBatch(requests, CallContract.Response.class);
+        if (responses.size() != requests.size())
+            throw new MalformedApiResponseException("method=[contractCalls] Missing responses (count mismatch)");
+
+        String[] results = new String[requests.size()];
+        for (CallContract.Response r : responses) {
+            if (r == null || r.getError() != null)
+                throw new MalformedApiResponseException("contractCalls response null or in-error");
+            if (r.getId() < 0 || r.getId() >= results.length || results[r.getId()] != null)
+                throw new MalformedApiResponseException("method=[contractCalls] Unexpected response id " + r.getId());
+
+            results[r.getId()] = r.getResult();
+        }
+
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<Optional<AionReceipt>> getReceipts(List<Word32> transactionHashes)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+        if (transactionHashes.isEmpty())
+            return Collections.emptyList();
+
+        List<GetTransactionReceiptOps.Request> requests = new ArrayList<>(transactionHashes.size());
+        for (int i = 0; i < transactionHashes.size(); i++)
+            requests.add(new GetTransactionReceiptOps.Request(transactionHashes.get(i), i));
+
+        List<GetTransactionReceiptOps.Response> responses =
+                provider.sendBatch(requests, GetTransactionReceiptOps.Response.class);
+        if (responses.size() != requests.size())
+            throw new MalformedApiResponseException("method=[getReceipts] Missing responses (count mismatch)");
+
+        List<Optional<AionReceipt>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        for (GetTransactionReceiptOps.Response r : responses) {
+            if (r == null || r.getError() != null)
+                throw new MalformedApiResponseException("getReceipts response null or in-error");
+            if (r.getId() < 0 || r.getId() >= results.size() || results.get(r.getId()) != null)
+                throw new MalformedApiResponseException("method=[getReceipts] Unexpected response id " + r.getId());
+
+            // we can get null receipts for a transaction hash
+            GetTransactionReceipt.TransactionReceiptJson receiptJson = r.getTransactionReceipt();
+            results.set(r.getId(), receiptJson == null ? Optional.empty() : Optional.of(receiptFromResponseType(receiptJson)));
+        }
+
+        return results;
+    }
+
+    /**
+     * This node's view of the chain state, in one JSON-RPC batch: block number, gas price and the transaction count
+     * of {@code nonceAddress} (if non-null). Balances are read separately, at an agreed block (see getBalances).
+     */
+    public AionChainState getChainState(AionAddress nonceAddress)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+        final int blockNumberId = 0;
+        final int gasPriceId = 1;
+        final int nonceId = 2;
+
+        List<JsonRpcRequest> requests = new ArrayList<>();
+        requests.add(new GetBlockNumber.Request(blockNumberId));
+        requests.add(new GetGasPrice.Request(gasPriceId));
+        if (nonceAddress != null)
+            requests.add(new GetTransactionCount.Request(nonceAddress, "latest", nonceId));
+
+        Map<Integer, BigInteger> results = sendQuantityBatch(requests, "getChainState");
+
+        if (!results.containsKey(blockNumberId) || !results.containsKey(gasPriceId) ||
+                (nonceAddress != null && !results.containsKey(nonceId)))
+            throw new MalformedApiResponseException("method=[getChainState] Unexpected response ids");
+
+        return new AionChainState(results.get(blockNumberId).longValueExact(), Collections.emptyMap(),
+                results.get(gasPriceId), nonceAddress != null ? results.get(nonceId) : null);
+    }
+
+    /**
+     * Balances of all the addresses at one block, in a single JSON-RPC batch.
+     */
+    public Map<AionAddress, BigInteger> getBalances(List<AionAddress> addresses, String blockId)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+        List<JsonRpcRequest> requests = new ArrayList<>();
+        for (int i = 0; i < addresses.size(); i++)
+            requests.add(new GetBalance.Request(addresses.get(i), blockId, i));
+
+        Map<Integer, BigInteger> results = sendQuantityBatch(requests, "getBalances");
+
+        Map<AionAddress, BigInteger> balances = new HashMap<>();
+        for (int i = 0; i < addresses.size(); i++) {
+            if (!results.containsKey(i))
+                throw new MalformedApiResponseException("method=[getBalances] Unexpected response ids");
+            balances.put(addresses.get(i), results.get(i));
+        }
+        return balances;
+    }
+
+    private Map<Integer, BigInteger> sendQuantityBatch(List<JsonRpcRequest> requests, String method)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+        List<GetQuantity.Response> responses = provider.sendBatch(requests, GetQuantity.Response.class);
+        if (responses.size() != requests.size())
+            throw new MalformedApiResponseException("method=[" + method + "] Missing responses (count mismatch)");
+
+        Map<Integer, BigInteger> results = new HashMap<>();
+        for (GetQuantity.Response r : responses) {
+            if (r == null || r.getError() != null || r.getResult() == null)
+                throw new MalformedApiResponseException(method + " response null or in-error");
+            if (results.put(r.getId(), r.getNumericalValue().toBigInteger()) != null)
+                throw new MalformedApiResponseException("method=[" + method + "] Duplicate response id " + r.getId());
+        }
+        return results;
+    }
+
     @Override
     public BigInteger getBalance(AionAddress address, String blockId)
             throws IncompleteApiCallException, MalformedApiResponseException {
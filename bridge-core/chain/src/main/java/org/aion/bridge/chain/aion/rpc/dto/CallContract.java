@@ -57,7 +57,14 @@ public class CallContract {
         }
 
         public Request(Address address, ImmutableBytes abi, String blockId) {
-            super("eth_call");
+            this(address, abi, blockId, 0);
+        }
+
+        /**
+         * @param id distinguishes the responses of a batch, which may come back in any order
+         */
+        public Request(Address address, ImmutableBytes abi, String blockId, int id) {
+            super("eth_call", id);
             params = new Object[2];
             params[0] = new Payload(address.toStringWithPrefix(), abi.toStringWithPrefix());
             params[1] = blockId;
@@ -41,7 +41,11 @@ public class GetBalance {
         }
 
         public Request(AionAddress address, String blockId) {
-            super("eth_getBalance");
+            this(address, blockId, 0);
+        }
+
+        public Request(AionAddress address, String blockId, int id) {
+            super("eth_getBalance", id);
             this.params = new String[2];
             this.params[0] = address.toStringWithPrefix();
             this.params[1] = blockId;
@@ -38,7 +38,11 @@ public class GetGasPrice {
     public static class Request extends JsonRpcRequest {
 
         public Request(){
-            super("eth_gasPrice");
+            this(0);
+        }
+
+        public Request(int id){
+            super("eth_gasPrice", id);
         }
     }
 
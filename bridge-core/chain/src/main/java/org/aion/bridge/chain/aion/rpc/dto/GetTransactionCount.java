@@ -40,7 +40,11 @@ public class GetTransactionCount {
         private String[] params;
 
         public Request(@Nonnull final Word32 address, @Nonnull final Object value) {
-            super("eth_getTransactionCount");
+            this(address, value, 0);
+        }
+
+        public Request(@Nonnull final Word32 address, @Nonnull final Object value, int id) {
+            super("eth_getTransactionCount", id);
 
             this.params = new String[2];
             this.params[0] = address.toStringWithPrefix();
@@ -38,7 +38,11 @@ public class GetTransactionReceiptOps {
         private String[] params;
 
         public Request(Word32 transactionHash) {
-            super("ops_getTransactionReceiptByTransactionHash");
+            this(transactionHash, 0);
+        }
+
+        public Request(Word32 transactionHash, int id) {
+            super("ops_getTransactionReceiptByTransactionHash", id);
             this.params = new String[1];
             this.params[0] = transactionHash.toStringWithPrefix();
         }
@@ -101,6 +101,12 @@ public class ConsolidatedChainConnection<B extends Block, R extends Receipt<L>,
         return batchCall(c -> c.getBlocksRangeClosed(start, end));
     }
 
+    @Override
+    public List<B> getBlocks(List<Long> blockNumbers)
+            throws QuorumNotAvailableException, InterruptedException {
+        return batchCall(c -> c.getBlocks(blockNumbers));
+    }
+
     @Override
     public List<BlockWithReceipts<B, R, L>> getReceiptsForBlocks(List<B> blocks)
             throws QuorumNotAvailableException, InterruptedException {
@@ -148,6 +154,18 @@ public class ConsolidatedChainConnection<B extends Block, R extends Receipt<L>,
         return contractCall(address, abi, "latest");
     }
 
+    @Override
+    public List<String> contractCalls(A address, List<ImmutableBytes> abis, String blockId)
+            throws QuorumNotAvailableException, InterruptedException {
+        return batchCall(c -> c.contractCalls(address, abis, blockId));
+    }
+
+    @Override
+    public List<Optional<R>> getReceipts(List<Word32> transactionHashes)
+            throws QuorumNotAvailableException, InterruptedException {
+        return batchCall(c -> c.getReceipts(transactionHashes));
+    }
+
 
     @Override
     public void evictConnections() {
@@ -195,4 +195,49 @@ public abstract class JsonRpcConnectionBase<B extends Block, R extends Receipt<L
         blocks.sort(ChainLink::compareTo);
         return blocks;
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<B> getBlocks(List<Long> blockNumbers)
+            throws IncompleteApiCallException, MalformedApiResponseException {
+
+        if (blockNumbers.isEmpty())
+            return new ArrayList<>();
+
+        List<GetBlockByNumber.Request> requests = new ArrayList<>(blockNumbers.size());
+        for (Long n : blockNumbers)
+            requests.add(new GetBlockByNumber.Request(BigInteger.valueOf(n)));
+
+        log.trace("url=[{}] method=[getBlocks] Query for [{}] blocks", provider.getUrl(), requests.size());
+
+        List<GetBlockByNumber.Response> blockJsonList = provider.sendBatch(requests, GetBlockByNumber.Response.class);
+
+        if (blockJsonList.size() != requests.size()) {
+            log.error("url=[{}] method=[getBlocks] Response is missing blocks; expected=[{}] observed=[{}]",
+                    provider.getUrl(), requests.size(), blockJsonList.size());
+
+            throw new MalformedApiResponseException("method=[getBlocks] Missing blocks in response (count mismatch)");
+        }
+
+        // batch responses may come back in any order, so match them up by block number
+        Map<Long, B> byNumber = new HashMap<>();
+        for (GetBlockByNumber.Response r : blockJsonList) {
+            if (r == null || r.getError() != null || r.getResult() == null) {
+                log.error("url=[{}] method=[getBlocks] Block not available or in-error", provider.getUrl());
+                throw new MalformedApiResponseException("method=[getBlocks] Block not available or in-error");
+            }
+
+            B block = blockFromResponseType(r.getResult());
+            byNumber.put(block.getNumber(), block);
+        }
+
+        List<B> blocks = new ArrayList<>(blockNumbers.size());
+        for (Long n : blockNumbers) {
+            B block = byNumber.get(n);
+            if (block == null)
+                throw new MalformedApiResponseException("method=[getBlocks] Block #" + n + " missing from response");
+            blocks.add(block);
+        }
+
+        return blocks;
+    }
+}
@@ -27,6 +27,9 @@ package org.aion.bridge.chain.base.api;
 import org.aion.bridge.chain.base.types.*;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Right now we only use stateless clients (http api's) for connecting to blockchains.
@@ -59,6 +62,30 @@ public interface StatelessChainConnection<B extends Block, R extends Receipt<L>,
     String contractCall(A address, ImmutableBytes abi)
             throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException;
 
+    /**
+     * contractCall for each of abis against the same block; result i belongs to abis.get(i). Clients that support
+     * JSON-RPC batching send them as one batch.
+     */
+    default List<String> contractCalls(A address, List<ImmutableBytes> abis, String blockId)
+            throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException {
+        List<String> result = new ArrayList<>(abis.size());
+        for (ImmutableBytes abi : abis)
+            result.add(contractCall(address, abi, blockId));
+        return result;
+    }
+
+    /**
+     * getReceipt for each of transactionHashes; result i belongs to transactionHashes.get(i). Clients that support
+     * JSON-RPC batching send them as one batch.
+     */
+    default List<Optional<R>> getReceipts(List<Word32> transactionHashes)
+            throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException {
+        List<Optional<R>> result = new ArrayList<>(transactionHashes.size());
+        for (Word32 hash : transactionHashes)
+            result.add(getReceipt(hash));
+        return result;
+    }
+
     BigInteger getBalance(A address, String blockId)
             throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException;
 
@@ -27,6 +27,7 @@ package org.aion.bridge.chain.base.api;
 
 import org.aion.bridge.chain.base.types.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,6 +56,23 @@ public interface StatelessChainConnectionBase<B extends Block, R extends Receipt
     List<B> getBlocksRangeClosed(long start, long end)
             throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException;
 
+    /**
+     * getBlocksRangeClosed for an arbitrary (not necessarily contiguous) set of block numbers; result i belongs to
+     * blockNumbers.get(i). Clients that support JSON-RPC batching send them as one batch.
+     * throws MalformedApiResponseException if full data requested not found.
+     */
+    default List<B> getBlocks(List<Long> blockNumbers)
+            throws IncompleteApiCallException, MalformedApiResponseException, QuorumNotAvailableException, InterruptedException {
+        List<B> result = new ArrayList<>(blockNumbers.size());
+        for (Long n : blockNumbers) {
+            Optional<B> block = getBlock(n);
+            if (!block.isPresent())
+                throw new MalformedApiResponseException("method=[getBlocks] Block #" + n + " not available");
+            result.add(block.get());
+        }
+        return result;
+    }
+
     /**
      * throws MalformedApiResponseException if full data requested not found.
      * returns a result sorted in ascending order by block number
@@ -0,0 +1,111 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.chain.base.oracle;
+
+import org.aion.bridge.chain.base.types.Block;
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.base.types.Word32;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded, in-memory window of the most recently published headers (number, hash, parent hash), oldest first.
+ * <p>
+ * Used by the {@link ChainOracle} to locate the fork point of a re-org without going back to the history: the
+ * window is always a contiguous chain ending at the history head, so the fork point is the last header in it that
+ * is still part of the canonical chain.
+ */
+@NotThreadSafe
+class ChainHeaderWindow {
+
+    static class Header extends ChainLink {
+        private final Word32 parentHash;
+
+        Header(long number, Word32 hash, Word32 parentHash) {
+            super(number, hash);
+            this.parentHash = parentHash;
+        }
+
+        Word32 getParentHash() { return parentHash; }
+    }
+
+    private final int capacity;
+    private final Deque<Header> headers;
+
+    ChainHeaderWindow(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity < 1");
+        this.capacity = capacity;
+        this.headers = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Make sure the window ends at the history head; if it doesn't (first run, or history moved without us), start
+     * over from the head. The parent hash of the head is not known at this point, so it is left empty.
+     */
+    void anchor(ChainLink historyHead) {
+        Header latest = headers.peekLast();
+        if (latest != null && latest.getNumber() == historyHead.getNumber() && latest.getHash().equals(historyHead.getHash()))
+            return;
+
+        headers.clear();
+        headers.addLast(new Header(historyHead.getNumber(), historyHead.getHash(), null));
+    }
+
+    /**
+     * Append a block published to history; a block that does not connect to the current window resets it.
+     */
+    void append(Block b) {
+        Header latest = headers.peekLast();
+        if (latest != null && (latest.getNumber() + 1 != b.getNumber() || !latest.getHash().equals(b.getParentHash())))
+            headers.clear();
+
+        if (headers.size() == capacity)
+            headers.removeFirst();
+
+        headers.addLast(new Header(b.getNumber(), b.getHash(), b.getParentHash()));
+    }
+
+    /**
+     * Drop every header above the given block number (after history was rolled back to it).
+     */
+    void truncateAbove(long number) {
+        Iterator<Header> it = headers.descendingIterator();
+        while (it.hasNext() && it.next().getNumber() > number)
+            it.remove();
+    }
+
+    List<Header> snapshot() {
+        return new ArrayList<>(headers);
+    }
+
+    int size() {
+        return headers.size();
+    }
+}
@@ -33,5 +33,12 @@ import org.aion.bridge.chain.db.PersistenceServiceException;
 public interface ChainHistory<B extends Block, R extends Receipt<L>, L extends Log> {
     ChainLink getLatestBlock() throws PersistenceServiceException, InterruptedException;
     void reorganize(ChainLink historyHead, long chainHead, B chainAtHistoryHead);
+
+    /**
+     * Roll the history back to {@code forkPoint}, a block it has already published that is still on the canonical
+     * chain, so the oracle can resume from there after a shallow re-org. Implementations throw if anything derived
+     * from the orphaned blocks has already left the history and cannot be taken back.
+     */
+    void rollback(ChainLink forkPoint) throws PersistenceServiceException, InterruptedException;
     void publish(ChainOracleResultset<B, R, L> rs) throws PersistenceServiceException, InterruptedException;
 }
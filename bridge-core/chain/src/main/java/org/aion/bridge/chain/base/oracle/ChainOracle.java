@@ -71,6 +71,8 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
     private final BlockNumberCollector<B, R, L, A> blockNumberCollector;
     private final EventFilter filter;
     private final ChainHistory<B, R, L> history;
+    private final ChainHeaderWindow window;
+    private final ChainRangeScanner<B, R, L, A> rangeScanner;
     private final Logger log;
 
     private final int tipDistance;
@@ -96,6 +98,7 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
         haltDelayTimeUnit = b.haltDelayTimeUnit;
 
         history = b.history;
+        window = new ChainHeaderWindow(b.reorgWindowSize);
         eventBus = new ChainOracleEventBus<>();
         blockNumberCollector = b.blockNumberCollector;
         if (b.log == null) {
@@ -103,6 +106,7 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
         } else {
             log = b.log;
         }
+        rangeScanner = b.catchUpConnections != null ? new ChainRangeScanner<>(b, log) : null;
 
         LoggingSetup.setupLogging();
     }
@@ -113,19 +117,83 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
         return eventBus;
     }
 
-    // just delegate the reorganization responsibilities to the history object
+    /**
+     * Find the fork point within the header window and roll history back to it; if the fork is older than the
+     * window, delegate the reorganization responsibilities to the history object.
+     */
     private void reorganize(ChainLink historyHead, long chainHead)
+            throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException,
+            PersistenceServiceException {
+        Optional<ChainLink> forkPoint = findForkPoint();
+
+        if (!forkPoint.isPresent()) {
+            log.error("ChainOracle: Re-org deeper than the header window ({} blocks) below #{}", window.size(), historyHead.getNumber());
+            Optional<B> chainAtHistoryHead = chain.getBlock(historyHead.getNumber());
+            history.reorganize(historyHead, chainHead, chainAtHistoryHead.orElse(null));
+            return;
+        }
+
+        if (forkPoint.get().getNumber() == historyHead.getNumber()) {
+            log.warn("ChainOracle: History head #{} is still canonical, chain head at #{}", historyHead.getNumber(), chainHead);
+            return;
+        }
+
+        log.warn("ChainOracle: Re-org detected, rolling history back from #{} to fork point #{} ({})",
+                historyHead.getNumber(), forkPoint.get().getNumber(), forkPoint.get().getHash());
+
+        history.rollback(forkPoint.get());
+        window.truncateAbove(forkPoint.get().getNumber());
+    }
+
+    /**
+     * Binary search over the header window for the most recent header still on the canonical chain. Headers below
+     * the fork point all match the chain and headers above it don't, so this takes log2(window) getBlock calls.
+     */
+    private Optional<ChainLink> findForkPoint()
             throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException {
-        Optional<B> chainAtHistoryHead = chain.getBlock(historyHead.getNumber());
-        history.reorganize(historyHead, chainHead, chainAtHistoryHead.orElse(null));
+        List<ChainHeaderWindow.Header> headers = window.snapshot();
+
+        int lo = 0;
+        int hi = headers.size() - 1;
+        ChainLink forkPoint = null;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            ChainHeaderWindow.Header h = headers.get(mid);
+            Optional<B> canonical = chain.getBlock(h.getNumber());
+
+            if (canonical.isPresent() && canonical.get().getHash().equals(h.getHash())) {
+                forkPoint = h;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        return Optional.ofNullable(forkPoint);
     }
 
     @Override
     public void run() {
+        if (rangeScanner != null) {
+            try {
+                rangeScanner.catchUp();
+            } catch (InterruptedException e) {
+                log.info("Interrupted via InterruptedException during catch-up, exiting");
+                Thread.currentThread().interrupt();
+                return;
+            } catch (PersistenceServiceException e) {
+                log.error("Caught a PersistenceServiceException during catch-up. Crashing the process.");
+                throw new RuntimeException(e);
+            }
+        }
+
         int errAccumulator = 0;
         while (!shutdown && errAccumulator < MAX_CONSECUTIVE_ERR) {
             try {
                 ChainLink historyHead = history.getLatestBlock();
+                window.anchor(historyHead);
+
                 Optional<Long> latestBlockNumber = blockNumberCollector.getLatestBlockNumber();
 
                 if (!latestBlockNumber.isPresent()) {
@@ -141,7 +209,7 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
                     continue;
                 } else if (chainHead < historyHead.getNumber()) {
                     // case where the latest chain block < the block we've previously broadcast
-                    log.error("ChainOracle: ");
+                    log.warn("ChainOracle: Chain head #{} behind history head #{}", chainHead, historyHead.getNumber());
                     reorganize(historyHead, chainHead);
                     TimeUnit.MILLISECONDS.sleep(EXCEPTION_DELAY_MS);
                     continue;
@@ -192,6 +260,9 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
                 // publish the result-set to be added to history
                 history.publish(rs);
 
+                for (BlockWithReceipts<B, R, L> b : rs.getAllBlocks())
+                    window.append(b.getBlock());
+
                 // reset error accumulator since all went well
                 errAccumulator = 0;
 
@@ -209,15 +280,17 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
                     }
                     TimeUnit.MILLISECONDS.sleep(EXCEPTION_DELAY_MS);
                 } catch (InterruptedException f) {
-                    log.info("Interrupted via InterruptedException");
-                    throw new RuntimeException(e.getCause());
+                    log.info("Interrupted via InterruptedException, exiting");
+                    Thread.currentThread().interrupt();
+                    return;
                 }
 
                 errAccumulator++;
                 log.error("Caught recoverable exception. Retrying ...", e);
             } catch (InterruptedException e) {
-                log.info("Interrupted via InterruptedException");
-                throw new RuntimeException(e.getCause());
+                log.info("Interrupted via InterruptedException, exiting");
+                Thread.currentThread().interrupt();
+                return;
             } catch (PersistenceServiceException e) {
                 // crash the process, since we can't recover from a persistence exception
                 log.error("Caught a PersistenceServiceException. Crashing the process.");
@@ -328,6 +401,7 @@ public class ChainOracle<B extends Block, R extends Receipt<L>, L extends Log, A
 
     public void shutdown() {
         this.shutdown = true;
+        if (rangeScanner != null) rangeScanner.shutdown();
         log.debug("ChainOracle - shutdown signal received");
     }
 
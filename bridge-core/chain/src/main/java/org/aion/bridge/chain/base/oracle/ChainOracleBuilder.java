@@ -29,6 +29,7 @@ import org.aion.bridge.chain.base.api.StatelessChainConnection;
 import org.aion.bridge.chain.base.types.*;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang3.ObjectUtils.allNotNull;
@@ -44,8 +45,15 @@ public class ChainOracleBuilder<B extends Block, R extends Receipt<L>, L extends
     int tipDistance = 128;
     int blockBatchSize = 100;
     int receiptBatchSize = 500;
+    int reorgWindowSize = 256;
     Logger log = null;
 
+    // Catch-up mode, see ChainRangeScanner; disabled unless connections are set
+    List<StatelessChainConnection<B, R, L, A>> catchUpConnections = null;
+    int catchUpSegmentSize = 2000;
+    Integer catchUpParallelism = null;
+    long catchUpDistance = 10_000;
+
     long haltDelay = 5;
     TimeUnit haltDelayTimeUnit = TimeUnit.SECONDS;
 
@@ -66,6 +74,32 @@ public class ChainOracleBuilder<B extends Block, R extends Receipt<L>, L extends
         return this;
     }
 
+    public ChainOracleBuilder<B, R, L, A> setReorgWindowSize(Integer x) {
+        if (x != null && x > 0) reorgWindowSize = x;
+        return this;
+    }
+
+    /**
+     * Enable the catch-up mode: before tailing, scan the history range in parallel segments across the given
+     * (individual, non-consolidated) connections.
+     */
+    public ChainOracleBuilder<B, R, L, A> setCatchUpConnections(List<StatelessChainConnection<B, R, L, A>> x) {
+        if (x != null && !x.isEmpty()) catchUpConnections = x;
+        return this;
+    }
+    public ChainOracleBuilder<B, R, L, A> setCatchUpSegmentSize(Integer x) {
+        if (x != null && x > 0) catchUpSegmentSize = x;
+        return this;
+    }
+    public ChainOracleBuilder<B, R, L, A> setCatchUpParallelism(Integer x) {
+        if (x != null && x > 0) catchUpParallelism = x;
+        return this;
+    }
+    public ChainOracleBuilder<B, R, L, A> setCatchUpDistance(Long x) {
+        if (x != null && x >= 0) catchUpDistance = x;
+        return this;
+    }
+
     public ChainOracle<B, R, L, A> build() {
         if (allNotNull(connection, filter, history, blockNumberCollector))
             return new ChainOracle<>(this);
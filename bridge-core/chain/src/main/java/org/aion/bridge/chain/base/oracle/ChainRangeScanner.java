@@ -0,0 +1,327 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.chain.base.oracle;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.aion.bridge.chain.base.BlockNumberCollector;
+import org.aion.bridge.chain.base.BlockProcessor;
+import org.aion.bridge.chain.base.BlockProcessorMissingReceiptsException;
+import org.aion.bridge.chain.base.api.IncompleteApiCallException;
+import org.aion.bridge.chain.base.api.MalformedApiResponseException;
+import org.aion.bridge.chain.base.api.QuorumNotAvailableException;
+import org.aion.bridge.chain.base.api.StatelessChainConnection;
+import org.aion.bridge.chain.base.types.*;
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.slf4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Catch-up mode for the {@link ChainOracle}: while the history is far behind the chain head, the range
+ * [history head + 1, chain head - tip distance] is split into fixed-size segments which are scanned concurrently,
+ * each on one of the configured nodes (segments are spread round-robin, a failed segment moves on to the next node).
+ * <p>
+ * A single node only supplies the headers. Before a segment is staged, its first and last headers must equal the ones
+ * the oracle's quorum connection returns for those heights; the segment is checked to be one hash-linked chain, so
+ * that pins every header in between. Receipts for the blocks whose bloom matches the filter are read through the
+ * quorum connection, as the oracle reads them when tailing. A node that disagrees with the quorum fails the segment,
+ * which then moves on to the next node.
+ * <p>
+ * Segments finish out of order, so each one is staged in memory until all the segments before it have been
+ * published; the history then receives them strictly in block order. Only the blocks that carry transactions-of-interest
+ * are staged, plus the first and last block of the segment so the history can check that the segment connects to
+ * what it already has and record where it got to. The parent hash of each segment is checked against the last block
+ * of the segment published before it; a mismatch (the nodes disagree, or the chain re-organized below the tip
+ * distance while we were scanning) drops everything staged and starts over from the history head.
+ * <p>
+ * Returns once the history is within the catch-up distance of the head; the oracle tails from there as usual.
+ */
+class ChainRangeScanner<B extends Block, R extends Receipt<L>, L extends Log, A extends Address> {
+
+    private final List<StatelessChainConnection<B, R, L, A>> connections;
+    private final StatelessChainConnection<B, R, L, A> quorumChain;
+    private final BlockNumberCollector<B, R, L, A> blockNumberCollector;
+    private final EventFilter filter;
+    private final ChainHistory<B, R, L> history;
+    private final Logger log;
+
+    private final int tipDistance;
+    private final int blockBatchSize;
+    private final int receiptBatchSize;
+    private final int segmentSize;
+    private final int parallelism;
+    private final long catchUpDistance;
+
+    private static final int MAX_SEGMENT_ATTEMPTS_PER_NODE = 3;
+    private static final int MAX_RESTARTS = 10;
+    private static final int EXCEPTION_DELAY_MS = 1000;
+
+    private volatile boolean shutdown = false;
+
+    ChainRangeScanner(ChainOracleBuilder<B, R, L, A> b, Logger log) {
+        this.connections = Collections.unmodifiableList(new ArrayList<>(b.catchUpConnections));
+        this.quorumChain = b.connection;
+        this.blockNumberCollector = b.blockNumberCollector;
+        this.filter = b.filter;
+        this.history = b.history;
+        this.log = log;
+
+        this.tipDistance = b.tipDistance;
+        this.blockBatchSize = b.blockBatchSize;
+        this.receiptBatchSize = b.receiptBatchSize;
+        this.segmentSize = b.catchUpSegmentSize;
+        this.parallelism = b.catchUpParallelism != null ? b.catchUpParallelism : 2 * connections.size();
+        this.catchUpDistance = b.catchUpDistance;
+    }
+
+    void shutdown() {
+        this.shutdown = true;
+    }
+
+    /**
+     * Scan until the history is within the catch-up distance of the chain head. Failures that outlast the retries
+     * end the catch-up early rather than the oracle; the oracle just tails from wherever the history got to.
+     */
+    void catchUp() throws InterruptedException, PersistenceServiceException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("TRangeScan-%d").setDaemon(true).build());
+
+        try {
+            int restarts = 0;
+            while (!shutdown && restarts < MAX_RESTARTS) {
+                ChainLink historyHead = history.getLatestBlock();
+
+                Optional<Long> latestBlockNumber;
+                try {
+                    latestBlockNumber = blockNumberCollector.getLatestBlockNumber();
+                } catch (QuorumNotAvailableException e) {
+                    log.warn("ChainRangeScanner: Latest block number not available", e);
+                    latestBlockNumber = Optional.empty();
+                }
+
+                if (!latestBlockNumber.isPresent()) {
+                    restarts++;
+                    TimeUnit.MILLISECONDS.sleep(EXCEPTION_DELAY_MS);
+                    continue;
+                }
+
+                long target = latestBlockNumber.get() - tipDistance;
+                if (target - historyHead.getNumber() <= catchUpDistance) {
+                    log.info("ChainRangeScanner: History head #{} within {} blocks of #{}, handing over to the oracle",
+                            historyHead.getNumber(), catchUpDistance, target);
+                    return;
+                }
+
+                log.info("ChainRangeScanner: Catching up [{} - {}] in segments of {} blocks, {} in flight",
+                        historyHead.getNumber() + 1, target, segmentSize, parallelism);
+
+                if (scan(executor, historyHead, target)) {
+                    restarts = 0;
+                } else {
+                    restarts++;
+                    TimeUnit.MILLISECONDS.sleep(EXCEPTION_DELAY_MS);
+                }
+            }
+
+            if (restarts >= MAX_RESTARTS)
+                log.error("ChainRangeScanner: Giving up on catch-up after {} failed attempts, falling back to the oracle", restarts);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scan (historyHead, target] and publish it segment by segment. Returns {@code false} if the scan had to be
+     * abandoned; anything published up to that point stays published.
+     */
+    private boolean scan(ExecutorService executor, ChainLink historyHead, long target)
+            throws InterruptedException, PersistenceServiceException {
+        Deque<Future<Segment>> staged = new ArrayDeque<>();
+        long nextStart = historyHead.getNumber() + 1;
+        int nextIndex = 0;
+        ChainLink committed = historyHead;
+        Stopwatch timer = Stopwatch.createStarted();
+        long published = 0;
+
+        try {
+            while (!shutdown) {
+                // keep a bounded number of segments either in flight or staged, ahead of the publish point
+                while (staged.size() < 2 * parallelism && nextStart <= target) {
+                    long start = nextStart;
+                    long end = Long.min(start + segmentSize - 1, target);
+                    int index = nextIndex++;
+                    staged.addLast(executor.submit(() -> fetchSegment(index, start, end)));
+                    nextStart = end + 1;
+                }
+
+                Future<Segment> next = staged.pollFirst();
+                if (next == null)
+                    return true;
+
+                Segment segment;
+                try {
+                    segment = next.get();
+                } catch (ExecutionException e) {
+                    log.error("ChainRangeScanner: Segment failed on every node", e.getCause());
+                    return false;
+                }
+
+                if (!segment.first.getParentHash().equals(committed.getHash())) {
+                    log.warn("ChainRangeScanner: Segment [{} - {}] does not connect to #{} ({}), restarting from the history head",
+                            segment.first.getNumber(), segment.last.getNumber(), committed.getNumber(), committed.getHash());
+                    return false;
+                }
+
+                history.publish(segment.toResultset());
+                committed = new ChainLink(segment.last.getNumber(), segment.last.getHash());
+                published += segment.last.getNumber() - segment.first.getNumber() + 1;
+
+                log.info("ChainRangeScanner: Published [{} - {}] ({} filled blocks), {} blocks/s",
+                        segment.first.getNumber(), segment.last.getNumber(), segment.filled.size(),
+                        published * 1000 / Long.max(timer.elapsed(TimeUnit.MILLISECONDS), 1L));
+            }
+            return true;
+        } finally {
+            for (Future<Segment> f : staged)
+                f.cancel(true);
+        }
+    }
+
+    /**
+     * Scan [start, end] on one node, trying the next node on failure. Checks that the segment is one contiguous chain
+     * whose boundaries agree with the quorum.
+     */
+    private Segment fetchSegment(int index, long start, long end) throws Exception {
+        Exception last = null;
+        int attempts = MAX_SEGMENT_ATTEMPTS_PER_NODE * connections.size();
+
+        for (int i = 0; i < attempts && !shutdown; i++) {
+            StatelessChainConnection<B, R, L, A> chain = connections.get((index + i) % connections.size());
+            try {
+                return scanSegment(chain, start, end);
+            } catch (MalformedApiResponseException | IncompleteApiCallException | QuorumNotAvailableException |
+                    BlockProcessorMissingReceiptsException e) {
+                log.warn("ChainRangeScanner: Segment [{} - {}] failed (attempt {} of {}): {}",
+                        start, end, i + 1, attempts, e.getMessage());
+                last = e;
+                TimeUnit.MILLISECONDS.sleep(EXCEPTION_DELAY_MS);
+            }
+        }
+
+        throw last != null ? last : new InterruptedException("ChainRangeScanner shut down");
+    }
+
+    private Segment scanSegment(StatelessChainConnection<B, R, L, A> chain, long start, long end)
+            throws MalformedApiResponseException, IncompleteApiCallException, QuorumNotAvailableException,
+            BlockProcessorMissingReceiptsException, InterruptedException {
+        Segment segment = new Segment();
+
+        for (long batchStart = start; batchStart <= end; batchStart += blockBatchSize) {
+            long batchEnd = Long.min(batchStart + blockBatchSize - 1, end);
+            List<B> blocks = chain.getBlocksRangeClosed(batchStart, batchEnd);
+
+            List<B> candidates = new ArrayList<>();
+            for (B b : blocks) {
+                if (segment.last != null && (segment.last.getNumber() + 1 != b.getNumber() ||
+                        !segment.last.getHash().equals(b.getParentHash())))
+                    throw new MalformedApiResponseException("ChainRangeScanner: Non-contiguous blocks at #" + b.getNumber());
+
+                if (segment.first == null) segment.first = b;
+                segment.last = b;
+
+                if (BlockProcessor.filterBlock(b, filter))
+                    candidates.add(b);
+            }
+
+            for (BlockWithReceipts<B, R, L> bwr : getReceiptsForBlocks(candidates)) {
+                List<R> filtered = BlockProcessor.filterReceipts(bwr.getBlock(), bwr.getReceipts(), filter);
+                if (!filtered.isEmpty())
+                    segment.filled.add(new BlockWithReceipts<>(bwr.getBlock(), filtered));
+            }
+        }
+
+        if (segment.first == null || segment.first.getNumber() != start || segment.last.getNumber() != end)
+            throw new MalformedApiResponseException("ChainRangeScanner: Incomplete segment [" + start + " - " + end + "]");
+
+        List<B> boundaries = quorumChain.getBlocks(start == end ? Collections.singletonList(start) : Arrays.asList(start, end));
+        if (boundaries.size() != (start == end ? 1 : 2) || !boundaries.get(0).equals(segment.first) ||
+                !boundaries.get(boundaries.size() - 1).equals(segment.last))
+            throw new MalformedApiResponseException("ChainRangeScanner: Segment [" + start + " - " + end +
+                    "] boundaries disagree with the quorum");
+
+        return segment;
+    }
+
+    // same batching as the oracle: as many blocks per request as fit in receiptBatchSize transactions
+    private List<BlockWithReceipts<B, R, L>> getReceiptsForBlocks(List<B> blocks)
+            throws MalformedApiResponseException, IncompleteApiCallException, QuorumNotAvailableException, InterruptedException {
+        List<BlockWithReceipts<B, R, L>> response = new ArrayList<>();
+
+        int ptr = 0;
+        while (ptr < blocks.size()) {
+            List<B> batch = new ArrayList<>();
+            int txCount = 0;
+            do {
+                B b = blocks.get(ptr++);
+                txCount += b.getTransactionHashes().size();
+                batch.add(b);
+            } while (ptr < blocks.size() && txCount + blocks.get(ptr).getTransactionHashes().size() <= receiptBatchSize);
+
+            List<BlockWithReceipts<B, R, L>> pulled = quorumChain.getReceiptsForBlocks(batch);
+            if (pulled.size() != batch.size())
+                throw new MalformedApiResponseException("ChainRangeScanner: Requested receipts for " + batch.size() +
+                        " blocks, got " + pulled.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (!pulled.get(i).getBlock().getHash().equals(batch.get(i).getHash()))
+                    throw new MalformedApiResponseException("ChainRangeScanner: Receipts returned for block " +
+                            pulled.get(i).getBlock().getHash() + ", requested " + batch.get(i).getHash());
+            }
+
+            response.addAll(pulled);
+        }
+
+        return response;
+    }
+
+    private class Segment {
+        private B first;
+        private B last;
+        private final List<BlockWithReceipts<B, R, L>> filled = new ArrayList<>();
+
+        private ChainOracleResultset<B, R, L> toResultset() {
+            ChainOracleResultset<B, R, L> rs = new ChainOracleResultset<>();
+            boolean firstFilled = !filled.isEmpty() && filled.get(0).getBlock().getNumber() == first.getNumber();
+            boolean lastFilled = !filled.isEmpty() && filled.get(filled.size() - 1).getBlock().getNumber() == last.getNumber();
+
+            if (!firstFilled) rs.appendEmptyBlock(first);
+            for (BlockWithReceipts<B, R, L> b : filled) rs.appendFilledBlock(b);
+            if (!lastFilled && last != first) rs.appendEmptyBlock(last);
+
+            rs.finalizeResultset();
+            return rs;
+        }
+    }
+}
@@ -34,4 +34,8 @@ public abstract class JsonRpcResponse {
     public JsonRpcError getError() {
         return error;
     }
+
+    public int getId() {
+        return id;
+    }
 }
@@ -42,7 +42,11 @@ public class GetBlockNumber {
         public String[] params;
 
         public Request() {
-            super("eth_blockNumber");
+            this(0);
+        }
+
+        public Request(int id) {
+            super("eth_blockNumber", id);
             this.params = new String[0];
         }
     }
@@ -0,0 +1,83 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.chain.base.serialize;
+
+import org.aion.bridge.chain.aion.types.AionAddress;
+import org.aion.bridge.chain.base.types.Word16;
+import org.aion.bridge.chain.base.types.Word32;
+import org.aion.bridge.chain.bridge.Transfer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-width binary encoding of a bundle's transfer list, used for persistence.
+ * <p>
+ * Layout: a 1 byte version, a 4 byte (big-endian) transfer count, then each transfer as
+ * {@link Transfer#getTransferInBytes()} (32 byte eth tx hash, 32 byte aion address, 16 byte amount).
+ */
+public class TransferCodec {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final int HEADER_LENGTH = 1 + 4;
+
+    private TransferCodec() {}
+
+    public static byte[] encode(List<Transfer> transfers) {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH + transfers.size() * Transfer.BYTE_ENCODED_LENGTH);
+        buf.put(VERSION_1);
+        buf.putInt(transfers.size());
+        for (Transfer t : transfers)
+            buf.put(t.getTransferInBytes().getByteArray());
+        return buf.array();
+    }
+
+    public static List<Transfer> decode(byte[] encoded) {
+        if (encoded.length < HEADER_LENGTH)
+            throw new IllegalArgumentException("TransferCodec: encoded length < header length");
+
+        ByteBuffer buf = ByteBuffer.wrap(encoded);
+        byte version = buf.get();
+        if (version != VERSION_1)
+            throw new IllegalArgumentException("TransferCodec: unsupported version " + version);
+
+        int count = buf.getInt();
+        if (count < 0 || encoded.length != HEADER_LENGTH + (long) count * Transfer.BYTE_ENCODED_LENGTH)
+            throw new IllegalArgumentException("TransferCodec: length does not match transfer count " + count);
+
+        List<Transfer> transfers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int offset = HEADER_LENGTH + i * Transfer.BYTE_ENCODED_LENGTH;
+            byte[] ethTxHash = Arrays.copyOfRange(encoded, offset, offset + Word32.LENGTH);
+            byte[] aionAddress = Arrays.copyOfRange(encoded, offset + Word32.LENGTH, offset + 2 * Word32.LENGTH);
+            byte[] amount = Arrays.copyOfRange(encoded, offset + 2 * Word32.LENGTH, offset + Transfer.BYTE_ENCODED_LENGTH);
+
+            transfers.add(new Transfer(new Word32(ethTxHash), new AionAddress(aionAddress), new Word16(amount)));
+        }
+        return transfers;
+    }
+}
@@ -83,4 +83,9 @@ public class CryptoUtils {
         d.reset();
         return d.digest(input);
     }
+
+    // ed25519 detached signature verification, backed by libsodium
+    public static boolean ed25519Verify(byte[] signature, byte[] message, byte[] publicKey) {
+        return SodiumLoader.sodium().crypto_sign_ed25519_verify_detached(signature, message, message.length, publicKey) == 0;
+    }
 }
@@ -54,6 +54,13 @@ public class Signature {
     public Word32 getPublicKey() { return publicKey; }
     public byte[] payload() { return payload.getByteArray(); }
 
+    /**
+     * Checks this ed25519 signature over the given message against the attached public key.
+     */
+    public boolean verify(byte[] message) {
+        return CryptoUtils.ed25519Verify(signature.getByteArray(), message, publicKey.payload());
+    }
+
     private byte[] computePayload() {
         byte[] payload = new byte[LENGTH];
         System.arraycopy(signature.getByteArray(), 0, payload, 0, 64);
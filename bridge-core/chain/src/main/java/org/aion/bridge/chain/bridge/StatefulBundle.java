@@ -28,6 +28,7 @@ import org.aion.bridge.chain.aion.types.AionReceipt;
 import org.aion.bridge.chain.base.types.Word32;
 
 import javax.annotation.Nonnull;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -41,10 +42,10 @@ public class StatefulBundle implements Comparable<StatefulBundle>{
         SEALED, // Sealed in a destination block
         FINALIZED // Finalized in the destination chain
     }
-    private State state;
+    private volatile State state;
 
     private PersistentBundle bundle;
-    private Set<Signature> signatures;
+    private volatile Set<Signature> signatures;
     private AionSubmittedTx submitted;
     private AionReceipt aionTxReceipt;
 
@@ -60,7 +61,7 @@ public class StatefulBundle implements Comparable<StatefulBundle>{
         this.state = State.STORED;
     }
 
-    public void setSigned(Set<Signature> signatures) {
+    public synchronized void setSigned(Set<Signature> signatures) {
         if (this.state != State.STORED)
             throw new IllegalStateException("bundle state should be STORED");
 
@@ -68,7 +69,24 @@ public class StatefulBundle implements Comparable<StatefulBundle>{
         this.state = State.SIGNED;
     }
 
-    public void setSubmitted(AionSubmittedTx submitted) {
+    /**
+     * Adds a signature that arrived after the quorum was already collected. Only accepted while the bundle is
+     * still SIGNED (waiting for broadcast); the signature set is replaced rather than mutated, so a reader
+     * holding the previous set is unaffected.
+     *
+     * @return true if the signature was merged into the bundle
+     */
+    public synchronized boolean mergeLateSignature(Signature signature) {
+        if (this.state != State.SIGNED || signatures.contains(signature))
+            return false;
+
+        Set<Signature> merged = new HashSet<>(signatures);
+        merged.add(signature);
+        this.signatures = merged;
+        return true;
+    }
+
+    public synchronized void setSubmitted(AionSubmittedTx submitted) {
         if (this.state != State.SIGNED)
             throw new IllegalStateException("bundle state should be SIGNED");
 
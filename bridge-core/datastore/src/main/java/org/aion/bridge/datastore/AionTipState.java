@@ -24,6 +24,8 @@
 
 package org.aion.bridge.datastore;
 
+import org.aion.bridge.chain.aion.api.AionChainState;
+import org.aion.bridge.chain.aion.api.AionChainStatePoller;
 import org.aion.bridge.chain.aion.types.AionAddress;
 import org.aion.bridge.chain.aion.types.AionBlock;
 import org.aion.bridge.chain.aion.types.AionLog;
@@ -45,8 +47,9 @@ public class AionTipState extends Thread {
     @SuppressWarnings("UnusedReturnValue")
     public static class Builder {
 
-        // Required parameters
+        // Required parameters (one of)
         BlockNumberCollector<AionBlock, AionReceipt, AionLog, AionAddress> blockNumberCollector;
+        AionChainStatePoller chainState;
 
         // Optional parameters
         long pollInterval = 10;
@@ -62,14 +65,16 @@ public class AionTipState extends Thread {
 
         public Builder setApi(BlockNumberCollector<AionBlock, AionReceipt, AionLog, AionAddress> x) { blockNumberCollector = x;return this; }
 
+        public Builder setChainState(AionChainStatePoller x) { chainState = x;return this; }
+
         public Builder setDatabase(DataStore x) { ds = x;return this; }
 
         public Builder setShutdownAfterTipStateError(boolean x) { shutdownAfterTipStateError = x;return this; }
 
 
         public AionTipState build() {
-            if (!allNotNull(blockNumberCollector))
-                throw new IllegalArgumentException("blockNumberCollector mut be non-null");
+            if (!allNotNull(blockNumberCollector) && !allNotNull(chainState))
+                throw new IllegalArgumentException("blockNumberCollector or chainState mut be non-null");
 
             return new AionTipState(this);
         }
@@ -81,6 +86,7 @@ public class AionTipState extends Thread {
     private volatile boolean shutdown = false;
 
     private BlockNumberCollector<AionBlock, AionReceipt, AionLog, AionAddress> blockNumberCollector;
+    private AionChainStatePoller chainState;
     private final long pollInterval;
     private final TimeUnit pollIntervalTimeUnit;
     private DataStore ds;
@@ -93,6 +99,7 @@ public class AionTipState extends Thread {
         this.pollIntervalTimeUnit = b.pollIntervalTimeUnit;
         this.shutdownAfterTipStateError = b.shutdownAfterTipStateError;
         this.blockNumberCollector = b.blockNumberCollector;
+        this.chainState = b.chainState;
         this.ds = b.ds;
     }
 
@@ -105,7 +112,12 @@ public class AionTipState extends Thread {
         int errAccumulator = 0;
         while (!shutdown && errAccumulator < MAX_CONSECUTIVE_ERR) {
             try {
-                Optional<Long> blockNumber = blockNumberCollector.getLatestBlockNumber();
+                Optional<Long> blockNumber = chainState != null
+                        ? chainState.getSnapshot().map(AionChainState::getBlockNumber)
+                        : Optional.empty();
+                // no snapshot, or a stale one: ask the nodes directly if we can
+                if (!blockNumber.isPresent() && blockNumberCollector != null)
+                    blockNumber = blockNumberCollector.getLatestBlockNumber();
                 if (!blockNumber.isPresent()) {
                     throw new RetryableException("Block number cannot be retrieved. Retrying");
                 }
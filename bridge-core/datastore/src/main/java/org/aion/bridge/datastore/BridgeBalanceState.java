@@ -24,6 +24,8 @@
 
 package org.aion.bridge.datastore;
 
+import org.aion.bridge.chain.aion.api.AionChainState;
+import org.aion.bridge.chain.aion.api.AionChainStatePoller;
 import org.aion.bridge.chain.aion.types.AionAddress;
 import org.aion.bridge.chain.aion.types.AionBlock;
 import org.aion.bridge.chain.aion.types.AionLog;
@@ -52,6 +54,7 @@ public class BridgeBalanceState extends Thread {
     private final TimeUnit pollIntervalTimeUnit;
     private final long pollInterval;
     private final ConsolidatedChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> api;
+    private final AionChainStatePoller chainState;
     private final AionTipState tipState;
     private final AionAddress bridgeAddress;
     private final AionAddress relayerAddress;
@@ -62,8 +65,9 @@ public class BridgeBalanceState extends Thread {
 
     public static class Builder {
 
-        // Required parameters
+        // Required parameters (api or chainState)
         ConsolidatedChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> api;
+        AionChainStatePoller chainState;
         AionTipState tipState;
         AionAddress bridgeAddress;
         AionAddress relayerAddress;
@@ -80,13 +84,14 @@ public class BridgeBalanceState extends Thread {
         }
 
         public Builder setApi(ConsolidatedChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> x) { api = x; return this; }
+        public Builder setChainState(AionChainStatePoller x) { chainState = x; return this; }
         public Builder setTipState(AionTipState x) { tipState = x; return this; }
         public Builder setBridgeAddress(AionAddress x) { bridgeAddress = x; return this; }
         public Builder setRelayerAddress(AionAddress x) { relayerAddress = x; return this; }
         public Builder setDatabase(DataStore x) { ds = x; return this; }
 
         public BridgeBalanceState build() throws SQLException {
-            if (allNotNull(api, tipState, bridgeAddress, relayerAddress))
+            if ((api != null || chainState != null) && allNotNull(tipState, bridgeAddress, relayerAddress))
                 return new BridgeBalanceState(this);
 
             else throw new IllegalStateException();
@@ -98,6 +103,7 @@ public class BridgeBalanceState extends Thread {
         this.pollIntervalTimeUnit = b.pollIntervalTimeUnit;
 
         this.api = b.api;
+        this.chainState = b.chainState;
         this.tipState = b.tipState;
         this.bridgeAddress = b.bridgeAddress;
         this.relayerAddress = b.relayerAddress;
@@ -122,16 +128,38 @@ public class BridgeBalanceState extends Thread {
         int errAccumulator = 0;
         while (!shutdown && errAccumulator < MAX_CONSECUTIVE_ERR) {
             try {
-                Optional<Long> _blockNumber = tipState.getBlockNumber();
-                if (!_blockNumber.isPresent()) {
-                    throw new RetryableException("BridgeBalanceState - block number is null. Retrying.");
+                Optional<Long> _blockNumber;
+                BigInteger _bridgeBalance;
+                BigInteger _relayerBalance;
+
+                if (chainState != null) {
+                    Optional<AionChainState> snapshot = chainState.getSnapshot();
+                    if (!snapshot.isPresent()) {
+                        throw new RetryableException("BridgeBalanceState - chain state not available. Retrying.");
+                    }
+
+                    // the snapshot's balances are read at its block number, or left out if the nodes disagreed
+                    _blockNumber = Optional.of(snapshot.get().getBlockNumber());
+                    _bridgeBalance = snapshot.get().getBalance(bridgeAddress).orElse(null);
+                    _relayerBalance = snapshot.get().getBalance(relayerAddress).orElse(null);
+
+                    if ((_bridgeBalance == null || _relayerBalance == null) && api != null) {
+                        String blockNumber = "0x" + Long.toHexString(_blockNumber.get());
+                        _bridgeBalance = api.getBalance(bridgeAddress, blockNumber);
+                        _relayerBalance = api.getBalance(relayerAddress, blockNumber);
+                    }
+                } else {
+                    _blockNumber = tipState.getBlockNumber();
+                    if (!_blockNumber.isPresent()) {
+                        throw new RetryableException("BridgeBalanceState - block number is null. Retrying.");
+                    }
+
+                    String blockNumber = "0x" + Long.toHexString(_blockNumber.get());
+
+                    _bridgeBalance = api.getBalance(bridgeAddress, blockNumber);
+                    _relayerBalance = api.getBalance(relayerAddress, blockNumber);
                 }
 
-                String blockNumber = "0x"+Long.toHexString(_blockNumber.get());
-
-                BigInteger _bridgeBalance = api.getBalance(bridgeAddress, blockNumber);
-                BigInteger _relayerBalance = api.getBalance(relayerAddress, blockNumber);
-
                 if (_bridgeBalance == null || _relayerBalance == null)
                     throw new RetryableException("BridgeBalanceState - bridgeBalance or relayerBalance returned null");
 
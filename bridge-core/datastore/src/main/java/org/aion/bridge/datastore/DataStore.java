@@ -71,8 +71,18 @@ public interface DataStore {
     Optional<Long> getAionFinalizedBundleId() throws PersistenceServiceException;
     Optional<ChainLink> getAionFinalizedBlock() throws PersistenceServiceException;
     Optional<Timestamp> getEthBundleCreationTimestamp(long bundleId) throws PersistenceServiceException;
+    // bundle ids missing from the store are absent from the map
+    Map<Long, Timestamp> getEthBundleCreationTimestampRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException;
 
     Optional<List<AionFinalizedBundle>> getAionTxHashRangeClosed(Long startBundleId, Long endBundleId) throws PersistenceServiceException;
+
+    // streaming reads, for ranges too large to hold in memory; callers must close the cursor
+
+    RangeCursor<PersistentBundle> openBundleRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException;
+    RangeCursor<AionFinalizedBundle> openAionTxHashRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException;
     Optional<List<Word16>> getTransferValueRangeClosed(Long startBundleId, Long endBundleId) throws PersistenceServiceException;
 
     }
@@ -26,13 +26,20 @@ package org.aion.bridge.datastore;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang3.ObjectUtils.allNotNull;
 
 public class DbConnectionManager {
+    private static final Logger log = LoggerFactory.getLogger(DbConnectionManager.class);
+
     private String host;
     private String port;
     private String database;
@@ -40,6 +47,12 @@ public class DbConnectionManager {
     private String password;
     HikariDataSource dataSource;
 
+    private final PoolMetrics primaryMetrics = new PoolMetrics();
+    private final PoolMetrics replicaMetrics;
+    private HikariDataSource replicaDataSource;
+    private ReplicaLagMonitor replicaLag;
+    private ScheduledExecutorService statsLogger;
+
     private DbConnectionManager(Builder builder) throws ClassNotFoundException {
         this.host = builder.host;
         this.port = builder.port;
@@ -48,9 +61,42 @@ public class DbConnectionManager {
         this.password = builder.password;
         Class.forName("com.mysql.cj.jdbc.Driver");
 
+        dataSource = new HikariDataSource(poolConfig(builder, "bridge-primary", host, port, primaryMetrics));
+
+        if (builder.replicaHost != null) {
+            replicaMetrics = new PoolMetrics();
+            HikariConfig config = poolConfig(builder, "bridge-replica", builder.replicaHost, builder.replicaPort, replicaMetrics);
+            config.setReadOnly(true);
+            // a replica that is down at startup must not keep the primary from coming up
+            config.setInitializationFailTimeout(-1);
+            replicaDataSource = new HikariDataSource(config);
+            replicaLag = new ReplicaLagMonitor(replicaDataSource, builder.maxReplicaLagSeconds);
+        } else {
+            replicaMetrics = null;
+        }
+
+        if (builder.statsLogIntervalSeconds > 0) {
+            statsLogger = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "db-pool-stats");
+                t.setDaemon(true);
+                return t;
+            });
+            statsLogger.scheduleAtFixedRate(() -> {
+                log.info("Connection pool {}", primaryMetrics);
+                if (replicaMetrics != null)
+                    log.info("Connection pool {} (usable: {})", replicaMetrics, replicaLag.isUsable());
+            }, builder.statsLogIntervalSeconds, builder.statsLogIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private HikariConfig poolConfig(Builder builder, String poolName, String host, String port, PoolMetrics metrics) {
         HikariConfig config = new HikariConfig();
-        config.setMaximumPoolSize(50);
-        config.setMinimumIdle(10);
+        config.setPoolName(poolName);
+        config.setMaximumPoolSize(builder.maximumPoolSize);
+        config.setMinimumIdle(builder.minimumIdle);
+        config.setConnectionTimeout(builder.connectionTimeoutMs);
+        config.setMetricsTrackerFactory(metrics);
+        config.setRegisterMbeans(true);
         config.setAutoCommit(false);
         config.setDriverClassName("com.mysql.cj.jdbc.Driver");
         config.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + database);
@@ -58,15 +104,47 @@ public class DbConnectionManager {
         config.addDataSourceProperty("password", password);
         config.addDataSourceProperty("serverTimezone", "EST5EDT");
         config.addDataSourceProperty("useSSL", "false");
-
-        dataSource = new HikariDataSource(config);
+        // statements with a fetch size (see MySqlRangeCursor) read through a server-side cursor
+        config.addDataSourceProperty("useCursorFetch", "true");
+        return config;
     }
 
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
+    /**
+     * Connection for reads that tolerate slightly stale data. Served by the replica when one is configured and
+     * its replication lag is within maxReplicaLagSeconds, otherwise by the primary.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicaDataSource == null || !replicaLag.isUsable())
+            return dataSource.getConnection();
+
+        try {
+            return replicaDataSource.getConnection();
+        } catch (SQLException e) {
+            log.warn("Replica connection failed, reading from primary", e);
+            replicaLag.markUnusable();
+            return dataSource.getConnection();
+        }
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return primaryMetrics;
+    }
+
+    public PoolMetrics getReplicaPoolMetrics() {
+        return replicaMetrics;
+    }
+
     public void closeAllConnections() throws SQLException {
+        if (statsLogger != null)
+            statsLogger.shutdownNow();
+        if (replicaLag != null)
+            replicaLag.shutdown();
+        if (replicaDataSource != null)
+            replicaDataSource.close();
         dataSource.close();
     }
 
@@ -79,11 +157,26 @@ public class DbConnectionManager {
         String user;
         String password;
 
+        // Optional parameters
+        int maximumPoolSize = 50;
+        int minimumIdle = 10;
+        long connectionTimeoutMs = 30_000;
+        long statsLogIntervalSeconds = 0;
+        String replicaHost;
+        String replicaPort;
+        long maxReplicaLagSeconds = 5;
+
         public Builder setHost(String x) {host = x; return this;}
         public Builder setPort(String x) {port = x; return this;}
         public Builder setDatabase(String x) {database = x; return this;}
         public Builder setUser(String x) {user = x; return this;}
         public Builder setPassword(String x) {password = x; return this;}
+        public Builder setMaximumPoolSize(Integer x) {if (x != null) maximumPoolSize = x; return this;}
+        public Builder setMinimumIdle(Integer x) {if (x != null) minimumIdle = x; return this;}
+        public Builder setConnectionTimeoutMs(Long x) {if (x != null) connectionTimeoutMs = x; return this;}
+        public Builder setStatsLogIntervalSeconds(Long x) {if (x != null) statsLogIntervalSeconds = x; return this;}
+        public Builder setReplica(String host, String port) {replicaHost = host; replicaPort = port; return this;}
+        public Builder setMaxReplicaLagSeconds(Long x) {if (x != null) maxReplicaLagSeconds = x; return this;}
 
         public DbConnectionManager build() throws ClassNotFoundException {
             if(allNotNull(host, port, database, user, password) && validate())
@@ -93,7 +186,17 @@ public class DbConnectionManager {
         }
 
         private boolean validate() {
-            Integer intPort = Integer.parseInt(this.port);
+            if(!validPort(port))
+                return false;
+
+            if(replicaHost != null && (replicaPort == null || !validPort(replicaPort)))
+                return false;
+
+            return maximumPoolSize > 0 && minimumIdle >= 0 && minimumIdle <= maximumPoolSize && maxReplicaLagSeconds >= 0;
+        }
+
+        private static boolean validPort(String port) {
+            Integer intPort = Integer.parseInt(port);
 
             if(intPort < 0 || intPort > 65535)
                 return false;
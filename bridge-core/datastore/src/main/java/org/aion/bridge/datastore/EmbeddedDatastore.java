@@ -0,0 +1,647 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.aion.types.AionReceipt;
+import org.aion.bridge.chain.base.serialize.TransferCodec;
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.base.types.Word16;
+import org.aion.bridge.chain.base.types.Word32;
+import org.aion.bridge.chain.bridge.*;
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.aion.bridge.chain.eth.types.EthAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * {@link DataStore} over a single append-only log file, for deployments and tests that have no MySQL server.
+ * <p>
+ * Every write is one record, appended and fsync'ed before the in-memory state is updated, so a batch of bundles
+ * (with its status rows) is persisted atomically: on open the log is replayed and a torn record at its tail is
+ * truncated. The aion latest block and balances are not logged, since nothing reads them back. Bundles are not held in memory; the index maps bundle ids to their offset in the log.
+ * <p>
+ * Record layout: 4 byte length, 4 byte CRC32 of what follows, 1 byte record type, payload.
+ */
+@ThreadSafe
+public class EmbeddedDatastore implements DataStore, GroupCommitTarget, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedDatastore.class);
+
+    private static final byte ETH_FINALIZED_BUNDLES = 1;
+    private static final byte ETH_CHAIN_HISTORY = 2;
+    private static final byte AION_FINALIZED_BUNDLES = 3;
+    private static final byte AION_CHAIN_HISTORY = 4;
+    private static final byte AION_LATEST_BLOCK = 5;
+    private static final byte AION_ENTITY_BALANCE = 6;
+
+    private static final int RECORD_HEADER = 4 + 4;
+    private static final int CHAIN_LINK_LENGTH = 8 + Word32.LENGTH;
+    private static final int AION_BUNDLE_LENGTH = 8 + Word32.LENGTH + Word32.LENGTH + 8 + Word32.LENGTH;
+
+    private final FileChannel channel;
+    private long size;
+
+    // index: bundle id -> offset of the bundle's entry in the log
+    private final NavigableMap<Long, Long> ethBundles = new TreeMap<>();
+    private final NavigableMap<Long, Long> aionBundles = new TreeMap<>();
+
+    private ChainLink ethFinalizedBlock = null;
+    private Long ethFinalizedBundleId = null;
+    private ChainLink aionFinalizedBlock = null;
+    private Long aionFinalizedBundleId = null;
+
+    // write-only in the DataStore interface, so not logged (see storeAionLatestBlock)
+    private Long aionLatestBlockNumber = null;
+    private BigInteger bridgeBalance = null;
+    private BigInteger relayerBalance = null;
+    private Long balanceBlockNumber = null;
+
+    public EmbeddedDatastore(@Nonnull Path path) throws PersistenceServiceException {
+        try {
+            if (path.getParent() != null)
+                Files.createDirectories(path.getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            size = replay();
+            if (size != channel.size()) {
+                log.warn("Truncating torn record at the end of {} ({} -> {} bytes)", path, channel.size(), size);
+                channel.truncate(size);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            log.error("Failed to open embedded datastore {}", path, e);
+            throw new PersistenceServiceException(e);
+        }
+        log.info("Opened embedded datastore {}: {} eth bundles, {} aion bundles", path, ethBundles.size(), aionBundles.size());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    // ---------------------------------------------------------------------
+    // Log
+    // ---------------------------------------------------------------------
+
+    /**
+     * Reads the log front to back with positional reads (so its size is not limited by an int-indexed mapping).
+     *
+     * @return the length of the valid prefix of the log
+     */
+    private long replay() throws IOException {
+        long length = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        long position = 0;
+
+        while (length - position >= RECORD_HEADER) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int recordLength = header.getInt();
+            int crc = header.getInt();
+            if (recordLength < 1 || recordLength > length - position - RECORD_HEADER)
+                break;
+
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            readFully(record, position + RECORD_HEADER);
+            record.flip();
+            if (crc != crc(record.duplicate()))
+                break;
+
+            apply(record, position + RECORD_HEADER);
+            position += RECORD_HEADER + recordLength;
+        }
+        return position;
+    }
+
+    private void readFully(ByteBuffer b, long position) throws IOException {
+        while (b.hasRemaining()) {
+            int read = channel.read(b, position);
+            if (read < 0)
+                throw new EOFException("log truncated at offset " + position);
+            position += read;
+        }
+    }
+
+    private static int crc(ByteBuffer b) {
+        CRC32 crc = new CRC32();
+        crc.update(b);
+        return (int) crc.getValue();
+    }
+
+    private void append(ByteBuffer record) throws PersistenceServiceException {
+        append(Collections.singletonList(record));
+    }
+
+    /**
+     * Append records (type + payload, flipped), fsync once, then apply them to the in-memory state in order.
+     */
+    private void append(List<ByteBuffer> records) throws PersistenceServiceException {
+        long offset = size;
+        long position = offset;
+
+        try {
+            for (ByteBuffer record : records) {
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+                header.putInt(record.remaining());
+                header.putInt(crc(record.duplicate()));
+                header.flip();
+
+                for (ByteBuffer b : new ByteBuffer[]{header, record.duplicate()}) {
+                    while (b.hasRemaining())
+                        position += channel.write(b, position);
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            try {
+                channel.truncate(offset);
+            } catch (IOException f) {
+                log.error("Failed to truncate log after failed append", f);
+            }
+            log.error("Failed to append to log", e);
+            throw new PersistenceServiceException(e);
+        }
+
+        for (ByteBuffer record : records) {
+            apply(record, offset + RECORD_HEADER);
+            offset += RECORD_HEADER + record.remaining();
+        }
+        size = offset;
+    }
+
+    /**
+     * @param offset offset of the record (its type byte) in the log
+     */
+    private void apply(ByteBuffer record, long offset) {
+        ByteBuffer b = record.duplicate();
+        byte type = b.get();
+
+        switch (type) {
+            case ETH_FINALIZED_BUNDLES: {
+                ethFinalizedBlock = getChainLink(b);
+                ethFinalizedBundleId = b.getLong();
+                b.position(b.position() + Word32.LENGTH);
+                int count = b.getInt();
+                for (int i = 0; i < count; i++) {
+                    int entryStart = b.position();
+                    int entryLength = b.getInt();
+                    ethBundles.put(b.getLong(), offset + entryStart);
+                    b.position(entryStart + 4 + entryLength);
+                }
+                break;
+            }
+            case ETH_CHAIN_HISTORY:
+                ethFinalizedBlock = getChainLink(b);
+                break;
+            case AION_FINALIZED_BUNDLES: {
+                aionFinalizedBlock = getChainLink(b);
+                aionFinalizedBundleId = b.getLong();
+                b.position(b.position() + Word32.LENGTH);
+                int count = b.getInt();
+                for (int i = 0; i < count; i++) {
+                    int entryStart = b.position();
+                    aionBundles.put(b.getLong(), offset + entryStart);
+                    b.position(entryStart + AION_BUNDLE_LENGTH);
+                }
+                break;
+            }
+            case AION_CHAIN_HISTORY:
+                aionFinalizedBlock = getChainLink(b);
+                break;
+            case AION_LATEST_BLOCK:
+            case AION_ENTITY_BALANCE:
+                // no longer written (kept in memory only); skipped in logs written before that
+                break;
+            default:
+                throw new IllegalStateException("Unknown record type " + type + " at offset " + offset);
+        }
+    }
+
+    private ByteBuffer read(long offset, int length) throws PersistenceServiceException {
+        ByteBuffer b = ByteBuffer.allocate(length);
+        try {
+            readFully(b, offset);
+        } catch (EOFException e) {
+            throw new IllegalStateException(e.getMessage());
+        } catch (IOException e) {
+            throw new PersistenceServiceException(e);
+        }
+        b.flip();
+        return b;
+    }
+
+    private static void putChainLink(ByteBuffer b, ChainLink link) {
+        b.putLong(link.getNumber());
+        b.put(link.getHash().payload());
+    }
+
+    private static ChainLink getChainLink(ByteBuffer b) {
+        long number = b.getLong();
+        return new ChainLink(number, getWord32(b));
+    }
+
+    private static Word32 getWord32(ByteBuffer b) {
+        byte[] word = new byte[Word32.LENGTH];
+        b.get(word);
+        return new Word32(word);
+    }
+
+    // ---------------------------------------------------------------------
+    // Writes
+    // ---------------------------------------------------------------------
+
+    @Override
+    public synchronized void storeEthFinalizedBundles(List<StatefulBundle> bundles, ChainLink ethChainTip,
+                                                      StatefulBundle finalizationTip, Map<Word32, EthAddress> txHashToEthAddressMap)
+            throws PersistenceServiceException {
+        append(ethFinalizedRecord(bundles, ethChainTip, finalizationTip, txHashToEthAddressMap, new HashSet<>()));
+    }
+
+    /**
+     * @param batchIds ids of the bundles already in the same append, to reject duplicates before anything is written
+     */
+    private ByteBuffer ethFinalizedRecord(List<StatefulBundle> bundles, ChainLink ethChainTip, StatefulBundle finalizationTip,
+                                          Map<Word32, EthAddress> txHashToEthAddressMap, Set<Long> batchIds)
+            throws PersistenceServiceException {
+        long created = System.currentTimeMillis();
+        List<byte[]> entries = new ArrayList<>(bundles.size());
+        int length = 1 + CHAIN_LINK_LENGTH + 8 + Word32.LENGTH + 4;
+
+        for (StatefulBundle sb : bundles) {
+            if (sb.getState() != StatefulBundle.State.BUNDLED)
+                throw new IllegalStateException("stateful bundle should be in state BUNDLED");
+            if (ethBundles.containsKey(sb.getBundleId()) || !batchIds.add(sb.getBundleId()))
+                throw new PersistenceServiceException("Duplicate bundle id " + sb.getBundleId());
+
+            Bundle b = sb.getBundle();
+            List<Transfer> transfers = b.getTransfers();
+            byte[] encodedTransfers = TransferCodec.encode(transfers);
+
+            // bundle id, created, eth block number, eth block hash, index in eth block, transfers, eth addresses
+            ByteBuffer entry = ByteBuffer.allocate(8 + 8 + CHAIN_LINK_LENGTH + 4 + 4 + encodedTransfers.length +
+                    transfers.size() * EthAddress.ADDRESS_LENGTH);
+            entry.putLong(sb.getBundleId());
+            entry.putLong(created);
+            entry.putLong(b.getEthBlockNumber());
+            entry.put(b.getEthBlockHash().payload());
+            entry.putInt(b.getIndexInEthBlock());
+            entry.putInt(encodedTransfers.length);
+            entry.put(encodedTransfers);
+
+            for (Transfer transfer : transfers) {
+                EthAddress ethAddress = txHashToEthAddressMap.get(transfer.getEthTxHash());
+                if (ethAddress == null)
+                    throw new IllegalStateException("EmbeddedDatastore - could not find Eth Tx Hash in txHashToEthAddressMap");
+                entry.put(ethAddress.payload());
+            }
+
+            entries.add(entry.array());
+            length += 4 + entry.capacity();
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.put(ETH_FINALIZED_BUNDLES);
+        putChainLink(record, ethChainTip);
+        record.putLong(finalizationTip.getBundleId());
+        record.put(finalizationTip.getBundleHash().payload());
+        record.putInt(entries.size());
+        for (byte[] entry : entries) {
+            record.putInt(entry.length);
+            record.put(entry);
+        }
+        record.flip();
+        return record;
+    }
+
+    @Override
+    public synchronized void storeEthChainHistory(ChainLink ethChainTip) throws PersistenceServiceException {
+        append(chainHistoryRecord(ETH_CHAIN_HISTORY, ethChainTip));
+    }
+
+    private static ByteBuffer chainHistoryRecord(byte type, ChainLink chainTip) {
+        ByteBuffer record = ByteBuffer.allocate(1 + CHAIN_LINK_LENGTH);
+        record.put(type);
+        putChainLink(record, chainTip);
+        record.flip();
+        return record;
+    }
+
+    @Override
+    public synchronized void storeAionFinalizedBundles(List<StatefulBundle> bundles, ChainLink aionChainTip,
+                                                       StatefulBundle finalizationTip) throws PersistenceServiceException {
+        append(aionFinalizedRecord(bundles, aionChainTip, finalizationTip, new HashSet<>()));
+    }
+
+    private ByteBuffer aionFinalizedRecord(List<StatefulBundle> bundles, ChainLink aionChainTip, StatefulBundle finalizationTip,
+                                           Set<Long> batchIds) throws PersistenceServiceException {
+        ByteBuffer record = ByteBuffer.allocate(1 + CHAIN_LINK_LENGTH + 8 + Word32.LENGTH + 4 +
+                bundles.size() * AION_BUNDLE_LENGTH);
+        record.put(AION_FINALIZED_BUNDLES);
+        putChainLink(record, aionChainTip);
+        record.putLong(finalizationTip.getBundleId());
+        record.put(finalizationTip.getBundleHash().payload());
+        record.putInt(bundles.size());
+
+        for (StatefulBundle sb : bundles) {
+            if (sb.getState() != StatefulBundle.State.FINALIZED)
+                throw new IllegalStateException("Stateful bundle should be in state FINALIZED");
+            if (aionBundles.containsKey(sb.getBundleId()) || !batchIds.add(sb.getBundleId()))
+                throw new PersistenceServiceException("Duplicate bundle id " + sb.getBundleId());
+
+            AionReceipt r = sb.getAionReceipt();
+
+            record.putLong(sb.getBundleId());
+            record.put(sb.getBundleHash().payload());
+            record.put(r.getTransactionHash().payload());
+            record.putLong(r.getBlockNumber());
+            record.put(r.getBlockHash().payload());
+        }
+        record.flip();
+        return record;
+    }
+
+    @Override
+    public synchronized void storeAionChainHistory(ChainLink aionChainTip) throws PersistenceServiceException {
+        append(chainHistoryRecord(AION_CHAIN_HISTORY, aionChainTip));
+    }
+
+    /**
+     * Each write stays its own record (so replay sees the same history as with individual calls), but the whole group
+     * shares a single fsync.
+     */
+    @Override
+    public synchronized void storeGroup(List<GroupCommitWriter.PendingWrite> writes) throws PersistenceServiceException {
+        List<ByteBuffer> records = new ArrayList<>(writes.size());
+        Set<Long> ethBatchIds = new HashSet<>();
+        Set<Long> aionBatchIds = new HashSet<>();
+
+        for (GroupCommitWriter.PendingWrite w : writes) {
+            switch (w.kind) {
+                case ETH_FINALIZED_BUNDLES:
+                    records.add(ethFinalizedRecord(w.bundles, w.chainTip, w.finalizationTip, w.txHashToEthAddressMap, ethBatchIds));
+                    break;
+                case ETH_CHAIN_HISTORY:
+                    records.add(chainHistoryRecord(ETH_CHAIN_HISTORY, w.chainTip));
+                    break;
+                case AION_FINALIZED_BUNDLES:
+                    records.add(aionFinalizedRecord(w.bundles, w.chainTip, w.finalizationTip, aionBatchIds));
+                    break;
+                case AION_CHAIN_HISTORY:
+                    records.add(chainHistoryRecord(AION_CHAIN_HISTORY, w.chainTip));
+                    break;
+            }
+        }
+
+        append(records);
+    }
+
+    /**
+     * Kept in memory only: nothing reads it back from this store, and logging it would append (and fsync) a record
+     * on every tip-state tick, growing the log without bound.
+     */
+    @Override
+    public synchronized void storeAionLatestBlock(Long aionLatestBlockNumber) {
+        this.aionLatestBlockNumber = aionLatestBlockNumber;
+    }
+
+    /**
+     * Kept in memory only, like {@link #storeAionLatestBlock(Long)}.
+     */
+    @Override
+    public synchronized void storeAionEntityBalance(BigInteger bridgeBalance, BigInteger relayerBalance, long blockNumber) {
+        this.bridgeBalance = bridgeBalance;
+        this.relayerBalance = relayerBalance;
+        this.balanceBlockNumber = blockNumber;
+    }
+
+    // ---------------------------------------------------------------------
+    // Reads
+    // ---------------------------------------------------------------------
+
+    private static class EthBundleEntry {
+        final PersistentBundle bundle;
+        final long created;
+
+        EthBundleEntry(PersistentBundle bundle, long created) {
+            this.bundle = bundle;
+            this.created = created;
+        }
+    }
+
+    private EthBundleEntry readEthBundle(long offset) throws PersistenceServiceException {
+        int length = read(offset, 4).getInt();
+        ByteBuffer b = read(offset + 4, length);
+
+        long bundleId = b.getLong();
+        long created = b.getLong();
+        long ethBlockNumber = b.getLong();
+        Word32 ethBlockHash = getWord32(b);
+        int indexInEthBlock = b.getInt();
+        byte[] transfers = new byte[b.getInt()];
+        b.get(transfers);
+
+        Bundle bundle = new Bundle(ethBlockNumber, ethBlockHash, indexInEthBlock, TransferCodec.decode(transfers));
+        return new EthBundleEntry(new PersistentBundle(bundleId, bundle), created);
+    }
+
+    private AionFinalizedBundle readAionBundle(long offset) throws PersistenceServiceException {
+        ByteBuffer b = read(offset, AION_BUNDLE_LENGTH);
+
+        long bundleId = b.getLong();
+        Word32 bundleHash = getWord32(b);
+        Word32 aionTxHash = getWord32(b);
+        long aionBlockNumber = b.getLong();
+        Word32 aionBlockHash = getWord32(b);
+        return new AionFinalizedBundle(bundleId, bundleHash, aionTxHash, aionBlockNumber, aionBlockHash);
+    }
+
+    private static void checkRange(Long startBundleId, Long endBundleId) {
+        if (startBundleId < 0 || endBundleId < 0) throw new IllegalArgumentException("startBundleId || endBundleId < 0");
+        if (startBundleId > endBundleId) throw new IllegalArgumentException("startBundleId > endBundleId");
+    }
+
+    @Override
+    public synchronized Optional<List<PersistentBundle>> getBundleRangeClosed(Long startBundleId, Long endBundleId)
+            throws PersistenceServiceException {
+        checkRange(startBundleId, endBundleId);
+
+        Collection<Long> offsets = ethBundles.subMap(startBundleId, true, endBundleId, true).values();
+        if (offsets.size() != endBundleId - startBundleId + 1)
+            return Optional.empty();
+
+        List<PersistentBundle> result = new ArrayList<>(offsets.size());
+        for (long offset : offsets)
+            result.add(readEthBundle(offset).bundle);
+        return Optional.of(result);
+    }
+
+    @Override
+    public synchronized Optional<PersistentBundle> getEthFinalizedBundle() throws PersistenceServiceException {
+        if (ethFinalizedBundleId == null)
+            return Optional.empty();
+
+        Long offset = ethBundles.get(ethFinalizedBundleId);
+        if (offset == null)
+            throw new IllegalStateException("database in inconsistent state");
+
+        return Optional.of(readEthBundle(offset).bundle);
+    }
+
+    @Override
+    public synchronized Optional<Long> getEthFinalizedBundleId() {
+        return Optional.ofNullable(ethFinalizedBundleId);
+    }
+
+    @Override
+    public synchronized Optional<ChainLink> getEthFinalizedBlock() {
+        return Optional.ofNullable(ethFinalizedBlock);
+    }
+
+    @Override
+    public synchronized Optional<Long> getAionFinalizedBundleId() {
+        return Optional.ofNullable(aionFinalizedBundleId);
+    }
+
+    @Override
+    public synchronized Optional<ChainLink> getAionFinalizedBlock() {
+        return Optional.ofNullable(aionFinalizedBlock);
+    }
+
+    @Override
+    public synchronized Optional<Timestamp> getEthBundleCreationTimestamp(long bundleId) throws PersistenceServiceException {
+        Long offset = ethBundles.get(bundleId);
+        if (offset == null)
+            return Optional.empty();
+
+        return Optional.of(new Timestamp(readEthBundle(offset).created));
+    }
+
+    @Override
+    public synchronized Map<Long, Timestamp> getEthBundleCreationTimestampRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException {
+        checkRange(startBundleId, endBundleId);
+
+        Map<Long, Timestamp> result = new HashMap<>();
+        for (Map.Entry<Long, Long> e : ethBundles.subMap(startBundleId, true, endBundleId, true).entrySet())
+            result.put(e.getKey(), new Timestamp(readEthBundle(e.getValue()).created));
+        return result;
+    }
+
+    @Override
+    public synchronized Optional<List<AionFinalizedBundle>> getAionTxHashRangeClosed(Long startBundleId, Long endBundleId)
+            throws PersistenceServiceException {
+        checkRange(startBundleId, endBundleId);
+
+        Collection<Long> offsets = aionBundles.subMap(startBundleId, true, endBundleId, true).values();
+        if (offsets.size() != endBundleId - startBundleId + 1)
+            return Optional.empty();
+
+        List<AionFinalizedBundle> result = new ArrayList<>(offsets.size());
+        for (long offset : offsets)
+            result.add(readAionBundle(offset));
+        return Optional.of(result);
+    }
+
+    @Override
+    public synchronized Optional<List<Word16>> getTransferValueRangeClosed(Long startBundleId, Long endBundleId)
+            throws PersistenceServiceException {
+        if (startBundleId < 0 || endBundleId < 0)
+            throw new IllegalArgumentException("startBlockNumber || endBlockNumber < 0");
+        if (startBundleId > endBundleId) throw new IllegalArgumentException("startBlockNumber > endBlockNumber");
+
+        List<Word16> result = new ArrayList<>();
+        for (long offset : ethBundles.subMap(startBundleId, true, endBundleId, true).values()) {
+            for (Transfer t : readEthBundle(offset).bundle.getBundle().getTransfers())
+                result.add(t.getAionTransferAmount());
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public RangeCursor<PersistentBundle> openBundleRangeClosed(long startBundleId, long endBundleId) {
+        checkRange(startBundleId, endBundleId);
+        return new IndexCursor<>(ethBundles, startBundleId, endBundleId, offset -> readEthBundle(offset).bundle);
+    }
+
+    @Override
+    public RangeCursor<AionFinalizedBundle> openAionTxHashRangeClosed(long startBundleId, long endBundleId) {
+        checkRange(startBundleId, endBundleId);
+        return new IndexCursor<>(aionBundles, startBundleId, endBundleId, this::readAionBundle);
+    }
+
+    private interface EntryReader<T> {
+        T read(long offset) throws PersistenceServiceException;
+    }
+
+    /**
+     * Walks the index one bundle id at a time, so only the current row is materialized.
+     */
+    private class IndexCursor<T> implements RangeCursor<T> {
+        private final NavigableMap<Long, Long> index;
+        private final long endBundleId;
+        private final EntryReader<T> reader;
+        private long expectedBundleId;
+
+        IndexCursor(NavigableMap<Long, Long> index, long startBundleId, long endBundleId, EntryReader<T> reader) {
+            this.index = index;
+            this.expectedBundleId = startBundleId;
+            this.endBundleId = endBundleId;
+            this.reader = reader;
+        }
+
+        @Override
+        public Optional<T> next() throws PersistenceServiceException {
+            if (expectedBundleId > endBundleId)
+                return Optional.empty();
+
+            synchronized (EmbeddedDatastore.this) {
+                Long offset = index.get(expectedBundleId);
+                if (offset == null)
+                    throw new IllegalStateException("missing bundle id " + expectedBundleId + " from database");
+
+                expectedBundleId++;
+                return Optional.of(reader.read(offset));
+            }
+        }
+
+        @Override
+        public void close() { }
+    }
+}
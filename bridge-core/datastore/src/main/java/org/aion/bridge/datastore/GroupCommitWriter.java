@@ -0,0 +1,253 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.base.types.Word32;
+import org.aion.bridge.chain.bridge.StatefulBundle;
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.aion.bridge.chain.eth.types.EthAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces finalized-bundle and chain-history writes from several producers (the eth chain history and the
+ * finalizer threads) into one transaction, instead of one commit per call.
+ * <p>
+ * A group is whatever has been submitted by the time the writer is free: a write that arrives while the writer is
+ * idle is committed right away, and writes that arrive while a commit is in flight share the next one (up to
+ * maxBundlesPerCommit bundles). Batching therefore grows with load without adding latency to a lone write.
+ * <p>
+ * Writes are committed in submission order, so the status rows always end up as written by the latest submitted
+ * write. Each submission returns a future that completes once its group has committed (or fails with the group's
+ * {@link PersistenceServiceException}); callers that need the write durable before moving on block on it with
+ * {@link #await(CompletableFuture)}.
+ */
+public class GroupCommitWriter extends Thread {
+
+    @SuppressWarnings("UnusedReturnValue")
+    public static class Builder {
+
+        // Required parameters
+        GroupCommitTarget target;
+
+        // Optional parameters
+        int maxBundlesPerCommit = 1000;
+
+        /**
+         * @param x a datastore that supports group commits ({@link MySqlDatastore} or {@link EmbeddedDatastore})
+         */
+        public Builder setDatabase(DataStore x) {
+            if (!(x instanceof GroupCommitTarget))
+                throw new IllegalArgumentException(x.getClass().getSimpleName() + " does not support group commits");
+            target = (GroupCommitTarget) x;
+            return this;
+        }
+
+        public Builder setMaxBundlesPerCommit(int x) { maxBundlesPerCommit = x; return this; }
+
+        public GroupCommitWriter build() {
+            if (target == null)
+                throw new IllegalArgumentException("database must be non-null");
+            if (maxBundlesPerCommit < 1)
+                throw new IllegalArgumentException("maxBundlesPerCommit < 1");
+
+            return new GroupCommitWriter(this);
+        }
+    }
+
+    static final class PendingWrite {
+        enum Kind { ETH_FINALIZED_BUNDLES, ETH_CHAIN_HISTORY, AION_FINALIZED_BUNDLES, AION_CHAIN_HISTORY }
+
+        final Kind kind;
+        final List<StatefulBundle> bundles;
+        final ChainLink chainTip;
+        final StatefulBundle finalizationTip;
+        final Map<Word32, EthAddress> txHashToEthAddressMap;
+        final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        private PendingWrite(Kind kind, List<StatefulBundle> bundles, ChainLink chainTip, StatefulBundle finalizationTip,
+                             Map<Word32, EthAddress> txHashToEthAddressMap) {
+            this.kind = kind;
+            this.bundles = bundles;
+            this.chainTip = chainTip;
+            this.finalizationTip = finalizationTip;
+            this.txHashToEthAddressMap = txHashToEthAddressMap;
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+
+    private static final long SHUTDOWN_POLL_MS = 100;
+
+    private final GroupCommitTarget target;
+    private final int maxBundlesPerCommit;
+
+    private final LinkedBlockingQueue<PendingWrite> pending = new LinkedBlockingQueue<>();
+    private volatile boolean shutdown = false;
+
+    // set by shutdown(); guards the hand-off, so no submission lands in the queue after it was drained for the last time
+    private final Object closeLock = new Object();
+    private boolean closed = false;
+
+    private GroupCommitWriter(Builder b) {
+        super("GroupCommitWriter");
+        this.target = b.target;
+        this.maxBundlesPerCommit = b.maxBundlesPerCommit;
+    }
+
+    public CompletableFuture<Void> submitEthFinalizedBundles(List<StatefulBundle> bundles, ChainLink ethChainTip,
+                                                             StatefulBundle finalizationTip,
+                                                             Map<Word32, EthAddress> txHashToEthAddressMap) {
+        return submit(new PendingWrite(PendingWrite.Kind.ETH_FINALIZED_BUNDLES, bundles, ethChainTip, finalizationTip,
+                txHashToEthAddressMap));
+    }
+
+    public CompletableFuture<Void> submitEthChainHistory(ChainLink ethChainTip) {
+        return submit(new PendingWrite(PendingWrite.Kind.ETH_CHAIN_HISTORY, Collections.emptyList(), ethChainTip, null, null));
+    }
+
+    public CompletableFuture<Void> submitAionFinalizedBundles(List<StatefulBundle> bundles, ChainLink aionChainTip,
+                                                              StatefulBundle finalizationTip) {
+        return submit(new PendingWrite(PendingWrite.Kind.AION_FINALIZED_BUNDLES, bundles, aionChainTip, finalizationTip, null));
+    }
+
+    public CompletableFuture<Void> submitAionChainHistory(ChainLink aionChainTip) {
+        return submit(new PendingWrite(PendingWrite.Kind.AION_CHAIN_HISTORY, Collections.emptyList(), aionChainTip, null, null));
+    }
+
+    private CompletableFuture<Void> submit(PendingWrite w) {
+        synchronized (closeLock) {
+            if (closed)
+                w.durable.completeExceptionally(new PersistenceServiceException("GroupCommitWriter is shut down"));
+            else
+                pending.add(w);
+        }
+        return w.durable;
+    }
+
+    /**
+     * Block until a submitted write has committed.
+     */
+    public static void await(CompletableFuture<Void> durable) throws PersistenceServiceException, InterruptedException {
+        try {
+            durable.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PersistenceServiceException)
+                throw (PersistenceServiceException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new PersistenceServiceException(e);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!shutdown || !pending.isEmpty()) {
+                List<PendingWrite> group = nextGroup();
+                if (!group.isEmpty())
+                    commit(group);
+            }
+        } catch (InterruptedException e) {
+            log.debug("Interrupted");
+        }
+
+        // anything left behind by an interrupt will never be written
+        List<PendingWrite> abandoned = new ArrayList<>();
+        synchronized (closeLock) {
+            closed = true;
+            pending.drainTo(abandoned);
+        }
+        for (PendingWrite w : abandoned)
+            w.durable.completeExceptionally(new PersistenceServiceException("GroupCommitWriter is shut down"));
+
+        log.debug("Exiting gracefully ...");
+    }
+
+    /**
+     * Wait for a first write, then take whatever else is already queued, up to maxBundlesPerCommit bundles.
+     */
+    private List<PendingWrite> nextGroup() throws InterruptedException {
+        List<PendingWrite> group = new ArrayList<>();
+
+        PendingWrite first = pending.poll(SHUTDOWN_POLL_MS, TimeUnit.MILLISECONDS);
+        if (first == null)
+            return group;
+
+        group.add(first);
+        int bundles = first.bundles.size();
+
+        PendingWrite next;
+        while (bundles < maxBundlesPerCommit && (next = pending.poll()) != null) {
+            group.add(next);
+            bundles += next.bundles.size();
+        }
+        return group;
+    }
+
+    private void commit(List<PendingWrite> group) {
+        long start = System.nanoTime();
+        try {
+            target.storeGroup(group);
+        } catch (PersistenceServiceException | RuntimeException e) {
+            if (group.size() == 1) {
+                log.error("Commit failed", e);
+                group.get(0).durable.completeExceptionally(e);
+                return;
+            }
+
+            // the group was rolled back as a whole; commit its writes one by one, so only the bad one fails
+            log.warn("Group commit of {} writes failed, retrying them individually", group.size(), e);
+            for (PendingWrite w : group)
+                commit(Collections.singletonList(w));
+            return;
+        }
+
+        log.trace("Committed {} writes in {} us", group.size(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        for (PendingWrite w : group)
+            w.durable.complete(null);
+    }
+
+    /**
+     * Stop accepting writes (later submissions fail right away); everything already submitted is still committed
+     * before the thread exits.
+     */
+    public void shutdown() {
+        synchronized (closeLock) {
+            closed = true;
+        }
+        this.shutdown = true;
+        log.debug("Shutdown signal received");
+    }
+}
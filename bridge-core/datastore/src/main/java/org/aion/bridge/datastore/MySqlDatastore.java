@@ -24,9 +24,8 @@
 
 package org.aion.bridge.datastore;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.aion.bridge.chain.aion.types.AionReceipt;
+import org.aion.bridge.chain.base.serialize.TransferCodec;
 import org.aion.bridge.chain.base.types.ChainLink;
 import org.aion.bridge.chain.base.types.Word16;
 import org.aion.bridge.chain.base.types.Word32;
@@ -38,7 +37,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.io.IOException;
 import java.math.BigInteger;
 import java.sql.*;
 import java.util.*;
@@ -48,14 +46,23 @@ import static java.util.stream.Collectors.toSet;
 import static org.apache.commons.lang3.ObjectUtils.allNotNull;
 
 @SuppressWarnings("Duplicates")
-public class MySqlDatastore implements DataStore {
+public class MySqlDatastore implements DataStore, GroupCommitTarget {
 
     private static final Logger log = LoggerFactory.getLogger(MySqlDatastore.class);
-    private final static ObjectMapper jackson = new ObjectMapper();
     private final DbConnectionManager ds;
+    private final StatusCache cache;
 
     public MySqlDatastore(@Nonnull DbConnectionManager ds) {
+        this(ds, false);
+    }
+
+    /**
+     * @param cacheStatus keep the status rows (finalized blocks and bundles) in memory, updated on every commit. Only
+     *                    safe when this process is the sole writer of the database.
+     */
+    public MySqlDatastore(@Nonnull DbConnectionManager ds, boolean cacheStatus) {
         this.ds = ds;
+        this.cache = cacheStatus ? new StatusCache() : null;
     }
 
     private void executeBatchUpdate(PreparedStatement ps, int rowCount) throws SQLException {
@@ -86,6 +93,148 @@ public class MySqlDatastore implements DataStore {
         }
     }
 
+    private static int addEthBundles(PreparedStatement psBundle, PreparedStatement psTransfers,
+                                     PreparedStatement psTransferStatus, List<StatefulBundle> bundles,
+                                     Map<Word32, EthAddress> txHashToEthAddressMap) throws SQLException {
+        int transferCount = 0;
+
+        for (StatefulBundle sb : bundles) {
+            if (sb.getState() != StatefulBundle.State.BUNDLED)
+                throw new IllegalStateException("stateful bundle should be in state BUNDLED");
+
+            Bundle b = sb.getBundle();
+            List<Transfer> transfers = b.getTransfers();
+
+            psBundle.setLong(1, sb.getBundleId());
+            psBundle.setBytes(2, b.getBundleHash().payload());
+            psBundle.setLong(3, b.getEthBlockNumber());
+            psBundle.setBytes(4, b.getEthBlockHash().payload());
+            psBundle.setInt(5, b.getIndexInEthBlock());
+            psBundle.setBytes(6, TransferCodec.encode(transfers));
+            psBundle.addBatch();
+
+            for (Transfer transfer : transfers) {
+                EthAddress ethAddress = txHashToEthAddressMap.get(transfer.getEthTxHash());
+                if (ethAddress == null)
+                    throw new IllegalStateException("MySqlDatastore - could not find Eth Tx Hash in txHashToEthAddressMap");
+
+                psTransfers.setBytes(1, transfer.getEthTxHash().payload());
+                psTransfers.setLong(2, sb.getBundleId());
+                psTransfers.setBytes(3, sb.getBundleHash().payload());
+                psTransfers.setBytes(4, ethAddress.payload());
+                psTransfers.setBytes(5, transfer.getAionAddress().payload());
+                psTransfers.setBytes(6, transfer.getAionTransferAmount().payload());
+                psTransfers.addBatch();
+
+                psTransferStatus.setBytes(1, transfer.getEthTxHash().payload());
+                psTransferStatus.setLong(2, sb.getBundleId());
+                psTransferStatus.setBytes(3, sb.getBundleHash().payload());
+                psTransferStatus.setLong(4, b.getEthBlockNumber());
+                psTransferStatus.setBytes(5, b.getEthBlockHash().payload());
+                psTransferStatus.setBytes(6, ethAddress.payload());
+                psTransferStatus.setBytes(7, transfer.getAionAddress().payload());
+                psTransferStatus.setBytes(8, transfer.getAionTransferAmount().payload());
+                psTransferStatus.addBatch();
+
+                transferCount++;
+            }
+        }
+        return transferCount;
+    }
+
+    /**
+     * @param transferStatusRows receives, per bundle, the number of transfer_status rows its update must hit
+     */
+    private static void addAionBundles(PreparedStatement psBundle, PreparedStatement psTransferStatus,
+                                       List<StatefulBundle> bundles, List<Integer> transferStatusRows) throws SQLException {
+        for (StatefulBundle sb : bundles) {
+            if (sb.getState() != StatefulBundle.State.FINALIZED)
+                throw new IllegalStateException("Stateful bundle should be in state FINALIZED");
+
+            AionReceipt r = sb.getAionReceipt();
+
+            psBundle.setLong(1, sb.getBundleId());
+            psBundle.setBytes(2, sb.getBundleHash().payload());
+            psBundle.setBytes(3, r.getTransactionHash().payload());
+            psBundle.setLong(4, r.getBlockNumber());
+            psBundle.setBytes(5, r.getBlockHash().payload());
+            psBundle.addBatch();
+
+            psTransferStatus.setBytes(1, r.getTransactionHash().payload());
+            psTransferStatus.setLong(2, r.getBlockNumber());
+            psTransferStatus.setBytes(3, r.getBlockHash().payload());
+            psTransferStatus.setLong(4, sb.getBundleId());
+            psTransferStatus.addBatch();
+            transferStatusRows.add(sb.getBundle().getTransfers().size());
+        }
+    }
+
+    /**
+     * transfer_status rows are updated with one statement per bundle, which must hit every transfer of the bundle; a
+     * missing row (e.g. a database whose transfer_status was never backfilled) fails the commit.
+     */
+    private static void executeTransferStatusUpdate(PreparedStatement ps, List<Integer> expectedRows) throws SQLException {
+        int[] updates = ps.executeBatch();
+
+        if (updates.length != expectedRows.size())
+            throw new IllegalStateException("MySqlDatastore.executeTransferStatusUpdate: updates.length != bundle count");
+        for (int i = 0; i < updates.length; i++) {
+            if (updates[i] != expectedRows.get(i))
+                throw new IllegalStateException("MySqlDatastore.executeTransferStatusUpdate: " + updates[i] +
+                        " transfer_status rows updated, expected " + expectedRows.get(i));
+        }
+    }
+
+    private static void addBundleStatus(PreparedStatement ps, StatefulBundle finalizationTip) throws SQLException {
+        ps.setLong(1, finalizationTip.getBundleId());
+        ps.setBytes(2, finalizationTip.getBundleHash().payload());
+        ps.addBatch();
+    }
+
+    private static void addChainTip(PreparedStatement ps, ChainLink chainTip) throws SQLException {
+        ps.setLong(1, chainTip.getNumber());
+        ps.setBytes(2, chainTip.getHash().payload());
+        ps.addBatch();
+    }
+
+    private static List<Transfer> readTransfers(ResultSet rs, int column) throws SQLException {
+        byte[] transfers = rs.getBytes(column);
+        if (transfers == null)
+            throw new IllegalStateException("database in inconsistent state");
+
+        return TransferCodec.decode(transfers);
+    }
+
+    // bundle_id, bundle_hash, eth_block_number, eth_block_hash, index_in_eth_block, transfers
+    private static PersistentBundle mapBundle(ResultSet rs) throws SQLException {
+        Long bundleId = rs.getLong(1);
+        byte[] bundleHash = rs.getBytes(2);
+        Long ethBlockNumber = rs.getLong(3);
+        byte[] ethBlockHash = rs.getBytes(4);
+        Integer indexInEthBlock = rs.getInt(5);
+
+        if (!allNotNull(bundleId, bundleHash, ethBlockNumber, ethBlockHash, indexInEthBlock))
+            throw new IllegalStateException("database in inconsistent state");
+
+        Bundle bundle = new Bundle(ethBlockNumber, new Word32(ethBlockHash), indexInEthBlock, readTransfers(rs, 6));
+        return new PersistentBundle(bundleId, bundle);
+    }
+
+    // bundle_id, bundle_hash, aion_tx_hash, aion_block_number, aion_block_hash
+    private static AionFinalizedBundle mapAionFinalizedBundle(ResultSet rs) throws SQLException {
+        Long bundleId = rs.getLong(1);
+        byte[] bundleHash = rs.getBytes(2);
+        byte[] aionTxHash = rs.getBytes(3);
+        Long aionBlockNum = rs.getLong(4);
+        byte[] aionBlockHash = rs.getBytes(5);
+
+        if (!allNotNull(bundleId, bundleHash, aionTxHash, aionBlockNum, aionBlockHash))
+            throw new IllegalStateException("database in inconsistent state");
+
+        return new AionFinalizedBundle(bundleId, new Word32(bundleHash), new Word32(aionTxHash),
+                aionBlockNum, new Word32(aionBlockHash));
+    }
+
     // ---------------------------------------------------------------------
     // Writes
     // ---------------------------------------------------------------------
@@ -101,64 +250,27 @@ public class MySqlDatastore implements DataStore {
         try(Connection c = ds.getConnection()) {
             try (PreparedStatement psBundle = c.prepareStatement(MySqlQuery.INSERT_ETH_FINALIZED_BUNDLE);
                  PreparedStatement psTransfers = c.prepareStatement(MySqlQuery.INSERT_ETH_TRANSFER);
+                 PreparedStatement psTransferStatus = c.prepareStatement(MySqlQuery.INSERT_TRANSFER_STATUS);
                  PreparedStatement psBundleStatus = c.prepareStatement(MySqlQuery.UPDATE_ETH_FINALIZED_BUNDLE_ID);
                  PreparedStatement psChainTip = c.prepareStatement(MySqlQuery.UPDATE_ETH_FINALIZED_BLOCK)) {
 
                 if (c.getAutoCommit())
                     throw new IllegalStateException("auto-commit must be OFF for this operation.");
 
-                int transferCount = 0;
-
-                for (StatefulBundle sb : bundles) {
-                    if (sb.getState() != StatefulBundle.State.BUNDLED)
-                        throw new IllegalStateException("stateful bundle should be in state BUNDLED");
-
-                    Bundle b = sb.getBundle();
-                    List<Transfer> transfers = b.getTransfers();
-
-                    psBundle.setLong(1, sb.getBundleId());
-                    psBundle.setString(2, b.getBundleHash().toString());
-                    psBundle.setLong(3, b.getEthBlockNumber());
-                    psBundle.setString(4, b.getEthBlockHash().toString());
-                    psBundle.setInt(5, b.getIndexInEthBlock());
-                    psBundle.setString(6, jackson.writeValueAsString(transfers));
-                    psBundle.addBatch();
-
-                    for (Transfer transfer : transfers) {
-                        EthAddress ethAddress = txHashToEthAddressMap.get(transfer.getEthTxHash());
-                        if (ethAddress == null)
-                            throw new IllegalStateException("MySqlDatastore - could not find Eth Tx Hash in txHashToEthAddressMap");
-
-                        psTransfers.setString(1, transfer.getEthTxHash().toString());
-                        psTransfers.setLong(2, sb.getBundleId());
-                        psTransfers.setString(3, sb.getBundleHash().toString());
-                        psTransfers.setString(4, ethAddress.toString());
-                        psTransfers.setString(5, transfer.getAionAddress().toString());
-                        psTransfers.setString(6, transfer.getAionTransferAmount().toString());
-                        psTransfers.addBatch();
-
-                        transferCount++;
-                    }
-                }
-
-                psBundleStatus.setLong(1, finalizationTip.getBundleId());
-                psBundleStatus.setString(2, finalizationTip.getBundleHash().toString());
-                psBundleStatus.addBatch();
-
-                psChainTip.setLong(1, ethChainTip.getNumber());
-                psChainTip.setString(2, ethChainTip.getHash().toString());
-                psChainTip.addBatch();
+                int transferCount = addEthBundles(psBundle, psTransfers, psTransferStatus, bundles, txHashToEthAddressMap);
+                addBundleStatus(psBundleStatus, finalizationTip);
+                addChainTip(psChainTip, ethChainTip);
 
                 executeBatchUpdate(psBundle, bundles.size());
                 executeBatchUpdate(psTransfers, transferCount);
+                executeBatchUpdate(psTransferStatus, transferCount);
                 executeBatchReplace(psBundleStatus, 1);
                 executeBatchReplace(psChainTip, 1);
 
                 c.commit();
-            }
-            catch (IOException e) {
-                log.error("Jackson failed to serialized transactions to Json", e);
-                throw new PersistenceServiceException(e);
+
+                if (cache != null)
+                    cache.ethFinalized(new PersistentBundle(finalizationTip.getBundleId(), finalizationTip.getBundle()), ethChainTip);
             }
             catch (SQLException e) {
                 try {
@@ -185,13 +297,14 @@ public class MySqlDatastore implements DataStore {
                 if (c.getAutoCommit())
                     throw new IllegalStateException("auto-commit must be OFF for this operation.");
 
-                psChainTip.setLong(1, ethChainTip.getNumber());
-                psChainTip.setString(2, ethChainTip.getHash().toString());
-                psChainTip.addBatch();
+                addChainTip(psChainTip, ethChainTip);
 
                 executeBatchReplace(psChainTip, 1);
 
                 c.commit();
+
+                if (cache != null)
+                    cache.ethChainHistory(ethChainTip);
             } catch (SQLException e) {
                 try {
                     c.rollback();
@@ -215,13 +328,14 @@ public class MySqlDatastore implements DataStore {
                 if (c.getAutoCommit())
                     throw new IllegalStateException("auto-commit must be OFF for this operation.");
 
-                psChainTip.setLong(1, aionChainTip.getNumber());
-                psChainTip.setString(2, aionChainTip.getHash().toString());
-                psChainTip.addBatch();
+                addChainTip(psChainTip, aionChainTip);
 
                 executeBatchReplace(psChainTip, 1);
 
                 c.commit();
+
+                if (cache != null)
+                    cache.aionChainHistory(aionChainTip);
             } catch (SQLException e) {
                 try {
                     c.rollback();
@@ -243,38 +357,137 @@ public class MySqlDatastore implements DataStore {
                                           StatefulBundle finalizationTip) throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement psBundle = c.prepareStatement(MySqlQuery.INSERT_AION_FINALIZED_BUNDLE);
+                 PreparedStatement psTransferStatus = c.prepareStatement(MySqlQuery.UPDATE_TRANSFER_STATUS_SUBMITTED);
                  PreparedStatement psBundleStatus = c.prepareStatement(MySqlQuery.UPDATE_AION_FINALIZED_BUNDLE_ID);
                  PreparedStatement psChainTip = c.prepareStatement(MySqlQuery.UPDATE_AION_FINALIZED_BLOCK)) {
                 if (c.getAutoCommit())
                     throw new IllegalStateException("Auto-commit must be ON for this operation.");
 
-                for (StatefulBundle sb : bundles) {
-                    if (sb.getState() != StatefulBundle.State.FINALIZED)
-                        throw new IllegalStateException("Stateful bundle should be in state FINALIZED");
+                List<Integer> transferStatusRows = new ArrayList<>(bundles.size());
+                addAionBundles(psBundle, psTransferStatus, bundles, transferStatusRows);
+                addBundleStatus(psBundleStatus, finalizationTip);
+                addChainTip(psChainTip, aionChainTip);
 
-                    AionReceipt r = sb.getAionReceipt();
+                executeBatchUpdate(psBundle, bundles.size());
+                executeTransferStatusUpdate(psTransferStatus, transferStatusRows);
+                executeBatchReplace(psBundleStatus, 1);
+                executeBatchReplace(psChainTip, 1);
+
+                c.commit();
 
-                    psBundle.setLong(1, sb.getBundleId());
-                    psBundle.setString(2, sb.getBundleHash().toString());
-                    psBundle.setString(3, r.getTransactionHash().toString());
-                    psBundle.setLong(4, r.getBlockNumber());
-                    psBundle.setString(5, r.getBlockHash().toString());
-                    psBundle.addBatch();
+                if (cache != null)
+                    cache.aionFinalized(finalizationTip.getBundleId(), aionChainTip);
+            } catch (SQLException e) {
+                try {
+                    c.rollback();
+                } catch (SQLException f) {
+                    log.error("Failed to rollback commit on SQLException", e);
+                    throw new PersistenceServiceException(f);
                 }
+                log.error("SQLException caught; Commit rolled back successfully", e);
+                throw new PersistenceServiceException(e);
+            }
+        } catch (SQLException e) {
+            log.error("Failed to obtain a datasource connection", e);
+            throw new PersistenceServiceException(e);
+        }
+    }
 
-                psBundleStatus.setLong(1, finalizationTip.getBundleId());
-                psBundleStatus.setString(2, finalizationTip.getBundleHash().toString());
-                psBundleStatus.addBatch();
+    /**
+     * All inserts of the group are batched per table; each status row is written once, with the value of the last
+     * write in the group that touches it.
+     */
+    @Override
+    public void storeGroup(List<GroupCommitWriter.PendingWrite> writes) throws PersistenceServiceException {
+        try (Connection c = ds.getConnection()) {
+            try (PreparedStatement psEthBundle = c.prepareStatement(MySqlQuery.INSERT_ETH_FINALIZED_BUNDLE);
+                 PreparedStatement psTransfers = c.prepareStatement(MySqlQuery.INSERT_ETH_TRANSFER);
+                 PreparedStatement psTransferStatus = c.prepareStatement(MySqlQuery.INSERT_TRANSFER_STATUS);
+                 PreparedStatement psTransferStatusSubmitted = c.prepareStatement(MySqlQuery.UPDATE_TRANSFER_STATUS_SUBMITTED);
+                 PreparedStatement psEthBundleStatus = c.prepareStatement(MySqlQuery.UPDATE_ETH_FINALIZED_BUNDLE_ID);
+                 PreparedStatement psEthChainTip = c.prepareStatement(MySqlQuery.UPDATE_ETH_FINALIZED_BLOCK);
+                 PreparedStatement psAionBundle = c.prepareStatement(MySqlQuery.INSERT_AION_FINALIZED_BUNDLE);
+                 PreparedStatement psAionBundleStatus = c.prepareStatement(MySqlQuery.UPDATE_AION_FINALIZED_BUNDLE_ID);
+                 PreparedStatement psAionChainTip = c.prepareStatement(MySqlQuery.UPDATE_AION_FINALIZED_BLOCK)) {
 
-                psChainTip.setLong(1, aionChainTip.getNumber());
-                psChainTip.setString(2, aionChainTip.getHash().toString());
-                psChainTip.addBatch();
+                if (c.getAutoCommit())
+                    throw new IllegalStateException("auto-commit must be OFF for this operation.");
 
-                executeBatchUpdate(psBundle, bundles.size());
-                executeBatchReplace(psBundleStatus, 1);
-                executeBatchReplace(psChainTip, 1);
+                int ethBundleCount = 0;
+                int transferCount = 0;
+                int aionBundleCount = 0;
+                List<Integer> transferStatusRows = new ArrayList<>();
+                StatefulBundle ethFinalizationTip = null;
+                ChainLink ethChainTip = null;
+                StatefulBundle aionFinalizationTip = null;
+                ChainLink aionChainTip = null;
+
+                for (GroupCommitWriter.PendingWrite w : writes) {
+                    switch (w.kind) {
+                        case ETH_FINALIZED_BUNDLES:
+                            transferCount += addEthBundles(psEthBundle, psTransfers, psTransferStatus, w.bundles, w.txHashToEthAddressMap);
+                            ethBundleCount += w.bundles.size();
+                            ethFinalizationTip = w.finalizationTip;
+                            ethChainTip = w.chainTip;
+                            break;
+                        case ETH_CHAIN_HISTORY:
+                            ethChainTip = w.chainTip;
+                            break;
+                        case AION_FINALIZED_BUNDLES:
+                            addAionBundles(psAionBundle, psTransferStatusSubmitted, w.bundles, transferStatusRows);
+                            aionBundleCount += w.bundles.size();
+                            aionFinalizationTip = w.finalizationTip;
+                            aionChainTip = w.chainTip;
+                            break;
+                        case AION_CHAIN_HISTORY:
+                            aionChainTip = w.chainTip;
+                            break;
+                    }
+                }
+
+                executeBatchUpdate(psEthBundle, ethBundleCount);
+                executeBatchUpdate(psTransfers, transferCount);
+                executeBatchUpdate(psTransferStatus, transferCount);
+                executeBatchUpdate(psAionBundle, aionBundleCount);
+                executeTransferStatusUpdate(psTransferStatusSubmitted, transferStatusRows);
+
+                if (ethFinalizationTip != null) {
+                    addBundleStatus(psEthBundleStatus, ethFinalizationTip);
+                    executeBatchReplace(psEthBundleStatus, 1);
+                }
+                if (ethChainTip != null) {
+                    addChainTip(psEthChainTip, ethChainTip);
+                    executeBatchReplace(psEthChainTip, 1);
+                }
+                if (aionFinalizationTip != null) {
+                    addBundleStatus(psAionBundleStatus, aionFinalizationTip);
+                    executeBatchReplace(psAionBundleStatus, 1);
+                }
+                if (aionChainTip != null) {
+                    addChainTip(psAionChainTip, aionChainTip);
+                    executeBatchReplace(psAionChainTip, 1);
+                }
 
                 c.commit();
+
+                if (cache != null) {
+                    for (GroupCommitWriter.PendingWrite w : writes) {
+                        switch (w.kind) {
+                            case ETH_FINALIZED_BUNDLES:
+                                cache.ethFinalized(new PersistentBundle(w.finalizationTip.getBundleId(), w.finalizationTip.getBundle()), w.chainTip);
+                                break;
+                            case ETH_CHAIN_HISTORY:
+                                cache.ethChainHistory(w.chainTip);
+                                break;
+                            case AION_FINALIZED_BUNDLES:
+                                cache.aionFinalized(w.finalizationTip.getBundleId(), w.chainTip);
+                                break;
+                            case AION_CHAIN_HISTORY:
+                                cache.aionChainHistory(w.chainTip);
+                                break;
+                        }
+                    }
+                }
             } catch (SQLException e) {
                 try {
                     c.rollback();
@@ -327,14 +540,14 @@ public class MySqlDatastore implements DataStore {
                 if (c.getAutoCommit())
                     throw new IllegalStateException("Auto-commit must be OFF for this operation.");
 
-                String _bridgeBalance = (new Word32(ByteUtils.pad(bridgeBalance.toByteArray(), 32))).toString();
-                String _relayerBalance = (new Word32(ByteUtils.pad(relayerBalance.toByteArray(), 32))).toString();
+                byte[] _bridgeBalance = ByteUtils.pad(bridgeBalance.toByteArray(), 32);
+                byte[] _relayerBalance = ByteUtils.pad(relayerBalance.toByteArray(), 32);
 
-                psBridgeBalance.setString(1, _bridgeBalance);
+                psBridgeBalance.setBytes(1, _bridgeBalance);
                 psBridgeBalance.setLong(2, blockNumber);
                 psBridgeBalance.addBatch();
 
-                psRelayerBalance.setString(1, _relayerBalance);
+                psRelayerBalance.setBytes(1, _relayerBalance);
                 psRelayerBalance.setLong(2, blockNumber);
                 psRelayerBalance.addBatch();
 
@@ -361,6 +574,32 @@ public class MySqlDatastore implements DataStore {
     // ---------------------------------------------------------------------
     // Reads
     // ---------------------------------------------------------------------
+
+    /**
+     * Binds a closed bundle-id range to both the archive and the live branch of a range query (see
+     * {@link MySqlQuery#GET_ETH_FINALIZED_BUNDLE_RANGE}).
+     */
+    static void bindRange(PreparedStatement ps, long startBundleId, long endBundleId) throws SQLException {
+        ps.setLong(1, startBundleId);
+        ps.setLong(2, endBundleId);
+        ps.setLong(3, startBundleId);
+        ps.setLong(4, endBundleId);
+    }
+
+    @Override
+    public RangeCursor<PersistentBundle> openBundleRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException {
+        return new MySqlRangeCursor<>(ds, MySqlQuery.GET_ETH_FINALIZED_BUNDLE_RANGE, startBundleId, endBundleId,
+                MySqlDatastore::mapBundle, PersistentBundle::getBundleId);
+    }
+
+    @Override
+    public RangeCursor<AionFinalizedBundle> openAionTxHashRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException {
+        return new MySqlRangeCursor<>(ds, MySqlQuery.GET_AION_FINALIZED_BUNDLE_MAPPING, startBundleId, endBundleId,
+                MySqlDatastore::mapAionFinalizedBundle, AionFinalizedBundle::getBundleId);
+    }
+
     @Override
     public Optional<List<PersistentBundle>> getBundleRangeClosed(Long startBundleId, Long endBundleId)
             throws PersistenceServiceException {
@@ -376,8 +615,7 @@ public class MySqlDatastore implements DataStore {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_ETH_FINALIZED_BUNDLE_RANGE)) {
 
-                ps.setLong(1, startBundleId);
-                ps.setLong(2, endBundleId);
+                bindRange(ps, startBundleId, endBundleId);
 
                 try (ResultSet rs = ps.executeQuery()) {
                     rs.last();
@@ -389,22 +627,10 @@ public class MySqlDatastore implements DataStore {
 
                     rs.beforeFirst();
                     while (rs.next()) {
-                        Long bundleId = rs.getLong(1);
-                        String bundleHash = rs.getString(2);
-                        Long ethBlockNumber = rs.getLong(3);
-                        String ethBlockHash = rs.getString(4);
-                        Integer indexInEthBlock = rs.getInt(5);
-                        String transfersStr = rs.getString(6);
-
-                        if (!allNotNull(bundleId, bundleHash, ethBlockNumber, ethBlockHash, indexInEthBlock, transfersStr))
-                            throw new IllegalStateException("database in inconsistent state");
+                        PersistentBundle bundle = mapBundle(rs);
 
-                        Bundle bundle = new Bundle(ethBlockNumber, new Word32(ethBlockHash), indexInEthBlock,
-                                jackson.readValue(transfersStr, new TypeReference<List<Transfer>>() {
-                                }));
-
-                        result.add(new PersistentBundle(bundleId, bundle));
-                        expectedBundleIds.remove(bundleId);
+                        result.add(bundle);
+                        expectedBundleIds.remove(bundle.getBundleId());
                     }
                 }
 
@@ -414,7 +640,7 @@ public class MySqlDatastore implements DataStore {
 
                 return Optional.of(result);
 
-            } catch (SQLException | IOException e) {
+            } catch (SQLException e) {
                 throw new PersistenceServiceException(e);
             }
         } catch (SQLException e) {
@@ -425,6 +651,20 @@ public class MySqlDatastore implements DataStore {
 
     @Override
     public Optional<PersistentBundle> getEthFinalizedBundle() throws PersistenceServiceException {
+        if (cache == null)
+            return queryEthFinalizedBundle();
+
+        Optional<PersistentBundle> cached = cache.getEthFinalizedBundle();
+        if (cached != null)
+            return cached;
+
+        long version = cache.version();
+        Optional<PersistentBundle> x = queryEthFinalizedBundle();
+        cache.loadEthFinalizedBundle(version, x);
+        return x;
+    }
+
+    private Optional<PersistentBundle> queryEthFinalizedBundle() throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_STATUS_ETH_FINALIZED_BUNDLE_FULL);
                  ResultSet rs = ps.executeQuery()) {
@@ -442,23 +682,20 @@ public class MySqlDatastore implements DataStore {
                 // bundle_id, bundle_hash, eth_block_number, eth_block_hash, index_in_eth_block, transfers
 
                 Long bundleId = rs.getLong(1);
-                String bundleHash = rs.getString(2);
+                byte[] bundleHash = rs.getBytes(2);
                 Long ethBlockNumber = rs.getLong(3);
-                String ethBlockHash = rs.getString(4);
+                byte[] ethBlockHash = rs.getBytes(4);
                 Integer indexInEthBlock = rs.getInt(5);
-                String transfersStr = rs.getString(6);
 
-                if (!allNotNull(bundleId, bundleHash, ethBlockNumber, ethBlockHash, indexInEthBlock, transfersStr))
+                if (!allNotNull(bundleId, bundleHash, ethBlockNumber, ethBlockHash, indexInEthBlock))
                     throw new IllegalStateException("database in inconsistent state");
 
-                Bundle bundle = new Bundle(ethBlockNumber, new Word32(ethBlockHash), indexInEthBlock,
-                        jackson.readValue(transfersStr, new TypeReference<List<Transfer>>() {
-                        }));
+                Bundle bundle = new Bundle(ethBlockNumber, new Word32(ethBlockHash), indexInEthBlock, readTransfers(rs, 6));
 
                 c.commit();
                 return Optional.of(new PersistentBundle(bundleId, bundle));
 
-            } catch (SQLException | IOException e) {
+            } catch (SQLException e) {
                 throw new PersistenceServiceException(e);
             }
         } catch (SQLException e) {
@@ -469,6 +706,20 @@ public class MySqlDatastore implements DataStore {
 
     @Override
     public Optional<Long> getEthFinalizedBundleId() throws PersistenceServiceException {
+        if (cache == null)
+            return queryEthFinalizedBundleId();
+
+        Optional<Long> cached = cache.getEthFinalizedBundleId();
+        if (cached != null)
+            return cached;
+
+        long version = cache.version();
+        Optional<Long> x = queryEthFinalizedBundleId();
+        cache.loadEthFinalizedBundleId(version, x);
+        return x;
+    }
+
+    private Optional<Long> queryEthFinalizedBundleId() throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_STATUS_ETH_FINALIZED_BUNDLE_ID);
                  ResultSet rs = ps.executeQuery()) {
@@ -502,6 +753,20 @@ public class MySqlDatastore implements DataStore {
 
     @Override
     public Optional<Long> getAionFinalizedBundleId() throws PersistenceServiceException {
+        if (cache == null)
+            return queryAionFinalizedBundleId();
+
+        Optional<Long> cached = cache.getAionFinalizedBundleId();
+        if (cached != null)
+            return cached;
+
+        long version = cache.version();
+        Optional<Long> x = queryAionFinalizedBundleId();
+        cache.loadAionFinalizedBundleId(version, x);
+        return x;
+    }
+
+    private Optional<Long> queryAionFinalizedBundleId() throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_STATUS_AION_FINALIZED_BUNDLE_ID);
                  ResultSet rs = ps.executeQuery()) {
@@ -535,6 +800,20 @@ public class MySqlDatastore implements DataStore {
 
     @Override
     public Optional<ChainLink> getAionFinalizedBlock() throws PersistenceServiceException {
+        if (cache == null)
+            return queryAionFinalizedBlock();
+
+        Optional<ChainLink> cached = cache.getAionFinalizedBlock();
+        if (cached != null)
+            return cached;
+
+        long version = cache.version();
+        Optional<ChainLink> x = queryAionFinalizedBlock();
+        cache.loadAionFinalizedBlock(version, x);
+        return x;
+    }
+
+    private Optional<ChainLink> queryAionFinalizedBlock() throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_STATUS_AION_FINALIZED_BLOCK);
                  ResultSet rs = ps.executeQuery()) {
@@ -549,7 +828,7 @@ public class MySqlDatastore implements DataStore {
                     throw new IllegalStateException("database in inconsistent state");
 
                 Long blockNumber = rs.getLong(1);
-                String blockHash = rs.getString(2);
+                byte[] blockHash = rs.getBytes(2);
 
                 if (!allNotNull(blockNumber, blockHash))
                     throw new IllegalStateException("database in inconsistent state");
@@ -568,10 +847,11 @@ public class MySqlDatastore implements DataStore {
 
     @Override
     public Optional<Timestamp> getEthBundleCreationTimestamp(long bundleId) throws PersistenceServiceException {
-        try (Connection c = ds.getConnection()) {
+        try (Connection c = ds.getReadConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_ETH_BUNDLE_CREATION_TIMESTAMP)) {
 
                 ps.setLong(1, bundleId);
+                ps.setLong(2, bundleId);
                 ResultSet rs = ps.executeQuery();
 
                 rs.last();
@@ -600,8 +880,52 @@ public class MySqlDatastore implements DataStore {
         }
     }
 
+    @Override
+    public Map<Long, Timestamp> getEthBundleCreationTimestampRangeClosed(long startBundleId, long endBundleId)
+            throws PersistenceServiceException {
+        if (startBundleId < 0 || endBundleId < 0) throw new IllegalArgumentException("startBundleId || endBundleId < 0");
+        if (startBundleId > endBundleId) throw new IllegalArgumentException("startBundleId > endBundleId");
+
+        try (Connection c = ds.getReadConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_ETH_BUNDLE_CREATION_TIMESTAMP_RANGE)) {
+                bindRange(ps, startBundleId, endBundleId);
+
+                Map<Long, Timestamp> result = new HashMap<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Timestamp timeStamp = rs.getTimestamp(2);
+                        if (!allNotNull(timeStamp))
+                            throw new IllegalStateException("database in inconsistent state");
+
+                        result.put(rs.getLong(1), timeStamp);
+                    }
+                }
+
+                c.commit();
+                return result;
+            }
+        } catch (SQLException e) {
+            log.error("Failed to obtain a datasource connection", e);
+            throw new PersistenceServiceException(e);
+        }
+    }
+
     @Override
     public Optional<ChainLink> getEthFinalizedBlock() throws PersistenceServiceException {
+        if (cache == null)
+            return queryEthFinalizedBlock();
+
+        Optional<ChainLink> cached = cache.getEthFinalizedBlock();
+        if (cached != null)
+            return cached;
+
+        long version = cache.version();
+        Optional<ChainLink> x = queryEthFinalizedBlock();
+        cache.loadEthFinalizedBlock(version, x);
+        return x;
+    }
+
+    private Optional<ChainLink> queryEthFinalizedBlock() throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_STATUS_ETH_FINALIZED_BLOCK);
                  ResultSet rs = ps.executeQuery()) {
@@ -616,7 +940,7 @@ public class MySqlDatastore implements DataStore {
                     throw new IllegalStateException("database in inconsistent state");
 
                 Long blockNumber = rs.getLong(1);
-                String blockHash = rs.getString(2);
+                byte[] blockHash = rs.getBytes(2);
 
                 if (!allNotNull(blockNumber, blockHash))
                     throw new IllegalStateException("database in inconsistent state");
@@ -645,8 +969,7 @@ public class MySqlDatastore implements DataStore {
         try (Connection c = ds.getConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_AION_FINALIZED_BUNDLE_MAPPING)) {
 
-                ps.setLong(1, startBundleId);
-                ps.setLong(2, endBundleId);
+                bindRange(ps, startBundleId, endBundleId);
 
                 List<AionFinalizedBundle> result = new ArrayList<>();
 
@@ -660,18 +983,10 @@ public class MySqlDatastore implements DataStore {
 
                     rs.beforeFirst();
                     while (rs.next()) {
-                        Long bundleId = rs.getLong(1);
-                        String bundleHash = rs.getString(2);
-                        String aionTxHash = rs.getString(3);
-                        Long aionBlockNum = rs.getLong(4);
-                        String aionBlockHash = rs.getString(5);
-
-                        if (!allNotNull(bundleId, bundleHash, aionTxHash, aionBlockNum, aionBlockHash))
-                            throw new IllegalStateException("database in inconsistent state");
+                        AionFinalizedBundle bundle = mapAionFinalizedBundle(rs);
 
-                        result.add(new AionFinalizedBundle(bundleId, new Word32(bundleHash), new Word32(aionTxHash),
-                                aionBlockNum, new Word32(aionBlockHash)));
-                        expectedBundleIds.remove(bundleId);
+                        result.add(bundle);
+                        expectedBundleIds.remove(bundle.getBundleId());
                     }
                 }
 
@@ -699,17 +1014,16 @@ public class MySqlDatastore implements DataStore {
 
         List<Word16> result = new ArrayList<>();
 
-        try (Connection c = ds.getConnection()) {
+        try (Connection c = ds.getReadConnection()) {
             try (PreparedStatement ps = c.prepareStatement(MySqlQuery.GET_TRANSFER_VALUE_IN_BLOCK_RANGE)) {
 
-                ps.setLong(1, startBundleId);
-                ps.setLong(2, endBundleId);
+                bindRange(ps, startBundleId, endBundleId);
 
                 try (ResultSet rs = ps.executeQuery()) {
 
                     rs.beforeFirst();
                     while (rs.next()) {
-                        String transferValue = rs.getString(1);
+                        byte[] transferValue = rs.getBytes(1);
                         result.add(new Word16(transferValue));
                     }
                 }
@@ -41,6 +41,12 @@ public class MySqlQuery {
                     "(eth_tx_hash, bundle_id, bundle_hash, eth_address, aion_address, aion_transfer_amount) " +
                     "values (?, ?, ?, ?, ?, ?);";
 
+    public static final String INSERT_TRANSFER_STATUS =
+            "insert into transfer_status " +
+                    "(eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, " +
+                    "eth_address, aion_address, aion_transfer_amount) " +
+                    "values (?, 'STORED', ?, ?, ?, ?, ?, ?, ?);";
+
     public static final String UPDATE_ETH_FINALIZED_BLOCK =
             "replace into status_eth_finalized_block " +
                     "(integrity_keeper, eth_block_number, eth_block_hash) " +
@@ -58,6 +64,11 @@ public class MySqlQuery {
                     "(bundle_id, bundle_hash, aion_tx_hash, aion_block_number, aion_block_hash) " +
                     "values (?, ?, ?, ?, ?);";
 
+    public static final String UPDATE_TRANSFER_STATUS_SUBMITTED =
+            "update transfer_status " +
+                    "set stage = 'SUBMITTED', aion_tx_hash = ?, aion_block_number = ?, aion_block_hash = ? " +
+                    "where bundle_id = ?;";
+
     public static final String UPDATE_AION_FINALIZED_BUNDLE_ID =
             "replace into status_aion_finalized_bundle " +
                     "(integrity_keeper, bundle_id, bundle_hash) " +
@@ -110,20 +121,45 @@ public class MySqlQuery {
                     "eth_finalized_bundle where bundle_id = " +
                     "(select bundle_id from status_eth_finalized_bundle where integrity_keeper = '"+INTEGRITY_KEEPER+"');";
 
+    // bundle-id reads also cover the *_archive tables PartitionMaintenance moves old partitions to; bind the range
+    // (or id) twice, see MySqlDatastore.bindRange. An archive pass commits its copy before it drops the partition,
+    // so the archive branch only returns ids below the live table's lowest one.
+
     public static final String GET_ETH_FINALIZED_BUNDLE_RANGE =
             "select bundle_id, bundle_hash, eth_block_number, eth_block_hash, index_in_eth_block, transfers from " +
-                    "eth_finalized_bundle where bundle_id between ? and ?;";
+                    "eth_finalized_bundle_archive where bundle_id between ? and ?" + belowLive("eth_finalized_bundle") +
+                    " union all " +
+                    "select bundle_id, bundle_hash, eth_block_number, eth_block_hash, index_in_eth_block, transfers from " +
+                    "eth_finalized_bundle where bundle_id between ? and ? order by bundle_id;";
 
     public static final String GET_ETH_BUNDLE_CREATION_TIMESTAMP =
-            "select updated from eth_finalized_bundle where bundle_id = ?";
+            "select updated from eth_finalized_bundle_archive where bundle_id = ?" + belowLive("eth_finalized_bundle") +
+                    " union all " +
+                    "select updated from eth_finalized_bundle where bundle_id = ?";
+
+    public static final String GET_ETH_BUNDLE_CREATION_TIMESTAMP_RANGE =
+            "select bundle_id, updated from eth_finalized_bundle_archive where bundle_id >= ? and bundle_id <= ?" +
+                    belowLive("eth_finalized_bundle") +
+                    " union all " +
+                    "select bundle_id, updated from eth_finalized_bundle where bundle_id >= ? and bundle_id <= ?";
 
     public static final String GET_AION_FINALIZED_BUNDLE_MAPPING =
             "select bundle_id, bundle_hash, aion_tx_hash, aion_block_number, aion_block_hash from " +
-                    "aion_finalized_bundle where bundle_id between ? and ?;";
+                    "aion_finalized_bundle_archive where bundle_id between ? and ?" + belowLive("aion_finalized_bundle") +
+                    " union all " +
+                    "select bundle_id, bundle_hash, aion_tx_hash, aion_block_number, aion_block_hash from " +
+                    "aion_finalized_bundle where bundle_id between ? and ? order by bundle_id;";
 
     public static final String GET_TRANSFER_VALUE_IN_BLOCK_RANGE =
-            "SELECT aion_transfer_amount FROM eth_transfer WHERE bundle_id BETWEEN ? AND ?;";
+            "SELECT aion_transfer_amount FROM eth_transfer_archive WHERE bundle_id BETWEEN ? AND ?" +
+                    belowLive("eth_transfer") +
+                    " UNION ALL " +
+                    "SELECT aion_transfer_amount FROM eth_transfer WHERE bundle_id BETWEEN ? AND ?;";
 
     public static final String GET_GENERATED_BUNDLE_IDS =
             "SELECT bundle_id FROM eth_finalized_bundle";
+
+    private static String belowLive(String table) {
+        return " and bundle_id < coalesce((select min(bundle_id) from " + table + "), 18446744073709551615)";
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link RangeCursor} over a server-side MySQL cursor: the statement is given a fetch size, which (with
+ * useCursorFetch, see {@link DbConnectionManager}) makes the driver read the result set in batches rather than
+ * buffering all of it.
+ */
+@NotThreadSafe
+class MySqlRangeCursor<T> implements RangeCursor<T> {
+
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(MySqlRangeCursor.class);
+
+    static final int FETCH_SIZE = 500;
+
+    private final Connection c;
+    private final PreparedStatement ps;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    private final ToLongFunction<T> bundleId;
+    private final long endBundleId;
+
+    private long expectedBundleId;
+
+    MySqlRangeCursor(DbConnectionManager ds, String query, long startBundleId, long endBundleId,
+                     RowMapper<T> mapper, ToLongFunction<T> bundleId) throws PersistenceServiceException {
+        if (startBundleId < 0 || endBundleId < 0) throw new IllegalArgumentException("startBundleId || endBundleId < 0");
+        if (startBundleId > endBundleId) throw new IllegalArgumentException("startBundleId > endBundleId");
+
+        this.mapper = mapper;
+        this.bundleId = bundleId;
+        this.endBundleId = endBundleId;
+        this.expectedBundleId = startBundleId;
+
+        Connection c = null;
+        PreparedStatement ps = null;
+        try {
+            c = ds.getConnection();
+            ps = c.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            MySqlDatastore.bindRange(ps, startBundleId, endBundleId);
+
+            this.rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(ps, c);
+            log.error("Failed to open range cursor [{} - {}]", startBundleId, endBundleId, e);
+            throw new PersistenceServiceException(e);
+        }
+        this.c = c;
+        this.ps = ps;
+    }
+
+    @Override
+    public Optional<T> next() throws PersistenceServiceException {
+        if (expectedBundleId > endBundleId)
+            return Optional.empty();
+
+        try {
+            if (!rs.next())
+                throw new IllegalStateException("missing bundle id " + expectedBundleId + " from database");
+
+            T row = mapper.map(rs);
+            long id = bundleId.applyAsLong(row);
+            if (id != expectedBundleId)
+                throw new IllegalStateException("missing bundle id " + expectedBundleId + " from database, found " + id);
+
+            expectedBundleId++;
+            return Optional.of(row);
+        } catch (SQLException e) {
+            throw new PersistenceServiceException(e);
+        }
+    }
+
+    @Override
+    public void close() throws PersistenceServiceException {
+        try {
+            rs.close();
+            ps.close();
+            c.commit();
+        } catch (SQLException e) {
+            throw new PersistenceServiceException(e);
+        } finally {
+            closeQuietly(ps, c);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement ps, Connection c) {
+        try {
+            if (ps != null) ps.close();
+        } catch (SQLException e) {
+            log.error("Failed to close statement", e);
+        }
+        try {
+            if (c != null) c.close();
+        } catch (SQLException e) {
+            log.error("Failed to close connection", e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.apache.commons.lang3.ObjectUtils.allNotNull;
+
+/**
+ * Keeps the bundle_id range partitions of the bundle tables (see sql/create-v5.sql) in shape:
+ * <ul>
+ *     <li>splits new partitions off the MAXVALUE partition, so there are always {@code partitionsAhead} empty
+ *     partitions above the eth finalized bundle id;</li>
+ *     <li>moves partitions whose bundles are all finalized on Aion and older than the retention horizon into the
+ *     compressed *_archive tables, then drops them from the live tables.</li>
+ * </ul>
+ * Archival first deletes whatever an interrupted earlier pass left of the partition's range in the archive, then
+ * copies with a plain insert and drops afterwards, so a pass interrupted half way is completed by the next one while
+ * an eth_tx_hash that is already archived under another bundle fails the pass instead of being skipped. Failures
+ * are logged and retried on the next interval; they never stop the bridge.
+ * <p>
+ * The bundle-id range reads of {@link MySqlDatastore} union the archive tables, so the tooling's totals and ranges
+ * are unaffected by archival. transfer_status, which the api answers every transaction lookup from, is out of scope:
+ * its eth_tx_hash primary key is what keeps eth_tx_hash unique across partitions, and partitioning it would require
+ * bundle_id in that key. It stays unpartitioned and keeps one row per transfer, so the api's table (and the backup)
+ * still grows with the number of transfers; only the bundle tables are kept flat.
+ */
+public class PartitionMaintenance extends Thread {
+
+    @SuppressWarnings("UnusedReturnValue")
+    public static class Builder {
+
+        // Required parameters
+        DbConnectionManager cm;
+        DataStore ds;
+
+        // Optional parameters
+        long partitionSize = 100_000;
+        int partitionsAhead = 2;
+        long retainBundles = 1_000_000;
+        long pollInterval = 1;
+        TimeUnit pollIntervalTimeUnit = TimeUnit.HOURS;
+
+        public Builder setConnectionManager(DbConnectionManager x) { cm = x; return this; }
+        public Builder setDatabase(DataStore x) { ds = x; return this; }
+        public Builder setPartitionSize(long x) { partitionSize = x; return this; }
+        public Builder setPartitionsAhead(int x) { partitionsAhead = x; return this; }
+        public Builder setRetainBundles(long x) { retainBundles = x; return this; }
+
+        public Builder setPollInterval(long pollInterval, TimeUnit timeUnit) {
+            this.pollInterval = pollInterval;
+            this.pollIntervalTimeUnit = timeUnit;
+            return this;
+        }
+
+        public PartitionMaintenance build() {
+            if (!allNotNull(cm, ds))
+                throw new IllegalArgumentException("connection manager and database must be non-null");
+            if (partitionSize < 1)
+                throw new IllegalArgumentException("partitionSize < 1");
+            if (partitionsAhead < 1)
+                throw new IllegalArgumentException("partitionsAhead < 1");
+            // the eth finalized bundle must stay in the live tables, it is read back by id on startup
+            if (retainBundles < 1)
+                throw new IllegalArgumentException("retainBundles < 1");
+
+            return new PartitionMaintenance(this);
+        }
+    }
+
+    private final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private static final List<String> TABLES = Arrays.asList("eth_transfer", "eth_finalized_bundle", "aion_finalized_bundle");
+    private static final String ARCHIVE_SUFFIX = "_archive";
+    private static final String MAXVALUE = "MAXVALUE";
+    private static final Pattern PARTITION_NAME = Pattern.compile("[A-Za-z0-9_]+");
+
+    private static final String GET_PARTITIONS =
+            "select partition_name, partition_description from information_schema.partitions " +
+                    "where table_schema = database() and table_name = ? and partition_name is not null " +
+                    "order by partition_ordinal_position";
+
+    private final DbConnectionManager cm;
+    private final DataStore ds;
+    private final long partitionSize;
+    private final int partitionsAhead;
+    private final long retainBundles;
+    private final long pollInterval;
+    private final TimeUnit pollIntervalTimeUnit;
+
+    private volatile boolean shutdown = false;
+
+    private PartitionMaintenance(Builder b) {
+        super("PartitionMaintenance");
+        this.cm = b.cm;
+        this.ds = b.ds;
+        this.partitionSize = b.partitionSize;
+        this.partitionsAhead = b.partitionsAhead;
+        this.retainBundles = b.retainBundles;
+        this.pollInterval = b.pollInterval;
+        this.pollIntervalTimeUnit = b.pollIntervalTimeUnit;
+    }
+
+    private static class Partition {
+        final String name;
+        final long bound; // exclusive upper bound, Long.MAX_VALUE for the MAXVALUE partition
+
+        Partition(String name, long bound) {
+            this.name = name;
+            this.bound = bound;
+        }
+
+        boolean isMax() { return bound == Long.MAX_VALUE; }
+    }
+
+    @Override
+    public void run() {
+        while (!shutdown) {
+            try {
+                runOnce();
+            } catch (SQLException | PersistenceServiceException | RuntimeException e) {
+                log.error("Partition maintenance failed; retrying next interval", e);
+            }
+
+            try {
+                pollIntervalTimeUnit.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                log.debug("Interrupted");
+                break;
+            }
+        }
+
+        log.debug("Exiting gracefully ...");
+    }
+
+    public void shutdown() {
+        this.shutdown = true;
+        this.interrupt();
+        log.debug("Shutdown signal received");
+    }
+
+    /**
+     * One maintenance pass: add partitions, then archive.
+     */
+    public void runOnce() throws SQLException, PersistenceServiceException {
+        long ethFinalized = ds.getEthFinalizedBundleId().orElse(0L);
+        Optional<Long> aionFinalized = ds.getAionFinalizedBundleId();
+
+        try (Connection c = cm.getConnection()) {
+            for (String table : TABLES)
+                addPartitions(c, table, ethFinalized);
+
+            if (aionFinalized.isPresent())
+                archive(c, aionFinalized.get() - retainBundles);
+
+            c.commit();
+        }
+    }
+
+    private List<Partition> partitions(Connection c, String table) throws SQLException {
+        List<Partition> result = new ArrayList<>();
+
+        try (PreparedStatement ps = c.prepareStatement(GET_PARTITIONS)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    String description = rs.getString(2);
+
+                    if (!PARTITION_NAME.matcher(name).matches())
+                        throw new IllegalStateException("Unexpected partition name " + name + " in " + table);
+
+                    result.add(new Partition(name, MAXVALUE.equalsIgnoreCase(description) ?
+                            Long.MAX_VALUE : Long.parseLong(description.replace("'", ""))));
+                }
+            }
+        }
+        c.commit();
+        return result;
+    }
+
+    /**
+     * Split the MAXVALUE partition so partitions are bounded up to {@code partitionsAhead} partitions past the eth
+     * finalized bundle id. All missing bounds go into a single reorganize: the MAXVALUE partition is normally empty,
+     * except on the first pass after migrate-v5-partitions.sql.
+     */
+    private void addPartitions(Connection c, String table, long ethFinalized) throws SQLException {
+        List<Partition> partitions = partitions(c, table);
+        if (partitions.isEmpty()) {
+            log.warn("{} is not partitioned; skipping", table);
+            return;
+        }
+
+        Partition max = partitions.get(partitions.size() - 1);
+        if (!max.isMax()) {
+            log.warn("{} has no MAXVALUE partition; skipping", table);
+            return;
+        }
+
+        long highest = partitions.size() > 1 ? partitions.get(partitions.size() - 2).bound : 0;
+        long target = (ethFinalized / partitionSize + 1 + partitionsAhead) * partitionSize;
+        if (highest >= target)
+            return;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("alter table ").append(table).append(" reorganize partition ").append(max.name).append(" into (");
+        int added = 0;
+        for (long bound = (highest / partitionSize + 1) * partitionSize; bound <= target; bound += partitionSize) {
+            sb.append("partition p").append(bound).append(" values less than (").append(bound).append("), ");
+            added++;
+        }
+        sb.append("partition ").append(max.name).append(" values less than (MAXVALUE))");
+
+        long start = System.currentTimeMillis();
+        try (Statement s = c.createStatement()) {
+            s.execute(sb.toString());
+        }
+        log.info("Added {} partitions to {} up to bundle id {} in {} ms", added, table, target,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Archive every bounded partition that lies entirely below {@code horizon}, oldest first.
+     */
+    private void archive(Connection c, long horizon) throws SQLException {
+        // partition name -> tables that still have it
+        TreeMap<Long, Map<String, String>> archivable = new TreeMap<>();
+        for (String table : TABLES) {
+            for (Partition p : partitions(c, table)) {
+                if (!p.isMax() && p.bound <= horizon)
+                    archivable.computeIfAbsent(p.bound, k -> new LinkedHashMap<>()).put(table, p.name);
+            }
+        }
+
+        for (Map.Entry<Long, Map<String, String>> e : archivable.entrySet()) {
+            if (shutdown)
+                return;
+
+            long start = System.currentTimeMillis();
+            Map<String, String> tables = e.getValue();
+
+            try (Statement s = c.createStatement()) {
+                long rows = 0;
+                for (Map.Entry<String, String> t : tables.entrySet()) {
+                    String table = t.getKey();
+                    String partition = " partition (" + t.getValue() + ")";
+
+                    Long lowest = null;
+                    try (ResultSet rs = s.executeQuery("select min(bundle_id) from " + table + partition)) {
+                        if (rs.next() && rs.getObject(1) != null)
+                            lowest = rs.getLong(1);
+                    }
+                    if (lowest == null)
+                        continue;
+
+                    // rows an interrupted earlier pass already copied (the partition was not dropped yet)
+                    s.executeUpdate("delete from " + table + ARCHIVE_SUFFIX + " where bundle_id >= " + lowest +
+                            " and bundle_id < " + e.getKey());
+                    rows += s.executeUpdate("insert into " + table + ARCHIVE_SUFFIX + " select * from " + table + partition);
+                }
+                c.commit();
+
+                // DDL, commits implicitly
+                for (Map.Entry<String, String> t : tables.entrySet())
+                    s.execute("alter table " + t.getKey() + " drop partition " + t.getValue());
+
+                log.info("Archived bundle ids below {} ({} rows) in {} ms", e.getKey(), rows,
+                        System.currentTimeMillis() - start);
+            } catch (SQLException ex) {
+                c.rollback();
+                throw ex;
+            }
+        }
+    }
+}
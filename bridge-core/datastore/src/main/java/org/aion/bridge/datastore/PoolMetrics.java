@@ -0,0 +1,109 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.datastore;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker for one connection pool. Keeps cumulative acquire, wait, usage and timeout counters
+ * and reads the live pool gauges (active, idle, pending) from Hikari on demand.
+ */
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        created.increment();
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquired.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    public String getPoolName() { return poolName; }
+    public int getActiveConnections() { return poolStats == null ? 0 : poolStats.getActiveConnections(); }
+    public int getIdleConnections() { return poolStats == null ? 0 : poolStats.getIdleConnections(); }
+    public int getTotalConnections() { return poolStats == null ? 0 : poolStats.getTotalConnections(); }
+    public int getPendingThreads() { return poolStats == null ? 0 : poolStats.getPendingThreads(); }
+    public long getConnectionsAcquired() { return acquired.sum(); }
+    public long getConnectionsCreated() { return created.sum(); }
+    public long getConnectionTimeouts() { return timeouts.sum(); }
+
+    public double getAverageWaitMillis() {
+        long n = acquired.sum();
+        return n == 0 ? 0 : (double) acquireNanos.sum() / n / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxWaitMillis() {
+        return (double) maxAcquireNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getAverageUsageMillis() {
+        long n = acquired.sum();
+        return n == 0 ? 0 : (double) usageMillis.sum() / n;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: active=%d idle=%d total=%d pending=%d acquired=%d avgWaitMs=%.2f maxWaitMs=%.2f avgUsageMs=%.2f timeouts=%d",
+                poolName, getActiveConnections(), getIdleConnections(), getTotalConnections(), getPendingThreads(),
+                getConnectionsAcquired(), getAverageWaitMillis(), getMaxWaitMillis(), getAverageUsageMillis(),
+                getConnectionTimeouts());
+    }
+}
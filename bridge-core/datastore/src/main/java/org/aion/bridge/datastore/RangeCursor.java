@@ -0,0 +1,47 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.db.PersistenceServiceException;
+
+import java.util.Optional;
+
+/**
+ * Forward-only cursor over a closed range of bundle ids, in bundle id order.
+ * <p>
+ * Rows are fetched from the database in batches as the cursor advances, so memory use does not depend on the size
+ * of the range. The range is checked for contiguity as it is read: a missing bundle id fails the cursor instead of
+ * being skipped. Cursors hold a database connection until closed.
+ */
+public interface RangeCursor<T> extends AutoCloseable {
+
+    /**
+     * @return the next row, or empty once the whole range has been read
+     * @throws IllegalStateException if the next bundle id in the range is missing from the database
+     */
+    Optional<T> next() throws PersistenceServiceException;
+
+    @Override
+    void close() throws PersistenceServiceException;
+}
@@ -0,0 +1,119 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.datastore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks whether a read replica is close enough to the primary to serve stale-tolerant reads. A daemon thread reads
+ * Seconds_Behind_Master every CHECK_INTERVAL_MS with a PROBE_TIMEOUT_SECONDS query timeout; callers only read the
+ * last result, so a slow or unreachable replica never holds up a request. A stopped replication thread (null lag),
+ * a failed probe, or no successful probe within MAX_PROBE_AGE_MS all count as unusable.
+ *
+ * Shared by DbConnectionManager and bridge-api's ReplicaRoutingDataSource.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final long CHECK_INTERVAL_MS = 5_000;
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+    private static final long MAX_PROBE_AGE_MS = 3 * CHECK_INTERVAL_MS;
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean usable;
+    private volatile long lastProbeMs;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::probe, 0, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isUsable() {
+        return usable && System.currentTimeMillis() - lastProbeMs < MAX_PROBE_AGE_MS;
+    }
+
+    /**
+     * Called when a replica connection fails; reads go to the primary until the next successful probe.
+     */
+    public void markUnusable() {
+        usable = false;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void probe() {
+        boolean wasUsable = isUsable();
+        long lag = -1;
+        try (Connection c = replica.getConnection();
+             Statement s = c.createStatement()) {
+
+            s.setQueryTimeout(PROBE_TIMEOUT_SECONDS);
+            try (ResultSet rs = s.executeQuery("show slave status")) {
+                if (rs.next()) {
+                    lag = rs.getLong("Seconds_Behind_Master");
+                    if (rs.wasNull())
+                        lag = -1;
+                }
+            }
+            if (!c.getAutoCommit())
+                c.commit();
+        } catch (SQLException e) {
+            if (wasUsable)
+                log.warn("Unable to read replica lag, reads routed to primary", e);
+            usable = false;
+            return;
+        } catch (RuntimeException e) {
+            // keep the schedule alive; an exception escaping the task would cancel it
+            log.error("Replica lag probe failed, reads routed to primary", e);
+            usable = false;
+            return;
+        }
+
+        boolean now = lag >= 0 && lag <= maxLagSeconds;
+        usable = now;
+        lastProbeMs = System.currentTimeMillis();
+        if (now != wasUsable)
+            log.info("Replica lag {}s, reads routed to {}", lag, now ? "replica" : "primary");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.bridge.PersistentBundle;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Optional;
+
+/**
+ * Write-through cache of the single-row status tables, owned by {@link MySqlDatastore}.
+ * <p>
+ * Only valid when the owning process is the sole writer of the status tables: entries are replaced right after the
+ * transaction that wrote them commits, and loaded from the database on first read. A {@code null} entry means the
+ * value has not been loaded yet, as opposed to {@code Optional.empty()} which means the row does not exist.
+ * <p>
+ * Loads race with writes, so each load records the version it started at and is dropped if a write committed in
+ * the meantime (the database value it read may already be stale).
+ */
+@ThreadSafe
+class StatusCache {
+
+    private long version = 0;
+
+    private Optional<ChainLink> ethFinalizedBlock = null;
+    private Optional<PersistentBundle> ethFinalizedBundle = null;
+    private Optional<Long> ethFinalizedBundleId = null;
+    private Optional<ChainLink> aionFinalizedBlock = null;
+    private Optional<Long> aionFinalizedBundleId = null;
+
+    synchronized long version() { return version; }
+
+    synchronized Optional<ChainLink> getEthFinalizedBlock() { return ethFinalizedBlock; }
+    synchronized Optional<PersistentBundle> getEthFinalizedBundle() { return ethFinalizedBundle; }
+    synchronized Optional<Long> getEthFinalizedBundleId() { return ethFinalizedBundleId; }
+    synchronized Optional<ChainLink> getAionFinalizedBlock() { return aionFinalizedBlock; }
+    synchronized Optional<Long> getAionFinalizedBundleId() { return aionFinalizedBundleId; }
+
+    // loads (read-through) -------------------------------------------------------------
+
+    synchronized void loadEthFinalizedBlock(long loadVersion, Optional<ChainLink> x) {
+        if (loadVersion == version) ethFinalizedBlock = x;
+    }
+
+    synchronized void loadEthFinalizedBundle(long loadVersion, Optional<PersistentBundle> x) {
+        if (loadVersion == version) {
+            ethFinalizedBundle = x;
+            ethFinalizedBundleId = x.map(PersistentBundle::getBundleId);
+        }
+    }
+
+    synchronized void loadEthFinalizedBundleId(long loadVersion, Optional<Long> x) {
+        if (loadVersion == version) ethFinalizedBundleId = x;
+    }
+
+    synchronized void loadAionFinalizedBlock(long loadVersion, Optional<ChainLink> x) {
+        if (loadVersion == version) aionFinalizedBlock = x;
+    }
+
+    synchronized void loadAionFinalizedBundleId(long loadVersion, Optional<Long> x) {
+        if (loadVersion == version) aionFinalizedBundleId = x;
+    }
+
+    // writes (called after commit) -----------------------------------------------------
+
+    synchronized void ethFinalized(PersistentBundle finalizationTip, ChainLink ethChainTip) {
+        version++;
+        ethFinalizedBundle = Optional.of(finalizationTip);
+        ethFinalizedBundleId = Optional.of(finalizationTip.getBundleId());
+        ethFinalizedBlock = Optional.of(ethChainTip);
+    }
+
+    synchronized void ethChainHistory(ChainLink ethChainTip) {
+        version++;
+        ethFinalizedBlock = Optional.of(ethChainTip);
+    }
+
+    synchronized void aionFinalized(long finalizationTipId, ChainLink aionChainTip) {
+        version++;
+        aionFinalizedBundleId = Optional.of(finalizationTipId);
+        aionFinalizedBlock = Optional.of(aionChainTip);
+    }
+
+    synchronized void aionChainHistory(ChainLink aionChainTip) {
+        version++;
+        aionFinalizedBlock = Optional.of(aionChainTip);
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.datastore;
+
+import org.aion.bridge.chain.aion.types.AionAddress;
+import org.aion.bridge.chain.aion.types.AionReceipt;
+import org.aion.bridge.chain.aion.types.BlakeBloom;
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.base.types.Word32;
+import org.aion.bridge.chain.bridge.*;
+import org.aion.bridge.chain.eth.types.EthAddress;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class EmbeddedDatastoreTest {
+
+    private Path dir;
+    private Path path;
+    private final Random random = new Random();
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("embedded-datastore");
+        path = dir.resolve("bridge.log");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void replayRestoresBundlesAndStatus() throws Exception {
+        List<StatefulBundle> bundles = bundles(0, 3);
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            storeEth(ds, bundles);
+            storeAion(ds, bundles.subList(0, 2));
+            ds.storeAionLatestBlock(42L);
+            ds.storeAionEntityBalance(BigInteger.ONE, BigInteger.TEN, 42L);
+        }
+
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            assertEquals(Optional.of(2L), ds.getEthFinalizedBundleId());
+            assertEquals(Optional.of(1L), ds.getAionFinalizedBundleId());
+
+            List<PersistentBundle> read = ds.getBundleRangeClosed(0L, 2L).get();
+            for (int i = 0; i < bundles.size(); i++)
+                assertEquals(bundles.get(i).getBundle(), read.get(i).getBundle());
+
+            List<AionFinalizedBundle> aion = ds.getAionTxHashRangeClosed(0L, 1L).get();
+            assertEquals(bundles.get(1).getAionReceipt().getTransactionHash(), aion.get(1).getAionTxHash());
+        }
+    }
+
+    @Test
+    public void tipAndBalanceAreNotLogged() throws Exception {
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            for (long i = 0; i < 100; i++) {
+                ds.storeAionLatestBlock(i);
+                ds.storeAionEntityBalance(BigInteger.ONE, BigInteger.TEN, i);
+            }
+        }
+        assertEquals(0, Files.size(path));
+    }
+
+    @Test
+    public void tornTailRecordIsTruncated() throws Exception {
+        List<StatefulBundle> bundles = bundles(0, 2);
+        long validSize;
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            storeEth(ds, bundles.subList(0, 1));
+            validSize = Files.size(path);
+            storeEth(ds, bundles.subList(1, 2));
+        }
+
+        // cut the second record short, as a crash in the middle of an append would
+        try (FileChannel c = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            c.truncate(Files.size(path) - 7);
+        }
+
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            assertEquals(validSize, Files.size(path));
+            assertEquals(Optional.of(0L), ds.getEthFinalizedBundleId());
+            assertFalse(ds.getBundleRangeClosed(0L, 1L).isPresent());
+
+            // the log is usable again after recovery
+            storeEth(ds, bundles.subList(1, 2));
+        }
+
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            assertEquals(Optional.of(1L), ds.getEthFinalizedBundleId());
+            assertEquals(bundles.get(1).getBundle(), ds.getBundleRangeClosed(1L, 1L).get().get(0).getBundle());
+        }
+    }
+
+    @Test
+    public void corruptTailRecordIsTruncated() throws Exception {
+        List<StatefulBundle> bundles = bundles(0, 2);
+        long validSize;
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            storeEth(ds, bundles.subList(0, 1));
+            validSize = Files.size(path);
+            storeEth(ds, bundles.subList(1, 2));
+        }
+
+        // flip a byte in the payload of the last record, so its CRC no longer matches
+        try (FileChannel c = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long position = c.size() - 1;
+            c.read(b, position);
+            b.flip();
+            byte flipped = (byte) ~b.get();
+            c.write(ByteBuffer.wrap(new byte[]{flipped}), position);
+        }
+
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            assertEquals(validSize, Files.size(path));
+            assertEquals(Optional.of(0L), ds.getEthFinalizedBundleId());
+        }
+    }
+
+    @Test
+    public void tailHeaderWithOversizedLengthIsTruncated() throws Exception {
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            storeEth(ds, bundles(0, 1));
+        }
+        long validSize = Files.size(path);
+
+        try (FileChannel c = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer header = ByteBuffer.allocate(8);
+            header.putInt(Integer.MAX_VALUE).putInt(0).flip();
+            c.write(header);
+        }
+
+        try (EmbeddedDatastore ds = new EmbeddedDatastore(path)) {
+            assertEquals(validSize, Files.size(path));
+            assertEquals(Optional.of(0L), ds.getEthFinalizedBundleId());
+        }
+    }
+
+    private void storeEth(DataStore ds, List<StatefulBundle> bundles) throws Exception {
+        List<StatefulBundle> copies = new ArrayList<>();
+        Map<Word32, EthAddress> ethAddresses = new HashMap<>();
+        for (StatefulBundle sb : bundles) {
+            copies.add(new StatefulBundle(new PersistentBundle(sb.getBundleId(), sb.getBundle())));
+            for (Transfer t : sb.getBundle().getTransfers())
+                ethAddresses.put(t.getEthTxHash(), new EthAddress(bytes(EthAddress.ADDRESS_LENGTH)));
+        }
+
+        StatefulBundle tip = copies.get(copies.size() - 1);
+        ds.storeEthFinalizedBundles(copies, new ChainLink(tip.getBundle().getEthBlockNumber(),
+                tip.getBundle().getEthBlockHash()), tip, ethAddresses);
+    }
+
+    private void storeAion(DataStore ds, List<StatefulBundle> bundles) throws Exception {
+        StatefulBundle tip = bundles.get(bundles.size() - 1);
+        ds.storeAionFinalizedBundles(bundles, new ChainLink(tip.getAionReceipt().getBlockNumber(),
+                tip.getAionReceipt().getBlockHash()), tip);
+    }
+
+    /**
+     * Finalized bundles (state FINALIZED) with random hashes; storeEth re-creates them in state BUNDLED.
+     */
+    private List<StatefulBundle> bundles(long firstId, int count) {
+        List<StatefulBundle> result = new ArrayList<>(count);
+        for (long id = firstId; id < firstId + count; id++) {
+            List<Transfer> transfers = Arrays.asList(
+                    new Transfer(word32(), new AionAddress(word32()), BigInteger.valueOf(id + 1)),
+                    new Transfer(word32(), new AionAddress(word32()), BigInteger.valueOf(id + 2)));
+            StatefulBundle sb = new StatefulBundle(new PersistentBundle(id, new Bundle(id, word32(), 0, transfers)));
+
+            Word32 aionTxHash = word32();
+            AionAddress relayer = new AionAddress(word32());
+            sb.setStored();
+            sb.setSigned(Collections.emptySet());
+            sb.setSubmitted(new AionSubmittedTx(relayer, id, id, aionTxHash));
+            sb.setSealed(new AionReceipt(id, aionTxHash, word32(), relayer, null, new BlakeBloom(),
+                    Collections.emptyList(), true, 0));
+            sb.setFinalized();
+            result.add(sb);
+        }
+        return result;
+    }
+
+    private Word32 word32() {
+        return new Word32(bytes(Word32.LENGTH));
+    }
+
+    private byte[] bytes(int length) {
+        byte[] b = new byte[length];
+        random.nextBytes(b);
+        return b;
+    }
+}
@@ -26,6 +26,8 @@ package org.aion.bridge.nexus;
 
 import com.google.protobuf.ByteString;
 
+import org.aion.bridge.chain.aion.api.AionChainState;
+import org.aion.bridge.chain.aion.api.AionChainStatePoller;
 import org.aion.bridge.chain.aion.rpc.AionRawTransactionCodec;
 import org.aion.bridge.chain.aion.rpc.FvmAbiCodec;
 import org.aion.bridge.chain.aion.rpc.abi.FvmAddress;
@@ -39,6 +41,7 @@ import org.aion.bridge.chain.base.types.Word32;
 import org.aion.bridge.chain.base.utility.ByteUtils;
 import org.aion.bridge.chain.base.utility.CryptoUtils;
 import org.aion.bridge.chain.bridge.AionSubmittedTx;
+import org.aion.bridge.chain.bridge.Signature;
 import org.aion.bridge.chain.bridge.StatefulBundle;
 import org.aion.bridge.datastore.AionTipState;
 import org.aion.bridge.nexus.retry.Predicates;
@@ -50,7 +53,9 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
@@ -62,17 +67,30 @@ public class AionClient {
     private Relayer relayer;
     private RetryExecutor<AionSubmittedTx> exec;
     private AionTipState aionTipState;
+    private AionChainStatePoller chainState;
     private final static int RETRY_SLEEP_TIME = 10000;
     private static final Word32 CONTRACT_ADDRESS = new Word32 ("0000000000000000000000000000000000000000000000000000000000000200");
 
-    @SuppressWarnings("unchecked")
     public AionClient(@Nonnull ConsolidatedChainConnection consolidatedChainConnection,
                       @Nonnull AionTipState tipState,
                       @Nonnull Relayer relayer) {
+        this(consolidatedChainConnection, tipState, relayer, null);
+    }
+
+    /**
+     * @param chainState if non-null, the gas price is taken from its latest snapshot instead of a consolidated
+     *                   eth_gasPrice call per transaction (which is still the fallback when no snapshot is available)
+     */
+    @SuppressWarnings("unchecked")
+    public AionClient(@Nonnull ConsolidatedChainConnection consolidatedChainConnection,
+                      @Nonnull AionTipState tipState,
+                      @Nonnull Relayer relayer,
+                      AionChainStatePoller chainState) {
 
         this.relayer = relayer;
         this.aionTipState = tipState;
         this.aionApi = consolidatedChainConnection;
+        this.chainState = chainState;
         exec = RetryBuilder.newBuilder()
                 .retryIf(new Predicates.TxInfoFailPredicate())
                 .stopAfterAttempt(3)
@@ -92,8 +110,11 @@ public class AionClient {
             long timestamp = System.currentTimeMillis() * 1000;
 
             BigInteger nrgPrice = BigInteger.valueOf(10_000_000_000L);
+            Optional<BigInteger> polledNrgPrice = chainState != null
+                    ? chainState.getSnapshot().flatMap(AionChainState::getGasPrice)
+                    : Optional.empty();
             try {
-                nrgPrice = aionApi.getGasPrice();
+                nrgPrice = polledNrgPrice.isPresent() ? polledNrgPrice.get() : aionApi.getGasPrice();
             } catch (QuorumNotAvailableException e) {
                 e.printStackTrace();
                 log.debug("getGasPrice failed - Unable to reach gas price consensus, proceeding with default nrg price");
@@ -194,7 +215,11 @@ public class AionClient {
 
         SendRequest(StatefulBundle bundle) {
 
-            if(bundle.getTransfers().size() > 0 && bundle.getSignatures().size() > 0) {
+            // take one snapshot, late signatures may still be merged into the bundle while this is built and
+            // sig_1, sig_2 and sig_pk have to line up
+            List<Signature> signatures = new ArrayList<>(bundle.getSignatures());
+
+            if(bundle.getTransfers().size() > 0 && signatures.size() > 0) {
                 this.addresses = ByteUtils.toArray(bundle.getTransfers()
                         .stream()
                         .map(t -> new FvmAddress(t.getAionAddress()))
@@ -205,17 +230,17 @@ public class AionClient {
                         .map(t -> new FvmUint128(t.getAionTransferAmount()))
                         .collect(Collectors.toList()));
 
-                this.sig_1 = ByteUtils.toArray(bundle.getSignatures()
+                this.sig_1 = ByteUtils.toArray(signatures
                         .stream()
                         .map(sig -> new FvmBytes32(new Word32(Arrays.copyOfRange(sig.getSignature().getByteArray(), 0, 32))))
                         .collect(Collectors.toList()));
 
-                this.sig_2 = ByteUtils.toArray(bundle.getSignatures()
+                this.sig_2 = ByteUtils.toArray(signatures
                         .stream()
                         .map(sig -> new FvmBytes32(new Word32(Arrays.copyOfRange(sig.getSignature().getByteArray(), 32, 64))))
                         .collect(Collectors.toList()));
 
-                this.sig_pk = ByteUtils.toArray(bundle.getSignatures()
+                this.sig_pk = ByteUtils.toArray(signatures
                         .stream()
                         .map(sig -> new FvmBytes32(sig.getPublicKey()))
                         .collect(Collectors.toList()));
@@ -39,6 +39,7 @@ import org.aion.bridge.chain.log.LoggingSetup;
 import org.aion.bridge.datastore.AionTipState;
 import org.aion.bridge.datastore.DataStore;
 import org.aion.bridge.datastore.DbConnectionManager;
+import org.aion.bridge.datastore.GroupCommitWriter;
 import org.aion.bridge.chain.bridge.PersistentBundle;
 import org.aion.bridge.nexus.workers.TaskQaToQb_SignBundles;
 import org.aion.bridge.nexus.workers.TaskQbToQc_BroadcastBundles;
@@ -49,6 +50,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.concurrent.GuardedBy;
+import java.io.Closeable;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -66,6 +69,7 @@ public class Bridge {
 
     // Queue sizes
     private static final int QA_SIZE = 5120; //~100MB
+    private static final int QUEUE_INIT_PAGE_SIZE = 1000; // bundles read per query when re-populating QA on startup
     private static final int QB_SIZE = 5120; //~100MB
     private static final int QC_SIZE = 25600; // ~500MB
     private static final int QD_SIZE = 25600; // ~500MB
@@ -110,6 +114,7 @@ public class Bridge {
 
     private DataStore dataStore;
     private DbConnectionManager dbConnectionManager;
+    private GroupCommitWriter groupCommitWriter;
     private String successfulTxHashEvent;
 
     // Status thread
@@ -137,8 +142,15 @@ public class Bridge {
 
         if(dataStore == null)
             chainHistory = new NonPersistentChainHistory(QA_Bundles, b.startBlock, b.ethBundlingPolicy);
-        else
-            chainHistory = new PersistentChainHistory(dataStore, QA_Bundles, b.startBlock, b.ethBundlingPolicy);
+        else {
+            // chain history and finalizers share one writer, so their commits are grouped
+            groupCommitWriter = new GroupCommitWriter.Builder()
+                    .setDatabase(dataStore)
+                    .setMaxBundlesPerCommit(b.groupCommitMaxBundles)
+                    .build();
+            groupCommitWriter.setUncaughtExceptionHandler(new CriticalExceptionHandler());
+            chainHistory = new PersistentChainHistory(dataStore, groupCommitWriter, QA_Bundles, b.startBlock, b.ethBundlingPolicy);
+        }
     }
 
     public void initializeThreads(int numThreadAtoB, int numThreadBtoC) {
@@ -187,6 +199,7 @@ public class Bridge {
                         unbundlingPolicy);
             } else {
                 finalizeBundles = new TaskQdToEvict_FinalizeBundles(dataStore,
+                        groupCommitWriter,
                         QD_AwaitingFinalizationBundles,
                         tipState,
                         aionJsonRpcConsolidator,
@@ -239,17 +252,23 @@ public class Bridge {
             throw new IllegalStateException("Inconsistent DB state; ethFinalized cannot be less than aionFinalized");
 
         if (end - start >= 0) {
-            Optional<List<PersistentBundle>> storedBundles = dataStore.getBundleRangeClosed(start, end);
-
-            if (storedBundles.isPresent()) {
-                for (PersistentBundle b : storedBundles.get()) {
+            // read a page at a time, since the gap between the eth and aion finalized bundles can be arbitrarily
+            // large; no connection is held while blocking on a full queue
+            for (long pageStart = start; pageStart <= end; pageStart += QUEUE_INIT_PAGE_SIZE) {
+                long pageEnd = Math.min(end, pageStart + QUEUE_INIT_PAGE_SIZE - 1);
+                Optional<List<PersistentBundle>> storedBundles = dataStore.getBundleRangeClosed(pageStart, pageEnd);
+                if (!storedBundles.isPresent() || storedBundles.get().size() != pageEnd - pageStart + 1)
+                    throw new IllegalStateException("Inconsistent DB state; missing bundles in range [" + pageStart + " - " + pageEnd + "]");
+
+                List<PersistentBundle> page = storedBundles.get();
+                page.sort(PersistentBundle::compareTo);
+                for (PersistentBundle b : page) {
                     // Re-create bundles to the state of Stored as it came from the DB
                     StatefulBundle sb = new StatefulBundle(b);
                     sb.setStored();
 
                     log.info("Populating QA for bundle {}, ethTxHash {}", sb.getBundleId(), sb.getEthBlockHash());
 
-                    // Redesign to gradually populate queue from DB instead of sending directly??
                     while(!QA_Bundles.offer(sb)) {
                         TimeUnit.SECONDS.sleep(5);
                     }
@@ -271,6 +290,9 @@ public class Bridge {
 
         queueStatusThread.start();
 
+        if (groupCommitWriter != null)
+            groupCommitWriter.start();
+
         tipState.start();
 
         for (TaskQaToQb_SignBundles task : signatoryClientThreads)
@@ -378,6 +400,17 @@ public class Bridge {
             }
         }
 
+        // producers are stopped; commit whatever they left in the writer before closing the datastore
+        if (groupCommitWriter != null)
+        {
+            groupCommitWriter.shutdown();
+            try {
+                groupCommitWriter.join(SHUTDOWN_LIMIT);
+            } catch (InterruptedException e) {
+                log.debug("Bridge - groupCommitWriter interrupted", e);
+            }
+        }
+
         if ((dataStore != null) && (dbConnectionManager != null))
         {
             try {
@@ -387,6 +420,15 @@ public class Bridge {
             }
         }
 
+        if (dataStore instanceof Closeable)
+        {
+            try {
+                ((Closeable) dataStore).close();
+            } catch (IOException e) {
+                log.debug("Bridge - dataStore close failed", e);
+            }
+        }
+
         queueStatusThread.shutdown();
 
         aionJsonRpcConsolidator.getApi().evictConnections();
@@ -413,6 +455,7 @@ public class Bridge {
         DataStore dataStore;
         DbConnectionManager dbConnectionManager;
         ThreadPoolExecutor executor;
+        int groupCommitMaxBundles = 1000;
 
         String successfulTxHashEvent;
 
@@ -429,6 +472,7 @@ public class Bridge {
         public Builder setStartBlock(ChainLink x) {startBlock = x; return this;}
         public Builder setSuccessfulTxHashEvent(String x) {successfulTxHashEvent = x; return this;}
         public Builder setExecutor(ThreadPoolExecutor x) {executor = x; return this;}
+        public Builder setGroupCommit(int maxBundles) {groupCommitMaxBundles = maxBundles; return this;}
 
 
         public Bridge build() {
@@ -39,9 +39,13 @@ public class Config {
     public static class Bridge {
         private Long signatoryCollectorTimeoutSeconds;
         private Integer signatoryQuorumSize;
+        private Boolean signatoryReturnAfterQuorum;
+        private Integer groupCommitMaxBundles;
 
         public Long getSignatoryCollectorTimeoutSeconds() { return signatoryCollectorTimeoutSeconds; }
         public Integer getSignatoryQuorumSize() { return signatoryQuorumSize; }
+        public boolean getSignatoryReturnAfterQuorum() { return signatoryReturnAfterQuorum != null && signatoryReturnAfterQuorum; }
+        public int getGroupCommitMaxBundles() { return groupCommitMaxBundles == null ? 1000 : groupCommitMaxBundles; }
 
     }
 
@@ -62,6 +66,17 @@ public class Config {
         public String getTrustCertCollectionFilePath() { return trustCertCollectionFilePath; }
     }
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Datastore {
+        private String type;
+        private String embeddedPath;
+
+        // "mysql" (default) or "embedded"
+        public String getType() { return type == null ? "mysql" : type; }
+        public boolean isEmbedded() { return "embedded".equalsIgnoreCase(getType()); }
+        public String getEmbeddedPath() { return embeddedPath; }
+    }
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Sql {
         private String user;
@@ -69,12 +84,26 @@ public class Config {
         private String dbName;
         private String host;
         private String port;
+        private Integer maximumPoolSize;
+        private Integer minimumIdle;
+        private Long connectionTimeoutMs;
+        private Long poolStatsLogIntervalSeconds;
+        private String replicaHost;
+        private String replicaPort;
+        private Long maxReplicaLagSeconds;
 
         public String getUser() { return user; }
         public String getPassword() { return password; }
         public String getDbName() { return dbName; }
         public String getHost() { return host; }
         public String getPort() { return port; }
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public Integer getMinimumIdle() { return minimumIdle; }
+        public Long getConnectionTimeoutMs() { return connectionTimeoutMs; }
+        public Long getPoolStatsLogIntervalSeconds() { return poolStatsLogIntervalSeconds; }
+        public String getReplicaHost() { return replicaHost; }
+        public String getReplicaPort() { return replicaPort; }
+        public Long getMaxReplicaLagSeconds() { return maxReplicaLagSeconds; }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -133,6 +162,7 @@ public class Config {
         private Integer consolidatorQuorumSize;
         private Integer blockCollectorQuorumSize;
         private Boolean shutdownAfterTipStateError;
+        private Boolean chainStatePollerEnabled;
 
         public String getProcessedEvent() { return processedEvent; }
         public String getDistributedEvent() { return distributedEvent; }
@@ -147,6 +177,7 @@ public class Config {
         public Integer getConsolidatorQuorumSize() { return consolidatorQuorumSize; }
         public Integer getBlockCollectorQuorumSize() { return blockCollectorQuorumSize; }
         public boolean getShutdownAfterTipStateError() { return shutdownAfterTipStateError;}
+        public boolean getChainStatePollerEnabled() { return chainStatePollerEnabled == null ? true : chainStatePollerEnabled; }
 
     }
 
@@ -162,6 +193,7 @@ public class Config {
     }
 
     private Sql sql;
+    private Datastore datastore;
     private Eth eth;
     private Aion aion;
     private List<Signatory> signatories;
@@ -169,6 +201,7 @@ public class Config {
     private Bridge bridge;
 
     public Sql getSql() { return sql; }
+    public Datastore getDatastore() { return datastore == null ? new Datastore() : datastore; }
     public Eth getEth() { return eth; }
     public Aion getAion() { return aion; }
     public List<Signatory> getSignatories() { return signatories; }
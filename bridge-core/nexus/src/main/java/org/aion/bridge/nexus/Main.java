@@ -24,6 +24,8 @@
 
 package org.aion.bridge.nexus;
 
+import org.aion.bridge.chain.aion.api.AionChainState;
+import org.aion.bridge.chain.aion.api.AionChainStatePoller;
 import org.aion.bridge.chain.aion.api.AionJsonRpcConnection;
 import org.aion.bridge.chain.aion.api.AionJsonRpcConsolidator;
 import org.aion.bridge.chain.aion.types.AionAddress;
@@ -46,13 +48,16 @@ import org.aion.bridge.chain.eth.types.*;
 import org.aion.bridge.datastore.AionTipState;
 import org.aion.bridge.datastore.DataStore;
 import org.aion.bridge.datastore.DbConnectionManager;
+import org.aion.bridge.datastore.EmbeddedDatastore;
 import org.aion.bridge.datastore.MySqlDatastore;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -81,7 +86,15 @@ public class Main {
 
         DataStore dataStore = null;
         DbConnectionManager connectionManager = null;
-        if(persist) {
+        if(persist && config.getDatastore().isEmbedded()) {
+            try {
+                dataStore = new EmbeddedDatastore(Paths.get(config.getDatastore().getEmbeddedPath()));
+            } catch (PersistenceServiceException e) {
+                e.printStackTrace();
+                System.out.println("Unable to open embedded datastore");
+                System.exit(0);
+            }
+        } else if(persist) {
             try {
                 connectionManager = new DbConnectionManager.Builder()
                         .setHost(config.getSql().getHost())
@@ -89,9 +102,15 @@ public class Main {
                         .setDatabase(config.getSql().getDbName())
                         .setUser(config.getSql().getUser())
                         .setPassword(config.getSql().getPassword())
+                        .setMaximumPoolSize(config.getSql().getMaximumPoolSize())
+                        .setMinimumIdle(config.getSql().getMinimumIdle())
+                        .setConnectionTimeoutMs(config.getSql().getConnectionTimeoutMs())
+                        .setStatsLogIntervalSeconds(config.getSql().getPoolStatsLogIntervalSeconds())
+                        .setReplica(config.getSql().getReplicaHost(), config.getSql().getReplicaPort())
+                        .setMaxReplicaLagSeconds(config.getSql().getMaxReplicaLagSeconds())
                         .build();
 
-                dataStore = new MySqlDatastore(connectionManager);
+                dataStore = new MySqlDatastore(connectionManager, true);
             } catch (ClassNotFoundException e) {
                 e.printStackTrace();
                 System.out.println("Unable to find database driver");
@@ -145,6 +164,7 @@ public class Main {
                 signatoryGrpcConnections,
                 config.getBridge().getSignatoryQuorumSize(),
                 Duration.ofSeconds(config.getBridge().getSignatoryCollectorTimeoutSeconds()),
+                config.getBridge().getSignatoryReturnAfterQuorum(),
                 executor);
 
         // Aion Consolidator
@@ -166,10 +186,33 @@ public class Main {
                 new AionAddress(config.getRelayer().getAddress()),
                 config.getRelayer().getPublicKey());
 
+        // Tip and gas price in one JSON-RPC batch per node per tick; the relayer nonce only until it is seeded below
+        AionChainStatePoller aionChainState = null;
+        if (config.getAion().getChainStatePollerEnabled()) {
+            aionChainState = new AionChainStatePoller.Builder()
+                    .setConnections(aionConnections)
+                    .setExecutor(executor)
+                    .setQuorum(config.getAion().getConsolidatorQuorumSize())
+                    .setTimeout(Duration.ofSeconds(config.getAion().getConsolidatorTimeoutSeconds()))
+                    .setPollInterval(10L, TimeUnit.SECONDS)
+                    .setNonceAddress(relayer.getAccountAddress())
+                    .build();
+            aionChainState.start();
+        }
+
         // Initialize nonce for Relayer
         try{
-            BigInteger nonce = aionConsolidator.getApi().getNonce(relayer.getAccountAddress());
+            Optional<BigInteger> polledNonce = aionChainState == null ? Optional.empty() : aionChainState
+                    .awaitSnapshot(config.getAion().getConsolidatorTimeoutSeconds(), TimeUnit.SECONDS)
+                    .flatMap(AionChainState::getNonce);
+            BigInteger nonce = polledNonce.isPresent()
+                    ? polledNonce.get()
+                    : aionConsolidator.getApi().getNonce(relayer.getAccountAddress());
             relayer.setNonce(nonce);
+
+            // the relayer tracks its own nonce from here
+            if (aionChainState != null)
+                aionChainState.stopPollingNonce();
         } catch (QuorumNotAvailableException | InterruptedException e) {
             e.printStackTrace();
             System.out.println("Unable to get nonce for relayer. Shutting down.");
@@ -202,11 +245,12 @@ public class Main {
             AionTipState tipState = new AionTipState.Builder()
                     .setPollInterval(10L, TimeUnit.SECONDS)
                     .setApi(aionBlockNumberCollector)
+                    .setChainState(aionChainState)
                     .setDatabase(dataStore)
                     .setShutdownAfterTipStateError(config.getAion().getShutdownAfterTipStateError())
                     .build();
 
-            AionClient aionClient = new AionClient(aionConsolidator.getApi(), tipState, relayer);
+            AionClient aionClient = new AionClient(aionConsolidator.getApi(), tipState, relayer, aionChainState);
 
             bridge = new Bridge.Builder()
                     .setDatabase(dataStore, connectionManager)
@@ -222,6 +266,7 @@ public class Main {
                     .setUnbundlingPolicy(unbundlingPolicy)
                     .setSuccessfulTxHashEvent(config.getAion().getSuccessfulTxHashEvent())
                     .setExecutor(executor)
+                    .setGroupCommit(config.getBridge().getGroupCommitMaxBundles())
                     .build();
 
             // unchecked-warning suppressed: adding more generic args to ChainOracle would make declaration unfashionably verbose :(
@@ -249,6 +294,8 @@ public class Main {
             Runtime.getRuntime().addShutdownHook(
                     new Thread(bridge::shutdown)
             );
+            if (aionChainState != null)
+                Runtime.getRuntime().addShutdownHook(new Thread(aionChainState::shutdown));
 
             // Start all tasks + chain oracle
             bridge.start();
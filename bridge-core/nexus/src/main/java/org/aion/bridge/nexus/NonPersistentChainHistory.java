@@ -47,6 +47,7 @@ public class NonPersistentChainHistory implements ChainHistory<EthBlock, EthRece
     private ChainLink chainLink;
     private final Logger log = LoggerFactory.getLogger(NonPersistentChainHistory.class);
     private int id = 0;
+    private long lastBundleBlockNumber = -1;
     private EthBundlingPolicy ethBundlingPolicy;
 
     public NonPersistentChainHistory(LinkedBlockingDeque<StatefulBundle> QA_Bundles, ChainLink startBlock, EthBundlingPolicy ethBundlingPolicy) {
@@ -83,6 +84,17 @@ public class NonPersistentChainHistory implements ChainHistory<EthBlock, EthRece
         throw new CriticalBridgeTaskException(sb.toString());
     }
 
+    @Override
+    public void rollback(ChainLink forkPoint) throws CriticalBridgeTaskException {
+        if (lastBundleBlockNumber > forkPoint.getNumber())
+            throw new CriticalBridgeTaskException("Re-org below enqueued bundles\n" +
+                    "Fork point #: " + forkPoint.getNumber() + "\n" +
+                    "Latest bundle BN: " + lastBundleBlockNumber + "\n");
+
+        log.warn("Rolling back chain history to #{}, {}", forkPoint.getNumber(), forkPoint.getHash().toString());
+        chainLink = forkPoint;
+    }
+
     @Override
     public void publish(ChainOracleResultset<EthBlock, EthReceipt, EthLog> rs) throws CriticalBridgeTaskException, InterruptedException {
         // Sort and finalize to stop any further changes to the result set
@@ -97,6 +109,7 @@ public class NonPersistentChainHistory implements ChainHistory<EthBlock, EthRece
             List<Bundle> newBundles = ethBundles.stream().map(EthBundle::getBundle).collect(toList());
             for (Bundle b : newBundles) {
                 bundles.add(new StatefulBundle(new PersistentBundle(id, b)));
+                lastBundleBlockNumber = b.getEthBlockNumber();
                 id++;
             }
         }
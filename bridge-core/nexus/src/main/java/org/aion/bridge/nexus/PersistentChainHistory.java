@@ -36,35 +36,112 @@ import org.aion.bridge.chain.eth.types.EthBlock;
 import org.aion.bridge.chain.eth.types.EthLog;
 import org.aion.bridge.chain.eth.types.EthReceipt;
 import org.aion.bridge.datastore.DataStore;
+import org.aion.bridge.datastore.GroupCommitWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Publishes are pipelined with the {@link GroupCommitWriter}: a result set's write is submitted and publish returns
+ * while it commits, so the oracle fetches the next range in the meantime. The bundle ids and chain tip of the next
+ * result set are taken from the last submitted write rather than from the database, and a write is only awaited by
+ * the next publish (or a rollback), right before the next one is submitted; its bundles move to QA_Bundles once it
+ * is durable, from the writer's completion if the queue has room for all of them, otherwise from that next publish.
+ */
 @SuppressWarnings("Duplicates")
 public class PersistentChainHistory implements ChainHistory<EthBlock, EthReceipt, EthLog> {
 
     private final Logger log = LoggerFactory.getLogger(PersistentChainHistory.class);
 
+    private static final class InFlight {
+        final CompletableFuture<Void> durable;
+        final List<StatefulBundle> bundles;
+        // set by whichever of the writer's completion and the next publish moves the bundles to QA_Bundles
+        final AtomicBoolean handedOff = new AtomicBoolean(false);
+
+        InFlight(CompletableFuture<Void> durable, List<StatefulBundle> bundles) {
+            this.durable = durable;
+            this.bundles = bundles;
+        }
+    }
+
     private final DataStore ds;
+    private final GroupCommitWriter writer;
     private final LinkedBlockingDeque<StatefulBundle> QA_Bundles;
     private final ChainLink startBlock;
     private EthBundlingPolicy ethBundlingPolicy;
 
+    // only touched by the oracle thread; loaded from the database by the first call that needs them
+    private boolean loaded = false;
+    private long lastBundleId;
+    private ChainLink lastBlock;
+    private InFlight inFlight;
+
     public PersistentChainHistory(DataStore ds,
+                                  GroupCommitWriter writer,
                                   LinkedBlockingDeque<StatefulBundle> QA_Bundles,
                                   ChainLink startBlock,
                                   EthBundlingPolicy ethBundlingPolicy) {
         this.ds = ds;
+        this.writer = writer;
         this.QA_Bundles = QA_Bundles;
         this.startBlock = startBlock;
         this.ethBundlingPolicy = ethBundlingPolicy;
     }
 
+    /**
+     * The tip of the last submitted write, which may not be durable yet.
+     */
     @Override
     public ChainLink getLatestBlock() throws PersistenceServiceException {
-        return ds.getEthFinalizedBlock().orElse(startBlock);
+        load();
+        return lastBlock != null ? lastBlock : startBlock;
+    }
+
+    private void load() throws PersistenceServiceException {
+        if (loaded)
+            return;
+
+        lastBundleId = ds.getEthFinalizedBundleId().orElse(-1L);
+        lastBlock = ds.getEthFinalizedBlock().orElse(null);
+        loaded = true;
+    }
+
+    /**
+     * Block until the last submitted write is durable and its bundles are in QA_Bundles.
+     */
+    private void settle() throws PersistenceServiceException, InterruptedException {
+        if (inFlight == null)
+            return;
+
+        GroupCommitWriter.await(inFlight.durable);
+        if (inFlight.handedOff.compareAndSet(false, true)) {
+            for (StatefulBundle sb : inFlight.bundles) {
+                sb.setStored();
+                // spin here until we can enqueue, before moving forward and getting more blocks from network
+                while (QA_Bundles.remainingCapacity() < 1 && !Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(5000L);
+                }
+
+                QA_Bundles.offer(sb);
+            }
+        }
+        inFlight = null;
+    }
+
+    // runs on the writer thread once the write is durable, so it must not block
+    private void handOffIfRoom(InFlight w) {
+        if (QA_Bundles.remainingCapacity() < w.bundles.size() || !w.handedOff.compareAndSet(false, true))
+            return;
+
+        for (StatefulBundle sb : w.bundles) {
+            sb.setStored();
+            QA_Bundles.offer(sb);
+        }
     }
 
     @Override
@@ -92,6 +169,31 @@ public class PersistentChainHistory implements ChainHistory<EthBlock, EthReceipt
         throw new CriticalBridgeTaskException(sb.toString());
     }
 
+    /**
+     * Only the chain tip can be moved back; once a bundle from an orphaned block is stored it is already on its way
+     * to Aion, so that case stays critical.
+     */
+    @Override
+    public void rollback(ChainLink forkPoint) throws PersistenceServiceException, InterruptedException {
+        settle();
+        Optional<PersistentBundle> latestBundle = ds.getEthFinalizedBundle();
+
+        if (latestBundle.isPresent() && latestBundle.get().getBundle().getEthBlockNumber() > forkPoint.getNumber()) {
+            log.error("Re-org below stored bundles, fork point: {}, {}, BundleId {} at BN {}", forkPoint.getNumber(),
+                    forkPoint.getHash().toString(), latestBundle.get().getBundleId(), latestBundle.get().getBundle().getEthBlockNumber());
+
+            throw new CriticalBridgeTaskException("Re-org below stored bundles\n" +
+                    "Fork point #: " + forkPoint.getNumber() + "\n" +
+                    "Fork point hash: " + forkPoint.getHash().toStringWithPrefix() + "\n" +
+                    "Latest BundleId: " + latestBundle.get().getBundleId() + "\n" +
+                    "Latest bundle BN: " + latestBundle.get().getBundle().getEthBlockNumber() + "\n");
+        }
+
+        log.warn("Rolling back Eth chain history to #{}, {}", forkPoint.getNumber(), forkPoint.getHash().toString());
+        GroupCommitWriter.await(writer.submitEthChainHistory(forkPoint));
+        lastBlock = forkPoint;
+    }
+
     // TODO: reloading the queue based on bundles from the DB
     @Override
     public void publish(ChainOracleResultset<EthBlock, EthReceipt, EthLog> rs) throws PersistenceServiceException, InterruptedException {
@@ -99,8 +201,9 @@ public class PersistentChainHistory implements ChainHistory<EthBlock, EthReceipt
         if (rs.isOpen())
             throw new IllegalArgumentException("non-finalized result set should not be returned from oracle");
 
-        long finalizedBundleId = ds.getEthFinalizedBundleId().orElse(-1L);
-        Optional<ChainLink> finalizedBlock = ds.getEthFinalizedBlock();
+        load();
+        long finalizedBundleId = lastBundleId;
+        Optional<ChainLink> finalizedBlock = Optional.ofNullable(lastBlock);
 
         List<BlockWithReceipts<EthBlock, EthReceipt, EthLog>> blocks = rs.getAllBlocks();
         List<Bundle> bundles = new ArrayList<>();
@@ -154,25 +257,23 @@ public class PersistentChainHistory implements ChainHistory<EthBlock, EthReceipt
             sbs.add(new StatefulBundle(new PersistentBundle(++finalizedBundleId, bundle)));
         }
 
+        // the previous write has to be durable before this one is submitted: a failed write must not be followed by
+        // one that moves the chain tip past it
+        settle();
+
+        ChainLink tip = blocks.get(blocks.size() - 1).getBlock();
+        CompletableFuture<Void> durable;
         if (sbs.isEmpty())
             // No bundles to submit, update chain history
-            ds.storeEthChainHistory(blocks.get(blocks.size() - 1).getBlock());
+            durable = writer.submitEthChainHistory(tip);
         else
-            // flush to db first, then try to move the data into processing queue
-            ds.storeEthFinalizedBundles(sbs,
-                    blocks.get(blocks.size()-1).getBlock(),
-                    sbs.get(sbs.size()-1),
-                    txHashToEthAddressMap);
-
-        // set the state to stored
-        for (StatefulBundle sb : sbs) {
-            sb.setStored();
-            // spin here until we can enqueue, before moving forward and getting more blocks from network
-            while (QA_Bundles.remainingCapacity() < 1 && !Thread.currentThread().isInterrupted()) {
-                Thread.sleep(5000L);
-            }
+            // flush to db first, then move the data into processing queue once it is durable
+            durable = writer.submitEthFinalizedBundles(sbs, tip, sbs.get(sbs.size()-1), txHashToEthAddressMap);
 
-            QA_Bundles.offer(sb);
-        }
+        InFlight w = new InFlight(durable, sbs);
+        inFlight = w;
+        lastBundleId = finalizedBundleId;
+        lastBlock = tip;
+        durable.thenRun(() -> handOffIfRoom(w));
     }
 }
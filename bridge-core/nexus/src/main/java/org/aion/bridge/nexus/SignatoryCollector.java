@@ -34,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -43,11 +44,14 @@ import java.util.concurrent.TimeUnit;
 
 public class SignatoryCollector {
 
+    private static final Logger log = LoggerFactory.getLogger(SignatoryCollector.class);
+
     private List<SignatoryGrpcConnection> connections;
     private final Executor executor;
 
     private final int quorum;
     private final long timeout;
+    private final boolean returnAfterQuorum;
 
     private final static TimeUnit TIMEOUT_UNIT = TimeUnit.MILLISECONDS;
     private final static long DEFAULT_TIMEOUT = 10_000L; // 10s
@@ -57,6 +61,16 @@ public class SignatoryCollector {
     }
 
     public SignatoryCollector(List<SignatoryGrpcConnection> connections, int quorum, Duration timeout, Executor executor) {
+        this(connections, quorum, timeout, false, executor);
+    }
+
+    /**
+     * @param returnAfterQuorum if set, signing returns as soon as quorum is reached; requests to the remaining
+     *                          signatories keep running (bounded by timeout) and their signatures are merged into
+     *                          the bundle if it is still waiting for broadcast.
+     */
+    public SignatoryCollector(List<SignatoryGrpcConnection> connections, int quorum, Duration timeout,
+                              boolean returnAfterQuorum, Executor executor) {
         Objects.requireNonNull(connections);
         Objects.requireNonNull(timeout);
         if (connections.size() < 1) throw new IllegalArgumentException("connections.size() < 1");
@@ -65,6 +79,7 @@ public class SignatoryCollector {
 
         this.timeout = timeout.toMillis();
         this.quorum = quorum;
+        this.returnAfterQuorum = returnAfterQuorum;
         this.connections = Collections.unmodifiableList(connections);
         this.executor = executor;
     }
@@ -73,7 +88,96 @@ public class SignatoryCollector {
         return Collector.batchCall(method, connections, executor, quorum, timeout, TIMEOUT_UNIT);
     }
 
+    /**
+     * Each signature is verified locally against the bundle hash before it counts towards quorum; a bad
+     * signature is dropped, so the bundle either reaches quorum on good signatures or fails and gets retried,
+     * instead of being rejected by the contract after an Aion transaction has been spent on it.
+     */
     public List<Signature> getSignatureForBundle(StatefulBundle bundle) throws StatusRuntimeException, QuorumNotAvailableException, InterruptedException {
-        return batchCall(c -> c.getSignatureForBundle(bundle));
+        if (returnAfterQuorum)
+            return getSignatureForBundleUntilQuorum(bundle);
+
+        return batchCall(c -> verify(bundle, c.getSignatureForBundle(bundle)));
+    }
+
+    private List<Signature> getSignatureForBundleUntilQuorum(StatefulBundle bundle) throws QuorumNotAvailableException, InterruptedException {
+        SigningRound round = new SigningRound(bundle, connections.size());
+
+        for (SignatoryGrpcConnection c : connections) {
+            executor.execute(() -> {
+                Signature signature = null;
+                try {
+                    signature = verify(bundle, c.getSignatureForBundle(bundle, timeout, TIMEOUT_UNIT));
+                } catch (Exception e) {
+                    log.debug("SignatoryCollector encountered non-critical exception; Exception Message: {}", e.getMessage());
+                } finally {
+                    round.complete(signature);
+                }
+            });
+        }
+
+        List<Signature> signatures = round.awaitQuorum(quorum, timeout, TIMEOUT_UNIT);
+
+        if (signatures.size() < quorum)
+            throw new QuorumNotAvailableException("Could not achieve quorum. total responses received: "
+                    + signatures.size() + " quorum: " + quorum);
+
+        return signatures;
+    }
+
+    private Signature verify(StatefulBundle bundle, Signature signature) {
+        if (!signature.verify(bundle.getBundleHash().payload())) {
+            log.warn("Dropping invalid signature from signatory {} for bundle {}, bundleHash {}",
+                    signature.getPublicKey(), bundle.getBundleId(), bundle.getBundleHash());
+            return null;
+        }
+        return signature;
+    }
+
+    /**
+     * Signatures for one bundle, split into the ones handed back to the signing task (collected before quorum was
+     * reached) and the late ones, which are merged straight into the bundle.
+     */
+    private static class SigningRound {
+        private final StatefulBundle bundle;
+        private final int expected;
+        private final List<Signature> signatures = new ArrayList<>();
+        private int completed = 0;
+        private boolean closed = false;
+
+        SigningRound(StatefulBundle bundle, int expected) {
+            this.bundle = bundle;
+            this.expected = expected;
+        }
+
+        synchronized void complete(Signature signature) {
+            completed++;
+            if (signature != null) {
+                if (!closed) {
+                    signatures.add(signature);
+                } else if (bundle.mergeLateSignature(signature)) {
+                    log.debug("Merged late signature from signatory {} into bundle {}", signature.getPublicKey(), bundle.getBundleId());
+                } else {
+                    log.debug("Discarded late signature from signatory {} for bundle {} in state {}",
+                            signature.getPublicKey(), bundle.getBundleId(), bundle.getState());
+                }
+            }
+            notifyAll();
+        }
+
+        synchronized List<Signature> awaitQuorum(int quorum, long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            try {
+                while (signatures.size() < quorum && completed < expected) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                        break;
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } finally {
+                closed = true;
+            }
+            return new ArrayList<>(signatures);
+        }
     }
 }
@@ -28,6 +28,11 @@ import io.grpc.StatusRuntimeException;
 import org.aion.bridge.chain.bridge.Signature;
 import org.aion.bridge.chain.bridge.StatefulBundle;
 
+import java.util.concurrent.TimeUnit;
+
 public interface SignatoryConnection {
     Signature getSignatureForBundle(StatefulBundle bundle) throws StatusRuntimeException;
+
+    // same as above, but the call is abandoned by the transport once the deadline passes
+    Signature getSignatureForBundle(StatefulBundle bundle, long deadline, TimeUnit unit) throws StatusRuntimeException;
 }
@@ -124,7 +124,14 @@ public class SignatoryGrpcConnection implements SignatoryConnection {
 
     // exception thrown for any cause in signatory will be caught in collector
     public Signature getSignatureForBundle(StatefulBundle bundle) throws StatusRuntimeException {
+        return getSignature(stub, bundle);
+    }
+
+    public Signature getSignatureForBundle(StatefulBundle bundle, long deadline, TimeUnit unit) throws StatusRuntimeException {
+        return getSignature(stub.withDeadlineAfter(deadline, unit), bundle);
+    }
 
+    private Signature getSignature(SignatoryServiceGrpc.SignatoryServiceBlockingStub stub, StatefulBundle bundle) {
         ValidateAndSignRequest request = ValidateAndSignRequest.newBuilder()
                 .setSourceChainBlockNumber(bundle.getEthBlockNumber())
                 .setSourceChainBlockHash(ByteString.copyFrom(bundle.getEthBlockHash().payload()))
@@ -37,6 +37,7 @@ import org.aion.bridge.chain.db.PersistenceServiceException;
 import org.aion.bridge.chain.log.LogEnum;
 import org.aion.bridge.datastore.AionTipState;
 import org.aion.bridge.datastore.DataStore;
+import org.aion.bridge.datastore.GroupCommitWriter;
 import org.aion.bridge.nexus.retry.Predicates;
 import org.aion.bridge.nexus.retry.RetryBuilder;
 import org.aion.bridge.nexus.retry.RetryExecutor;
@@ -45,14 +46,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 public class TaskQdToEvict_FinalizeBundles extends Worker {
     private AionTipState tipState;
@@ -68,10 +69,17 @@ public class TaskQdToEvict_FinalizeBundles extends Worker {
     private static final Logger log = LoggerFactory.getLogger(LogEnum.FINALIZE.name());
 
     private DataStore ds;
+    private GroupCommitWriter writer;
 
     private Stopwatch stopWatch;
 
+    // the last submitted write and its bundles; it is only awaited once the next round of bundles has been found
+    private CompletableFuture<Void> inFlight;
+    private List<StatefulBundle> inFlightBundles = Collections.emptyList();
+    private long inFlightSubmittedAt;
+
     public TaskQdToEvict_FinalizeBundles(@Nonnull DataStore ds,
+                                         @Nonnull GroupCommitWriter writer,
                                          @Nonnull LinkedBlockingDeque<StatefulBundle> finalizationQ,
                                          @Nonnull AionTipState tipState,
                                          @Nonnull AionJsonRpcConsolidator consolidator,
@@ -81,6 +89,7 @@ public class TaskQdToEvict_FinalizeBundles extends Worker {
         this.finalizationQ = finalizationQ;
         this.consolidator = consolidator;
         this.ds = ds;
+        this.writer = writer;
         this.finalizationDepth = finalizationDepth;
         this.unbundlingPolicy = unbundlingPolicy;
 
@@ -123,32 +132,20 @@ public class TaskQdToEvict_FinalizeBundles extends Worker {
             try {
                 List<StatefulBundle> finalizedBundles = findFinalizedBundles();
 
+                // the previous round's write commits while the receipts above are fetched
+                List<StatefulBundle> stored = settle();
+
                 //Submit all finalized bundles to DB
                 if (!finalizedBundles.isEmpty() && ds != null) {
-                    stopWatch.start();
-                    ds.storeAionFinalizedBundles(finalizedBundles,
+                    inFlight = writer.submitAionFinalizedBundles(finalizedBundles,
                             new ChainLink(finalizedBundles.get(finalizedBundles.size() - 1).getAionReceipt().getBlockNumber(),
                                     finalizedBundles.get(finalizedBundles.size() - 1).getAionReceipt().getBlockHash()),
                             finalizedBundles.get(finalizedBundles.size() - 1));
-                    stopWatch.stop();
-                    log.trace("Stored {} bundles in DB within {}", finalizedBundles.size(), stopWatch.toString());
-                    stopWatch.reset();
+                    inFlightBundles = finalizedBundles;
+                    inFlightSubmittedAt = System.nanoTime();
                 }
 
-                for (StatefulBundle fb : finalizedBundles) {
-                    long db = ds.getEthBundleCreationTimestamp(fb.getBundleId()).get().getTime();
-                    //long dbInst = db.toInstant().toEpochMilli();
-                    long now = Instant.now().toEpochMilli();
-
-                    Duration interval = Duration.ofMillis(now - db);
-
-                    if(interval.isNegative())
-                        log.debug("Detected negative interval for bundle {} ", fb.getBundleId());
-
-                    log.debug("Completed transferring bundle: {}, total transfer time: {}", fb.getBundleId(),
-                                DurationFormatUtils.formatDuration(Math.max(interval.toMillis(), 0L),"HH:mm:ss:SSS")
-                    );
-                }
+                logTransferTimes(stored);
 
                 //Sleep until next iteration
                 Thread.sleep(MS_DELAY_POLL);
@@ -163,9 +160,64 @@ public class TaskQdToEvict_FinalizeBundles extends Worker {
             }
         }
 
+        // no later round is going to await the last write; the writer still commits it on shutdown
+        if (inFlight != null && !Thread.currentThread().isInterrupted()) {
+            try {
+                logTransferTimes(settle());
+            } catch (InterruptedException e) {
+                log.debug("Interrupted");
+            } catch (PersistenceServiceException e) {
+                log.error("TaskQdToEvict_FinalizeBundles - caught a PersistenceServiceException. Crashing the process.");
+                throw new CriticalBridgeTaskException(e);
+            }
+        }
+
         log.debug("exiting...");
     }
 
+    /**
+     * Block until the last submitted write is durable; returns its bundles.
+     */
+    private List<StatefulBundle> settle() throws PersistenceServiceException, InterruptedException {
+        if (inFlight == null)
+            return Collections.emptyList();
+
+        GroupCommitWriter.await(inFlight);
+        log.trace("Stored {} bundles in DB within {} ms", inFlightBundles.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inFlightSubmittedAt));
+
+        List<StatefulBundle> stored = inFlightBundles;
+        inFlight = null;
+        inFlightBundles = Collections.emptyList();
+        return stored;
+    }
+
+    private void logTransferTimes(List<StatefulBundle> finalizedBundles) throws PersistenceServiceException {
+        // one range query for the creation times, instead of one query per bundle
+        Map<Long, Timestamp> created = finalizedBundles.isEmpty() || ds == null ? Collections.emptyMap() :
+                ds.getEthBundleCreationTimestampRangeClosed(finalizedBundles.get(0).getBundleId(),
+                        finalizedBundles.get(finalizedBundles.size() - 1).getBundleId());
+
+        for (StatefulBundle fb : finalizedBundles) {
+            Timestamp createdAt = created.get(fb.getBundleId());
+            if (createdAt == null)
+                continue;
+
+            long db = createdAt.getTime();
+            //long dbInst = db.toInstant().toEpochMilli();
+            long now = Instant.now().toEpochMilli();
+
+            Duration interval = Duration.ofMillis(now - db);
+
+            if(interval.isNegative())
+                log.debug("Detected negative interval for bundle {} ", fb.getBundleId());
+
+            log.debug("Completed transferring bundle: {}, total transfer time: {}", fb.getBundleId(),
+                        DurationFormatUtils.formatDuration(Math.max(interval.toMillis(), 0L),"HH:mm:ss:SSS")
+            );
+        }
+    }
+
     private List<StatefulBundle> findFinalizedBundles() {
         List<StatefulBundle> finalized = new ArrayList<>();
 
@@ -46,7 +46,7 @@ import org.aion.bridge.datastore.DataStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -67,6 +67,7 @@ public class AionBundleFinalizer extends Thread {
         // Optional parameters
         private long haltDelaySeconds = 10;
         private long finalityDepth = 16;
+        private int probeWindow = 100;
 
         public Builder setDatabase(DataStore x) { ds = x; return this; }
         public Builder setApi(StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> x) { api = x; return this; }
@@ -74,13 +75,14 @@ public class AionBundleFinalizer extends Thread {
         public Builder setContractAddress(AionAddress x) { contractAddress = x; return this; }
         public Builder setHaltDelaySeconds(long x) { haltDelaySeconds = x; return this; }
         public Builder setFinalityDepth(long x) { finalityDepth = x; return this; }
+        public Builder setProbeWindow(Integer x) { if (x != null) probeWindow = x; return this; }
 
         public AionBundleFinalizer build() {
             if (!allNotNull(ds, api, tipState, contractAddress))
                 throw new IllegalStateException("!allNotNull(ds, api, tipState, contractAddress)");
 
-            if (haltDelaySeconds < 1 || finalityDepth < 0)
-                throw new IllegalStateException("haltDelaySeconds < 1 || finalityDepth < 0");
+            if (haltDelaySeconds < 1 || finalityDepth < 0 || probeWindow < 1)
+                throw new IllegalStateException("haltDelaySeconds < 1 || finalityDepth < 0 || probeWindow < 1");
 
             return new AionBundleFinalizer(this);
         }
@@ -97,6 +99,7 @@ public class AionBundleFinalizer extends Thread {
 
     private final long haltDelaySeconds;
     private final long finalityDepth;
+    private final int probeWindow; // bundles probed (actionMap) and finalized per JSON-RPC batch
 
     private static final int EXCEPTION_DELAY_MS = 100; // so we don't infinite-loop
     private static final int MAX_CONSECUTIVE_ERR = 10;
@@ -109,6 +112,7 @@ public class AionBundleFinalizer extends Thread {
 
         haltDelaySeconds = b.haltDelaySeconds;
         finalityDepth = b.finalityDepth;
+        probeWindow = b.probeWindow;
     }
 
     @Override
@@ -166,26 +170,16 @@ public class AionBundleFinalizer extends Thread {
                             " cannot be less than Eth Finalized Bundle Id=" + start);
                 }
 
-                Optional<List<PersistentBundle>> observedEthBundles = ds.getBundleRangeClosed(start, end);
-                if (!observedEthBundles.isPresent() || observedEthBundles.get().size() == 0) {
-                    throw new IllegalStateException("Inconsistent DB state; Eth Finalized Bundle table does not " +
-                            "contain bundleId range: [" + start + " - " + end + "]");
-                }
-
-                List<PersistentBundle> bundles = observedEthBundles.get();
-                bundles.sort(PersistentBundle::compareTo);
-                if (!isBundleListIntegrityOK(bundles)) {
-                    throw new IllegalStateException("Inconsistent DB state; Bundle list not contiguous");
-                }
-
                 log.info("Non-finalized bundles found on Ethereum: [{} - {}]", start, end);
 
-                Iterator<PersistentBundle> iterator = bundles.iterator();
-                PersistentBundle poll = iterator.next();
-
-                // Ok, now poll Aion if they've seen the bundles we just saw on Ethereum
-                while (!shutdown) {
-                    log.info("Bundle Id=[{}] Start processing", poll.getBundleId());
+                // Ok, now poll Aion if they've seen the bundles we just saw on Ethereum, a window at a time; each
+                // window is read from the DB on its own, so memory is bounded by the window however far behind we are
+                long next = start;
+                while (!shutdown && next <= end) {
+                    List<PersistentBundle> window = readWindow(next, Math.min(end, next + probeWindow - 1));
+                    PersistentBundle first = window.get(0);
+                    log.info("Bundle Id=[{} - {}] Start processing", first.getBundleId(),
+                            window.get(window.size() - 1).getBundleId());
 
                     // Determine blockId with finalization (tipState - finalizationDepth)
                     Optional<Long> latestBlockNumber = tipState.getBlockNumber();
@@ -196,53 +190,70 @@ public class AionBundleFinalizer extends Thread {
                     }
                     long finalizedBlock = Long.max(latestBlockNumber.get() - finalityDepth, 0L);
 
-                    log.info("Bundle Id=[{}] Querying ATB contract ...", poll.getBundleId());
-
-                    // Ask ATB contract if it's seen the bundle, if not just keep polling for bundleHash
-                    Word32 bundleHash = poll.getBundle().getBundleHash();
+                    // Ask ATB contract if it's seen the bundles, one JSON-RPC batch for the whole window
+                    List<ImmutableBytes> calls = new ArrayList<>(window.size());
+                    for (PersistentBundle b : window)
+                        calls.add(actionMap(b.getBundle().getBundleHash()));
 
                     Stopwatch timer = Stopwatch.createStarted();
-                    Word32 transactionHash = new Word32(api.contractCall(contractAddress, actionMap(bundleHash), Long.toString(finalizedBlock)));
-                    log.info("Bundle Id=[{}] ATB query returned in {}", poll.getBundleId(), timer.stop().toString());
+                    List<String> results = api.contractCalls(contractAddress, calls, Long.toString(finalizedBlock));
+                    log.info("Bundle Id=[{}] ATB query for {} bundles returned in {}", first.getBundleId(),
+                            window.size(), timer.stop().toString());
+
+                    // only the contiguous prefix of transferred bundles can be finalized
+                    List<Word32> transactionHashes = new ArrayList<>();
+                    for (String result : results) {
+                        Word32 transactionHash = new Word32(result);
+                        if (transactionHash.equals(Word32.EMPTY))
+                            break;
+                        transactionHashes.add(transactionHash);
+                    }
 
-                    if (transactionHash.equals(Word32.EMPTY)) {
-                        log.info("No ATB Transfer for bundleHash=[{}]. Sleeping {}s", bundleHash, haltDelaySeconds);
+                    if (transactionHashes.isEmpty()) {
+                        log.info("No ATB Transfer for bundleHash=[{}]. Sleeping {}s", first.getBundle().getBundleHash(),
+                                haltDelaySeconds);
                         TimeUnit.SECONDS.sleep(haltDelaySeconds);
                         continue;
                     }
 
-                    log.info("Bundle Id=[{}] Querying for receipt ...", poll.getBundleId());
+                    log.info("Bundle Id=[{}] Querying for {} receipts ...", first.getBundleId(), transactionHashes.size());
 
-                    // ATB contract returns the Aion transaction hash, go ahead and retrieve that transaction
+                    // ATB contract returns the Aion transaction hashes, go ahead and retrieve those transactions
                     timer.reset().start();
-                    Optional<AionReceipt> receipt = api.getReceipt(transactionHash);
-                    if (!receipt.isPresent()) {
-                        throw new IllegalStateException("Aion kernel could not find Aion Transaction Hash: "+
-                                transactionHash.toStringWithPrefix());
+                    List<Optional<AionReceipt>> receipts = api.getReceipts(transactionHashes);
+
+                    List<StatefulBundle> finalized = new ArrayList<>(transactionHashes.size());
+                    for (int i = 0; i < transactionHashes.size(); i++) {
+                        if (!receipts.get(i).isPresent()) {
+                            throw new IllegalStateException("Aion kernel could not find Aion Transaction Hash: "+
+                                    transactionHashes.get(i).toStringWithPrefix());
+                        }
+                        finalized.add(getFinalizedStatefulBundle(window.get(i), receipts.get(i).get()));
                     }
 
-                    // Ok to write the bundle to DB now.
-                    StatefulBundle sb = getFinalizedStatefulBundle(poll, receipt.get());
+                    // Ok to write the bundles to DB now, the whole prefix in one transaction.
+                    StatefulBundle last = finalized.get(finalized.size() - 1);
                     /**
                      * It's OK that this is not the right aionFinalizedBlockNumber, since in this logic we don't depend
                      * on that number.
                      */
-                    ChainLink aionChainTip = new ChainLink(sb.getAionReceipt().getBlockNumber(), sb.getAionReceipt().getBlockHash());
-                    log.info("Bundle Id=[{}] Receipt query returned in {}. Aion BN=[{}]", poll.getBundleId(),
-                            timer.stop().toString(), aionChainTip.getNumber());
+                    ChainLink aionChainTip = new ChainLink(last.getAionReceipt().getBlockNumber(), last.getAionReceipt().getBlockHash());
+                    log.info("Bundle Id=[{} - {}] Receipt query returned in {}. Aion BN=[{}]", first.getBundleId(),
+                            last.getBundleId(), timer.stop().toString(), aionChainTip.getNumber());
 
-                    ds.storeAionFinalizedBundles(List.of(sb), aionChainTip, sb);
-
-                    if (iterator.hasNext() && !shutdown) {
-                        poll = iterator.next();
-                        continue;
-                    }
+                    ds.storeAionFinalizedBundles(finalized, aionChainTip, last);
+                    next += finalized.size();
 
                     if (Thread.currentThread().isInterrupted()) {
                         throw new InterruptedException("Interruption detected by AionBundleFinalizer");
                     }
 
-                    break;
+                    // the next bundle has not been transferred yet
+                    if (finalized.size() < window.size()) {
+                        log.info("No ATB Transfer for bundleHash=[{}]. Sleeping {}s",
+                                window.get(finalized.size()).getBundle().getBundleHash(), haltDelaySeconds);
+                        TimeUnit.SECONDS.sleep(haltDelaySeconds);
+                    }
                 }
 
                 errAccumulator = 0; // since all went well
@@ -283,6 +294,21 @@ public class AionBundleFinalizer extends Thread {
         log.info("Shutdown signal received");
     }
 
+    private List<PersistentBundle> readWindow(long start, long end) throws PersistenceServiceException {
+        Optional<List<PersistentBundle>> observedEthBundles = ds.getBundleRangeClosed(start, end);
+        if (!observedEthBundles.isPresent() || observedEthBundles.get().size() != end - start + 1) {
+            throw new IllegalStateException("Inconsistent DB state; Eth Finalized Bundle table does not " +
+                    "contain bundleId range: [" + start + " - " + end + "]");
+        }
+
+        List<PersistentBundle> bundles = observedEthBundles.get();
+        bundles.sort(PersistentBundle::compareTo);
+        if (bundles.get(0).getBundleId() != start || !isBundleListIntegrityOK(bundles)) {
+            throw new IllegalStateException("Inconsistent DB state; Bundle list not contiguous");
+        }
+        return bundles;
+    }
+
     private static boolean isBundleListIntegrityOK(List<PersistentBundle> bundles) {
         PersistentBundle previous = null;
         for (PersistentBundle b : bundles) {
@@ -75,6 +75,22 @@ public class AionChainHistory implements ChainHistory<AionBlock, AionReceipt, Ai
         throw new RuntimeException("Re-org should not happen");
     }
 
+    @Override
+    public void rollback(ChainLink forkPoint) throws PersistenceServiceException {
+        Optional<Long> aionFinalizedBundleId = ds.getAionFinalizedBundleId();
+
+        if (aionFinalizedBundleId.isPresent()) {
+            Optional<List<AionFinalizedBundle>> latest =
+                    ds.getAionTxHashRangeClosed(aionFinalizedBundleId.get(), aionFinalizedBundleId.get());
+
+            if (!latest.isPresent() || latest.get().isEmpty() || latest.get().get(0).getAionBlockNumber() > forkPoint.getNumber())
+                throw new RuntimeException("Re-org detected below finalized bundles");
+        }
+
+        LOG.warn("Rolling back Aion chain history to #{}, {}", forkPoint.getNumber(), forkPoint.getHash().toString());
+        ds.storeAionChainHistory(forkPoint);
+    }
+
     @Override
     public void publish(ChainOracleResultset<AionBlock, AionReceipt, AionLog> rs) throws PersistenceServiceException, InterruptedException {
 
@@ -35,6 +35,32 @@ import java.util.List;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Config {
 
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Datastore {
+        private String type;
+        private String embeddedPath;
+
+        // "mysql" (default) or "embedded"
+        public String getType() { return type == null ? "mysql" : type; }
+        public boolean isEmbedded() { return "embedded".equalsIgnoreCase(getType()); }
+        public String getEmbeddedPath() { return embeddedPath; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Partitions {
+        private boolean enabled;
+        private Long partitionSize;
+        private Integer partitionsAhead;
+        private Long retainBundles;
+        private Long intervalMinutes;
+
+        public boolean isEnabled() { return enabled; }
+        public long getPartitionSize() { return partitionSize == null ? 100_000 : partitionSize; }
+        public int getPartitionsAhead() { return partitionsAhead == null ? 2 : partitionsAhead; }
+        public long getRetainBundles() { return retainBundles == null ? 1_000_000 : retainBundles; }
+        public long getIntervalMinutes() { return intervalMinutes == null ? 60 : intervalMinutes; }
+    }
+
     @JsonIgnoreProperties(ignoreUnknown = true)
     public static class Sql {
         private String user;
@@ -42,12 +68,26 @@ public class Config {
         private String dbName;
         private String host;
         private String port;
+        private Integer maximumPoolSize;
+        private Integer minimumIdle;
+        private Long connectionTimeoutMs;
+        private Long poolStatsLogIntervalSeconds;
+        private String replicaHost;
+        private String replicaPort;
+        private Long maxReplicaLagSeconds;
 
         public String getUser() { return user; }
         public String getPassword() { return password; }
         public String getDbName() { return dbName; }
         public String getHost() { return host; }
         public String getPort() { return port; }
+        public Integer getMaximumPoolSize() { return maximumPoolSize; }
+        public Integer getMinimumIdle() { return minimumIdle; }
+        public Long getConnectionTimeoutMs() { return connectionTimeoutMs; }
+        public Long getPoolStatsLogIntervalSeconds() { return poolStatsLogIntervalSeconds; }
+        public String getReplicaHost() { return replicaHost; }
+        public String getReplicaPort() { return replicaPort; }
+        public Long getMaxReplicaLagSeconds() { return maxReplicaLagSeconds; }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -65,6 +105,10 @@ public class Config {
         private Integer oracleReceiptBatchSize;
         private Integer consolidatorQuorumSize;
         private Integer blockCollectorQuorumSize;
+        private Boolean catchUpEnabled;
+        private Integer catchUpSegmentSize;
+        private Integer catchUpParallelism;
+        private Long catchUpDistance;
 
 
         public List<Client> getClients() { return clients; }
@@ -80,6 +124,10 @@ public class Config {
         public Integer getOracleReceiptBatchSize() { return oracleReceiptBatchSize; }
         public Integer getConsolidatorQuorumSize() { return consolidatorQuorumSize; }
         public Integer getBlockCollectorQuorumSize() { return blockCollectorQuorumSize; }
+        public boolean isCatchUpEnabled() { return catchUpEnabled != null && catchUpEnabled; }
+        public Integer getCatchUpSegmentSize() { return catchUpSegmentSize; }
+        public Integer getCatchUpParallelism() { return catchUpParallelism; }
+        public Long getCatchUpDistance() { return catchUpDistance; }
     }
 
     @JsonIgnoreProperties(ignoreUnknown = true)
@@ -101,6 +149,12 @@ public class Config {
         private Boolean shutdownAfterTipStateError;
         private Integer consolidatorQuorumSize;
         private Integer blockCollectorQuorumSize;
+        private Integer finalizerProbeWindow;
+        private Boolean catchUpEnabled;
+        private Integer catchUpSegmentSize;
+        private Integer catchUpParallelism;
+        private Long catchUpDistance;
+        private Boolean chainStatePollerEnabled;
 
         public List<Client> getClients() { return clients; }
         public String getContractAddress() { return contractAddress; }
@@ -119,6 +173,12 @@ public class Config {
         public Integer getConsolidatorQuorumSize() { return consolidatorQuorumSize; }
         public Integer getBlockCollectorQuorumSize() { return blockCollectorQuorumSize; }
         public boolean getShutdownAfterTipStateError() { return shutdownAfterTipStateError;}
+        public Integer getFinalizerProbeWindow() { return finalizerProbeWindow; }
+        public boolean isCatchUpEnabled() { return catchUpEnabled != null && catchUpEnabled; }
+        public Integer getCatchUpSegmentSize() { return catchUpSegmentSize; }
+        public Integer getCatchUpParallelism() { return catchUpParallelism; }
+        public Long getCatchUpDistance() { return catchUpDistance; }
+        public boolean isChainStatePollerEnabled() { return chainStatePollerEnabled == null || chainStatePollerEnabled; }
 
     }
 
@@ -132,10 +192,14 @@ public class Config {
     }
 
     private Sql sql;
+    private Datastore datastore;
+    private Partitions partitions;
     private Eth eth;
     private Aion aion;
 
     public Sql getSql() { return sql; }
+    public Datastore getDatastore() { return datastore == null ? new Datastore() : datastore; }
+    public Partitions getPartitions() { return partitions == null ? new Partitions() : partitions; }
     public Eth getEth() { return eth; }
     public Aion getAion() { return aion; }
 
@@ -69,6 +69,17 @@ public class EthChainHistory implements ChainHistory<EthBlock, EthReceipt, EthLo
         throw new RuntimeException("Re-org detected in finalized blocks");
     }
 
+    @Override
+    public void rollback(ChainLink forkPoint) throws PersistenceServiceException {
+        Optional<PersistentBundle> latestBundle = ds.getEthFinalizedBundle();
+
+        if (latestBundle.isPresent() && latestBundle.get().getBundle().getEthBlockNumber() > forkPoint.getNumber())
+            throw new RuntimeException("Re-org detected below stored bundles");
+
+        log.warn("Rolling back Eth chain history to #{}, {}", forkPoint.getNumber(), forkPoint.getHash().toString());
+        ds.storeEthChainHistory(forkPoint);
+    }
+
     @Override
     public void publish(ChainOracleResultset<EthBlock, EthReceipt, EthLog> rs) throws PersistenceServiceException {
         if (rs.isOpen())
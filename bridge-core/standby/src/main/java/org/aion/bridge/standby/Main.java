@@ -24,6 +24,7 @@
 
 package org.aion.bridge.standby;
 
+import org.aion.bridge.chain.aion.api.AionChainStatePoller;
 import org.aion.bridge.chain.aion.api.AionJsonRpcConnection;
 import org.aion.bridge.chain.aion.api.AionJsonRpcConsolidator;
 import org.aion.bridge.chain.aion.types.*;
@@ -35,6 +36,7 @@ import org.aion.bridge.chain.base.types.ChainLink;
 import org.aion.bridge.chain.base.types.Word32;
 import org.aion.bridge.chain.bridge.AionUnbundlingPolicy;
 import org.aion.bridge.chain.bridge.EthBundlingPolicy;
+import org.aion.bridge.chain.db.PersistenceServiceException;
 import org.aion.bridge.chain.eth.api.EthJsonRpcConnection;
 import org.aion.bridge.chain.eth.api.EthJsonRpcConsolidator;
 import org.aion.bridge.chain.eth.types.*;
@@ -45,6 +47,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -58,11 +61,14 @@ public class Main {
     private static final Logger log = LoggerFactory.getLogger(Main.class);
 
     private static DbConnectionManager cm;
+    private static EmbeddedDatastore embeddedDatastore;
     private static ChainOracle<EthBlock, EthReceipt, EthLog, EthAddress> ethChainOracle;
     private static ChainOracle<AionBlock, AionReceipt, AionLog, AionAddress> aionChainOracle;
     private static AionBundleFinalizer aionBundleFinalizer;
+    private static AionChainStatePoller aionChainState;
     private static AionTipState aionTipState;
     private static BridgeBalanceState balanceState;
+    private static PartitionMaintenance partitionMaintenance;
     private static AionJsonRpcConsolidator aionConsolidator;
     private static EthJsonRpcConsolidator ethConsolidator;
     private static ThreadPoolExecutor executor;
@@ -85,17 +91,29 @@ public class Main {
 
         DataStore ds;
         try {
-            Config.Sql sqlConfig = config.getSql();
-
-            cm = new DbConnectionManager.Builder()
-                    .setHost(sqlConfig.getHost())
-                    .setPort(sqlConfig.getPort())
-                    .setDatabase(sqlConfig.getDbName())
-                    .setUser(sqlConfig.getUser())
-                    .setPassword(sqlConfig.getPassword())
-                    .build();
+            if (config.getDatastore().isEmbedded()) {
+                embeddedDatastore = new EmbeddedDatastore(Paths.get(config.getDatastore().getEmbeddedPath()));
+                ds = embeddedDatastore;
+            } else {
+                Config.Sql sqlConfig = config.getSql();
+
+                cm = new DbConnectionManager.Builder()
+                        .setHost(sqlConfig.getHost())
+                        .setPort(sqlConfig.getPort())
+                        .setDatabase(sqlConfig.getDbName())
+                        .setUser(sqlConfig.getUser())
+                        .setPassword(sqlConfig.getPassword())
+                        .setMaximumPoolSize(sqlConfig.getMaximumPoolSize())
+                        .setMinimumIdle(sqlConfig.getMinimumIdle())
+                        .setConnectionTimeoutMs(sqlConfig.getConnectionTimeoutMs())
+                        .setStatsLogIntervalSeconds(sqlConfig.getPoolStatsLogIntervalSeconds())
+                        .setReplica(sqlConfig.getReplicaHost(), sqlConfig.getReplicaPort())
+                        .setMaxReplicaLagSeconds(sqlConfig.getMaxReplicaLagSeconds())
+                        .build();
 
-            ds  = new MySqlDatastore(cm);
+                // the standby is the only writer of its database, so status rows can be served from memory
+                ds = new MySqlDatastore(cm, true);
+            }
 
             Config.Eth ethConfig = config.getEth();
             EthBundlingPolicy ethBundlingPolicy = new EthBundlingPolicy(
@@ -169,12 +187,30 @@ public class Main {
                     .setBlockCollector(ethBlockNumberCollector)
                     .setBlockBatchSize(config.getEth().getOracleBlockBatchSize())
                     .setReceiptBatchSize(config.getEth().getOracleReceiptBatchSize())
+                    .setCatchUpConnections(config.getEth().isCatchUpEnabled() ? ethConnections : null)
+                    .setCatchUpSegmentSize(config.getEth().getCatchUpSegmentSize())
+                    .setCatchUpParallelism(config.getEth().getCatchUpParallelism())
+                    .setCatchUpDistance(config.getEth().getCatchUpDistance())
                     .build();
 
+            // Tip and bridge / relayer balances in one JSON-RPC batch per node per tick
+            if (config.getAion().isChainStatePollerEnabled()) {
+                aionChainState = new AionChainStatePoller.Builder()
+                        .setConnections(aionConnections)
+                        .setExecutor(executor)
+                        .setQuorum(config.getAion().getConsolidatorQuorumSize())
+                        .setTimeout(Duration.ofSeconds(config.getAion().getConsolidatorTimeoutSeconds()))
+                        .setPollInterval(10L, TimeUnit.SECONDS)
+                        .addBalanceAddress(new AionAddress(aionConfig.getContractAddress()))
+                        .addBalanceAddress(new AionAddress(aionConfig.getRelayerAddress()))
+                        .build();
+            }
+
             // Need the tip state to populate the aionLatestBlock table
             aionTipState = new AionTipState.Builder()
                     .setPollInterval(10L, TimeUnit.SECONDS)
                     .setApi(aionBlockNumberCollector)
+                    .setChainState(aionChainState)
                     .setDatabase(ds)
                     .setShutdownAfterTipStateError(config.getAion().getShutdownAfterTipStateError())
                     .build();
@@ -182,6 +218,7 @@ public class Main {
             balanceState = new BridgeBalanceState.Builder()
                     .setPollInterval(1, TimeUnit.MINUTES)
                     .setApi(new AionJsonRpcConsolidator(aionConnections, config.getAion().getConsolidatorQuorumSize(), executor).getApi())
+                    .setChainState(aionChainState)
                     .setBridgeAddress(new AionAddress(aionConfig.getContractAddress()))
                     .setRelayerAddress(new AionAddress(aionConfig.getRelayerAddress()))
                     .setTipState(aionTipState)
@@ -200,6 +237,10 @@ public class Main {
                         .setBlockCollector(aionBlockNumberCollector)
                         .setBlockBatchSize(config.getAion().getOracleBlockBatchSize())
                         .setReceiptBatchSize(config.getAion().getOracleReceiptBatchSize())
+                        .setCatchUpConnections(config.getAion().isCatchUpEnabled() ? aionConnections : null)
+                        .setCatchUpSegmentSize(config.getAion().getCatchUpSegmentSize())
+                        .setCatchUpParallelism(config.getAion().getCatchUpParallelism())
+                        .setCatchUpDistance(config.getAion().getCatchUpDistance())
                         .build();
             } else {
                 aionBundleFinalizer = new AionBundleFinalizer.Builder()
@@ -209,11 +250,15 @@ public class Main {
                         .setTipState(aionTipState)
                         .setFinalityDepth(config.getAion().getFinalityBlocks())
                         .setHaltDelaySeconds(10)
+                        .setProbeWindow(config.getAion().getFinalizerProbeWindow())
                         .build();
             }
 
             // Start the processes
 
+            if (aionChainState != null)
+                aionChainState.start();
+
             aionTipState.setName("TAionTipState");
             aionTipState.setUncaughtExceptionHandler(new CriticalExceptionHandler());
             aionTipState.start();
@@ -222,6 +267,19 @@ public class Main {
             balanceState.setUncaughtExceptionHandler(new CriticalExceptionHandler());
             balanceState.start();
 
+            if (cm != null && config.getPartitions().isEnabled()) {
+                Config.Partitions partitionConfig = config.getPartitions();
+                partitionMaintenance = new PartitionMaintenance.Builder()
+                        .setConnectionManager(cm)
+                        .setDatabase(ds)
+                        .setPartitionSize(partitionConfig.getPartitionSize())
+                        .setPartitionsAhead(partitionConfig.getPartitionsAhead())
+                        .setRetainBundles(partitionConfig.getRetainBundles())
+                        .setPollInterval(partitionConfig.getIntervalMinutes(), TimeUnit.MINUTES)
+                        .build();
+                partitionMaintenance.start();
+            }
+
             ethChainOracle.setName("TEthOracle");
             ethChainOracle.setUncaughtExceptionHandler(new CriticalExceptionHandler());
             ethChainOracle.start();
@@ -238,7 +296,7 @@ public class Main {
 
             Runtime.getRuntime().addShutdownHook(new Thread(Main::shutdown));
 
-        } catch (ClassNotFoundException | SQLException e) {
+        } catch (ClassNotFoundException | SQLException | PersistenceServiceException e) {
             e.printStackTrace();
         }
     }
@@ -259,6 +317,8 @@ public class Main {
         if (aionBundleFinalizer != null) aionBundleFinalizer.shutdown();
         if (aionTipState != null) aionTipState.shutdown();
         if (balanceState != null) balanceState.shutdown();
+        if (partitionMaintenance != null) partitionMaintenance.shutdown();
+        if (aionChainState != null) aionChainState.shutdown();
 
         try {
             if (ethChainOracle != null) ethChainOracle.join(3000L);
@@ -296,12 +356,25 @@ public class Main {
         log.info("balanceState shutdown.");
 
         try {
-            cm.closeAllConnections();
+            if (partitionMaintenance != null) partitionMaintenance.join(3000L);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+        log.info("partitionMaintenance shutdown.");
+
+        try {
+            if (cm != null) cm.closeAllConnections();
         } catch (SQLException e) {
             e.printStackTrace();
         }
         log.info("DbConnectionManager shutdown.");
 
+        try {
+            if (embeddedDatastore != null) embeddedDatastore.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
         aionConsolidator.getApi().evictConnections();
         ethConsolidator.getApi().evictConnections();
         executor.shutdown();
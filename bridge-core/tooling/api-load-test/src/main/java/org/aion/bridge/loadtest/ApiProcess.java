@@ -0,0 +1,112 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * bridge-api started as a child process from its boot jar, pointed at the seeded database.
+ */
+public class ApiProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiProcess.class);
+
+    private final Process process;
+
+    public ApiProcess(Config.Api api, Config.Sql sql) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-jar");
+        command.add(api.getJar());
+        command.add("--spring.datasource.url=jdbc:mysql://" + sql.getHost() + ":" + sql.getPort() + "/" +
+                sql.getDbName() + "?useSSL=false");
+        command.add("--spring.datasource.username=" + sql.getUser());
+        command.add("--spring.datasource.password=" + sql.getPassword());
+        command.add("--server.port=" + new URL(api.getUrl()).getPort());
+        command.addAll(api.getArgs());
+
+        log.info("Starting bridge-api: {}", api.getJar());
+        File logFile = new File(api.getLogFile());
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(logFile))
+                .start();
+
+        awaitReady(api.getUrl() + "/status", api.getStartupTimeoutSeconds() * 1000);
+    }
+
+    private void awaitReady(String url, long timeoutMs) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            if (!process.isAlive())
+                throw new IOException("bridge-api exited during startup with code " + process.exitValue());
+
+            try {
+                HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+                c.setConnectTimeout(1000);
+                c.setReadTimeout(5000);
+                if (c.getResponseCode() == 200) {
+                    try (InputStream in = c.getInputStream()) {
+                        while (in.read() != -1) ;
+                    }
+                    log.info("bridge-api ready");
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted waiting for bridge-api");
+            }
+        }
+        close();
+        throw new IOException("bridge-api not ready within " + timeoutMs + " ms");
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+        log.info("bridge-api stopped");
+    }
+}
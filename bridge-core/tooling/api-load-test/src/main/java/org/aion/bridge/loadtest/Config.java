@@ -0,0 +1,132 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+@SuppressWarnings("WeakerAccess")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Config {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Sql {
+        private String user;
+        private String password;
+        private String dbName;
+        private String host;
+        private String port;
+
+        public String getUser() { return user; }
+        public String getPassword() { return password; }
+        public String getDbName() { return dbName; }
+        public String getHost() { return host; }
+        public String getPort() { return port; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Seed {
+        private Long transfers;
+        private Integer transfersPerBundle;
+        private Double submittedFraction;
+        private Integer batchSize;
+
+        public long getTransfers() { return transfers == null ? 2_000_000 : transfers; }
+        public int getTransfersPerBundle() { return transfersPerBundle == null ? 4 : transfersPerBundle; }
+        public double getSubmittedFraction() { return submittedFraction == null ? 0.99 : submittedFraction; }
+        public int getBatchSize() { return batchSize == null ? 1000 : batchSize; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Api {
+        private String jar;
+        private String url;
+        private String logFile;
+        private List<String> args;
+        private Long startupTimeoutSeconds;
+
+        /** bridge-api boot jar to start against the seeded database; null to load-test an already running api */
+        public String getJar() { return jar; }
+        public String getUrl() { return url == null ? "http://127.0.0.1:8085" : url; }
+        public String getLogFile() { return logFile == null ? "api-load-test-server.log" : logFile; }
+        public List<String> getArgs() { return args == null ? Collections.emptyList() : args; }
+        public long getStartupTimeoutSeconds() { return startupTimeoutSeconds == null ? 120 : startupTimeoutSeconds; }
+    }
+
+    /**
+     * One measured run: relative weights of the request kinds, sent by {@code clients} concurrent closed-loop
+     * clients for {@code durationSeconds} after {@code warmupSeconds} unmeasured.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Scenario {
+        private String name;
+        private String transactionEndpoint;
+        private Integer clients;
+        private Integer warmupSeconds;
+        private Integer durationSeconds;
+        private Integer hotHashes;
+        private Integer hot;
+        private Integer cold;
+        private Integer unknown;
+        private Integer status;
+        private Integer thinkTimeMs;
+
+        public String getName() { return name; }
+        /** /batch or /transaction */
+        public String getTransactionEndpoint() { return transactionEndpoint == null ? "/batch" : transactionEndpoint; }
+        public int getClients() { return clients == null ? 64 : clients; }
+        public int getWarmupSeconds() { return warmupSeconds == null ? 10 : warmupSeconds; }
+        public int getDurationSeconds() { return durationSeconds == null ? 60 : durationSeconds; }
+        public int getHotHashes() { return hotHashes == null ? 1000 : hotHashes; }
+        public int getHot() { return hot == null ? 0 : hot; }
+        public int getCold() { return cold == null ? 0 : cold; }
+        public int getUnknown() { return unknown == null ? 0 : unknown; }
+        public int getStatus() { return status == null ? 0 : status; }
+        public int getThinkTimeMs() { return thinkTimeMs == null ? 0 : thinkTimeMs; }
+    }
+
+    private Sql sql;
+    private Seed seed;
+    private Api api;
+    private List<Scenario> scenarios;
+
+    public Sql getSql() { return sql; }
+    public Seed getSeed() { return seed == null ? new Seed() : seed; }
+    public Api getApi() { return api == null ? new Api() : api; }
+    public List<Scenario> getScenarios() { return scenarios == null ? Collections.emptyList() : scenarios; }
+
+    public static Config load(String path) throws IOException {
+        ObjectMapper jackson = new ObjectMapper();
+        return jackson.readValue(new File(path), Config.class);
+    }
+
+    // make sure no one tries to instantiate this class manually
+    private Config() { }
+}
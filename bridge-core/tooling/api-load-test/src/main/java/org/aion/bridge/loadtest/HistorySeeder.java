@@ -0,0 +1,191 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+
+/**
+ * Fills a v5 database (created from sql/create-v5.sql) with the tables bridge-api reads: transfer_status and the
+ * status_* rows. Transfers in the first submittedFraction of the bundles are SUBMITTED, the rest STORED. Re-running
+ * continues from the number of transfers already present.
+ */
+public class HistorySeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(HistorySeeder.class);
+
+    private static final String COLUMNS = "(eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, " +
+            "eth_block_hash, eth_address, aion_address, aion_transfer_amount, aion_tx_hash, aion_block_number, " +
+            "aion_block_hash)";
+    private static final String ROW = "(?,?,?,?,?,?,?,?,?,?,?,?)";
+
+    private final DbConnectionManager cm;
+    private final Config.Seed seed;
+    private final SyntheticHistory history = new SyntheticHistory();
+
+    public HistorySeeder(DbConnectionManager cm, Config.Seed seed) {
+        if (seed.getTransfers() < 1) throw new IllegalArgumentException("transfers < 1");
+        if (seed.getTransfersPerBundle() < 1) throw new IllegalArgumentException("transfersPerBundle < 1");
+        if (seed.getBatchSize() < 1) throw new IllegalArgumentException("batchSize < 1");
+        // 12 bind parameters per row; mysql allows 65535 per statement
+        if (seed.getBatchSize() > 5000) throw new IllegalArgumentException("batchSize > 5000");
+        this.cm = cm;
+        this.seed = seed;
+    }
+
+    public long lastSubmittedBundle() {
+        long bundles = (seed.getTransfers() + seed.getTransfersPerBundle() - 1) / seed.getTransfersPerBundle();
+        return Math.max(0, (long) (bundles * seed.getSubmittedFraction()) - 1);
+    }
+
+    public void run() throws SQLException {
+        long existing;
+        try (Connection c = cm.getConnection();
+             PreparedStatement ps = c.prepareStatement("select count(*) from transfer_status");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            existing = rs.getLong(1);
+            c.commit();
+        }
+
+        if (existing >= seed.getTransfers()) {
+            log.info("Seed: {} transfers already present", existing);
+        } else {
+            log.info("Seed: writing transfers {} to {}", existing, seed.getTransfers() - 1);
+            long time = System.currentTimeMillis();
+            for (long start = existing; start < seed.getTransfers(); start += seed.getBatchSize()) {
+                int count = (int) Math.min(seed.getBatchSize(), seed.getTransfers() - start);
+                insertTransfers(start, count);
+                if ((start / seed.getBatchSize()) % 100 == 0)
+                    log.info("Seed: {} / {}", start + count, seed.getTransfers());
+            }
+            time = System.currentTimeMillis() - time;
+            log.info("Seed: {} transfers in {} s", seed.getTransfers() - existing, time / 1000);
+        }
+
+        writeStatus();
+    }
+
+    private void insertTransfers(long start, int count) throws SQLException {
+        String query = "insert into transfer_status " + COLUMNS + " values " +
+                String.join(",", Collections.nCopies(count, ROW)) + ";";
+        long lastSubmitted = lastSubmittedBundle();
+
+        try (Connection c = cm.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(query)) {
+                int p = 1;
+                for (long i = start; i < start + count; i++) {
+                    long bundle = i / seed.getTransfersPerBundle();
+                    boolean submitted = bundle <= lastSubmitted;
+
+                    ps.setBytes(p++, history.ethTxHash(i));
+                    ps.setString(p++, submitted ? "SUBMITTED" : "STORED");
+                    ps.setLong(p++, bundle);
+                    ps.setBytes(p++, history.bundleHash(bundle));
+                    ps.setLong(p++, bundle);
+                    ps.setBytes(p++, history.ethBlockHash(bundle));
+                    ps.setBytes(p++, history.ethAddress(i));
+                    ps.setBytes(p++, history.aionAddress(i));
+                    ps.setBytes(p++, history.amount(i));
+                    ps.setBytes(p++, submitted ? history.aionTxHash(bundle) : null);
+                    if (submitted)
+                        ps.setLong(p++, bundle + SyntheticHistory.AION_BLOCK_OFFSET);
+                    else
+                        ps.setNull(p++, java.sql.Types.BIGINT);
+                    ps.setBytes(p++, submitted ? history.aionBlockHash(bundle) : null);
+                }
+                ps.executeUpdate();
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void writeStatus() throws SQLException {
+        long lastBundle = (seed.getTransfers() - 1) / seed.getTransfersPerBundle();
+        long lastSubmitted = lastSubmittedBundle();
+        long aionLatest = lastBundle + SyntheticHistory.AION_BLOCK_OFFSET + 100;
+
+        try (Connection c = cm.getConnection()) {
+            try (PreparedStatement ethBlock = c.prepareStatement(
+                    "replace into status_eth_finalized_block (integrity_keeper, eth_block_number, eth_block_hash) values ('status', ?, ?)");
+                 PreparedStatement ethBundle = c.prepareStatement(
+                    "replace into status_eth_finalized_bundle (integrity_keeper, bundle_id, bundle_hash) values ('status', ?, ?)");
+                 PreparedStatement aionBlock = c.prepareStatement(
+                    "replace into status_aion_finalized_block (integrity_keeper, aion_block_number, aion_block_hash) values ('status', ?, ?)");
+                 PreparedStatement aionBundle = c.prepareStatement(
+                    "replace into status_aion_finalized_bundle (integrity_keeper, bundle_id, bundle_hash) values ('status', ?, ?)");
+                 PreparedStatement latest = c.prepareStatement(
+                    "replace into status_aion_latest_block (integrity_keeper, aion_block_number) values ('status', ?)");
+                 PreparedStatement balance = c.prepareStatement(
+                    "replace into status_aion_balance (integrity_keeper, aion_balance, aion_block_number) values (?, ?, ?)")) {
+
+                ethBlock.setLong(1, lastBundle);
+                ethBlock.setBytes(2, history.ethBlockHash(lastBundle));
+                ethBlock.executeUpdate();
+
+                ethBundle.setLong(1, lastBundle);
+                ethBundle.setBytes(2, history.bundleHash(lastBundle));
+                ethBundle.executeUpdate();
+
+                aionBlock.setLong(1, lastSubmitted + SyntheticHistory.AION_BLOCK_OFFSET);
+                aionBlock.setBytes(2, history.aionBlockHash(lastSubmitted));
+                aionBlock.executeUpdate();
+
+                aionBundle.setLong(1, lastSubmitted);
+                aionBundle.setBytes(2, history.bundleHash(lastSubmitted));
+                aionBundle.executeUpdate();
+
+                latest.setLong(1, aionLatest);
+                latest.executeUpdate();
+
+                byte[] amount = new byte[32];
+                byte[] value = BigInteger.TEN.pow(24).toByteArray();
+                System.arraycopy(value, 0, amount, amount.length - value.length, value.length);
+                for (String entity : new String[]{"bridge", "relayer"}) {
+                    balance.setString(1, entity);
+                    balance.setBytes(2, amount);
+                    balance.setLong(3, aionLatest);
+                    balance.executeUpdate();
+                }
+
+                c.commit();
+            } catch (SQLException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+}
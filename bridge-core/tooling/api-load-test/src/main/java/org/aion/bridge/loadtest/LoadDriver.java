@@ -0,0 +1,256 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load against a running bridge-api: each client thread sends its next request as soon as the previous
+ * one completed (plus thinkTimeMs), choosing the request kind by the scenario weights. Only requests started after
+ * the warmup are measured.
+ */
+public class LoadDriver {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadDriver.class);
+
+    public enum Kind {
+        HOT,     // one of hotHashes known transfers, spread over the seeded history
+        COLD,    // any seeded transfer
+        UNKNOWN, // a hash the bridge never saw
+        STATUS   // /status poll, revalidated with If-None-Match like a browser would
+    }
+
+    private static class Samples {
+        long[] nanos = new long[1024];
+        int size;
+        long errors;
+
+        void add(long x) {
+            if (size == nanos.length)
+                nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = x;
+        }
+    }
+
+    private final String baseUrl;
+    private final Config.Scenario scenario;
+    private final long seededTransfers;
+    private final Kind[] weighted;
+
+    private volatile boolean measuring;
+    private volatile boolean stopped;
+
+    public LoadDriver(String baseUrl, Config.Scenario scenario, long seededTransfers) {
+        if (scenario.getClients() < 1) throw new IllegalArgumentException("clients < 1");
+        if (scenario.getHotHashes() < 1) throw new IllegalArgumentException("hotHashes < 1");
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.seededTransfers = seededTransfers;
+
+        List<Kind> w = new ArrayList<>();
+        for (int i = 0; i < scenario.getHot(); i++) w.add(Kind.HOT);
+        for (int i = 0; i < scenario.getCold(); i++) w.add(Kind.COLD);
+        for (int i = 0; i < scenario.getUnknown(); i++) w.add(Kind.UNKNOWN);
+        for (int i = 0; i < scenario.getStatus(); i++) w.add(Kind.STATUS);
+        if (w.isEmpty())
+            throw new IllegalArgumentException("scenario " + scenario.getName() + " has no request weights");
+        this.weighted = w.toArray(new Kind[0]);
+    }
+
+    public void run() throws InterruptedException {
+        List<Map<Kind, Samples>> perClient = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < scenario.getClients(); i++) {
+            Map<Kind, Samples> samples = new EnumMap<>(Kind.class);
+            for (Kind k : Kind.values())
+                samples.put(k, new Samples());
+            perClient.add(samples);
+
+            Thread t = new Thread(() -> client(samples), "load-client-" + i);
+            t.setDaemon(true);
+            clients.add(t);
+        }
+
+        log.info("Scenario {}: {} clients, warmup {} s, measuring {} s", scenario.getName(), scenario.getClients(),
+                scenario.getWarmupSeconds(), scenario.getDurationSeconds());
+        clients.forEach(Thread::start);
+
+        TimeUnit.SECONDS.sleep(scenario.getWarmupSeconds());
+        measuring = true;
+        long start = System.nanoTime();
+        TimeUnit.SECONDS.sleep(scenario.getDurationSeconds());
+        measuring = false;
+        long elapsed = System.nanoTime() - start;
+        stopped = true;
+
+        for (Thread t : clients)
+            t.join();
+
+        report(perClient, elapsed);
+    }
+
+    private void client(Map<Kind, Samples> samples) {
+        SyntheticHistory history = new SyntheticHistory();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] statusEtag = new String[1];
+
+        while (!stopped) {
+            Kind kind = weighted[random.nextInt(weighted.length)];
+            String url;
+            switch (kind) {
+                case HOT:
+                    long stride = Math.max(1, seededTransfers / scenario.getHotHashes());
+                    url = transactionUrl(history.ethTxHash(random.nextInt(scenario.getHotHashes()) * stride % seededTransfers));
+                    break;
+                case COLD:
+                    url = transactionUrl(history.ethTxHash(random.nextLong(seededTransfers)));
+                    break;
+                case UNKNOWN:
+                    url = transactionUrl(history.unknownTxHash(random.nextLong(Long.MAX_VALUE)));
+                    break;
+                default:
+                    url = baseUrl + "/status";
+            }
+
+            boolean measured = measuring;
+            long begin = System.nanoTime();
+            boolean ok = get(url, kind == Kind.STATUS ? statusEtag : null);
+            long nanos = System.nanoTime() - begin;
+
+            if (measured) {
+                Samples s = samples.get(kind);
+                if (ok)
+                    s.add(nanos);
+                else
+                    s.errors++;
+            }
+
+            if (scenario.getThinkTimeMs() > 0) {
+                try {
+                    Thread.sleep(scenario.getThinkTimeMs());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private String transactionUrl(byte[] hash) {
+        return baseUrl + scenario.getTransactionEndpoint() + "?ethTxHash=0x" + SyntheticHistory.hex(hash);
+    }
+
+    /**
+     * @param etag in/out If-None-Match value for conditional requests, null for plain ones
+     */
+    private boolean get(String url, String[] etag) {
+        try {
+            HttpURLConnection c = (HttpURLConnection) new URL(url).openConnection();
+            c.setConnectTimeout(5000);
+            c.setReadTimeout(30000);
+            if (etag != null && etag[0] != null)
+                c.setRequestProperty("If-None-Match", etag[0]);
+
+            int code = c.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED)
+                return true;
+
+            // read the body fully so the keep-alive connection is reused
+            try (InputStream in = code < 400 ? c.getInputStream() : c.getErrorStream()) {
+                if (in != null) {
+                    byte[] buf = new byte[8192];
+                    while (in.read(buf) != -1) ;
+                }
+            }
+
+            if (etag != null && code == HttpURLConnection.HTTP_OK)
+                etag[0] = c.getHeaderField("ETag");
+
+            return code == HttpURLConnection.HTTP_OK;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void report(List<Map<Kind, Samples>> perClient, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        log.info(String.format("Scenario %s (%s)", scenario.getName(), scenario.getTransactionEndpoint()));
+        log.info(String.format("%-8s %10s %8s %10s %9s %9s %9s %9s %9s",
+                "kind", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        List<long[]> all = new ArrayList<>();
+        long totalErrors = 0;
+        for (Kind k : Kind.values()) {
+            int size = 0;
+            long errors = 0;
+            for (Map<Kind, Samples> m : perClient) {
+                size += m.get(k).size;
+                errors += m.get(k).errors;
+            }
+            if (size == 0 && errors == 0)
+                continue;
+
+            long[] merged = new long[size];
+            int at = 0;
+            for (Map<Kind, Samples> m : perClient) {
+                Samples s = m.get(k);
+                System.arraycopy(s.nanos, 0, merged, at, s.size);
+                at += s.size;
+            }
+            all.add(merged);
+            totalErrors += errors;
+            log.info(line(k.name(), merged, errors, seconds));
+        }
+
+        long[] total = all.stream().flatMapToLong(Arrays::stream).toArray();
+        log.info(line("TOTAL", total, totalErrors, seconds));
+    }
+
+    private static String line(String name, long[] nanos, long errors, double seconds) {
+        Arrays.sort(nanos);
+        return String.format("%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f", name, nanos.length, errors,
+                nanos.length / seconds, percentile(nanos, 0.50), percentile(nanos, 0.90), percentile(nanos, 0.99),
+                percentile(nanos, 0.999), nanos.length == 0 ? 0 : nanos[nanos.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0)
+            return 0;
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1e6;
+    }
+}
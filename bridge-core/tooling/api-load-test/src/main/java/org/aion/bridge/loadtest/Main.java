@@ -0,0 +1,112 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+public class Main {
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: <config file> <seed | run | all>");
+            System.exit(0);
+        }
+        String location = args[0];
+        String mode = args[1];
+        Config config = null;
+
+        try {
+            config = Config.load(location);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Unable to load config file");
+            System.exit(0);
+        }
+
+        try {
+            switch (mode) {
+                case "seed":
+                    seed(config);
+                    break;
+                case "run":
+                    runScenarios(config);
+                    break;
+                case "all":
+                    seed(config);
+                    runScenarios(config);
+                    break;
+                default:
+                    System.out.println("Unknown mode: " + mode);
+            }
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            System.out.println("Unable to find database driver");
+            System.exit(0);
+        } catch (SQLException | IOException | InterruptedException | RuntimeException e) {
+            log.error("Load test failed", e);
+            System.exit(1);
+        }
+    }
+
+    private static void seed(Config config) throws ClassNotFoundException, SQLException {
+        Config.Sql sqlConfig = config.getSql();
+
+        DbConnectionManager cm = new DbConnectionManager.Builder()
+                .setHost(sqlConfig.getHost())
+                .setPort(sqlConfig.getPort())
+                .setDatabase(sqlConfig.getDbName())
+                .setUser(sqlConfig.getUser())
+                .setPassword(sqlConfig.getPassword())
+                .setMaximumPoolSize(2)
+                .setMinimumIdle(1)
+                .build();
+        try {
+            new HistorySeeder(cm, config.getSeed()).run();
+        } finally {
+            cm.closeAllConnections();
+        }
+    }
+
+    /**
+     * Starts bridge-api from api.jar if one is configured (otherwise expects it running at api.url) and runs each
+     * scenario in turn against it.
+     */
+    private static void runScenarios(Config config) throws IOException, InterruptedException {
+        ApiProcess api = config.getApi().getJar() == null ? null : new ApiProcess(config.getApi(), config.getSql());
+        try {
+            for (Config.Scenario scenario : config.getScenarios())
+                new LoadDriver(config.getApi().getUrl(), scenario, config.getSeed().getTransfers()).run();
+        } finally {
+            if (api != null)
+                api.close();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Deterministic synthetic transfer history. Every value is derived from the transfer (or bundle) index, so the load
+ * driver can produce known and unknown hashes without reading them back from the database.
+ */
+public class SyntheticHistory {
+
+    // aion blocks are offset from eth blocks only so the two are easy to tell apart in responses
+    public static final long AION_BLOCK_OFFSET = 1_000_000;
+
+    private final MessageDigest sha256;
+
+    public SyntheticHistory() {
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] digest(String domain, long index, int length) {
+        byte[] d = sha256.digest((domain + ":" + index).getBytes(StandardCharsets.US_ASCII));
+        return length == d.length ? d : Arrays.copyOf(d, length);
+    }
+
+    public byte[] ethTxHash(long transfer) { return digest("eth-tx", transfer, 32); }
+    public byte[] unknownTxHash(long index) { return digest("unknown-tx", index, 32); }
+    public byte[] ethAddress(long transfer) { return digest("eth-address", transfer, 20); }
+    public byte[] aionAddress(long transfer) { return digest("aion-address", transfer, 32); }
+    public byte[] amount(long transfer) { return digest("amount", transfer, 16); }
+    public byte[] bundleHash(long bundle) { return digest("bundle", bundle, 32); }
+    public byte[] ethBlockHash(long bundle) { return digest("eth-block", bundle, 32); }
+    public byte[] aionTxHash(long bundle) { return digest("aion-tx", bundle, 32); }
+    public byte[] aionBlockHash(long bundle) { return digest("aion-block", bundle, 32); }
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static String hex(byte[] x) {
+        char[] out = new char[x.length * 2];
+        for (int i = 0; i < x.length; i++) {
+            out[2 * i] = HEX[(x[i] >> 4) & 0xf];
+            out[2 * i + 1] = HEX[x[i] & 0xf];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+
+@SuppressWarnings("WeakerAccess")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Config {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Sql {
+        private String user;
+        private String password;
+        private String dbName;
+        private String host;
+        private String port;
+
+        public String getUser() { return user; }
+        public String getPassword() { return password; }
+        public String getDbName() { return dbName; }
+        public String getHost() { return host; }
+        public String getPort() { return port; }
+    }
+
+    private Sql sql;
+    private String targetDbName;
+    private Integer batchSize;
+    private Integer statsSamples;
+    private String benchmarkDbName;
+    private String benchmarkEmbeddedPath;
+    private Integer benchmarkBundles;
+
+    public Sql getSql() { return sql; }
+    public String getTargetDbName() { return targetDbName; }
+    public int getBatchSize() { return batchSize == null ? 1000 : batchSize; }
+    public int getStatsSamples() { return statsSamples == null ? 1000 : statsSamples; }
+    public String getBenchmarkDbName() { return benchmarkDbName; }
+    public String getBenchmarkEmbeddedPath() { return benchmarkEmbeddedPath; }
+    public int getBenchmarkBundles() { return benchmarkBundles == null ? 10000 : benchmarkBundles; }
+
+    public static Config load(String path) throws IOException {
+        ObjectMapper jackson = new ObjectMapper();
+        return jackson.readValue(new File(path), Config.class);
+    }
+
+    // make sure no one tries to instantiate this class manually
+    private Config() { }
+}
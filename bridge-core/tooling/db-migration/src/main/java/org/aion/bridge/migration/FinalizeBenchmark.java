@@ -0,0 +1,143 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import org.aion.bridge.chain.aion.types.AionAddress;
+import org.aion.bridge.chain.aion.types.AionReceipt;
+import org.aion.bridge.chain.aion.types.BlakeBloom;
+import org.aion.bridge.chain.base.types.ChainLink;
+import org.aion.bridge.chain.base.types.Word32;
+import org.aion.bridge.chain.bridge.*;
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.aion.bridge.chain.eth.types.EthAddress;
+import org.aion.bridge.datastore.DataStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Measures finalize-path throughput of a {@link DataStore}: synthetic bundles are written through
+ * storeEthFinalizedBundles and storeAionFinalizedBundles in batches, the same calls (and batch shape) the nexus and
+ * standby make, and bundles per second are reported for each.
+ * <p>
+ * Bundle ids continue from the datastore's eth finalization tip, so it can be re-run against the same (scratch)
+ * database.
+ */
+public class FinalizeBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(FinalizeBenchmark.class);
+
+    private static final int TRANSFERS_PER_BUNDLE = 4;
+
+    private final String name;
+    private final DataStore ds;
+    private final int bundles;
+    private final int batchSize;
+    private final Random random = new Random(); // fresh hashes every run, so re-runs don't collide on eth_tx_hash
+
+    public FinalizeBenchmark(String name, DataStore ds, int bundles, int batchSize) {
+        if (bundles < 1) throw new IllegalArgumentException("bundles < 1");
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize < 1");
+        this.name = name;
+        this.ds = ds;
+        this.bundles = bundles;
+        this.batchSize = batchSize;
+    }
+
+    public void run() throws PersistenceServiceException {
+        long firstId = ds.getEthFinalizedBundleId().map(id -> id + 1).orElse(0L);
+
+        long ethNanos = 0;
+        long aionNanos = 0;
+
+        for (long start = firstId; start < firstId + bundles; start += batchSize) {
+            int count = (int) Math.min(batchSize, firstId + bundles - start);
+
+            List<StatefulBundle> batch = new ArrayList<>(count);
+            Map<Word32, EthAddress> ethAddresses = new HashMap<>();
+            for (long id = start; id < start + count; id++)
+                batch.add(bundle(id, ethAddresses));
+
+            StatefulBundle tip = batch.get(batch.size() - 1);
+            ChainLink ethTip = new ChainLink(tip.getBundle().getEthBlockNumber(), tip.getBundle().getEthBlockHash());
+
+            long t0 = System.nanoTime();
+            ds.storeEthFinalizedBundles(batch, ethTip, tip, ethAddresses);
+            ethNanos += System.nanoTime() - t0;
+
+            for (StatefulBundle sb : batch)
+                markFinalized(sb);
+
+            ChainLink aionTip = new ChainLink(tip.getAionReceipt().getBlockNumber(), tip.getAionReceipt().getBlockHash());
+
+            t0 = System.nanoTime();
+            ds.storeAionFinalizedBundles(batch, aionTip, tip);
+            aionNanos += System.nanoTime() - t0;
+        }
+
+        log.info("{}: {} bundles in batches of {}", name, bundles, batchSize);
+        log.info("{}: storeEthFinalizedBundles  {} ms, {} bundles/s", name, ethNanos / 1_000_000, rate(ethNanos));
+        log.info("{}: storeAionFinalizedBundles {} ms, {} bundles/s", name, aionNanos / 1_000_000, rate(aionNanos));
+    }
+
+    private long rate(long nanos) {
+        return nanos == 0 ? 0 : bundles * 1_000_000_000L / nanos;
+    }
+
+    private StatefulBundle bundle(long id, Map<Word32, EthAddress> ethAddresses) {
+        List<Transfer> transfers = new ArrayList<>(TRANSFERS_PER_BUNDLE);
+        for (int i = 0; i < TRANSFERS_PER_BUNDLE; i++) {
+            Word32 ethTxHash = word32();
+            transfers.add(new Transfer(ethTxHash, new AionAddress(word32()), BigInteger.valueOf(random.nextInt(Integer.MAX_VALUE))));
+            ethAddresses.put(ethTxHash, new EthAddress(bytes(EthAddress.ADDRESS_LENGTH)));
+        }
+
+        Bundle bundle = new Bundle(id, word32(), 0, transfers);
+        return new StatefulBundle(new PersistentBundle(id, bundle));
+    }
+
+    private void markFinalized(StatefulBundle sb) {
+        Word32 aionTxHash = word32();
+        AionAddress relayer = new AionAddress(word32());
+
+        sb.setStored();
+        sb.setSigned(Collections.emptySet());
+        sb.setSubmitted(new AionSubmittedTx(relayer, sb.getBundleId(), sb.getBundleId(), aionTxHash));
+        sb.setSealed(new AionReceipt(sb.getBundleId(), aionTxHash, word32(), relayer, null, new BlakeBloom(),
+                Collections.emptyList(), true, 0));
+        sb.setFinalized();
+    }
+
+    private Word32 word32() {
+        return new Word32(bytes(Word32.LENGTH));
+    }
+
+    private byte[] bytes(int length) {
+        byte[] b = new byte[length];
+        random.nextBytes(b);
+        return b;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import org.aion.bridge.chain.db.PersistenceServiceException;
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.aion.bridge.datastore.EmbeddedDatastore;
+import org.aion.bridge.datastore.MySqlDatastore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+
+public class Main {
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: <config file> <transfers | v5 | v5-stats | finalize-bench>");
+            System.exit(0);
+        }
+        String location = args[0];
+        String migration = args[1];
+        Config config = null;
+
+        try {
+            config = Config.load(location);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.out.println("Unable to load config file");
+            System.exit(0);
+        }
+
+        DbConnectionManager cm = null;
+        try {
+            Config.Sql sqlConfig = config.getSql();
+
+            cm = new DbConnectionManager.Builder()
+                    .setHost(sqlConfig.getHost())
+                    .setPort(sqlConfig.getPort())
+                    .setDatabase(sqlConfig.getDbName())
+                    .setUser(sqlConfig.getUser())
+                    .setPassword(sqlConfig.getPassword())
+                    .build();
+
+            switch (migration) {
+                case "transfers":
+                    new TransferBlobMigration(cm, config.getBatchSize()).run();
+                    break;
+                case "v5":
+                    new V5Migration(cm, sqlConfig.getDbName(), config.getTargetDbName(), config.getBatchSize()).run();
+                    break;
+                case "v5-stats":
+                    new V5Stats(cm, sqlConfig.getDbName(), config.getTargetDbName(), config.getStatsSamples()).run();
+                    break;
+                case "finalize-bench":
+                    runFinalizeBenchmark(config);
+                    break;
+                default:
+                    System.out.println("Unknown migration: " + migration);
+            }
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            System.out.println("Unable to find database driver");
+            System.exit(0);
+        } catch (SQLException | IOException | PersistenceServiceException | RuntimeException e) {
+            log.error("Migration failed", e);
+            System.exit(1);
+        } finally {
+            if (cm != null) {
+                try {
+                    cm.closeAllConnections();
+                } catch (SQLException e) {
+                    log.error("Failed to close database connections", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the finalize-path benchmark against a scratch MySQL database (created from the current schema) and
+     * against an embedded datastore, with the same synthetic bundles.
+     */
+    private static void runFinalizeBenchmark(Config config)
+            throws ClassNotFoundException, SQLException, IOException, PersistenceServiceException {
+        Config.Sql sqlConfig = config.getSql();
+
+        DbConnectionManager benchCm = new DbConnectionManager.Builder()
+                .setHost(sqlConfig.getHost())
+                .setPort(sqlConfig.getPort())
+                .setDatabase(config.getBenchmarkDbName())
+                .setUser(sqlConfig.getUser())
+                .setPassword(sqlConfig.getPassword())
+                .build();
+        try {
+            new FinalizeBenchmark("mysql", new MySqlDatastore(benchCm), config.getBenchmarkBundles(), config.getBatchSize()).run();
+        } finally {
+            benchCm.closeAllConnections();
+        }
+
+        try (EmbeddedDatastore embedded = new EmbeddedDatastore(Paths.get(config.getBenchmarkEmbeddedPath()))) {
+            new FinalizeBenchmark("embedded", embedded, config.getBenchmarkBundles(), config.getBatchSize()).run();
+        }
+    }
+}
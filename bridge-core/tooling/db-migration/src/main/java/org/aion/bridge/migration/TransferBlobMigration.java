@@ -0,0 +1,161 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aion.bridge.chain.base.serialize.TransferCodec;
+import org.aion.bridge.chain.bridge.Transfer;
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Backfills eth_finalized_bundle.transfers_bin from the v4 JSON transfers column (see sql/migrate-v4-transfers-bin.sql).
+ * <p>
+ * Only transfers_bin is written; the JSON column is left as is, since the v4 nexus, standby and tooling still read
+ * it. That makes it safe to run while the v4 nexus is up: the nexus only inserts new bundles, so each run converts
+ * the rows that have no transfers_bin yet and the next run picks up the ones inserted since. The JSON is dropped by
+ * the v5 copy, which only reads transfers_bin. Every converted row is decoded back and compared with the JSON. The
+ * time spent decoding each encoding is logged, as a read-throughput comparison.
+ */
+public class TransferBlobMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferBlobMigration.class);
+    private static final ObjectMapper jackson = new ObjectMapper();
+
+    private static final String SELECT_BATCH =
+            "select bundle_id, transfers from eth_finalized_bundle " +
+                    "where transfers_bin is null and bundle_id > ? and bundle_id <= ? order by bundle_id limit ?;";
+
+    private static final String UPDATE_ROW =
+            "update eth_finalized_bundle set transfers_bin = ? where bundle_id = ?;";
+
+    private final DbConnectionManager cm;
+    private final int batchSize;
+
+    private long rows = 0;
+    private long transfers = 0;
+    private long jsonDecodeNanos = 0;
+    private long binaryDecodeNanos = 0;
+
+    public TransferBlobMigration(DbConnectionManager cm, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize < 1");
+        this.cm = cm;
+        this.batchSize = batchSize;
+    }
+
+    public void run() throws SQLException, IOException {
+        convert(-1, Long.MAX_VALUE);
+        logSummary();
+    }
+
+    /**
+     * Converts the rows with bundle ids in (afterBundleId, upToBundleId] that have no transfers_bin yet.
+     */
+    void convert(long afterBundleId, long upToBundleId) throws SQLException, IOException {
+        long lastBundleId = afterBundleId;
+        int converted;
+
+        do {
+            try (Connection c = cm.getConnection()) {
+                try (PreparedStatement select = c.prepareStatement(SELECT_BATCH);
+                     PreparedStatement update = c.prepareStatement(UPDATE_ROW)) {
+                    select.setLong(1, lastBundleId);
+                    select.setLong(2, upToBundleId);
+                    select.setInt(3, batchSize);
+
+                    converted = 0;
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            long bundleId = rs.getLong(1);
+                            byte[] encoded = convert(bundleId, rs.getString(2));
+
+                            update.setBytes(1, encoded);
+                            update.setLong(2, bundleId);
+                            update.addBatch();
+
+                            lastBundleId = bundleId;
+                            converted++;
+                        }
+                    }
+
+                    if (converted > 0)
+                        update.executeBatch();
+                    c.commit();
+                } catch (SQLException | IOException | RuntimeException e) {
+                    c.rollback();
+                    throw e;
+                }
+            }
+
+            rows += converted;
+            if (converted > 0)
+                log.info("Migrated {} bundles, up to bundleId {}", rows, lastBundleId);
+        } while (converted == batchSize);
+    }
+
+    private byte[] convert(long bundleId, String transfersStr) throws IOException {
+        if (transfersStr == null)
+            throw new IllegalStateException("Bundle " + bundleId + " has no transfers");
+
+        long start = System.nanoTime();
+        List<Transfer> fromJson = jackson.readValue(transfersStr, new TypeReference<List<Transfer>>() {
+        });
+        jsonDecodeNanos += System.nanoTime() - start;
+
+        byte[] encoded = TransferCodec.encode(fromJson);
+
+        start = System.nanoTime();
+        List<Transfer> fromBinary = TransferCodec.decode(encoded);
+        binaryDecodeNanos += System.nanoTime() - start;
+
+        if (!fromJson.equals(fromBinary))
+            throw new IllegalStateException("Bundle " + bundleId + " transfers do not survive the binary round trip");
+
+        transfers += fromJson.size();
+        return encoded;
+    }
+
+    void logSummary() {
+        log.info("Migration complete: {} bundles, {} transfers", rows, transfers);
+        if (rows == 0)
+            return;
+
+        log.info("Decode time, JSON: {} ms ({} bundles/s), binary: {} ms ({} bundles/s)",
+                jsonDecodeNanos / 1_000_000, perSecond(rows, jsonDecodeNanos),
+                binaryDecodeNanos / 1_000_000, perSecond(rows, binaryDecodeNanos));
+    }
+
+    private static long perSecond(long count, long nanos) {
+        return nanos == 0 ? 0 : count * 1_000_000_000L / nanos;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Copies a v4 database (hex char columns) into a v5 database (binary columns, see sql/create-v5.sql) on the same
+ * MySQL server.
+ * <p>
+ * The bundle tables are append-only, so they are copied in committed ranges of bundle ids and every run resumes
+ * after the highest bundle id already in v5. That makes it an online migration: run it while the nexus is still
+ * writing to v4 until it has caught up, then stop the nexus, run it once more (which also copies the final status
+ * rows) and restart the nexus against v5.
+ * <p>
+ * The v4 nexus keeps inserting bundles with JSON transfers only, so each range of eth_finalized_bundle is run
+ * through {@link TransferBlobMigration} right before it is copied; only transfers_bin is copied to v5.
+ * <p>
+ * v4 eth_transfer is only keyed by eth_tx_hash, so the first run adds an index on its bundle_id (online DDL);
+ * without it every range copy would scan the whole table.
+ */
+public class V5Migration {
+
+    private static final Logger log = LoggerFactory.getLogger(V5Migration.class);
+
+    private static class Table {
+        final String name;
+        final String columns;
+        final String select;
+        final boolean transfers;
+
+        Table(String name, String columns, String select) {
+            this(name, columns, select, false);
+        }
+
+        Table(String name, String columns, String select, boolean transfers) {
+            this.name = name;
+            this.columns = columns;
+            this.select = select;
+            this.transfers = transfers;
+        }
+    }
+
+    private static final Table[] BUNDLE_TABLES = {
+            new Table("eth_finalized_bundle",
+                    "bundle_id, bundle_hash, eth_block_number, eth_block_hash, index_in_eth_block, transfers, updated",
+                    "bundle_id, unhex(bundle_hash), eth_block_number, unhex(eth_block_hash), index_in_eth_block, transfers_bin, updated",
+                    true),
+            new Table("eth_transfer",
+                    "eth_tx_hash, bundle_id, bundle_hash, eth_address, aion_address, aion_transfer_amount, updated",
+                    "unhex(eth_tx_hash), bundle_id, unhex(bundle_hash), unhex(eth_address), unhex(aion_address), unhex(aion_transfer_amount), updated"),
+            new Table("aion_finalized_bundle",
+                    "bundle_id, bundle_hash, aion_tx_hash, aion_block_number, aion_block_hash, updated",
+                    "bundle_id, unhex(bundle_hash), unhex(aion_tx_hash), aion_block_number, unhex(aion_block_hash), updated")
+    };
+
+    private static final Table[] STATUS_TABLES = {
+            new Table("status_eth_finalized_block",
+                    "integrity_keeper, eth_block_number, eth_block_hash, updated",
+                    "integrity_keeper, eth_block_number, unhex(eth_block_hash), updated"),
+            new Table("status_eth_finalized_bundle",
+                    "integrity_keeper, bundle_id, bundle_hash, updated",
+                    "integrity_keeper, bundle_id, unhex(bundle_hash), updated"),
+            new Table("status_aion_finalized_bundle",
+                    "integrity_keeper, bundle_id, bundle_hash, updated",
+                    "integrity_keeper, bundle_id, unhex(bundle_hash), updated"),
+            new Table("status_aion_finalized_block",
+                    "integrity_keeper, aion_block_number, aion_block_hash, updated",
+                    "integrity_keeper, aion_block_number, unhex(aion_block_hash), updated"),
+            new Table("status_aion_latest_block",
+                    "integrity_keeper, aion_block_number, updated",
+                    "integrity_keeper, aion_block_number, updated"),
+            new Table("status_aion_balance",
+                    "integrity_keeper, aion_balance, aion_block_number, updated",
+                    "integrity_keeper, unhex(aion_balance), aion_block_number, updated")
+    };
+
+    private final DbConnectionManager cm;
+    private final String source;
+    private final String target;
+    private final int batchSize;
+    private final TransferBlobMigration transferBlobs;
+
+    /**
+     * @param cm connection manager whose default database is the source (v4) database, which is where the transfers
+     *           backfill runs
+     */
+    public V5Migration(DbConnectionManager cm, String sourceDbName, String targetDbName, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize < 1");
+        this.cm = cm;
+        this.source = sourceDbName;
+        this.target = targetDbName;
+        this.batchSize = batchSize;
+        this.transferBlobs = new TransferBlobMigration(cm, batchSize);
+    }
+
+    public void run() throws SQLException, IOException {
+        try (Connection c = cm.getConnection()) {
+            try {
+                ensureSourceBundleIdIndex(c);
+
+                for (Table t : BUNDLE_TABLES)
+                    copyBundleTable(c, t);
+
+                fillTransferStatus(c);
+
+                for (Table t : STATUS_TABLES) {
+                    try (Statement s = c.createStatement()) {
+                        s.executeUpdate("replace into " + target + "." + t.name + " (" + t.columns + ") " +
+                                "select " + t.select + " from " + source + "." + t.name + ";");
+                    }
+                }
+                c.commit();
+                log.info("Status tables copied");
+            } catch (SQLException | IOException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void ensureSourceBundleIdIndex(Connection c) throws SQLException {
+        long indexed = queryLong(c, "select count(*) from information_schema.statistics where table_schema = '" +
+                source + "' and table_name = 'eth_transfer' and column_name = 'bundle_id' and seq_in_index = 1;");
+        c.commit();
+        if (indexed > 0)
+            return;
+
+        long start = System.nanoTime();
+        try (Statement s = c.createStatement()) {
+            s.executeUpdate("alter table " + source + ".eth_transfer add index eth_transfer_bundle_id (bundle_id), " +
+                    "algorithm=inplace, lock=none;");
+        }
+        log.info("{}.eth_transfer: bundle_id index added in {} ms", source, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void copyBundleTable(Connection c, Table t) throws SQLException, IOException {
+        long last = queryLong(c, "select coalesce(max(bundle_id), -1) from " + target + "." + t.name + ";");
+        long end = queryLong(c, "select coalesce(max(bundle_id), -1) from " + source + "." + t.name + ";");
+        c.commit();
+
+        String copy = "insert into " + target + "." + t.name + " (" + t.columns + ") " +
+                "select " + t.select + " from " + source + "." + t.name + " where bundle_id > ? and bundle_id <= ?;";
+
+        long rows = 0;
+        long start = System.nanoTime();
+        try (PreparedStatement ps = c.prepareStatement(copy)) {
+            while (last < end) {
+                long upTo = Math.min(last + batchSize, end);
+                if (t.transfers)
+                    transferBlobs.convert(last, upTo);
+
+                ps.setLong(1, last);
+                ps.setLong(2, upTo);
+                rows += ps.executeUpdate();
+                c.commit();
+
+                last = upTo;
+                log.debug("{}: copied up to bundleId {}", t.name, last);
+            }
+        }
+
+        if (t.transfers)
+            transferBlobs.logSummary();
+
+        log.info("{}: {} rows copied in {} ms, up to bundleId {}", t.name, rows, (System.nanoTime() - start) / 1_000_000, last);
+    }
+
+    /**
+     * Derive transfer_status from the copied bundle tables, resumable like the copy and walking the bundle_id indexes
+     * in batches rather than joining whole tables:
+     * <ul>
+     *     <li>transfers of bundles after the highest bundle id already in transfer_status are inserted (as SUBMITTED
+     *     if their aion bundle has been copied, STORED otherwise);</li>
+     *     <li>aion bundles are finalized in bundle id order, so STORED rows can only follow the highest SUBMITTED
+     *     one; those whose aion bundle has been copied since are moved to SUBMITTED.</li>
+     * </ul>
+     */
+    private void fillTransferStatus(Connection c) throws SQLException {
+        long start = System.nanoTime();
+
+        long last = queryLong(c, "select coalesce(max(bundle_id), -1) from " + target + ".transfer_status;");
+        long end = queryLong(c, "select coalesce(max(bundle_id), -1) from " + target + ".eth_transfer;");
+        c.commit();
+
+        long inserted = 0;
+        try (PreparedStatement ps = c.prepareStatement("insert into " + target + ".transfer_status " +
+                "(eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, eth_address, " +
+                "aion_address, aion_transfer_amount, aion_tx_hash, aion_block_number, aion_block_hash) " +
+                "select t.eth_tx_hash, if(a.bundle_id is null, 'STORED', 'SUBMITTED'), t.bundle_id, t.bundle_hash, " +
+                "e.eth_block_number, e.eth_block_hash, t.eth_address, t.aion_address, t.aion_transfer_amount, " +
+                "a.aion_tx_hash, a.aion_block_number, a.aion_block_hash " +
+                "from " + target + ".eth_transfer t " +
+                "join " + target + ".eth_finalized_bundle e on t.bundle_id = e.bundle_id " +
+                "left join " + target + ".aion_finalized_bundle a on t.bundle_id = a.bundle_id " +
+                "where t.bundle_id > ? and t.bundle_id <= ?;")) {
+            while (last < end) {
+                long upTo = Math.min(last + batchSize, end);
+                ps.setLong(1, last);
+                ps.setLong(2, upTo);
+                inserted += ps.executeUpdate();
+                c.commit();
+                last = upTo;
+            }
+        }
+
+        long submittedUpTo = queryLong(c, "select coalesce((select bundle_id from " + target + ".transfer_status " +
+                "where stage = 'SUBMITTED' order by bundle_id desc limit 1), -1);");
+        long aionEnd = queryLong(c, "select coalesce(max(bundle_id), -1) from " + target + ".aion_finalized_bundle;");
+        c.commit();
+
+        long submitted = 0;
+        try (PreparedStatement ps = c.prepareStatement("update " + target + ".transfer_status ts " +
+                "join " + target + ".aion_finalized_bundle a on ts.bundle_id = a.bundle_id " +
+                "set ts.stage = 'SUBMITTED', ts.aion_tx_hash = a.aion_tx_hash, " +
+                "ts.aion_block_number = a.aion_block_number, ts.aion_block_hash = a.aion_block_hash " +
+                "where ts.stage = 'STORED' and ts.bundle_id > ? and ts.bundle_id <= ?;")) {
+            while (submittedUpTo < aionEnd) {
+                long upTo = Math.min(submittedUpTo + batchSize, aionEnd);
+                ps.setLong(1, submittedUpTo);
+                ps.setLong(2, upTo);
+                submitted += ps.executeUpdate();
+                c.commit();
+                submittedUpTo = upTo;
+            }
+        }
+
+        log.info("transfer_status: {} rows inserted, {} moved to SUBMITTED in {} ms", inserted, submitted,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    static long queryLong(Connection c, String query) throws SQLException {
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery(query)) {
+            if (!rs.next())
+                throw new IllegalStateException("empty result: " + query);
+            return rs.getLong(1);
+        }
+    }
+}
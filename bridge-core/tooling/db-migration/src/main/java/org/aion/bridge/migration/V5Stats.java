@@ -0,0 +1,140 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package org.aion.bridge.migration;
+
+import org.aion.bridge.datastore.DbConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares a v4 database against its v5 copy: table and index sizes (from information_schema) and the latency of
+ * the bridge-api eth_tx_hash lookup, run against the same sample of transactions in both.
+ */
+public class V5Stats {
+
+    private static final Logger log = LoggerFactory.getLogger(V5Stats.class);
+
+    private static final String TABLE_SIZES =
+            "select table_name, table_rows, data_length, index_length from information_schema.tables " +
+                    "where table_schema = ? order by table_name;";
+
+    private final DbConnectionManager cm;
+    private final String source;
+    private final String target;
+    private final int samples;
+
+    public V5Stats(DbConnectionManager cm, String sourceDbName, String targetDbName, int samples) {
+        if (samples < 1) throw new IllegalArgumentException("samples < 1");
+        this.cm = cm;
+        this.source = sourceDbName;
+        this.target = targetDbName;
+        this.samples = samples;
+    }
+
+    public void run() throws SQLException {
+        try (Connection c = cm.getConnection()) {
+            logTableSizes(c, source);
+            logTableSizes(c, target);
+
+            List<String> hashes = sampleTxHashes(c);
+            if (hashes.isEmpty()) {
+                log.info("No transfers to sample");
+                c.commit();
+                return;
+            }
+
+            logLatency(c, source, hashes, false);
+            logLatency(c, target, hashes, true);
+            c.commit();
+        }
+    }
+
+    private void logTableSizes(Connection c, String schema) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(TABLE_SIZES)) {
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long rows = rs.getLong(2);
+                    log.info("{}.{}: ~{} rows, data {} KiB ({} B/row), index {} KiB ({} B/row)", schema,
+                            rs.getString(1), rows, rs.getLong(3) / 1024, rows > 0 ? rs.getLong(3) / rows : 0,
+                            rs.getLong(4) / 1024, rows > 0 ? rs.getLong(4) / rows : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Spread the sample over the whole table by stepping through the bundle id range.
+     */
+    private List<String> sampleTxHashes(Connection c) throws SQLException {
+        long maxBundleId = V5Migration.queryLong(c, "select coalesce(max(bundle_id), -1) from " + source + ".eth_transfer;");
+        long step = Math.max(1, (maxBundleId + 1) / samples);
+
+        List<String> hashes = new ArrayList<>(samples);
+        try (PreparedStatement ps = c.prepareStatement(
+                "select eth_tx_hash from " + source + ".eth_transfer where bundle_id >= ? limit 1;")) {
+            for (long id = 0; id <= maxBundleId && hashes.size() < samples; id += step) {
+                ps.setLong(1, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next())
+                        hashes.add(rs.getString(1));
+                }
+            }
+        }
+        return hashes;
+    }
+
+    private void logLatency(Connection c, String schema, List<String> hashes, boolean binary) throws SQLException {
+        long[] nanos = new long[hashes.size()];
+
+        try (PreparedStatement ps = c.prepareStatement(
+                "select bundle_id, aion_transfer_amount from " + schema + ".eth_transfer where eth_tx_hash = " +
+                        (binary ? "unhex(?)" : "?") + ";")) {
+            for (int i = 0; i < hashes.size(); i++) {
+                ps.setString(1, hashes.get(i));
+                long start = System.nanoTime();
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next())
+                        throw new IllegalStateException(schema + ": eth_tx_hash " + hashes.get(i) + " not found");
+                }
+                nanos[i] = System.nanoTime() - start;
+            }
+        }
+
+        Arrays.sort(nanos);
+        long total = 0;
+        for (long n : nanos) total += n;
+
+        log.info("{}: eth_tx_hash lookup over {} samples, avg {} us, p50 {} us, p99 {} us", schema, nanos.length,
+                total / nanos.length / 1000, nanos[nanos.length / 2] / 1000, nanos[(int) (nanos.length * 0.99)] / 1000);
+    }
+}
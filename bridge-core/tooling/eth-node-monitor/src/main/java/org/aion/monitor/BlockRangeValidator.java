@@ -24,6 +24,7 @@
 
 package org.aion.monitor;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.aion.bridge.chain.db.PersistenceServiceException;
 import org.aion.bridge.chain.eth.types.EthBlock;
 import org.aion.bridge.chain.log.LoggingSetup;
@@ -33,8 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.sql.Timestamp;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BlockRangeValidator extends Thread {
 
@@ -46,11 +49,15 @@ public class BlockRangeValidator extends Thread {
     private EthApi etherscanApi;
     private DatabaseOperations dbOperations;
     private long pollIntervalSeconds;
+    private long sampleTimeoutSeconds;
+    private final ExecutorService executor;
     private int maxAcceptedRange;
     private int acceptedUnresponsiveCount;
     private int acceptedSideChainLength;
     private List<Boolean> notificationSent = new ArrayList<>();
     private List<Integer> sideChainBlocks = new ArrayList<>();
+    // node id -> that node's last submitted sample
+    private final Map<Integer, InFlightSample> inFlightSamples = new HashMap<>();
 
     BlockRangeValidator(@Nonnull List<EthApi> ethNodeConnection,
                         @Nonnull EthApi infuraApi,
@@ -59,6 +66,7 @@ public class BlockRangeValidator extends Thread {
                         @Nonnull int acceptedUnresponsiveCount,
                         @Nonnull int acceptedSideChainLength,
                         @Nonnull long pollIntervalSeconds,
+                        @Nonnull long sampleTimeoutSeconds,
                         @Nonnull DatabaseOperations dbOperations) {
         this.ethNodeConnection = ethNodeConnection;
         for (EthApi c : ethNodeConnection) {
@@ -73,34 +81,72 @@ public class BlockRangeValidator extends Thread {
         this.etherscanApi = etherscanApi;
         this.dbOperations = dbOperations;
         this.pollIntervalSeconds = pollIntervalSeconds;
+        this.sampleTimeoutSeconds = sampleTimeoutSeconds;
+
+        // the two reference heads, at most one sample per node (a node whose previous sample is still running is
+        // skipped) and at most two reference lookups per node
+        this.executor = Executors.newFixedThreadPool(2 + 3 * ethNodeConnection.size(),
+                new ThreadFactoryBuilder().setNameFormat("TEthSample-%d").setDaemon(true).build());
     }
 
     @Override
     public void run() {
         while (true) {
+            long cycleStart = System.nanoTime();
             try {
-                Object[][] result = new Object[ethNodeConnection.size()][];
+                // every endpoint is sampled at the same time, against the same deadline; an endpoint that misses it
+                // counts as not responding for this sample rather than holding up the others
+                Timestamp sampledAt = new Timestamp(System.currentTimeMillis());
+                long deadline = cycleStart + TimeUnit.SECONDS.toNanos(sampleTimeoutSeconds);
 
-                List<Optional<EthBlock>> blockList = new ArrayList<>();
-                List<Integer> peerCountList = new ArrayList<>();
+                Future<Long> infuraHead = executor.submit(infuraApi::getLatestBLockNumber);
+                Future<Long> etherscanHead = executor.submit(etherscanApi::getLatestBLockNumber);
 
-                //get latest block and peer count for node
+                // a node whose sample from an earlier cycle is still running (an http call the interrupt could not
+                // stop) is not sampled again, so a hung node never holds more than one thread
+                List<InFlightSample> pending = new ArrayList<>();
                 for (EthApi ethJsonRpcApi : ethNodeConnection) {
-                    Optional<EthBlock> nodeLatestBlockList = ethJsonRpcApi.getBLock(ethJsonRpcApi.getLatestBLockNumber());
-                    blockList.add(nodeLatestBlockList);
-                    peerCountList.add(ethJsonRpcApi.getPeerCount());
+                    InFlightSample previous = inFlightSamples.get(ethJsonRpcApi.getId());
+                    if (previous != null && previous.isRunning()) {
+                        pending.add(null);
+                        continue;
+                    }
+
+                    InFlightSample s = new InFlightSample(ethJsonRpcApi);
+                    inFlightSamples.put(ethJsonRpcApi.getId(), s);
+                    pending.add(s);
                 }
 
                 //get latest block number for apis
-                Long infuraLatestBlockNumber = infuraApi.getLatestBLockNumber();
-                Long etherscanLatestBlockNumber = etherscanApi.getLatestBLockNumber();
+                Long infuraLatestBlockNumber = await(infuraHead, deadline);
+                Long etherscanLatestBlockNumber = await(etherscanHead, deadline);
+
+                //get latest block and peer count for node; a sample that misses the deadline is cancelled, which
+                // interrupts its thread and stops its retries
+                List<NodeSample> samples = new ArrayList<>();
+                for (InFlightSample s : pending) {
+                    if (s == null) {
+                        samples.add(NodeSample.STILL_RUNNING);
+                        continue;
+                    }
+                    NodeSample sample = await(s.future, deadline);
+                    samples.add(sample != null ? sample : NodeSample.TIMED_OUT);
+                }
 
                 if (infuraLatestBlockNumber == null || etherscanLatestBlockNumber == null) {
+                    System.out.println("Infura/Etherscan latest block number not available; skipping sample.");
+                    sleepUntilNextCycle(cycleStart);
                     continue;
                 }
 
-                for (int i = 0; i < blockList.size(); i++) {
-                    Optional<EthBlock> b = blockList.get(i);
+                Map<Long, ReferenceBlocks> referenceBlocks = getReferenceBlocks(samples);
+
+                Object[][] result = new Object[ethNodeConnection.size()][];
+                List<DatabaseOperations.VarianceRow> varianceRows = new ArrayList<>();
+
+                for (int i = 0; i < samples.size(); i++) {
+                    NodeSample sample = samples.get(i);
+                    Optional<EthBlock> b = sample.block;
                     String name = ethNodeConnection.get(i).getName();
                     NodeInformation nodeInfo = nodeIdBlockNumberMap.get(ethNodeConnection.get(i).getId());
 
@@ -115,14 +161,9 @@ public class BlockRangeValidator extends Thread {
 
                         result[i] = new String[]{name, Long.toString(b.get().getNumber()), Long.toString(heightChange), Long.toString(infuraDiff),
                                 Long.toString(nodeInfo.getMaxInfuraDiff()), nodeInfo.getCountOutOfRangeInfura().toString(),
-                                Long.toString(etherscanDiff), Long.toString(nodeInfo.getMaxEtherscanDiff()), nodeInfo.getCountOutOfRangeEtherscan().toString(), String.valueOf(peerCountList.get(i))};
+                                Long.toString(etherscanDiff), Long.toString(nodeInfo.getMaxEtherscanDiff()), nodeInfo.getCountOutOfRangeEtherscan().toString(), String.valueOf(sample.peerCount)};
 
-                        try {
-                            dbOperations.insertVarianceData(ethNodeConnection.get(i).getId(), b.get().getNumber(), heightChange, infuraDiff, etherscanDiff, peerCountList.get(i));
-                        } catch (PersistenceServiceException e) {
-                            //todo
-                            e.printStackTrace();
-                        }
+                        varianceRows.add(new DatabaseOperations.VarianceRow(ethNodeConnection.get(i).getId(), b.get().getNumber(), heightChange, infuraDiff, etherscanDiff, sample.peerCount));
 
                         if (infuraDiff > maxAcceptedRange || etherscanDiff > maxAcceptedRange) {
                             if (!notificationSent.get(i)) {
@@ -134,11 +175,13 @@ public class BlockRangeValidator extends Thread {
                             notificationSent.set(i, false);
                         }
 
-                        validateBlockHash(i, b.get());
+                        validateBlockHash(i, b.get(), referenceBlocks.get(b.get().getNumber()));
 
                         // node did not return a block
                     } else {
-                        result[i] = new String[]{name, "Error", "Node's latest block not present.", "", "", "", "", "", "", String.valueOf(peerCountList.get(i))};
+                        String reason = sample == NodeSample.TIMED_OUT ? "No response within " + sampleTimeoutSeconds + "s." :
+                                sample == NodeSample.STILL_RUNNING ? "Previous sample still running." : "Node's latest block not present.";
+                        result[i] = new String[]{name, "Error", reason, "", "", "", "", "", "", String.valueOf(sample.peerCount)};
                         nodeInfo.incrementBlockNotPresentCount();
                         if (nodeInfo.getBlockNotPresentCount() == acceptedUnresponsiveCount) {
                             log.error("{}: {} is not responding to getBlock requests.", name, ethNodeConnection.get(i).getUrl());
@@ -147,6 +190,13 @@ public class BlockRangeValidator extends Thread {
                     }
                 }
 
+                try {
+                    dbOperations.insertVarianceData(varianceRows, sampledAt);
+                } catch (PersistenceServiceException e) {
+                    //todo
+                    e.printStackTrace();
+                }
+
                 System.out.format("%-20s%-10s%-15s%-14s%-10s%-15s%-14s%-10s%-15s%-10s\n",
                         "name", "blk-Num", "height-Change", "<Infura-diff", "max_diff", "out_of_range>", "<Ether-diff", "max_diff", "out_of_range>", "peers");
                 for (final Object[] row : result) {
@@ -155,11 +205,10 @@ public class BlockRangeValidator extends Thread {
 
                 System.out.println("\n");
 
-                try {
-                    TimeUnit.SECONDS.sleep(pollIntervalSeconds);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+                sleepUntilNextCycle(cycleStart);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+                return;
             } catch (Exception e) {
                 System.out.println("caught an exception.");
                 e.printStackTrace();
@@ -167,11 +216,96 @@ public class BlockRangeValidator extends Thread {
         }
     }
 
+    private NodeSample sample(EthApi api) {
+        Optional<EthBlock> block = api.getBLock(api.getLatestBLockNumber());
+        // cancelled at the deadline; nobody reads the result any more
+        if (Thread.currentThread().isInterrupted())
+            return NodeSample.TIMED_OUT;
+        return new NodeSample(block, api.getPeerCount());
+    }
+
+    private class InFlightSample {
+        private final Future<NodeSample> future;
+        // set while the task body runs; a cancelled future is done even if its thread is still stuck in a call
+        private final AtomicBoolean running = new AtomicBoolean(false);
+
+        InFlightSample(EthApi api) {
+            future = executor.submit(() -> {
+                running.set(true);
+                try {
+                    return sample(api);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+
+        boolean isRunning() {
+            return !future.isDone() || running.get();
+        }
+    }
+
+    /**
+     * Infura's and Etherscan's view of every block number a node reported within the sample deadline; nodes that
+     * agree share the lookups. All lookups are started before any is awaited, each with its own deadline.
+     */
+    private Map<Long, ReferenceBlocks> getReferenceBlocks(List<NodeSample> samples) throws InterruptedException {
+        Map<Long, ReferenceLookup> lookups = new LinkedHashMap<>();
+        for (NodeSample sample : samples) {
+            if (sample.block.isPresent())
+                lookups.computeIfAbsent(sample.block.get().getNumber(), ReferenceLookup::new);
+        }
+
+        Map<Long, ReferenceBlocks> reference = new HashMap<>();
+        for (Map.Entry<Long, ReferenceLookup> e : lookups.entrySet())
+            reference.put(e.getKey(), e.getValue().await());
+
+        return reference;
+    }
+
+    private class ReferenceLookup {
+        private final Future<Optional<EthBlock>> infura;
+        private final Future<Optional<EthBlock>> etherscan;
+        private final long deadline;
+
+        ReferenceLookup(long number) {
+            infura = executor.submit(() -> infuraApi.getBLock(number));
+            etherscan = executor.submit(() -> etherscanApi.getBLock(number));
+            deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(sampleTimeoutSeconds);
+        }
+
+        ReferenceBlocks await() throws InterruptedException {
+            Optional<EthBlock> infuraBlock = BlockRangeValidator.this.await(infura, deadline);
+            Optional<EthBlock> etherBlock = BlockRangeValidator.this.await(etherscan, deadline);
+            return new ReferenceBlocks(
+                    infuraBlock != null ? infuraBlock : Optional.empty(),
+                    etherBlock != null ? etherBlock : Optional.empty());
+        }
+    }
+
+    // result of the call, or null if it failed or missed the deadline
+    private <T> T await(Future<T> f, long deadline) throws InterruptedException {
+        try {
+            return f.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+            return null;
+        }
+    }
+
+    private void sleepUntilNextCycle(long cycleStart) throws InterruptedException {
+        long remaining = TimeUnit.SECONDS.toNanos(pollIntervalSeconds) - (System.nanoTime() - cycleStart);
+        if (remaining > 0)
+            TimeUnit.NANOSECONDS.sleep(remaining);
+    }
 
-    private void validateBlockHash(int index, EthBlock b) {
+    private void validateBlockHash(int index, EthBlock b, ReferenceBlocks reference) {
 
-        Optional<EthBlock> infuraBlock = infuraApi.getBLock(b.getNumber());
-        Optional<EthBlock> etherBlock = etherscanApi.getBLock(b.getNumber());
+        Optional<EthBlock> infuraBlock = reference.infuraBlock;
+        Optional<EthBlock> etherBlock = reference.etherscanBlock;
         int count = 0;
 
         if ((infuraBlock.isPresent() && !infuraBlock.get().equals(b)) || (etherBlock.isPresent() && !etherBlock.get().equals(b))) {
@@ -184,6 +318,29 @@ public class BlockRangeValidator extends Thread {
         sideChainBlocks.set(index, count);
     }
 
+    private static class NodeSample {
+        static final NodeSample TIMED_OUT = new NodeSample(Optional.empty(), -1);
+        static final NodeSample STILL_RUNNING = new NodeSample(Optional.empty(), -1);
+
+        private final Optional<EthBlock> block;
+        private final int peerCount;
+
+        NodeSample(Optional<EthBlock> block, Integer peerCount) {
+            this.block = block;
+            this.peerCount = peerCount != null ? peerCount : -1;
+        }
+    }
+
+    private static class ReferenceBlocks {
+        private final Optional<EthBlock> infuraBlock;
+        private final Optional<EthBlock> etherscanBlock;
+
+        ReferenceBlocks(Optional<EthBlock> infuraBlock, Optional<EthBlock> etherscanBlock) {
+            this.infuraBlock = infuraBlock;
+            this.etherscanBlock = etherscanBlock;
+        }
+    }
+
     private void sendEmail() {
         LoggingSetup.setupLogging();
         log.error(LoggingSetup.SMTP_MARKER, "Critical error in an eth node.");
@@ -37,6 +37,7 @@ public class Config {
     public static class Eth {
         private List<Client> clients;
         private Long pollIntervalSeconds;
+        private Long sampleTimeoutSeconds;
         private Integer maxAcceptedBlockRange;
         private Integer maxAcceptedUnresponsiveCount;
         private Integer maxAcceptedSidechainLength;
@@ -44,6 +45,7 @@ public class Config {
 
         public List<Client> getClients() { return clients; }
         public long getPollIntervalSeconds() { return pollIntervalSeconds; }
+        public long getSampleTimeoutSeconds() { return sampleTimeoutSeconds == null ? pollIntervalSeconds : sampleTimeoutSeconds; }
         public Integer getMaxAcceptedBlockRange() { return maxAcceptedBlockRange; }
         public Integer getMaxAcceptedUnresponsiveCount() { return maxAcceptedUnresponsiveCount; }
         public Integer getMaxAcceptedSidechainLength() { return maxAcceptedSidechainLength; }
@@ -87,10 +87,10 @@ public class Main {
                         System.out.println("Database insert operation failed.");
                         System.exit(0);
                     }
-                    ethJsonRpcApis.add(new EthJsonRpcApi(c.getUrl(), c.getName(), id));
+                    ethJsonRpcApis.add(new EthJsonRpcApi(c.getUrl(), c.getName(), id, config.getEth().getSampleTimeoutSeconds()));
                     break;
                 case "infura":
-                    infuraApi = new EthJsonRpcApi(c.getUrl(), c.getName(), 0);
+                    infuraApi = new EthJsonRpcApi(c.getUrl(), c.getName(), 0, config.getEth().getSampleTimeoutSeconds());
                     break;
                 case "etherscan":
                     etherscanApi = new EthHttpApi(c.getUrl(), c.getName(), config.getEth().getApiKey(), 10);
@@ -110,6 +110,7 @@ public class Main {
                 config.getEth().getMaxAcceptedUnresponsiveCount(),
                 config.getEth().getMaxAcceptedSidechainLength(),
                 config.getEth().getPollIntervalSeconds(),
+                config.getEth().getSampleTimeoutSeconds(),
                 dbOperation);
         validator.start();
 
@@ -47,9 +47,10 @@ public class EthJsonRpcApi implements EthApi{
 
     public EthJsonRpcApi(@Nonnull final String url,
                          @Nonnull final String name,
-                         @Nonnull final int id) {
+                         @Nonnull final int id,
+                         final long httpTimeoutSeconds) {
 
-        this.ethNodeConnection = new EthJsonRpcConnection(url);
+        this.ethNodeConnection = new EthJsonRpcConnection(url, httpTimeoutSeconds);
         this.url = url;
         this.name = name;
         this.id = id;
@@ -68,15 +69,20 @@ public class EthJsonRpcApi implements EthApi{
         int retries;
         Long latestBlockNumber = null;
 
-        for (retries = 0; retries < maxRetryCount; retries++) {
+        // an interrupted http call may surface as an api exception, so the flag is checked as well
+        for (retries = 0; retries < maxRetryCount && !Thread.currentThread().isInterrupted(); retries++) {
             try {
                 latestBlockNumber = ethNodeConnection.getBlockNumber();
                 if (latestBlockNumber != null) {
                     break;
                 }
 
-            } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException | InterruptedException e) {
+            } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException e) {
                 System.err.println("Error occurred in [getBlockNumber], url: " + url);
+            } catch (InterruptedException e) {
+                // sample deadline passed; stop retrying
+                Thread.currentThread().interrupt();
+                break;
             }
         }
         return latestBlockNumber;
@@ -88,14 +94,19 @@ public class EthJsonRpcApi implements EthApi{
 
         int retries;
         Optional<EthBlock> block = Optional.empty();
-        for (retries = 0; retries < maxRetryCount; retries++) {
+        // an interrupted http call may surface as an api exception, so the flag is checked as well
+        for (retries = 0; retries < maxRetryCount && !Thread.currentThread().isInterrupted(); retries++) {
             try {
                 block = ethNodeConnection.getBlock(blockNumber);
                 if (block.isPresent()) {
                     break;
                 }
-            } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException | InterruptedException e) {
+            } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException e) {
                 System.err.println("Error occurred in [getBlock], url: " + url);
+            } catch (InterruptedException e) {
+                // sample deadline passed; stop retrying
+                Thread.currentThread().interrupt();
+                break;
             }
         }
         return block;
@@ -105,9 +116,11 @@ public class EthJsonRpcApi implements EthApi{
         int count = -1;
         try {
             count = ethNodeConnection.peerCount();
-        } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException | InterruptedException e) {
+        } catch (IncompleteApiCallException | MalformedApiResponseException | QuorumNotAvailableException e) {
             System.err.println("Error occurred in [peerCount], url: " + url);
             e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
 
         return count;
@@ -32,6 +32,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
 
 public class DatabaseOperations {
 
@@ -74,40 +76,71 @@ public class DatabaseOperations {
         return id;
     }
 
-    public void insertVarianceData(Integer nodeId, Long blockNum, Long height_diff, Long infura_diff, Long etherscan_diff, int peerCount) throws PersistenceServiceException {
-
-            try (Connection c = ds.getConnection()) {
-                try (PreparedStatement ps = c.prepareStatement(MySqlQuery.INSERT_INTO_NODE_VARIANCE_DATA)) {
+    /**
+     * All the rows of one sample in a single multi-row insert, stamped with the time the sample was taken.
+     */
+    public void insertVarianceData(List<VarianceRow> rows, Timestamp sampledAt) throws PersistenceServiceException {
+        if (rows.isEmpty())
+            return;
+
+        StringBuilder sql = new StringBuilder(MySqlQuery.INSERT_INTO_NODE_VARIANCE_DATA_MULTI);
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(MySqlQuery.INSERT_INTO_NODE_VARIANCE_DATA_MULTI_ROW);
+        }
 
-                    ps.setLong(1, blockNum);
-                    ps.setLong(2, height_diff);
-                    ps.setLong(3, infura_diff);
-                    ps.setLong(4, etherscan_diff);
-                    ps.setInt(5, peerCount);
-                    ps.setInt(6, nodeId);
+        try (Connection c = ds.getConnection()) {
+            try (PreparedStatement ps = c.prepareStatement(sql.toString())) {
+
+                int p = 1;
+                for (VarianceRow r : rows) {
+                    ps.setLong(p++, r.blockNum);
+                    ps.setLong(p++, r.heightDiff);
+                    ps.setLong(p++, r.infuraDiff);
+                    ps.setLong(p++, r.etherscanDiff);
+                    ps.setInt(p++, r.peerCount);
+                    ps.setInt(p++, r.nodeId);
+                    ps.setTimestamp(p++, sampledAt);
+                }
 
-                    ps.addBatch();
-                    int[] updates = ps.executeBatch();
-                    if(updates.length != 1)
-                        throw new IllegalStateException("MySqlDatastore.executeBatchUpdate failed to update row.");
+                int updates = ps.executeUpdate();
+                if (updates != rows.size())
+                    throw new IllegalStateException("DatabaseOperations.insertVarianceData inserted " + updates + " of " + rows.size() + " rows.");
 
-                    c.commit();
-                } catch (SQLException e) {
-                    try {
-                        c.rollback();
-                    } catch (SQLException f) {
-                        System.err.println("Failed to rollback commit on SQLException " + e);
-                        throw new PersistenceServiceException(f);
-                    }
-                    System.err.println("SQLException caught; Commit rolled back successfully " + e);
-                    throw new PersistenceServiceException(e);
-                }
+                c.commit();
             } catch (SQLException e) {
-                System.err.println("Failed to obtain a datasource connection " + e);
+                try {
+                    c.rollback();
+                } catch (SQLException f) {
+                    System.err.println("Failed to rollback commit on SQLException " + e);
+                    throw new PersistenceServiceException(f);
+                }
+                System.err.println("SQLException caught; Commit rolled back successfully " + e);
                 throw new PersistenceServiceException(e);
             }
+        } catch (SQLException e) {
+            System.err.println("Failed to obtain a datasource connection " + e);
+            throw new PersistenceServiceException(e);
         }
+    }
 
+    public static class VarianceRow {
+        private final int nodeId;
+        private final long blockNum;
+        private final long heightDiff;
+        private final long infuraDiff;
+        private final long etherscanDiff;
+        private final int peerCount;
+
+        public VarianceRow(int nodeId, long blockNum, long heightDiff, long infuraDiff, long etherscanDiff, int peerCount) {
+            this.nodeId = nodeId;
+            this.blockNum = blockNum;
+            this.heightDiff = heightDiff;
+            this.infuraDiff = infuraDiff;
+            this.etherscanDiff = etherscanDiff;
+            this.peerCount = peerCount;
+        }
+    }
 
     private int selectUrl(String url) throws PersistenceServiceException {
         try (Connection c = ds.getConnection()) {
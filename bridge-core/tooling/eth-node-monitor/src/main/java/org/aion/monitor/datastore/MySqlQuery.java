@@ -29,8 +29,10 @@ public class MySqlQuery {
     public static final String INSERT_INTO_ETH_NODE =
             "INSERT INTO eth_nodes (url) VALUES (?);";
 
-    public static final String INSERT_INTO_NODE_VARIANCE_DATA =
-            "INSERT INTO node_variance_data (block_num, height_diff,infura_diff,etherscan_diff,peer_count, node_id) VALUES (?, ?, ?, ?, ?, ?);";
+    // one sample (all nodes, one timestamp) per statement; append one ROW per node
+    public static final String INSERT_INTO_NODE_VARIANCE_DATA_MULTI =
+            "INSERT INTO node_variance_data (block_num, height_diff,infura_diff,etherscan_diff,peer_count, node_id, timestamp) VALUES ";
+    public static final String INSERT_INTO_NODE_VARIANCE_DATA_MULTI_ROW = "(?, ?, ?, ?, ?, ?, ?)";
 
     public static final String SELECT_FROM_ETH_NODE =
             "SELECT id FROM eth_nodes where url = ?;";
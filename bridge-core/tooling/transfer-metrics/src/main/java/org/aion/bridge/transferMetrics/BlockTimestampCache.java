@@ -0,0 +1,114 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.transferMetrics;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+Block timestamps by block number, kept on disk next to the start point so later runs (and overlapping report
+periods) don't fetch the same blocks again. Only finalized blocks are ever cached, so entries never go stale.
+One "<chain> <block number> <timestamp>" line per block; new entries are appended.
+ */
+public class BlockTimestampCache {
+    public enum Chain { ETH, AION }
+
+    private final String path;
+    private final Map<Chain, Map<Long, Long>> timestamps = new HashMap<>();
+
+    private BlockTimestampCache(String path) {
+        this.path = path;
+        for (Chain c : Chain.values())
+            timestamps.put(c, new HashMap<>());
+    }
+
+    public static BlockTimestampCache load(String path) {
+        BlockTimestampCache cache = new BlockTimestampCache(path);
+        File file = new File(path);
+        if (!file.exists())
+            return cache;
+
+        int skipped = 0;
+        try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = r.readLine()) != null) {
+                // a malformed line (e.g. truncated by a crash mid-write) only costs its block a refetch
+                if (!line.trim().isEmpty() && !cache.parseLine(line))
+                    skipped++;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        if (skipped > 0)
+            System.out.println("Skipped " + skipped + " malformed lines in " + path);
+
+        return cache;
+    }
+
+    private boolean parseLine(String line) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length != 3)
+            return false;
+
+        try {
+            Chain chain = Chain.valueOf(fields[0]);
+            long number = Long.parseLong(fields[1]);
+            long timestamp = Long.parseLong(fields[2]);
+            timestamps.get(chain).put(number, timestamp);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public synchronized Long get(Chain chain, long blockNumber) {
+        return timestamps.get(chain).get(blockNumber);
+    }
+
+    public synchronized void putAll(Chain chain, Map<Long, Long> entries) {
+        if (entries.isEmpty())
+            return;
+
+        timestamps.get(chain).putAll(entries);
+
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(new File(path), true))) {
+            for (Map.Entry<Long, Long> e : entries.entrySet()) {
+                w.write(chain.name() + " " + e.getKey() + " " + e.getValue());
+                w.newLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public synchronized int size() {
+        int size = 0;
+        for (Map<Long, Long> m : timestamps.values())
+            size += m.size();
+        return size;
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 
 import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -98,4 +99,53 @@ public class CSVFormatter {
             e.printStackTrace();
         }
     }
+
+    public void writeRecords(List<String> header, List<List<String>> records) {
+        try (
+                BufferedWriter writer = Files.newBufferedWriter(Paths.get(filename), StandardOpenOption.APPEND, StandardOpenOption.CREATE);
+                CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(header.toArray(new String[header.size()])))
+        ) {
+
+            for(List<String> r : records) {
+                csvPrinter.printRecord(r);
+            }
+            csvPrinter.printRecord("");
+
+            csvPrinter.flush();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /*
+    Rows are written as they are computed rather than collected first; close() flushes whatever is buffered.
+     */
+    public RowWriter openRows(List<String> header) throws IOException {
+        return new RowWriter(header);
+    }
+
+    public class RowWriter implements Closeable {
+        private final BufferedWriter writer;
+        private final CSVPrinter csvPrinter;
+
+        private RowWriter(List<String> header) throws IOException {
+            writer = Files.newBufferedWriter(Paths.get(filename), StandardOpenOption.APPEND, StandardOpenOption.CREATE);
+            csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(header.toArray(new String[header.size()])));
+        }
+
+        public void write(TableRow r) {
+            try {
+                csvPrinter.printRecord(r.toTableRow());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            csvPrinter.printRecord("");
+            csvPrinter.close();
+        }
+    }
 }
\ No newline at end of file
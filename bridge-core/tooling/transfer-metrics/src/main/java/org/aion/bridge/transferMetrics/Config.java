@@ -26,6 +26,7 @@ package org.aion.bridge.transferMetrics;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aion.bridge.transferMetrics.latency.LatencyAggregator;
 
 import java.io.File;
 import java.io.IOException;
@@ -99,11 +100,15 @@ public class Config {
     private Eth eth;
     private Aion aion;
     private Smtp smtp;
+    private String latencyPeriod;
 
     public Sql getSql() { return sql; }
     public Eth getEth() { return eth; }
     public Aion getAion() { return aion; }
     public Smtp getSmtp() { return smtp; }
+    public LatencyAggregator.Period getLatencyPeriod() {
+        return latencyPeriod == null ? LatencyAggregator.Period.DAY : LatencyAggregator.Period.valueOf(latencyPeriod.toUpperCase());
+    }
 
     public static Config load(String path) throws IOException {
         ObjectMapper jackson = new ObjectMapper();
@@ -44,6 +44,7 @@ import org.aion.bridge.datastore.DataStore;
 import org.aion.bridge.datastore.DbConnectionManager;
 import org.aion.bridge.datastore.MySqlDatastore;
 import org.aion.bridge.transferMetrics.balance.BurnAddressTokenBalance;
+import org.aion.bridge.transferMetrics.latency.LatencyAggregator;
 import org.aion.bridge.transferMetrics.transfer.TotalCoinsTransferred;
 import org.aion.bridge.transferMetrics.transfer.TransferLatencyCalculator;
 import org.apache.commons.lang3.time.DurationFormatUtils;
@@ -57,10 +58,14 @@ import java.sql.SQLException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import javax.activation.*;
 
 public class Main {
     private static Double totalAmount = 262673279.0;
+    private static final int FETCH_THREADS = 4;
 
     public static void main(String[] args) {
 
@@ -119,7 +124,9 @@ public class Main {
         }
 
         TotalCoinsTransferred coinsTransferred = new TotalCoinsTransferred(dataStore);
-        TransferLatencyCalculator transferLatencyCalculator = new TransferLatencyCalculator(dataStore, ethConnection, aionConnection);
+        BlockTimestampCache timestampCache = BlockTimestampCache.load(startLocation + ".timestamps");
+        ExecutorService executor = Executors.newFixedThreadPool(FETCH_THREADS);
+        TransferLatencyCalculator transferLatencyCalculator = new TransferLatencyCalculator(dataStore, ethConnection, aionConnection, timestampCache, executor);
         long startBundle = StartpointManager.loadStart(startLocation);
         transferLatencyCalculator.setNewStartBundleId(startBundle);
 
@@ -128,51 +135,40 @@ public class Main {
             System.exit(0);
         }
 
+        String latencyLocation = startLocation + ".latency";
+        LatencyAggregator latency = StartpointManager.loadLatency(latencyLocation, startBundle, config.getLatencyPeriod());
+
         try {
             Optional<Long> aionFinalizedBundleId = dataStore.getAionFinalizedBundleId();
-            List<TimedTransfer> timedTransfers = new ArrayList<>();
 
-            if (aionFinalizedBundleId.isPresent() && aionFinalizedBundleId.get() >= startBundle) {
+            // Build CSV
+            CSVFormatter csvFormatter = new CSVFormatter();
 
-                coinCount = coinsTransferred.getTotalTransferValue(0L, aionFinalizedBundleId.get());
-                timedTransfers = transferLatencyCalculator.getTransferLatency(startBundle, aionFinalizedBundleId.get());
-            }
+            List<String> header = new ArrayList<>();
+            header.add("Tx Hash");
+            header.add("Eth Timestamp");
+            header.add("Aion Timestamp");
+            header.add("Total Duration");
+            header.add("Amount");
 
-            List<TableRow> rows = new ArrayList<>();
-            BigDecimal totalTransfer = BigDecimal.ZERO;
-            BigDecimal transferAmount;
-            long sumTransferTimes = 0;
+            // rows go to the console and the CSV as each window of bundles is resolved
+            ReportSink report;
             System.out.format("%-68s%-32s%-32s%-32s%-32s\n", "Tx Hash", "EthTimestamp", "AionTimestamp", "TotalDuration", "Amount");
-            for (TimedTransfer t : timedTransfers) {
-                long duration = t.getAionSealedTimestamp() * 1000 - t.getEthSealedTimestamp() * 1000;
-                sumTransferTimes += duration;
+            try (CSVFormatter.RowWriter rowWriter = csvFormatter.openRows(header)) {
+                report = new ReportSink(rowWriter, TOKEN_TO_COIN_DECIMAL_SHIFT);
 
-                Calendar c1 = Calendar.getInstance();
-                Calendar c2 = Calendar.getInstance();
+                if (aionFinalizedBundleId.isPresent() && aionFinalizedBundleId.get() >= startBundle) {
 
-                c1.setTimeInMillis(t.getEthSealedTimestamp() * 1000);
-                c2.setTimeInMillis(t.getAionSealedTimestamp() * 1000);
-                DateFormat formatter = new SimpleDateFormat("dd/MM/yyyy hh:mm:ss.SSS");
-
-                transferAmount = new BigDecimal(new BigInteger(t.getTransfer().getAionTransferAmount().payload())).divide(TOKEN_TO_COIN_DECIMAL_SHIFT);
-
-                System.out.format("%-68s%-32s%-32s%-32s%-32s\n", t.getTransfer().getEthTxHash(), formatter.format(c1.getTime()),
-                        formatter.format(c2.getTime()),
-                        DurationFormatUtils.formatDuration(duration, "dd:HH:mm:ss:SSS"),
-                        transferAmount.toPlainString());
-
-                rows.add(new TableRow(t.getTransfer().getEthTxHash(),
-                        t.getEthSealedTimestamp(), t.getAionSealedTimestamp(), duration,
-                        transferAmount));
-                totalTransfer = totalTransfer.add(transferAmount);
+                    coinCount = coinsTransferred.getTotalTransferValue(0L, aionFinalizedBundleId.get());
+                    transferLatencyCalculator.getTransferLatency(startBundle, aionFinalizedBundleId.get(), report.andThen(latency));
+                }
+            } finally {
+                executor.shutdownNow();
             }
 
-            // Build CSV
-            CSVFormatter csvFormatter = new CSVFormatter();
-
             //List<String> headerTransfer = new ArrayList<>();
             String headerTransfer = "Transfers during period";
-            csvFormatter.write(headerTransfer, totalTransfer);
+            csvFormatter.write(headerTransfer, report.totalTransfer);
 
             // check for large bundle size
             headerTransfer = "Total Withdraws";
@@ -186,18 +182,16 @@ public class Main {
 
             headerTransfer = "Average Transfer Duration";
             double avgTransferDuration = 0;
-            if (timedTransfers.size() > 0)
-                avgTransferDuration = (double)sumTransferTimes / timedTransfers.size();
+            if (report.count > 0)
+                avgTransferDuration = (double)report.sumTransferTimes / report.count;
             csvFormatter.write(headerTransfer, avgTransferDuration);
 
-
-            List<String> header = new ArrayList<>();
-            header.add("Tx Hash");
-            header.add("Eth Timestamp");
-            header.add("Aion Timestamp");
-            header.add("Total Duration");
-            header.add("Amount");
-            csvFormatter.write(header, rows);
+            List<List<String>> latencyReport = latency.report();
+            System.out.println();
+            System.out.format("%-20s%-12s%-16s%-16s%-16s%-16s\n", LatencyAggregator.reportHeader().toArray());
+            for (List<String> r : latencyReport)
+                System.out.format("%-20s%-12s%-16s%-16s%-16s%-16s\n", r.toArray());
+            csvFormatter.writeRecords(LatencyAggregator.reportHeader(), latencyReport);
 
             String filename = csvFormatter.getFilename();
 
@@ -257,6 +251,7 @@ public class Main {
 
                 Transport.send(message);
 
+                StartpointManager.updateLatency(latency, transferLatencyCalculator.getNewStartBundleId(), latencyLocation);
                 StartpointManager.updateStart(transferLatencyCalculator.getNewStartBundleId(), startLocation);
             } catch (AddressException e) {
                 e.printStackTrace();
@@ -266,18 +261,57 @@ public class Main {
 
             connectionManager.closeAllConnections();
 
-        } catch (QuorumNotAvailableException e) {
+        } catch (QuorumNotAvailableException | MalformedApiResponseException | IncompleteApiCallException e) {
+            // block timestamps still missing after every retry; the start point is left where it was
             e.printStackTrace();
-        } catch (MalformedApiResponseException e) {
+            System.exit(-2);
+        } catch (IOException e) {
             e.printStackTrace();
         } catch (PersistenceServiceException e) {
             e.printStackTrace();
-        } catch (IncompleteApiCallException e) {
-            e.printStackTrace();
         } catch (InterruptedException e) {
             e.printStackTrace();
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
+
+    private static class ReportSink implements Consumer<TimedTransfer> {
+        private final CSVFormatter.RowWriter rowWriter;
+        private final BigDecimal decimalShift;
+        private final DateFormat formatter = new SimpleDateFormat("dd/MM/yyyy hh:mm:ss.SSS");
+        private final Calendar c1 = Calendar.getInstance();
+        private final Calendar c2 = Calendar.getInstance();
+
+        private BigDecimal totalTransfer = BigDecimal.ZERO;
+        private long sumTransferTimes = 0;
+        private long count = 0;
+
+        private ReportSink(CSVFormatter.RowWriter rowWriter, BigDecimal decimalShift) {
+            this.rowWriter = rowWriter;
+            this.decimalShift = decimalShift;
+        }
+
+        @Override
+        public void accept(TimedTransfer t) {
+            long duration = t.getAionSealedTimestamp() * 1000 - t.getEthSealedTimestamp() * 1000;
+            sumTransferTimes += duration;
+            count++;
+
+            c1.setTimeInMillis(t.getEthSealedTimestamp() * 1000);
+            c2.setTimeInMillis(t.getAionSealedTimestamp() * 1000);
+
+            BigDecimal transferAmount = new BigDecimal(new BigInteger(t.getTransfer().getAionTransferAmount().payload())).divide(decimalShift);
+
+            System.out.format("%-68s%-32s%-32s%-32s%-32s\n", t.getTransfer().getEthTxHash(), formatter.format(c1.getTime()),
+                    formatter.format(c2.getTime()),
+                    DurationFormatUtils.formatDuration(duration, "dd:HH:mm:ss:SSS"),
+                    transferAmount.toPlainString());
+
+            rowWriter.write(new TableRow(t.getTransfer().getEthTxHash(),
+                    t.getEthSealedTimestamp(), t.getAionSealedTimestamp(), duration,
+                    transferAmount));
+            totalTransfer = totalTransfer.add(transferAmount);
+        }
+    }
 }
\ No newline at end of file
@@ -24,11 +24,17 @@
 
 package org.aion.bridge.transferMetrics;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
-import java.io.IOException;
+import org.aion.bridge.transferMetrics.latency.LatencyAggregator;
+import org.aion.bridge.transferMetrics.latency.LatencyHistogram;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 
 public class StartpointManager {
     private StartpointManager() {
@@ -63,4 +69,58 @@ public class StartpointManager {
             e.printStackTrace();
         }
     }
+
+    /*
+    Latency histograms carried over from previous runs. The file records the start bundle it was saved for; if that
+    is not the current start point (start point edited by hand, or the last run died between the two updates) the
+    histograms are dropped rather than risk counting the same bundles twice.
+     */
+    public static LatencyAggregator loadLatency(String path, long startBundle, LatencyAggregator.Period period) {
+        File file = new File(path);
+        if (!file.exists())
+            return new LatencyAggregator(period);
+
+        Map<Long, LatencyHistogram> buckets = new TreeMap<>();
+        try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+            String[] header = r.readLine().split(" ");
+            if (Long.parseLong(header[0]) != startBundle || LatencyAggregator.Period.valueOf(header[1]) != period) {
+                System.out.println("Latency histograms in " + path + " do not match start point " + startBundle +
+                        " / period " + period + "; starting over");
+                return new LatencyAggregator(period);
+            }
+
+            String line;
+            while ((line = r.readLine()) != null) {
+                int sep = line.indexOf(' ');
+                buckets.put(Long.parseLong(line.substring(0, sep)), LatencyHistogram.decode(line.substring(sep + 1)));
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            return new LatencyAggregator(period);
+        }
+
+        return new LatencyAggregator(period, buckets);
+    }
+
+    public static void updateLatency(LatencyAggregator aggregator, long newStart, String path) {
+        Path target = Paths.get(path);
+        Path tmp = Paths.get(path + ".tmp");
+        try (BufferedWriter w = Files.newBufferedWriter(tmp)) {
+            w.write(newStart + " " + aggregator.getPeriod().name());
+            w.newLine();
+            for (Map.Entry<Long, LatencyHistogram> e : aggregator.getBuckets().entrySet()) {
+                w.write(e.getKey() + " " + e.getValue().encode());
+                w.newLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.transferMetrics.latency;
+
+import org.aion.bridge.transferMetrics.TimedTransfer;
+import org.apache.commons.lang3.time.DurationFormatUtils;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Consumer;
+
+/*
+Eth-to-Aion latency histograms (in seconds) per period, keyed by the start of the period the Eth transaction was
+sealed in (UTC). The transfer count of a period's histogram doubles as its throughput. Fed as transfers stream out
+of the datastore; the histograms are carried over between runs by the StartpointManager, so each run only has to
+process the bundles that are new since the last one.
+ */
+public class LatencyAggregator implements Consumer<TimedTransfer> {
+    public enum Period {
+        HOUR(3600, "yyyy-MM-dd HH:00"),
+        DAY(86400, "yyyy-MM-dd");
+
+        private final long seconds;
+        private final DateTimeFormatter format;
+
+        Period(long seconds, String pattern) {
+            this.seconds = seconds;
+            this.format = DateTimeFormatter.ofPattern(pattern).withZone(ZoneOffset.UTC);
+        }
+
+        public long bucketOf(long timestamp) {
+            return timestamp - Math.floorMod(timestamp, seconds);
+        }
+
+        public String format(long bucket) {
+            return format.format(Instant.ofEpochSecond(bucket));
+        }
+    }
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final Period period;
+    private final TreeMap<Long, LatencyHistogram> buckets;
+    private final Set<Long> updated = new TreeSet<>();
+
+    public LatencyAggregator(Period period) {
+        this(period, new TreeMap<>());
+    }
+
+    public LatencyAggregator(Period period, Map<Long, LatencyHistogram> buckets) {
+        this.period = period;
+        this.buckets = new TreeMap<>(buckets);
+    }
+
+    @Override
+    public void accept(TimedTransfer t) {
+        long bucket = period.bucketOf(t.getEthSealedTimestamp());
+        buckets.computeIfAbsent(bucket, k -> new LatencyHistogram())
+                .record(t.getAionSealedTimestamp() - t.getEthSealedTimestamp());
+        updated.add(bucket);
+    }
+
+    public Period getPeriod() {
+        return period;
+    }
+
+    public Map<Long, LatencyHistogram> getBuckets() {
+        return Collections.unmodifiableMap(buckets);
+    }
+
+    public static List<String> reportHeader() {
+        List<String> header = new ArrayList<>();
+        header.add("Period");
+        header.add("Transfers");
+        for (double p : PERCENTILES)
+            header.add("p" + (int) p);
+        header.add("Max");
+        return header;
+    }
+
+    /*
+    One row per period that received transfers in this run, followed by an all-time row
+     */
+    public List<List<String>> report() {
+        List<List<String>> rows = new ArrayList<>();
+        LatencyHistogram allTime = new LatencyHistogram();
+
+        for (Map.Entry<Long, LatencyHistogram> e : buckets.entrySet()) {
+            if (updated.contains(e.getKey()))
+                rows.add(reportRow(period.format(e.getKey()), e.getValue()));
+            allTime.add(e.getValue());
+        }
+
+        rows.add(reportRow("All time", allTime));
+        return rows;
+    }
+
+    private static List<String> reportRow(String label, LatencyHistogram h) {
+        List<String> row = new ArrayList<>();
+        row.add(label);
+        row.add(Long.toString(h.getTotalCount()));
+        for (double p : PERCENTILES)
+            row.add(formatSeconds(h.getValueAtPercentile(p)));
+        row.add(formatSeconds(h.getMax()));
+        return row;
+    }
+
+    private static String formatSeconds(long seconds) {
+        return DurationFormatUtils.formatDuration(seconds * 1000, "dd:HH:mm:ss");
+    }
+}
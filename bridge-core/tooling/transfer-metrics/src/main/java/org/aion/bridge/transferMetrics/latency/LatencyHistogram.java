@@ -0,0 +1,141 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package org.aion.bridge.transferMetrics.latency;
+
+import java.util.Arrays;
+
+/*
+Log-linear histogram in the style of HdrHistogram: values below 128 get a bucket each, above that every power of
+two is split into 64 equal buckets, so any recorded value is known to within ~1.6%. Memory stays at a few KB no
+matter how many values are recorded, and histograms for different periods can simply be added together.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    private long[] counts = new long[SUB_BUCKET_COUNT];
+    private long totalCount = 0;
+    private long max = 0;
+
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        int idx = indexOf(v);
+        if (idx >= counts.length)
+            counts = Arrays.copyOf(counts, idx + SUB_BUCKET_HALF);
+
+        counts[idx]++;
+        totalCount++;
+        max = Math.max(max, v);
+    }
+
+    public void add(LatencyHistogram other) {
+        if (other.counts.length > counts.length)
+            counts = Arrays.copyOf(counts, other.counts.length);
+
+        for (int i = 0; i < other.counts.length; i++)
+            counts[i] += other.counts[i];
+
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /*
+    Highest value equivalent to the one at the given percentile (0 - 100), capped at the largest value recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(highestValueAt(i), max);
+        }
+
+        return max;
+    }
+
+    /*
+    Sparse "index:count,index:count,..." form, used to persist histograms between runs
+     */
+    public String encode() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(max);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            sb.append(',').append(i).append(':').append(counts[i]);
+        }
+        return sb.toString();
+    }
+
+    public static LatencyHistogram decode(String encoded) {
+        LatencyHistogram h = new LatencyHistogram();
+        String[] parts = encoded.split(",");
+        h.max = Long.parseLong(parts[0]);
+
+        for (int i = 1; i < parts.length; i++) {
+            int sep = parts[i].indexOf(':');
+            int idx = Integer.parseInt(parts[i].substring(0, sep));
+            long count = Long.parseLong(parts[i].substring(sep + 1));
+
+            if (idx >= h.counts.length)
+                h.counts = Arrays.copyOf(h.counts, idx + SUB_BUCKET_HALF);
+            h.counts[idx] += count;
+            h.totalCount += count;
+        }
+
+        return h;
+    }
+
+    private static int indexOf(long v) {
+        if (v < SUB_BUCKET_COUNT)
+            return (int) v;
+
+        int shift = (63 - Long.numberOfLeadingZeros(v)) - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (v >> shift);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (sub - SUB_BUCKET_HALF);
+    }
+
+    private static long highestValueAt(int idx) {
+        if (idx < SUB_BUCKET_COUNT)
+            return idx;
+
+        int k = idx - SUB_BUCKET_COUNT;
+        int shift = k / SUB_BUCKET_HALF + 1;
+        long sub = k % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -32,6 +32,8 @@ import org.aion.bridge.chain.base.api.IncompleteApiCallException;
 import org.aion.bridge.chain.base.api.MalformedApiResponseException;
 import org.aion.bridge.chain.base.api.QuorumNotAvailableException;
 import org.aion.bridge.chain.base.api.StatelessChainConnection;
+import org.aion.bridge.chain.base.api.StatelessChainConnectionBase;
+import org.aion.bridge.chain.base.types.Block;
 import org.aion.bridge.chain.bridge.AionFinalizedBundle;
 import org.aion.bridge.chain.bridge.PersistentBundle;
 import org.aion.bridge.chain.bridge.Transfer;
@@ -41,22 +43,29 @@ import org.aion.bridge.chain.eth.types.EthBlock;
 import org.aion.bridge.chain.eth.types.EthLog;
 import org.aion.bridge.chain.eth.types.EthReceipt;
 import org.aion.bridge.datastore.DataStore;
+import org.aion.bridge.datastore.RangeCursor;
+import org.aion.bridge.transferMetrics.BlockTimestampCache;
 import org.aion.bridge.transferMetrics.TimedTransfer;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 public class TransferLatencyCalculator {
 
     private DataStore dataStore;
     private StatelessChainConnection<EthBlock, EthReceipt, EthLog, EthAddress> ethConnection;
     private StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> aionConnection;
+    private BlockTimestampCache timestampCache;
+    private ExecutorService executor;
     private final int AION_FINALIZATION = 90;
     private static final int maxmumRetry = 10;
 
+    // bundles are resolved a window at a time: block numbers are de-duplicated within the window and the ones
+    // not in the cache are fetched in batches, Eth and Aion side by side
+    private static final int BUNDLE_WINDOW = 1000;
+    private static final int BLOCK_BATCH_SIZE = 100;
+
     public void setNewStartBundleId(Long newStartBundleId) {
         this.newStartBundleId = newStartBundleId;
     }
@@ -71,76 +80,174 @@ public class TransferLatencyCalculator {
 
     public TransferLatencyCalculator(DataStore dataStore,
                                      StatelessChainConnection<EthBlock, EthReceipt, EthLog, EthAddress> ethConnection,
-                                     StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> aionConnection) {
+                                     StatelessChainConnection<AionBlock, AionReceipt, AionLog, AionAddress> aionConnection,
+                                     BlockTimestampCache timestampCache,
+                                     ExecutorService executor) {
         this.dataStore = dataStore;
         this.ethConnection = ethConnection;
         this.aionConnection = aionConnection;
+        this.timestampCache = timestampCache;
+        this.executor = executor;
     }
 
-    public List<TimedTransfer> getTransferLatency(Long startBundle, Long aionFinalizedBundleId) throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException, PersistenceServiceException {
-        List<TimedTransfer> timedTransfers = new ArrayList<>();
+    /**
+     * Hands every transfer in [startBundle, aionFinalizedBundleId] to {@code sink} in bundle order, as soon as the
+     * window it belongs to has its timestamps. A block batch that still fails after maxmumRetry attempts ends the run
+     * with that batch's exception.
+     */
+    public void getTransferLatency(Long startBundle, Long aionFinalizedBundleId, Consumer<TimedTransfer> sink) throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException, PersistenceServiceException {
+        List<PendingBundle> window = new ArrayList<>();
+
+        // streamed side by side; both tables are keyed by bundle id, so the cursors stay aligned
+        try (RangeCursor<PersistentBundle> ethFinalizedBundles = dataStore.openBundleRangeClosed(startBundle, aionFinalizedBundleId);
+             RangeCursor<AionFinalizedBundle> aionFinalizedBundles = dataStore.openAionTxHashRangeClosed(startBundle, aionFinalizedBundleId)) {
+
+            Optional<PersistentBundle> ethFinalized;
+            while ((ethFinalized = ethFinalizedBundles.next()).isPresent()) {
+                Optional<AionFinalizedBundle> aionFinalized = aionFinalizedBundles.next();
+
+                if (!aionFinalized.isPresent() || ethFinalized.get().getBundleId() != aionFinalized.get().getBundleId()) {
+                    System.out.println("Inconsistent DB state");
+                    System.exit(-1);
+                }
 
-        Optional<List<PersistentBundle>> bundleListOpt = dataStore.getBundleRangeClosed(startBundle, aionFinalizedBundleId);
-        Optional<List<AionFinalizedBundle>> aionFinalizedOpt = dataStore.getAionTxHashRangeClosed(startBundle, aionFinalizedBundleId);
+                // This block must exist as the bundle is present in the finalization table.
+                window.add(new PendingBundle(ethFinalized.get(), aionFinalized.get().getAionBlockNumber() + AION_FINALIZATION));
 
-        if (!bundleListOpt.isPresent() || !aionFinalizedOpt.isPresent()) {
-            System.out.println("Inconsistent DB state");
-            System.exit(0);
+                if (window.size() >= BUNDLE_WINDOW) {
+                    emit(window, sink);
+                    window.clear();
+                }
+            }
+
+            emit(window, sink);
         }
+    }
 
-        List<PersistentBundle> ethFinalizedBundles = bundleListOpt.get();
-        List<AionFinalizedBundle> aionFinalizedBundles = aionFinalizedOpt.get();
+    private void emit(List<PendingBundle> window, Consumer<TimedTransfer> sink) throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException {
+        if (window.isEmpty())
+            return;
 
-        Collections.sort(ethFinalizedBundles);
-        Collections.sort(aionFinalizedBundles);
+        Set<Long> ethBlocks = new TreeSet<>();
+        Set<Long> aionBlocks = new TreeSet<>();
+        for (PendingBundle p : window) {
+            ethBlocks.add(p.bundle.getBundle().getEthBlockNumber());
+            aionBlocks.add(p.aionBlockNumber);
+        }
 
+        List<Future<Map<Long, Long>>> ethFetches = fetchTimestamps(ethConnection, BlockTimestampCache.Chain.ETH, ethBlocks);
+        List<Future<Map<Long, Long>>> aionFetches = fetchTimestamps(aionConnection, BlockTimestampCache.Chain.AION, aionBlocks);
+
+        Map<Long, Long> ethTimestamps;
+        Map<Long, Long> aionTimestamps;
+        try {
+            ethTimestamps = collect(BlockTimestampCache.Chain.ETH, ethBlocks, ethFetches);
+            aionTimestamps = collect(BlockTimestampCache.Chain.AION, aionBlocks, aionFetches);
+        } finally {
+            // after a failed batch, stop whatever is still fetching (no-op for completed batches)
+            for (Future<Map<Long, Long>> f : ethFetches) f.cancel(true);
+            for (Future<Map<Long, Long>> f : aionFetches) f.cancel(true);
+        }
 
-        // Grabbed bundles from the DB
-        for (int i = 0; i < ethFinalizedBundles.size(); i++) {
-            // Grab first transfer in the bundle and get timestamp
-            // Timestamp will be the same for all transfers since they are all in a single block
+        // Timestamp will be the same for all transfers since they are all in a single block
+        for (PendingBundle p : window) {
+            long ethTimestamp = ethTimestamps.get(p.bundle.getBundle().getEthBlockNumber());
+            long aionTimestamp = aionTimestamps.get(p.aionBlockNumber);
 
-            if (ethFinalizedBundles.get(i).getBundleId() != aionFinalizedBundles.get(i).getBundleId()) {
-                System.out.println("Inconsistent DB state");
-                System.exit(-1);
+            for (Transfer t : p.bundle.getBundle().getTransfers()) {
+                sink.accept(new TimedTransfer(t, ethTimestamp, aionTimestamp));
             }
 
-            int numRequest = 0;
+            newStartBundleId = p.bundle.getBundleId() + 1;
+        }
+    }
 
-            while(numRequest < maxmumRetry) {
+    // one task per batch of uncached block numbers
+    private <B extends Block> List<Future<Map<Long, Long>>> fetchTimestamps(StatelessChainConnectionBase<B, ?, ?, ?> connection,
+                                                                           BlockTimestampCache.Chain chain,
+                                                                           Set<Long> blockNumbers) {
+        List<Long> missing = new ArrayList<>();
+        for (Long n : blockNumbers) {
+            if (timestampCache.get(chain, n) == null)
+                missing.add(n);
+        }
 
-                Optional<EthBlock> ethRequest = ethConnection.getBlock(ethFinalizedBundles.get(i).getBundle().getEthBlockNumber());
+        List<Future<Map<Long, Long>>> fetches = new ArrayList<>();
+        for (int i = 0; i < missing.size(); i += BLOCK_BATCH_SIZE) {
+            List<Long> batch = missing.subList(i, Math.min(i + BLOCK_BATCH_SIZE, missing.size()));
+            fetches.add(executor.submit(() -> fetchBatch(connection, chain, batch)));
+        }
 
-                // This block must exist as the bundle is present in the finalization table.
-                Optional<AionBlock> aionRequest = aionConnection.getBlock(aionFinalizedBundles.get(i).getAionBlockNumber() + AION_FINALIZATION);
-
-                if (ethRequest.isPresent() && aionRequest.isPresent()) {
-                    for (Transfer t : ethFinalizedBundles.get(i).getBundle().getTransfers()) {
-                        timedTransfers.add(new TimedTransfer(t, ethRequest.get().getTimestamp(), aionRequest.get().getTimestamp()));
-                    }
-
-                    break;
-                } else {
-                    if(!aionRequest.isPresent()) {
-                        System.out.println("Unable to retrieve aion block: " + aionFinalizedBundles.get(i).getAionBlockNumber() + AION_FINALIZATION );
-                    } else {
-                        System.out.println("Unable to retrieve eth block: " + ethFinalizedBundles.get(i).getBundle().getEthBlockNumber() );
-                    }
+        return fetches;
+    }
+
+    private <B extends Block> Map<Long, Long> fetchBatch(StatelessChainConnectionBase<B, ?, ?, ?> connection,
+                                                        BlockTimestampCache.Chain chain,
+                                                        List<Long> batch)
+            throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException {
+        int numRequest = 0;
+        Exception last = null;
+
+        while (numRequest < maxmumRetry) {
+            try {
+                Map<Long, Long> timestamps = new HashMap<>();
+                for (B b : connection.getBlocks(batch))
+                    timestamps.put(b.getNumber(), b.getTimestamp());
+
+                timestampCache.putAll(chain, timestamps);
+                return timestamps;
+            } catch (MalformedApiResponseException | IncompleteApiCallException | QuorumNotAvailableException e) {
+                System.out.println("Unable to retrieve " + chain.name().toLowerCase() + " blocks " +
+                        batch.get(0) + " - " + batch.get(batch.size() - 1) + ": " + e.getMessage());
+                last = e;
+                numRequest++;
+                if (numRequest < maxmumRetry)
                     TimeUnit.SECONDS.sleep(30);
-                    numRequest++;
-                }
             }
+        }
 
-            if(numRequest >= maxmumRetry) {
-                System.out.println("Unable to retrieve transfer data; max retry reached");
-                System.exit(-2);
-            }
+        System.out.println("Unable to retrieve transfer data; max retry reached");
+        throw rethrow(last);
+    }
+
+    private Map<Long, Long> collect(BlockTimestampCache.Chain chain, Set<Long> blockNumbers, List<Future<Map<Long, Long>>> fetches)
+            throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException {
+        Map<Long, Long> timestamps = new HashMap<>();
 
+        for (Future<Map<Long, Long>> f : fetches) {
+            try {
+                timestamps.putAll(f.get());
+            } catch (ExecutionException e) {
+                throw rethrow(e.getCause());
+            }
         }
 
-        newStartBundleId = ethFinalizedBundles.get(ethFinalizedBundles.size() - 1).getBundleId() + 1;
+        for (Long n : blockNumbers)
+            timestamps.computeIfAbsent(n, k -> timestampCache.get(chain, k));
+
+        return timestamps;
+    }
 
-        return timedTransfers;
+    // the fetch tasks only fail with these (see fetchBatch); anything else is a bug
+    private static RuntimeException rethrow(Throwable t)
+            throws MalformedApiResponseException, IncompleteApiCallException, InterruptedException, QuorumNotAvailableException {
+        if (t instanceof MalformedApiResponseException) throw (MalformedApiResponseException) t;
+        if (t instanceof IncompleteApiCallException) throw (IncompleteApiCallException) t;
+        if (t instanceof QuorumNotAvailableException) throw (QuorumNotAvailableException) t;
+        if (t instanceof InterruptedException) throw (InterruptedException) t;
+        if (t instanceof RuntimeException) throw (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new IllegalStateException(t);
+    }
+
+    private static class PendingBundle {
+        private final PersistentBundle bundle;
+        private final long aionBlockNumber;
+
+        private PendingBundle(PersistentBundle bundle, long aionBlockNumber) {
+            this.bundle = bundle;
+            this.aionBlockNumber = aionBlockNumber;
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -64,6 +64,22 @@ func (s *EnclaveService) Sign(ctx context.Context, in *pb.SignRequest) (*pb.Sign
 	return &pb.SignedResponse{SignedData: res}, nil
 }
 
+func (s *EnclaveService) SignBatch(ctx context.Context, in *pb.SignBatchRequest) (*pb.SignedBatchResponse, error) {
+	var err error
+	var res [][]byte
+	if mode == 0 {
+		res, err = (libSodiumSigner).SignBatch(in.Data)
+	} else {
+		res, err = (ledgerSigner).SignBatch(in.Data, ledger)
+	}
+	if err != nil {
+		log.Printf("error occurred while signing batch: %v\n", err)
+		return &pb.SignedBatchResponse{SignedData: [][]byte{}}, err
+	}
+	log.Printf("Sign batch success (%d payloads).\n", len(res))
+	return &pb.SignedBatchResponse{SignedData: res}, nil
+}
+
 var libSodiumSigner = &Signer.LibSodiumSigner{}
 var ledgerSigner = &Signer.LedgerSigner{}
 
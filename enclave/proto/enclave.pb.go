@@ -34,7 +34,7 @@ func (m *SignRequest) Reset()         { *m = SignRequest{} }
 func (m *SignRequest) String() string { return proto.CompactTextString(m) }
 func (*SignRequest) ProtoMessage()    {}
 func (*SignRequest) Descriptor() ([]byte, []int) {
-	return fileDescriptor_enclave_3cfe0df37f2c9009, []int{0}
+	return fileDescriptor_enclave_6a5416024aa75740, []int{0}
 }
 func (m *SignRequest) XXX_Unmarshal(b []byte) error {
 	return xxx_messageInfo_SignRequest.Unmarshal(m, b)
@@ -72,7 +72,7 @@ func (m *SignedResponse) Reset()         { *m = SignedResponse{} }
 func (m *SignedResponse) String() string { return proto.CompactTextString(m) }
 func (*SignedResponse) ProtoMessage()    {}
 func (*SignedResponse) Descriptor() ([]byte, []int) {
-	return fileDescriptor_enclave_3cfe0df37f2c9009, []int{1}
+	return fileDescriptor_enclave_6a5416024aa75740, []int{1}
 }
 func (m *SignedResponse) XXX_Unmarshal(b []byte) error {
 	return xxx_messageInfo_SignedResponse.Unmarshal(m, b)
@@ -99,9 +99,87 @@ func (m *SignedResponse) GetSignedData() []byte {
 	return nil
 }
 
+type SignBatchRequest struct {
+	Data                 [][]byte `protobuf:"bytes,1,rep,name=data,proto3" json:"data,omitempty"`
+	XXX_NoUnkeyedLiteral struct{} `json:"-"`
+	XXX_unrecognized     []byte   `json:"-"`
+	XXX_sizecache        int32    `json:"-"`
+}
+
+func (m *SignBatchRequest) Reset()         { *m = SignBatchRequest{} }
+func (m *SignBatchRequest) String() string { return proto.CompactTextString(m) }
+func (*SignBatchRequest) ProtoMessage()    {}
+func (*SignBatchRequest) Descriptor() ([]byte, []int) {
+	return fileDescriptor_enclave_6a5416024aa75740, []int{2}
+}
+func (m *SignBatchRequest) XXX_Unmarshal(b []byte) error {
+	return xxx_messageInfo_SignBatchRequest.Unmarshal(m, b)
+}
+func (m *SignBatchRequest) XXX_Marshal(b []byte, deterministic bool) ([]byte, error) {
+	return xxx_messageInfo_SignBatchRequest.Marshal(b, m, deterministic)
+}
+func (dst *SignBatchRequest) XXX_Merge(src proto.Message) {
+	xxx_messageInfo_SignBatchRequest.Merge(dst, src)
+}
+func (m *SignBatchRequest) XXX_Size() int {
+	return xxx_messageInfo_SignBatchRequest.Size(m)
+}
+func (m *SignBatchRequest) XXX_DiscardUnknown() {
+	xxx_messageInfo_SignBatchRequest.DiscardUnknown(m)
+}
+
+var xxx_messageInfo_SignBatchRequest proto.InternalMessageInfo
+
+func (m *SignBatchRequest) GetData() [][]byte {
+	if m != nil {
+		return m.Data
+	}
+	return nil
+}
+
+type SignedBatchResponse struct {
+	SignedData           [][]byte `protobuf:"bytes,1,rep,name=signedData,proto3" json:"signedData,omitempty"`
+	XXX_NoUnkeyedLiteral struct{} `json:"-"`
+	XXX_unrecognized     []byte   `json:"-"`
+	XXX_sizecache        int32    `json:"-"`
+}
+
+func (m *SignedBatchResponse) Reset()         { *m = SignedBatchResponse{} }
+func (m *SignedBatchResponse) String() string { return proto.CompactTextString(m) }
+func (*SignedBatchResponse) ProtoMessage()    {}
+func (*SignedBatchResponse) Descriptor() ([]byte, []int) {
+	return fileDescriptor_enclave_6a5416024aa75740, []int{3}
+}
+func (m *SignedBatchResponse) XXX_Unmarshal(b []byte) error {
+	return xxx_messageInfo_SignedBatchResponse.Unmarshal(m, b)
+}
+func (m *SignedBatchResponse) XXX_Marshal(b []byte, deterministic bool) ([]byte, error) {
+	return xxx_messageInfo_SignedBatchResponse.Marshal(b, m, deterministic)
+}
+func (dst *SignedBatchResponse) XXX_Merge(src proto.Message) {
+	xxx_messageInfo_SignedBatchResponse.Merge(dst, src)
+}
+func (m *SignedBatchResponse) XXX_Size() int {
+	return xxx_messageInfo_SignedBatchResponse.Size(m)
+}
+func (m *SignedBatchResponse) XXX_DiscardUnknown() {
+	xxx_messageInfo_SignedBatchResponse.DiscardUnknown(m)
+}
+
+var xxx_messageInfo_SignedBatchResponse proto.InternalMessageInfo
+
+func (m *SignedBatchResponse) GetSignedData() [][]byte {
+	if m != nil {
+		return m.SignedData
+	}
+	return nil
+}
+
 func init() {
 	proto.RegisterType((*SignRequest)(nil), "SignRequest")
 	proto.RegisterType((*SignedResponse)(nil), "SignedResponse")
+	proto.RegisterType((*SignBatchRequest)(nil), "SignBatchRequest")
+	proto.RegisterType((*SignedBatchResponse)(nil), "SignedBatchResponse")
 }
 
 // Reference imports to suppress errors if they are not otherwise used.
@@ -117,6 +195,7 @@ const _ = grpc.SupportPackageIsVersion4
 // For semantics around ctx use and closing/ending streaming RPCs, please refer to https://godoc.org/google.golang.org/grpc#ClientConn.NewStream.
 type EnclaveServiceClient interface {
 	Sign(ctx context.Context, in *SignRequest, opts ...grpc.CallOption) (*SignedResponse, error)
+	SignBatch(ctx context.Context, in *SignBatchRequest, opts ...grpc.CallOption) (*SignedBatchResponse, error)
 }
 
 type enclaveServiceClient struct {
@@ -136,9 +215,19 @@ func (c *enclaveServiceClient) Sign(ctx context.Context, in *SignRequest, opts .
 	return out, nil
 }
 
+func (c *enclaveServiceClient) SignBatch(ctx context.Context, in *SignBatchRequest, opts ...grpc.CallOption) (*SignedBatchResponse, error) {
+	out := new(SignedBatchResponse)
+	err := c.cc.Invoke(ctx, "/EnclaveService/signBatch", in, out, opts...)
+	if err != nil {
+		return nil, err
+	}
+	return out, nil
+}
+
 // EnclaveServiceServer is the server API for EnclaveService service.
 type EnclaveServiceServer interface {
 	Sign(context.Context, *SignRequest) (*SignedResponse, error)
+	SignBatch(context.Context, *SignBatchRequest) (*SignedBatchResponse, error)
 }
 
 func RegisterEnclaveServiceServer(s *grpc.Server, srv EnclaveServiceServer) {
@@ -163,6 +252,24 @@ func _EnclaveService_Sign_Handler(srv interface{}, ctx context.Context, dec func
 	return interceptor(ctx, in, info, handler)
 }
 
+func _EnclaveService_SignBatch_Handler(srv interface{}, ctx context.Context, dec func(interface{}) error, interceptor grpc.UnaryServerInterceptor) (interface{}, error) {
+	in := new(SignBatchRequest)
+	if err := dec(in); err != nil {
+		return nil, err
+	}
+	if interceptor == nil {
+		return srv.(EnclaveServiceServer).SignBatch(ctx, in)
+	}
+	info := &grpc.UnaryServerInfo{
+		Server:     srv,
+		FullMethod: "/EnclaveService/SignBatch",
+	}
+	handler := func(ctx context.Context, req interface{}) (interface{}, error) {
+		return srv.(EnclaveServiceServer).SignBatch(ctx, req.(*SignBatchRequest))
+	}
+	return interceptor(ctx, in, info, handler)
+}
+
 var _EnclaveService_serviceDesc = grpc.ServiceDesc{
 	ServiceName: "EnclaveService",
 	HandlerType: (*EnclaveServiceServer)(nil),
@@ -171,24 +278,31 @@ var _EnclaveService_serviceDesc = grpc.ServiceDesc{
 			MethodName: "sign",
 			Handler:    _EnclaveService_Sign_Handler,
 		},
+		{
+			MethodName: "signBatch",
+			Handler:    _EnclaveService_SignBatch_Handler,
+		},
 	},
 	Streams:  []grpc.StreamDesc{},
 	Metadata: "enclave.proto",
 }
 
-func init() { proto.RegisterFile("enclave.proto", fileDescriptor_enclave_3cfe0df37f2c9009) }
-
-var fileDescriptor_enclave_3cfe0df37f2c9009 = []byte{
-	// 174 bytes of a gzipped FileDescriptorProto
-	0x1f, 0x8b, 0x08, 0x00, 0x00, 0x00, 0x00, 0x00, 0x02, 0xff, 0xe2, 0xe2, 0x4d, 0xcd, 0x4b, 0xce,
-	0x49, 0x2c, 0x4b, 0xd5, 0x2b, 0x28, 0xca, 0x2f, 0xc9, 0x57, 0x52, 0xe4, 0xe2, 0x0e, 0xce, 0x4c,
-	0xcf, 0x0b, 0x4a, 0x2d, 0x2c, 0x4d, 0x2d, 0x2e, 0x11, 0x12, 0xe2, 0x62, 0x49, 0x49, 0x2c, 0x49,
-	0x94, 0x60, 0x54, 0x60, 0xd4, 0xe0, 0x09, 0x02, 0xb3, 0x95, 0x0c, 0xb8, 0xf8, 0x40, 0x4a, 0x52,
-	0x53, 0x82, 0x52, 0x8b, 0x0b, 0xf2, 0xf3, 0x8a, 0x53, 0x85, 0xe4, 0xb8, 0xb8, 0x8a, 0xc1, 0x22,
-	0x2e, 0x08, 0xb5, 0x48, 0x22, 0x46, 0x96, 0x5c, 0x7c, 0xae, 0x10, 0x5b, 0x82, 0x53, 0x8b, 0xca,
-	0x32, 0x93, 0x53, 0x85, 0xd4, 0xb9, 0x58, 0x40, 0xf2, 0x42, 0x3c, 0x7a, 0x48, 0xb6, 0x49, 0xf1,
-	0xeb, 0xa1, 0x1a, 0xac, 0xc4, 0xe0, 0x64, 0xc4, 0x25, 0x93, 0x5f, 0x94, 0xae, 0x97, 0x98, 0x99,
-	0x9f, 0xa7, 0x97, 0x54, 0x94, 0x99, 0x92, 0x9e, 0xaa, 0x97, 0x5e, 0x54, 0x90, 0xac, 0x07, 0x75,
-	0xb5, 0x13, 0x3b, 0xd4, 0xe0, 0x00, 0xc6, 0x28, 0x76, 0xa8, 0x58, 0x12, 0x1b, 0xd8, 0x2b, 0xc6,
-	0x80, 0x00, 0x00, 0x00, 0xff, 0xff, 0x7a, 0x1f, 0xdd, 0xcf, 0xdb, 0x00, 0x00, 0x00,
+func init() { proto.RegisterFile("enclave.proto", fileDescriptor_enclave_6a5416024aa75740) }
+
+var fileDescriptor_enclave_6a5416024aa75740 = []byte{
+	// 215 bytes of a gzipped FileDescriptorProto
+	0x1f, 0x8b, 0x08, 0x00, 0x00, 0x00, 0x00, 0x00, 0x02, 0xff, 0x75, 0x90, 0x4d, 0x0f, 0xc1, 0x40,
+	0x10, 0x86, 0x35, 0x1a, 0x62, 0x50, 0x2c, 0x07, 0x11, 0x11, 0xf6, 0x80, 0xd3, 0x44, 0x08, 0x3f,
+	0xa0, 0xe1, 0x2e, 0x75, 0x73, 0x5b, 0xed, 0xa4, 0x9a, 0x48, 0xb7, 0x76, 0xcb, 0xef, 0x97, 0x56,
+	0x51, 0x5f, 0xb7, 0xcd, 0xbb, 0xef, 0x3c, 0x79, 0x66, 0xa0, 0x4e, 0xa1, 0x7b, 0x12, 0x57, 0xc2,
+	0x48, 0xc9, 0x58, 0xf2, 0x11, 0x54, 0x77, 0x81, 0x1f, 0x3a, 0x74, 0xbe, 0x90, 0x8e, 0x19, 0x03,
+	0xd3, 0x13, 0xb1, 0xe8, 0x1a, 0x43, 0x63, 0x5a, 0x73, 0xd2, 0x37, 0x9f, 0x81, 0x95, 0x54, 0xc8,
+	0x73, 0x48, 0x47, 0x32, 0xd4, 0xc4, 0x06, 0x00, 0x3a, 0x4d, 0xd6, 0xaf, 0x6e, 0x2e, 0xe1, 0x63,
+	0x68, 0x26, 0x13, 0xb6, 0x88, 0xdd, 0xe3, 0x37, 0xb9, 0xf8, 0x24, 0x2f, 0xa1, 0x7d, 0x27, 0x67,
+	0xcd, 0x3f, 0xf8, 0xe2, 0x3b, 0x7e, 0x7e, 0x06, 0x6b, 0x73, 0x5f, 0x62, 0x47, 0xea, 0x1a, 0xb8,
+	0xc4, 0x26, 0x60, 0x26, 0xff, 0xac, 0x86, 0xb9, 0x65, 0x7a, 0x0d, 0x7c, 0xf7, 0xe6, 0x05, 0xb6,
+	0x82, 0x8a, 0x7e, 0x98, 0xb1, 0x16, 0x7e, 0x5a, 0xf6, 0x3a, 0xf8, 0x43, 0x88, 0x17, 0xec, 0x39,
+	0xf4, 0xa5, 0xf2, 0x51, 0x04, 0x32, 0xc4, 0x83, 0x0a, 0x3c, 0x9f, 0xd0, 0x57, 0x91, 0x8b, 0xd9,
+	0x31, 0xed, 0x72, 0x26, 0xb4, 0x35, 0xf6, 0xe5, 0x2c, 0x3b, 0x94, 0xd2, 0x0b, 0x2f, 0x6e, 0x7a,
+	0x6d, 0x97, 0x6d, 0x72, 0x01, 0x00, 0x00,
 }
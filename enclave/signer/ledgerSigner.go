@@ -48,3 +48,16 @@ func (ledgerS *LedgerSigner) Sign(data []byte, ledger *ledger_goclient.Ledger) (
 	output, err := ledger.Exchange(hexString)
 	return output, err
 }
+
+func (ledgerS *LedgerSigner) SignBatch(data [][]byte, ledger *ledger_goclient.Ledger) ([][]byte, error) {
+
+	res := make([][]byte, len(data))
+	for i, d := range data {
+		sig, err := ledgerS.Sign(d, ledger)
+		if err != nil {
+			return nil, err
+		}
+		res[i] = sig
+	}
+	return res, nil
+}
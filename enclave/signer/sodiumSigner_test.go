@@ -0,0 +1,78 @@
+/*
+ * This code is licensed under the MIT License
+ *
+ * Copyright (c) 2019 Aion Foundation https://aion.network/
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package Signer
+
+import (
+	"bytes"
+	"testing"
+
+	libsodium "github.com/GoKillers/libsodium-go/cryptosign"
+)
+
+func TestSignBatchMatchesSign(t *testing.T) {
+	seed := make([]byte, libsodium.CryptoSignSeedBytes())
+	for i := range seed {
+		seed[i] = byte(i)
+	}
+	sk, pk, exit := libsodium.CryptoSignSeedKeyPair(seed)
+	if exit != 0 {
+		t.Fatalf("key pair generation failed: %d", exit)
+	}
+	signer := &LibSodiumSigner{Sk: sk}
+
+	tests := []struct {
+		name string
+		data [][]byte
+	}{
+		{"empty batch", [][]byte{}},
+		{"single payload", [][]byte{[]byte("bundle-hash-0")}},
+		{"empty payload", [][]byte{{}}},
+		{"32-byte hashes", [][]byte{bytes.Repeat([]byte{0x01}, 32), bytes.Repeat([]byte{0xfe}, 32), make([]byte, 32)}},
+		{"duplicate payloads", [][]byte{[]byte("same"), []byte("same")}},
+	}
+
+	for _, tt := range tests {
+		t.Run(tt.name, func(t *testing.T) {
+			batch, err := signer.SignBatch(tt.data)
+			if err != nil {
+				t.Fatalf("SignBatch failed: %v", err)
+			}
+			if len(batch) != len(tt.data) {
+				t.Fatalf("SignBatch returned %d signatures for %d payloads", len(batch), len(tt.data))
+			}
+			for i, d := range tt.data {
+				single, err := signer.Sign(d)
+				if err != nil {
+					t.Fatalf("Sign failed: %v", err)
+				}
+				if !bytes.Equal(batch[i], single) {
+					t.Errorf("payload %d: SignBatch = %x, Sign = %x", i, batch[i], single)
+				}
+				if libsodium.CryptoSignVerifyDetached(batch[i], d, pk) != 0 {
+					t.Errorf("payload %d: signature does not verify", i)
+				}
+			}
+		})
+	}
+}
@@ -0,0 +1,161 @@
+create database bridgev5;
+
+use bridgev5;
+
+# v5: hashes, addresses and amounts are stored as raw bytes (binary(n)) instead of hex char(2n);
+# transfers are TransferCodec bytes. Migrate v4 databases with tooling/db-migration.
+#
+# The bundle tables are range-partitioned on bundle_id. PartitionMaintenance (datastore module) splits new
+# partitions off pmax ahead of the finalized bundle id, and moves fully finalized partitions older than the
+# retention horizon into the compressed *_archive tables; range reads by bundle_id cover both. transfer_status is not
+# partitioned or archived (its primary key enforces eth_tx_hash uniqueness), so it still grows with every transfer.
+# Partitions are named after their exclusive upper bound. Upgrade an existing v5 database with
+# migrate-v5-partitions.sql.
+
+# Ethereum \/ \/ \/ \/ \/ \/ \/ 
+
+create table eth_finalized_bundle (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  eth_block_number bigint(64) unsigned not null, 
+  eth_block_hash binary(32) not null,
+  index_in_eth_block int unsigned not null,
+  transfers mediumblob not null, # TransferCodec: 1 byte version, 4 byte count, 80 bytes per transfer
+  updated timestamp default now() on update now()
+)
+partition by range columns(bundle_id) (
+  partition p100000 values less than (100000),
+  partition pmax values less than (MAXVALUE)
+);
+
+# this table is mainly for auditing and the UI
+# transfers are denormalized; the UI looks up by eth_tx_hash, the tooling reads ranges of bundle_id
+# partitioning requires bundle_id in every unique key, so eth_tx_hash uniqueness is enforced by the transfer_status
+# primary key, written in the same transaction as these rows (a repeated eth_tx_hash fails the bundle's commit)
+create table eth_transfer (
+  eth_tx_hash binary(32) not null,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  eth_address binary(20) not null,
+  aion_address binary(32) not null,
+  aion_transfer_amount binary(16) not null,
+  updated timestamp default now() on update now(),
+  primary key (eth_tx_hash, bundle_id),
+  index eth_transfer_bundle_id (bundle_id)
+)
+partition by range columns(bundle_id) (
+  partition p100000 values less than (100000),
+  partition pmax values less than (MAXVALUE)
+);
+
+create table status_eth_finalized_block (
+  integrity_keeper enum('status') primary key,
+  eth_block_number bigint(64) unsigned not null, 
+  eth_block_hash binary(32) not null,
+  updated timestamp default now() on update now()
+);
+
+create table status_eth_finalized_bundle (
+  integrity_keeper enum('status') primary key,  
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  updated timestamp default now() on update now()
+);
+
+# Aion \/ \/ \/ \/ \/ \/ \/ 
+
+create table aion_finalized_bundle (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  aion_tx_hash binary(32) not null,
+  aion_block_number bigint(64) unsigned not null,
+  aion_block_hash binary(32) not null,
+  updated timestamp default now() on update now(),
+  index aion_finalized_bundle_aion_tx_hash (aion_tx_hash)
+)
+partition by range columns(bundle_id) (
+  partition p100000 values less than (100000),
+  partition pmax values less than (MAXVALUE)
+);
+
+create table status_aion_finalized_bundle (
+  integrity_keeper enum('status') primary key,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  updated timestamp default now() on update now()
+);
+
+create table status_aion_finalized_block (
+  integrity_keeper enum('status') primary key,
+  aion_block_number bigint(64) unsigned not null, 
+  aion_block_hash binary(32) not null,
+  updated timestamp default now() on update now()
+);
+
+# one row per transfer with everything the api returns for it, so a transaction lookup is a single primary-key
+# read. Written in the same transactions as eth_transfer (stage STORED) and aion_finalized_bundle (SUBMITTED).
+# Backfill databases created before this table with migrate-v5-transfer-status.sql.
+create table transfer_status (
+  eth_tx_hash binary(32) primary key,
+  stage enum('STORED', 'SUBMITTED') not null,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  eth_block_number bigint(64) unsigned not null,
+  eth_block_hash binary(32) not null,
+  eth_address binary(20) not null,
+  aion_address binary(32) not null,
+  aion_transfer_amount binary(16) not null,
+  aion_tx_hash binary(32) null,
+  aion_block_number bigint(64) unsigned null,
+  aion_block_hash binary(32) null,
+  updated timestamp default now() on update now(),
+  index transfer_status_bundle_id (bundle_id)
+);
+
+# for UI only: to get a 'ticker' of blocks moving on aion-side
+create table status_aion_latest_block (
+  integrity_keeper enum('status') primary key,
+  aion_block_number bigint(64) unsigned not null,
+  updated timestamp default now() on update now()
+);
+
+create table status_aion_balance (
+  integrity_keeper enum('bridge', 'relayer') primary key,
+  aion_balance binary(32) not null,
+  aion_block_number bigint(64) unsigned not null,
+  updated timestamp default now() on update now()
+);
+
+# Archive \/ \/ \/ \/ \/ \/ \/
+
+# same columns (and column order) as the live tables, so partitions can be copied with insert ... select *
+create table eth_finalized_bundle_archive (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  eth_block_number bigint(64) unsigned not null,
+  eth_block_hash binary(32) not null,
+  index_in_eth_block int unsigned not null,
+  transfers mediumblob not null,
+  updated timestamp default now() on update now()
+) row_format=compressed;
+
+create table eth_transfer_archive (
+  eth_tx_hash binary(32) primary key,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  eth_address binary(20) not null,
+  aion_address binary(32) not null,
+  aion_transfer_amount binary(16) not null,
+  updated timestamp default now() on update now(),
+  index eth_transfer_archive_bundle_id (bundle_id)
+) row_format=compressed;
+
+create table aion_finalized_bundle_archive (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  aion_tx_hash binary(32) not null,
+  aion_block_number bigint(64) unsigned not null,
+  aion_block_hash binary(32) not null,
+  updated timestamp default now() on update now(),
+  index aion_finalized_bundle_archive_aion_tx_hash (aion_tx_hash)
+) row_format=compressed;
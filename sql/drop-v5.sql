@@ -0,0 +1 @@
+drop database if exists bridgev5;
\ No newline at end of file
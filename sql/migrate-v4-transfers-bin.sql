@@ -0,0 +1,13 @@
+# Adds the binary TransferCodec column next to the Jackson JSON transfers column of eth_finalized_bundle, as the
+# first step of the v4 -> v5 migration (create-v4.sql is the released schema and is left as is).
+#
+# 1. run this script; the v4 nexus keeps running and keeps writing (and reading) the JSON column
+# 2. backfill transfers_bin with the tooling/db-migration tool (`transfers`); it can run while the nexus is up and
+#    never touches the JSON column
+# 3. migrate to v5 (`v5`), online and then once more after stopping the nexus; it runs the backfill on each range of
+#    bundles right before copying it and only copies transfers_bin, which is where the JSON is dropped
+
+use bridgev4;
+
+alter table eth_finalized_bundle
+  add column transfers_bin mediumblob null after transfers;
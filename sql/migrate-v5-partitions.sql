@@ -0,0 +1,56 @@
+# Partitions the bundle tables of an existing v5 database on bundle_id and adds the archive tables.
+#
+# Every row starts out in pmax; the first PartitionMaintenance pass splits it into partitionSize ranges in a single
+# reorganize (which copies the tables once - run it in a quiet period), after which only the empty tail of pmax is
+# ever reorganized.
+
+use bridgev5;
+
+# partitioning requires bundle_id in every unique key
+alter table eth_transfer drop primary key, add primary key (eth_tx_hash, bundle_id);
+
+alter table eth_finalized_bundle partition by range columns(bundle_id) (
+  partition pmax values less than (MAXVALUE)
+);
+
+alter table eth_transfer partition by range columns(bundle_id) (
+  partition pmax values less than (MAXVALUE)
+);
+
+alter table aion_finalized_bundle partition by range columns(bundle_id) (
+  partition pmax values less than (MAXVALUE)
+);
+
+# Archive \/ \/ \/ \/ \/ \/ \/
+
+# same columns (and column order) as the live tables, so partitions can be copied with insert ... select *
+create table eth_finalized_bundle_archive (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  eth_block_number bigint(64) unsigned not null,
+  eth_block_hash binary(32) not null,
+  index_in_eth_block int unsigned not null,
+  transfers mediumblob not null,
+  updated timestamp default now() on update now()
+) row_format=compressed;
+
+create table eth_transfer_archive (
+  eth_tx_hash binary(32) primary key,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  eth_address binary(20) not null,
+  aion_address binary(32) not null,
+  aion_transfer_amount binary(16) not null,
+  updated timestamp default now() on update now(),
+  index eth_transfer_archive_bundle_id (bundle_id)
+) row_format=compressed;
+
+create table aion_finalized_bundle_archive (
+  bundle_id bigint(64) unsigned primary key,
+  bundle_hash binary(32) not null,
+  aion_tx_hash binary(32) not null,
+  aion_block_number bigint(64) unsigned not null,
+  aion_block_hash binary(32) not null,
+  updated timestamp default now() on update now(),
+  index aion_finalized_bundle_archive_aion_tx_hash (aion_tx_hash)
+) row_format=compressed;
@@ -0,0 +1,48 @@
+# Adds transfer_status to an existing v5 database and backfills it from the bundle tables (live and archived).
+#
+# 1. stop the nexus and the standby
+# 2. run this script (run migrate-v5-partitions.sql first if the archive tables do not exist)
+# 3. deploy the nexus/standby that write transfer_status
+#
+# The backfill has to be complete before the new writers start: they fail an aion finalization whose
+# transfer_status update does not find every transfer of the bundle.
+
+use bridgev5;
+
+# see create-v5.sql
+create table transfer_status (
+  eth_tx_hash binary(32) primary key,
+  stage enum('STORED', 'SUBMITTED') not null,
+  bundle_id bigint(64) unsigned not null,
+  bundle_hash binary(32) not null,
+  eth_block_number bigint(64) unsigned not null,
+  eth_block_hash binary(32) not null,
+  eth_address binary(20) not null,
+  aion_address binary(32) not null,
+  aion_transfer_amount binary(16) not null,
+  aion_tx_hash binary(32) null,
+  aion_block_number bigint(64) unsigned null,
+  aion_block_hash binary(32) null,
+  updated timestamp default now() on update now(),
+  index transfer_status_bundle_id (bundle_id)
+);
+
+insert into transfer_status
+  (eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, eth_address, aion_address,
+   aion_transfer_amount, aion_tx_hash, aion_block_number, aion_block_hash)
+select t.eth_tx_hash, if(a.bundle_id is null, 'STORED', 'SUBMITTED'), t.bundle_id, t.bundle_hash,
+       e.eth_block_number, e.eth_block_hash, t.eth_address, t.aion_address, t.aion_transfer_amount,
+       a.aion_tx_hash, a.aion_block_number, a.aion_block_hash
+from eth_transfer t
+  join eth_finalized_bundle e on t.bundle_id = e.bundle_id
+  left join aion_finalized_bundle a on t.bundle_id = a.bundle_id;
+
+insert into transfer_status
+  (eth_tx_hash, stage, bundle_id, bundle_hash, eth_block_number, eth_block_hash, eth_address, aion_address,
+   aion_transfer_amount, aion_tx_hash, aion_block_number, aion_block_hash)
+select t.eth_tx_hash, 'SUBMITTED', t.bundle_id, t.bundle_hash,
+       e.eth_block_number, e.eth_block_hash, t.eth_address, t.aion_address, t.aion_transfer_amount,
+       a.aion_tx_hash, a.aion_block_number, a.aion_block_hash
+from eth_transfer_archive t
+  join eth_finalized_bundle_archive e on t.bundle_id = e.bundle_id
+  join aion_finalized_bundle_archive a on t.bundle_id = a.bundle_id;